@@ -0,0 +1,527 @@
+package com.example.ds;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.DoubleConsumer;
+
+import javafx.animation.AnimationTimer;
+import javafx.animation.Interpolator;
+import javafx.scene.Node;
+
+/**
+ * Plays every animation in the application from a single
+ * {@link AnimationTimer}. Views submit work in three forms:
+ * <ul>
+ * <li>steps, played strictly one after another, so a view can replay the
+ * events of a model operation in the order they were emitted even though
+ * the model itself finished long ago;</li>
+ * <li>effects, such as a highlight fading back, which run alongside the
+ * steps;</li>
+ * <li>timers on the wall clock, for messages that must not depend on the
+ * animation speed.</li>
+ * </ul>
+ * Steps and effects follow the global speed multiplier and stop while
+ * paused. At most {@link #MAX_QUEUED} steps wait at a time; older ones are
+ * finished on the spot to make room, so the work per frame stays bounded
+ * however fast operations are issued.
+ * <p>
+ * Owners that can jump straight to their final state coalesce instead:
+ * they mark where each operation starts with {@link #beginOperation()},
+ * and when one arrives while more than {@link #MAX_BACKLOG_SECONDS}
+ * of earlier animation is still waiting, their pending steps are dropped
+ * and the owner catches up once per frame until operations stop arriving
+ * for {@link #RESUME_AFTER_SECONDS}. Then animation resumes.
+ * <p>
+ * Only used on the FX application thread. Views that are not showing should
+ * not submit anything and apply their changes directly instead.
+ * <p>
+ * Every step, effect and timer is reported to Flight Recorder as an
+ * {@link AnimationStepEvent} when it finishes.
+ */
+class AnimationScheduler {
+
+    /**
+     * Steps allowed to wait before the oldest are fast-forwarded. Can be
+     * overridden with {@code -Dds.maxQueuedSteps=N}.
+     */
+    static final int MAX_QUEUED = Integer.getInteger("ds.maxQueuedSteps", 256);
+
+    /**
+     * Animation time still waiting, in seconds at the current speed, above
+     * which a new operation makes its owner coalesce. Can be overridden with
+     * {@code -Dds.maxBacklogSeconds=S}.
+     */
+    static final double MAX_BACKLOG_SECONDS = Double.parseDouble(System.getProperty("ds.maxBacklogSeconds", "1"));
+
+    /**
+     * Real time without new steps after which a coalescing owner animates again.
+     */
+    static final double RESUME_AFTER_SECONDS = 0.5;
+
+    /**
+     * One piece of animation. {@link #start()} and {@link #finish()} are each
+     * called exactly once, in that order, unless the owner cancels it;
+     * {@link #update} is called in between on every frame the step is
+     * playing, and not at all if it is skipped or fast-forwarded.
+     */
+    interface Step {
+        /**
+         * @return Length in seconds at normal speed; 0 finishes it right after it starts.
+         */
+        double duration();
+
+        default void start() {
+        }
+
+        /**
+         * @param progress Eased progress, from 0 at the start to 1 at the end.
+         */
+        default void update(double progress) {
+        }
+
+        /**
+         * Must leave the final state, whether or not any frames were played.
+         */
+        default void finish() {
+        }
+    }
+
+    private static AnimationScheduler shared;
+
+    private final Deque<Entry> queue = new ArrayDeque<>();
+    private final List<Entry> effects = new ArrayList<>();
+    private final List<Entry> timers = new ArrayList<>();
+    private final Map<Object, CatchUp> coalescing = new HashMap<>();
+    private final AnimationTimer timer;
+    private Entry current;
+    private long lastFrame;
+    private boolean running;
+    private boolean draining;
+    private boolean checked; // The current operation's first step already weighed the backlog
+    private double speed = 1;
+    private boolean paused;
+
+    /**
+     * @return The scheduler all views share.
+     */
+    static AnimationScheduler shared() {
+        if (shared == null) {
+            shared = new AnimationScheduler();
+        }
+        return shared;
+    }
+
+    /**
+     * @return true if the node is in a scene, so animations and messages
+     *         on it can be seen. Off-screen panes, such as those benchmarks
+     *         lay out, skip them; there is nothing to watch.
+     */
+    static boolean isShowing(Node node) {
+        return node.getScene() != null;
+    }
+
+    AnimationScheduler() {
+        this.timer = new AnimationTimer() {
+            @Override
+            public void handle(long now) {
+                frame(now);
+            }
+        };
+    }
+
+    /**
+     * A step that does its work at once.
+     */
+    static Step instant(Runnable action) {
+        return new Step() {
+            @Override
+            public double duration() {
+                return 0;
+            }
+
+            @Override
+            public void finish() {
+                action.run();
+            }
+        };
+    }
+
+    /**
+     * A step that only waits, then does its work.
+     */
+    static Step delay(double seconds, Runnable action) {
+        return new Step() {
+            @Override
+            public double duration() {
+                return seconds;
+            }
+
+            @Override
+            public void finish() {
+                action.run();
+            }
+        };
+    }
+
+    /**
+     * A step that reports its progress on every frame; {@code action} runs
+     * when it ends.
+     */
+    static Step tween(double seconds, DoubleConsumer update, Runnable action) {
+        return new Step() {
+            @Override
+            public double duration() {
+                return seconds;
+            }
+
+            @Override
+            public void update(double progress) {
+                update.accept(progress);
+            }
+
+            @Override
+            public void finish() {
+                action.run();
+            }
+        };
+    }
+
+    /**
+     * Marks the start of an operation: the next step queued with a catch-up
+     * action decides whether its owner should coalesce, and the steps after
+     * it in the same operation follow that decision. Called by views before
+     * each operation, however many arrive within one frame.
+     */
+    void beginOperation() {
+        checked = false;
+    }
+
+    /**
+     * Queues a step behind every step submitted before it.
+     *
+     * @param owner Whatever the step belongs to, for {@link #cancel}.
+     */
+    void enqueue(Object owner, Step step) {
+        enqueue(owner, step, null);
+    }
+
+    /**
+     * Queues a step for an owner that can coalesce.
+     *
+     * @param catchUp Brings the owner straight to its final state; used
+     *                instead of the steps while operations arrive faster
+     *                than they can be shown.
+     */
+    void enqueue(Object owner, Step step, Runnable catchUp) {
+        CatchUp pending = coalescing.get(owner);
+        if (pending != null) {
+            pending.due = true; // The next frame catches up with this step too
+            pending.quiet = 0;
+            return;
+        }
+        if (catchUp != null && !checked && !paused && backlog() > MAX_BACKLOG_SECONDS) {
+            // A new operation while the previous ones are still far from shown
+            cancel(owner);
+            coalescing.put(owner, new CatchUp(catchUp));
+            wake();
+            return;
+        }
+        checked = true;
+        queue.add(new Entry(owner, step, "step"));
+        while (!draining && queue.size() > MAX_QUEUED) {
+            // Falling behind; catch up by finishing the oldest without frames
+            if (current != null) {
+                current.finish();
+                current = null;
+            }
+            Entry oldest = queue.poll();
+            oldest.start(queue.size());
+            oldest.finish();
+        }
+        if (current == null && !paused) {
+            advance(0);
+        }
+        wake();
+    }
+
+    /**
+     * Starts an effect now, alongside any steps.
+     */
+    void play(Step effect) {
+        Entry entry = new Entry(null, effect, "effect");
+        entry.start(queue.size());
+        if (effect.duration() <= 0) {
+            entry.finish();
+            return;
+        }
+        effects.add(entry);
+        wake();
+    }
+
+    /**
+     * Runs an action after the given number of real seconds, regardless of
+     * speed or pause.
+     */
+    void after(double seconds, Runnable action) {
+        Entry entry = new Entry(null, delay(seconds, action), "timer");
+        entry.start(queue.size());
+        timers.add(entry);
+        wake();
+    }
+
+    /**
+     * Drops every step of the owner that has not finished, without finishing it.
+     */
+    void cancel(Object owner) {
+        coalescing.remove(owner);
+        queue.removeIf(entry -> entry.owner == owner);
+        if (current != null && current.owner == owner) {
+            current = null;
+            if (!paused) {
+                advance(0);
+            }
+        }
+    }
+
+    /**
+     * @param speed Playback rate of steps and effects; 2 plays them twice as fast.
+     */
+    void setSpeed(double speed) {
+        if (speed <= 0) {
+            throw new IllegalArgumentException("Speed must be positive: " + speed);
+        }
+        this.speed = speed;
+    }
+
+    double getSpeed() {
+        return speed;
+    }
+
+    void setPaused(boolean paused) {
+        this.paused = paused;
+        if (!paused && current == null) {
+            advance(0);
+        }
+        wake();
+    }
+
+    boolean isPaused() {
+        return paused;
+    }
+
+    /**
+     * Finishes the step now playing and starts the next one. Meant for use
+     * while paused.
+     */
+    void step() {
+        if (current != null) {
+            current.finish();
+            current = null;
+        }
+        advance(0);
+    }
+
+    /**
+     * Finishes every queued step and running effect at once.
+     */
+    void skip() {
+        if (current != null) {
+            current.finish();
+            current = null;
+        }
+        while (!queue.isEmpty()) {
+            Entry entry = queue.poll();
+            entry.start(queue.size());
+            entry.finish();
+        }
+        List<Entry> running = new ArrayList<>(effects);
+        effects.clear();
+        for (Entry entry : running) {
+            entry.finish();
+        }
+    }
+
+    /**
+     * @return Whether no step is playing or waiting.
+     */
+    boolean isIdle() {
+        return current == null && queue.isEmpty();
+    }
+
+    /**
+     * @return Whether the owner is skipping its animations to keep up.
+     */
+    boolean isCoalescing(Object owner) {
+        return coalescing.containsKey(owner);
+    }
+
+    private void frame(long now) {
+        double elapsed = lastFrame == 0 ? 0 : (now - lastFrame) / 1e9;
+        lastFrame = now;
+        catchUp(elapsed);
+        tick(timers, elapsed);
+        if (!paused) {
+            tick(effects, elapsed * speed);
+            advance(elapsed * speed);
+        }
+        if (timers.isEmpty() && coalescing.isEmpty() && (paused || (effects.isEmpty() && isIdle()))) {
+            timer.stop();
+            running = false;
+            lastFrame = 0;
+        }
+    }
+
+    // Brings coalescing owners up to date, at most once per frame each
+    private void catchUp(double elapsed) {
+        if (coalescing.isEmpty()) {
+            return;
+        }
+        List<Runnable> due = new ArrayList<>();
+        for (Iterator<CatchUp> it = coalescing.values().iterator(); it.hasNext();) {
+            CatchUp pending = it.next();
+            if (pending.due) {
+                pending.due = false;
+                due.add(pending.action);
+            } else if ((pending.quiet += elapsed) >= RESUME_AFTER_SECONDS) {
+                it.remove(); // Operations stopped arriving; animate the next one again
+            }
+        }
+        for (Runnable action : due) {
+            action.run();
+        }
+    }
+
+    // Seconds of animation still waiting, at the current speed
+    private double backlog() {
+        double seconds = 0;
+        if (current != null) {
+            seconds += Math.max(0, current.step.duration() - current.elapsed);
+        }
+        for (Entry entry : queue) {
+            seconds += entry.step.duration();
+        }
+        return seconds / speed;
+    }
+
+    // Moves the step sequence forward by the given animation time, starting as many steps as it covers
+    private void advance(double time) {
+        if (draining) {
+            return; // A step's start or finish submitted another; the loop below picks it up
+        }
+        draining = true;
+        try {
+            while (true) {
+                if (current == null) {
+                    current = queue.poll();
+                    if (current == null) {
+                        return;
+                    }
+                    current.start(queue.size());
+                }
+                double duration = current.step.duration();
+                current.elapsed += time;
+                if (current.elapsed < duration) {
+                    current.update(ease(current.elapsed / duration));
+                    return;
+                }
+                time = duration > 0 ? current.elapsed - duration : time;
+                Entry done = current;
+                current = null;
+                done.finish();
+                if (paused) {
+                    return; // Single-stepping; the next step waits for the next call
+                }
+            }
+        } finally {
+            draining = false;
+        }
+    }
+
+    private static void tick(List<Entry> entries, double time) {
+        if (entries.isEmpty()) {
+            return;
+        }
+        // Finishing may add entries; those wait for the next frame
+        List<Entry> done = new ArrayList<>();
+        for (Iterator<Entry> it = entries.iterator(); it.hasNext();) {
+            Entry entry = it.next();
+            entry.elapsed += time;
+            double duration = entry.step.duration();
+            if (entry.elapsed >= duration) {
+                it.remove();
+                done.add(entry);
+            } else {
+                entry.update(ease(entry.elapsed / duration));
+            }
+        }
+        for (Entry entry : done) {
+            entry.finish();
+        }
+    }
+
+    private static double ease(double fraction) {
+        return Interpolator.EASE_BOTH.interpolate(0.0, 1.0, fraction);
+    }
+
+    private void wake() {
+        if (!running && (!timers.isEmpty() || !coalescing.isEmpty()
+                || (!paused && (!effects.isEmpty() || !isIdle())))) {
+            running = true;
+            timer.start();
+        }
+    }
+
+    // An owner skipping its animations, and whether it has fallen behind since the last frame
+    private static final class CatchUp {
+        final Runnable action;
+        boolean due = true;
+        double quiet; // Real seconds since its last step arrived
+
+        CatchUp(Runnable action) {
+            this.action = action;
+        }
+    }
+
+    // A submitted step with its owner and how far it has played
+    private static final class Entry {
+        final Object owner;
+        final Step step;
+        final String kind;
+        final AnimationStepEvent event = new AnimationStepEvent();
+        double elapsed;
+
+        Entry(Object owner, Step step, String kind) {
+            this.owner = owner;
+            this.step = step;
+            this.kind = kind;
+        }
+
+        void start(int queued) {
+            event.queued = queued;
+            event.begin();
+            step.start();
+        }
+
+        void update(double progress) {
+            event.frames++;
+            step.update(progress);
+        }
+
+        void finish() {
+            step.finish();
+            event.end();
+            if (event.shouldCommit()) {
+                event.kind = kind;
+                event.owner = owner == null ? null : owner.getClass().getSimpleName();
+                event.step = step.getClass().getName();
+                event.length = step.duration();
+                event.commit();
+            }
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.ds;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event spanning one piece of work played by the
+ * {@link AnimationScheduler}, from its start to its finish. A step that was
+ * fast-forwarded or skipped shows zero frames.
+ */
+@Name("com.example.ds.AnimationStep")
+@Label("Animation Step")
+@Category({ "Data Structure Visualizer", "Animation" })
+@Description("A step, effect or timer played by the animation scheduler")
+@StackTrace(false)
+class AnimationStepEvent extends Event {
+
+    @Label("Kind")
+    @Description("step, effect or timer")
+    String kind;
+
+    @Label("Owner")
+    @Description("Class of the view the step belongs to, if any")
+    String owner;
+
+    @Label("Step")
+    @Description("Class of the step")
+    String step;
+
+    @Label("Length")
+    @Description("Nominal length in seconds at normal speed")
+    double length;
+
+    @Label("Frames")
+    @Description("Frames the step was updated on")
+    int frames;
+
+    @Label("Queued Steps")
+    @Description("Steps waiting behind it when it started")
+    int queued;
+}
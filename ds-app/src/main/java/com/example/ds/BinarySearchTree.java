@@ -0,0 +1,690 @@
+package com.example.ds;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javafx.event.EventHandler;
+import javafx.scene.Group;
+import javafx.scene.control.Label;
+import javafx.scene.input.ScrollEvent;
+import javafx.scene.input.ZoomEvent;
+import javafx.scene.layout.Pane;
+import javafx.scene.paint.Color;
+import javafx.scene.shape.Circle;
+import javafx.scene.shape.Line;
+import javafx.scene.transform.Scale;
+import javafx.scene.transform.Translate;
+
+import com.example.ds.core.BstModel;
+import com.example.ds.core.Highlight;
+import com.example.ds.core.KeyFileReader;
+import com.example.ds.core.Snapshot;
+import com.example.ds.core.StructureListener;
+
+public class BinarySearchTree implements StructureListener {
+    private BstModel tree;
+    private Pane canvas;
+    private Map<Integer, Node> allNodes;
+    // Edges sit in their own layer under the circles, and labels over them so they can be hidden at once
+    private Group layers, edgeLayer, nodeLayer, labelLayer;
+    // Keys whose parent or colour may have changed since they were last drawn; repeats are harmless
+    private List<Integer> staleEdges, staleColors;
+    private TidyTreeLayout layout;
+    // User pan and zoom, applied on top of the layout as one transform
+    private double zoom = 1, panX, panY, originX;
+    private Translate viewTranslate = new Translate();
+    private Scale viewScale = new Scale();
+    // Pan and zoom handlers on the shared pane, taken off again by dispose()
+    private final EventHandler<ScrollEvent> onScroll;
+    private final EventHandler<ZoomEvent> onZoom;
+    private AnimationScheduler scheduler = AnimationScheduler.shared();
+    private final OpStats stats = OpStats.shared();
+    private static final double RADIUS = 20;
+    //private static final double HORIZONTAL_SPACING = 60;
+    private static final double VERTICAL_SPACING = 80;
+    private static final double LEFT_MARGIN = 50;
+    private static final double TOP_MARGIN = 50;
+    private static final double ROTATION_DURATION = 0.4;
+    private static final double SIBLING_GAP = 2 * RADIUS + 10;
+    // Zoomed out, the canvas draws distant subtrees as summaries, so the whole of a big tree can be shown
+    private static final double MIN_ZOOM = 0.001, MAX_ZOOM = 4;
+    private boolean rotatedDuringOperation;
+    private boolean bulkLoading; // A batch is being inserted; events are ignored and the tree is redrawn after
+    // Draws the tree once it outgrows canvasThreshold; null while nodes are retained
+    private CanvasRenderer renderer;
+    private int canvasThreshold = CanvasRenderer.DEFAULT_THRESHOLD;
+    private Map<Integer, Integer> canvasIds = new HashMap<>(); // Key to renderer id
+    private int[] canvasKeys = new int[0]; // Renderer id to key
+    private Deque<Integer> freeIds = new ArrayDeque<>();
+
+    public BinarySearchTree(Pane canvas) {
+        this(canvas, BstModel.Balance.NONE);
+    }
+
+    /**
+     * @param balance Whether the tree stays plain, AVL-balanced or red-black.
+     */
+    public BinarySearchTree(Pane canvas, BstModel.Balance balance) {
+        this.canvas = canvas;
+        this.tree = new BstModel(balance);
+        this.allNodes = new HashMap<>();
+        this.edgeLayer = new Group();
+        this.nodeLayer = new Group();
+        this.labelLayer = new Group();
+        this.layers = new Group(edgeLayer, nodeLayer, labelLayer);
+        this.layers.getTransforms().setAll(viewTranslate, viewScale);
+        this.staleEdges = new ArrayList<>();
+        this.staleColors = new ArrayList<>();
+        this.layout = new TidyTreeLayout(SIBLING_GAP);
+        tree.addListener(this);
+
+        // Wheel pans, Ctrl+wheel or a pinch zooms around the pointer
+        onScroll = e -> {
+            if (!isOnScreen()) {
+                return;
+            }
+            if (e.isControlDown()) {
+                zoomAt(e.getX(), e.getY(), Math.pow(1.1, e.getDeltaY() / 40));
+            } else {
+                panX += e.getDeltaX();
+                panY += e.getDeltaY();
+                applyView();
+            }
+            e.consume();
+        };
+        onZoom = e -> {
+            if (isOnScreen()) {
+                zoomAt(e.getX(), e.getY(), e.getZoomFactor());
+                e.consume();
+            }
+        };
+        canvas.addEventHandler(ScrollEvent.SCROLL, onScroll);
+        canvas.addEventHandler(ZoomEvent.ZOOM, onZoom);
+    }
+
+    public void insert(int value) {
+        tree.insert(value);
+        if (!syncRenderer()) {
+            updatePositions();
+        }
+    }
+
+    /**
+     * Inserts every key, then lays the tree out once, jumping straight to
+     * the final shape. A batch that takes the tree onto the canvas skips the
+     * retained nodes it would only throw away.
+     *
+     * @param keys The keys to insert, in order; duplicates are ignored.
+     */
+    public void insertAll(int[] keys) {
+        if (renderer != null || tree.size() + (long) keys.length <= canvasThreshold) {
+            tree.insertAll(keys);
+            rotatedDuringOperation = false;
+            updatePositions();
+            return;
+        }
+        bulkLoading = true;
+        try {
+            tree.insertAll(keys);
+        } finally {
+            bulkLoading = false;
+        }
+        if (!syncRenderer()) {
+            cleared(); // The retained nodes missed the batch
+            redrawFromModel();
+        }
+    }
+
+    /**
+     * Prepares to stream a key file into the tree on a background thread.
+     * Leave the tree alone from the moment the returned task is started
+     * until it has ended; it is then redrawn once.
+     *
+     * @param reader The file to read.
+     * @param limit  Most keys to add; {@link Long#MAX_VALUE} for the whole file.
+     * @return The load, not yet started.
+     */
+    public KeyLoadTask load(KeyFileReader reader, long limit) {
+        bulkLoading = true;
+        return new KeyLoadTask(reader, limit, tree::insertAll, () -> {
+            bulkLoading = false;
+            if (!syncRenderer()) {
+                cleared();
+                redrawFromModel();
+            }
+        });
+    }
+
+    /**
+     * Replaces the tree with a saved one, laid out once in its final shape.
+     *
+     * @param snapshot A snapshot of a tree with this balancing scheme.
+     * @throws IllegalArgumentException if it is not one.
+     */
+    public void restore(Snapshot snapshot) {
+        bulkLoading = true;
+        try {
+            snapshot.restore(tree);
+        } finally {
+            bulkLoading = false;
+        }
+        if (!syncRenderer()) {
+            cleared();
+            redrawFromModel();
+        }
+    }
+
+    public void delete(int value) {
+        if (!tree.delete(value)) {
+            showWarning("Value " + value + " not found in BST");
+        }
+        if (!syncRenderer()) {
+            updatePositions();
+        }
+    }
+
+    public void search(int value) {
+        if (!tree.search(value)) {
+            showWarning("Value " + value + " not found in BST");
+        }
+    }
+
+    public void clear() {
+        tree.clear();
+        syncRenderer();
+        zoom = 1;
+        panX = panY = 0;
+    }
+
+    /**
+     * Empties the tree and takes its handlers off the pane, for a tree that
+     * is being replaced by a new one on the same pane.
+     */
+    public void dispose() {
+        clear();
+        canvas.removeEventHandler(ScrollEvent.SCROLL, onScroll);
+        canvas.removeEventHandler(ZoomEvent.ZOOM, onZoom);
+    }
+
+    /**
+     * Sets the size above which the tree is painted on a single canvas instead
+     * of one node per key. It switches back once the tree shrinks to half of
+     * that.
+     *
+     * @param threshold The key count.
+     */
+    public void setCanvasThreshold(int threshold) {
+        canvasThreshold = threshold;
+        syncRenderer();
+    }
+
+    public int getCanvasThreshold() {
+        return canvasThreshold;
+    }
+
+    public BstModel getModel() {
+        return tree;
+    }
+
+    public BstModel.Balance getBalance() {
+        return tree.getBalance();
+    }
+
+    @Override
+    public void inserted(int key) {
+        if (bulkLoading) {
+            return;
+        }
+        layout.invalidate(key);
+        staleEdges.add(key);
+        staleColors.add(key);
+        if (renderer != null) {
+            int id = freeIds.isEmpty() ? canvasIds.size() : freeIds.pop();
+            canvasIds.put(key, id);
+            if (id >= canvasKeys.length) {
+                canvasKeys = Arrays.copyOf(canvasKeys, Math.max(16, 2 * id));
+            }
+            canvasKeys[id] = key;
+            renderer.setText(id, String.valueOf(key));
+            return;
+        }
+        Node newNode = new Node(key);
+        allNodes.put(key, newNode);
+        if (layers.getParent() != canvas) {
+            canvas.getChildren().add(layers); // First node, or the pane was cleared
+        }
+        nodeLayer.getChildren().add(newNode.circle);
+        labelLayer.getChildren().add(newNode.label);
+    }
+
+    @Override
+    public void removed(int key) {
+        layout.remove(key);
+        if (renderer != null) {
+            int id = canvasIds.remove(key);
+            renderer.remove(id);
+            freeIds.push(id);
+            return;
+        }
+        Node node = allNodes.remove(key);
+        hideEdge(node);
+        if (!AnimationScheduler.isShowing(canvas)) {
+            removeVisuals(node);
+            return;
+        }
+        scheduler.play(AnimationScheduler.delay(0.5, () -> removeVisuals(node)));
+    }
+
+    @Override
+    public void linked(int parent, int child) {
+        if (bulkLoading) {
+            return;
+        }
+        layout.invalidate(parent);
+        staleEdges.add(child);
+    }
+
+    @Override
+    public void unlinked(int parent, int child) {
+        if (bulkLoading) {
+            return;
+        }
+        layout.invalidate(parent);
+        staleEdges.add(child);
+    }
+
+    @Override
+    public void recolored(int key) {
+        if (bulkLoading) {
+            return;
+        }
+        staleColors.add(key);
+    }
+
+    @Override
+    public void rotated(int parent, int child) {
+        if (bulkLoading) {
+            return;
+        }
+        rotatedDuringOperation = true; // Glide into the new shape instead of jumping
+    }
+
+    @Override
+    public void highlighted(int key, Highlight kind) {
+        if (renderer != null) {
+            renderer.flash(canvasIds.get(key), kind == Highlight.REMOVED ? Color.RED : Color.GREEN);
+            return;
+        }
+        highlightNode(allNodes.get(key).circle, kind == Highlight.REMOVED ? Color.RED : Color.GREEN);
+    }
+
+    @Override
+    public void cleared() {
+        layout.clear();
+        staleEdges.clear();
+        staleColors.clear();
+        if (renderer != null) {
+            renderer.clear();
+            canvasIds.clear();
+            freeIds.clear();
+            return;
+        }
+        edgeLayer.getChildren().clear();
+        nodeLayer.getChildren().clear();
+        labelLayer.getChildren().clear();
+        allNodes.clear();
+    }
+
+    /**
+     * Moves between retained nodes and the canvas renderer when the tree
+     * crosses the threshold.
+     *
+     * @return Whether the tree was just redrawn from the model.
+     */
+    private boolean syncRenderer() {
+        boolean toCanvas = renderer == null && tree.size() > canvasThreshold;
+        boolean toNodes = renderer != null && tree.size() <= canvasThreshold / 2;
+        if (!toCanvas && !toNodes) {
+            return false;
+        }
+        cleared(); // Drops whichever visuals are showing now
+        if (toCanvas) {
+            renderer = new CanvasRenderer(canvas, Color.GRAY, 2);
+            renderer.setRadius(RADIUS);
+            renderer.setTree(new CanvasTree());
+            renderer.attach();
+        } else {
+            renderer.detach();
+            renderer = null;
+        }
+        redrawFromModel();
+        return true;
+    }
+
+    /**
+     * Creates the visuals for every key in the model and lays them out.
+     */
+    private void redrawFromModel() {
+        // Recreate the visuals for every key through the usual listener path
+        Deque<BstModel.Node> pending = new ArrayDeque<>();
+        if (tree.getRoot() != null) {
+            pending.push(tree.getRoot());
+        }
+        while (!pending.isEmpty()) {
+            BstModel.Node modelNode = pending.pop();
+            inserted(modelNode.key());
+            if (modelNode.left() != null) {
+                pending.push(modelNode.left());
+            }
+            if (modelNode.right() != null) {
+                pending.push(modelNode.right());
+            }
+        }
+        rotatedDuringOperation = false;
+        layout.invalidateAll(); // One O(n) pass instead of a path walk per key
+        updatePositions();
+    }
+
+    /**
+     * Brings the visuals in line with the model after an operation. Only nodes
+     * the tidy layout reports as moved, and edges and colours named by model
+     * events, are touched.
+     */
+    private void updatePositions() {
+        long start = stats.start();
+        LayoutEvent pass = LayoutEvent.start("BinarySearchTree", "updatePositions");
+        boolean animate = rotatedDuringOperation && AnimationScheduler.isShowing(canvas) && renderer == null;
+        rotatedDuringOperation = false;
+        List<Glide> glides = new ArrayList<>();
+        layout.update(tree, (modelNode, x, depth) -> {
+            pass.elements++;
+            place(modelNode.key(), x, TOP_MARGIN + depth * VERTICAL_SPACING, animate, glides);
+        });
+        drawLines();
+        drawColors();
+        applyView();
+        pass.end(tree.size());
+        stats.layoutTime(start);
+
+        if (!glides.isEmpty()) {
+            scheduler.play(AnimationScheduler.tween(ROTATION_DURATION,
+                    progress -> glides.forEach(glide -> glide.at(progress)),
+                    () -> glides.forEach(glide -> glide.at(1))));
+        }
+    }
+
+    // Moves one node, gliding it there if a rotation reshaped the tree
+    private void place(int key, double x, double y, boolean animate, List<Glide> glides) {
+        if (renderer != null) {
+            renderer.setPosition(canvasIds.get(key), x, y);
+            return;
+        }
+        Node node = allNodes.get(key);
+        if (animate && node.placed) {
+            glides.add(new Glide(node, x, y));
+        } else {
+            node.moveTo(x, y);
+            node.placed = true;
+        }
+    }
+
+    private void drawColors() {
+        for (int key : staleColors) {
+            BstModel.Node modelNode = tree.getNode(key);
+            if (modelNode == null) {
+                continue;
+            }
+            Color fill = tree.getBalance() != BstModel.Balance.RED_BLACK ? Color.LIGHTBLUE
+                    : modelNode.isRed() ? Color.LIGHTCORAL : Color.DARKGRAY;
+            if (renderer != null) {
+                renderer.setFill(canvasIds.get(key), fill);
+            } else {
+                allNodes.get(key).circle.setFill(fill);
+            }
+        }
+        staleColors.clear();
+    }
+
+    /**
+     * Positions the whole drawing: a tree narrower than the pane is centred,
+     * a wider one starts at the left margin, and the user's pan and zoom
+     * apply on top.
+     */
+    private void applyView() {
+        double left = layout.getLeftExtent(), width = layout.getRightExtent() - left;
+        originX = width + 2 * LEFT_MARGIN <= canvas.getWidth()
+                ? (canvas.getWidth() - width) / 2 - left
+                : LEFT_MARGIN - left;
+        double tx = panX + zoom * originX;
+        if (renderer != null) {
+            renderer.setView(zoom, tx, panY);
+        } else {
+            viewTranslate.setX(tx);
+            viewTranslate.setY(panY);
+            viewScale.setX(zoom);
+            viewScale.setY(zoom);
+            labelLayer.setVisible(zoom * RADIUS >= CanvasRenderer.LABEL_MIN_RADIUS); // Unreadable below that
+        }
+    }
+
+    // Scales by factor while keeping the point under (x, y) where it is
+    private void zoomAt(double x, double y, double factor) {
+        double newZoom = Math.max(MIN_ZOOM, Math.min(MAX_ZOOM, zoom * factor));
+        double tx = panX + zoom * originX;
+        tx = x - newZoom / zoom * (x - tx);
+        panY = y - newZoom / zoom * (y - panY);
+        zoom = newZoom;
+        panX = tx - zoom * originX;
+        applyView();
+    }
+
+    // Whether this tree is what the pane currently shows; another mode clears the pane
+    private boolean isOnScreen() {
+        return !tree.isEmpty() && (renderer != null ? renderer.isAttached() : layers.getParent() == canvas);
+    }
+
+    /**
+     * Rebinds the edges of keys reported by linked/unlinked events since the
+     * last call. Every other edge already follows its two circles.
+     */
+    private void drawLines() {
+        long start = stats.start();
+        LayoutEvent pass = LayoutEvent.start("BinarySearchTree", "drawLines");
+        pass.elements = staleEdges.size();
+        if (renderer != null) {
+            for (int key : staleEdges) {
+                BstModel.Node modelNode = tree.getNode(key);
+                if (modelNode != null) {
+                    BstModel.Node parent = modelNode.parent();
+                    renderer.setParent(canvasIds.get(key), parent == null ? -1 : canvasIds.get(parent.key()));
+                }
+            }
+            staleEdges.clear();
+            pass.end(tree.size());
+            stats.edgeTime(start);
+            return;
+        }
+        for (int key : staleEdges) {
+            Node node = allNodes.get(key);
+            BstModel.Node modelNode = tree.getNode(key);
+            if (node == null || modelNode == null) {
+                continue; // Removed since the event
+            }
+            BstModel.Node modelParent = modelNode.parent();
+            if (modelParent == null) {
+                hideEdge(node);
+                continue;
+            }
+            Node parent = allNodes.get(modelParent.key());
+            if (node.edgeShown && node.edgeParent == parent) {
+                continue;
+            }
+
+            // Create or update line to parent
+            if (node.lineToParent == null) {
+                node.lineToParent = new Line();
+                node.lineToParent.setStroke(Color.GRAY);
+                node.lineToParent.setStrokeWidth(2);
+            }
+
+            // Bind the ends to the circles so edges follow nodes while they glide
+            node.lineToParent.startXProperty().bind(parent.circle.centerXProperty());
+            node.lineToParent.startYProperty().bind(parent.circle.centerYProperty());
+            node.lineToParent.endXProperty().bind(node.circle.centerXProperty());
+            node.lineToParent.endYProperty().bind(node.circle.centerYProperty());
+            node.edgeParent = parent;
+
+            if (!node.edgeShown) {
+                edgeLayer.getChildren().add(node.lineToParent);
+                node.edgeShown = true;
+            }
+        }
+        staleEdges.clear();
+        pass.end(tree.size());
+        stats.edgeTime(start);
+    }
+
+    private void removeVisuals(Node node) {
+        nodeLayer.getChildren().remove(node.circle);
+        labelLayer.getChildren().remove(node.label);
+    }
+
+    // Takes a node's edge off the edge layer, if it is on it
+    private void hideEdge(Node node) {
+        if (!node.edgeShown) {
+            return;
+        }
+        unbindLine(node.lineToParent);
+        edgeLayer.getChildren().remove(node.lineToParent);
+        node.edgeShown = false;
+        node.edgeParent = null;
+    }
+
+    private static void unbindLine(Line line) {
+        line.startXProperty().unbind();
+        line.startYProperty().unbind();
+        line.endXProperty().unbind();
+        line.endYProperty().unbind();
+    }
+
+    private void highlightNode(Circle circle, Color color) {
+        if (!AnimationScheduler.isShowing(canvas)) {
+            return;
+        }
+        Color original = (Color) circle.getFill();
+        circle.setFill(color);
+        scheduler.play(AnimationScheduler.delay(0.5, () -> circle.setFill(original)));
+    }
+
+    private void showWarning(String msg) {
+        if (!AnimationScheduler.isShowing(canvas)) {
+            return;
+        }
+        Label warning = new Label(msg);
+        warning.setStyle(
+                "-fx-background-color: #ffeb3b; " +
+                        "-fx-text-fill: #d32f2f; " +
+                        "-fx-padding: 8; " +
+                        "-fx-border-radius: 4; " +
+                        "-fx-background-radius: 4;");
+        warning.setLayoutX(10);
+        warning.setLayoutY(10);
+        canvas.getChildren().add(warning);
+        scheduler.after(2, () -> canvas.getChildren().remove(warning));
+    }
+
+    // Visuals for one model node, looked up by key
+    private class Node {
+        Circle circle;
+        Label label;
+        Line lineToParent;
+        Node edgeParent; // Node lineToParent is bound to
+        boolean edgeShown; // lineToParent is on the edge layer
+        boolean placed; // Has been laid out at least once
+
+        Node(int value) {
+            this.circle = new Circle(RADIUS);
+            this.circle.setFill(Color.LIGHTBLUE);
+            this.circle.setStroke(Color.BLACK);
+            this.label = new Label(String.valueOf(value));
+            this.label.setStyle("-fx-font-size: 12px; -fx-font-weight: bold;");
+            this.lineToParent = null; // Will be created when needed
+        }
+
+        void moveTo(double x, double y) {
+            circle.setCenterX(x);
+            circle.setCenterY(y);
+            label.setLayoutX(x - 6);
+            label.setLayoutY(y - 6);
+        }
+    }
+
+    // The tree's shape for the canvas, read from the model and the tidy layout's subtree summaries
+    private final class CanvasTree implements CanvasRenderer.Tree {
+        @Override
+        public int root() {
+            if (bulkLoading || tree.getRoot() == null) {
+                return -1; // A loader thread may be changing the model; the tree is redrawn after
+            }
+            return canvasIds.get(tree.getRoot().key());
+        }
+
+        @Override
+        public int childCount(int id) {
+            return 2;
+        }
+
+        @Override
+        public int child(int id, int n) {
+            BstModel.Node node = tree.getNode(canvasKeys[id]);
+            BstModel.Node child = node == null ? null : n == 0 ? node.left() : node.right();
+            return child == null ? -1 : canvasIds.get(child.key());
+        }
+
+        @Override
+        public double left(int id) {
+            return layout.left(canvasKeys[id]) - SIBLING_GAP / 2;
+        }
+
+        @Override
+        public double right(int id) {
+            return layout.right(canvasKeys[id]) + SIBLING_GAP / 2;
+        }
+
+        @Override
+        public double bottom(int id) {
+            int key = canvasKeys[id];
+            return TOP_MARGIN + (layout.depth(key) + layout.height(key) - 1) * VERTICAL_SPACING;
+        }
+
+        @Override
+        public String[] summary(int id) {
+            int key = canvasKeys[id];
+            return new String[] { layout.size(key) + " keys", layout.minKey(key) + ".." + layout.maxKey(key),
+                    "height " + layout.height(key) };
+        }
+    }
+
+    // One node sliding from where it is to its new place
+    private static final class Glide {
+        private final Node node;
+        private final double fromX, fromY, toX, toY;
+
+        Glide(Node node, double toX, double toY) {
+            this.node = node;
+            this.fromX = node.circle.getCenterX();
+            this.fromY = node.circle.getCenterY();
+            this.toX = toX;
+            this.toY = toY;
+        }
+
+        void at(double progress) {
+            node.moveTo(fromX + (toX - fromX) * progress, fromY + (toY - fromY) * progress);
+        }
+    }
+}
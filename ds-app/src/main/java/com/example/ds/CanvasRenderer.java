@@ -0,0 +1,970 @@
+package com.example.ds;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import javafx.animation.AnimationTimer;
+import javafx.geometry.VPos;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.layout.Pane;
+import javafx.scene.paint.Color;
+import javafx.scene.text.Font;
+import javafx.scene.text.FontWeight;
+import javafx.scene.text.TextAlignment;
+
+/**
+ * Immediate-mode backend for structures too big for one Circle, Label and
+ * Line per element. A view describes its nodes by integer id (text, position,
+ * fill and the id of the node its edge leads to) and this class paints them
+ * onto a single {@link Canvas}.
+ * <p>
+ * Nothing is drawn when a setter is called; it only records which nodes it
+ * touched. Once per pulse those nodes are compared with what was last
+ * painted, and only the rectangles covering nodes or edges that changed are
+ * cleared and repainted. A uniform grid over what is painted finds the
+ * nodes and edges near each rectangle, so a pulse after a small change
+ * costs little however many nodes there are.
+ * <p>
+ * Positions are in the view's own coordinates; {@link #setView} maps them to
+ * the screen, and only what falls inside the pane is drawn.
+ * <p>
+ * A view drawing a tree can also describe its shape with {@link #setTree}.
+ * Every repaint then walks down from the root, or each root of a forest, skipping subtrees that are
+ * off-screen and drawing those too narrow to tell their nodes apart as a
+ * single summary glyph, so its cost follows what is visible rather than the
+ * size of the tree.
+ */
+class CanvasRenderer {
+
+    /**
+     * Element count above which views switch to this renderer. Can be
+     * overridden with {@code -Dds.canvasThreshold=N} or per view.
+     */
+    static final int DEFAULT_THRESHOLD = Integer.getInteger("ds.canvasThreshold", 2000);
+
+    // Beyond this many separate dirty rectangles per pulse they are merged into one
+    private static final int MAX_DIRTY_RECTS = 16;
+    // Labels are skipped once circles get smaller than this on screen; they would not fit
+    static final double LABEL_MIN_RADIUS = 8;
+    // A subtree narrower than this on screen is drawn as one glyph instead of its nodes
+    private static final double COLLAPSE_WIDTH = 40;
+    private static final double SUMMARY_LINE_HEIGHT = 14;
+    private static final Color GLYPH_FILL = Color.gray(0.88);
+    private static final double LABEL_CHAR_WIDTH = 7;
+    private static final Font LABEL_FONT = Font.font("System", FontWeight.BOLD, 12);
+    // Side of a grid cell, in node coordinates
+    private static final double GRID_CELL = 128;
+    // A node whose box and edge span more cells than this goes into the wide list instead
+    private static final int MAX_CELLS_PER_ENTRY = 16;
+
+    private final Pane pane;
+    private final Canvas canvas;
+    private final Color edgeColor;
+    private final double edgeWidth;
+    private final AnimationTimer pulse;
+    private double radius = 20;
+    private double scaleX = 1, scaleY = 1, translateX, translateY;
+    private Tree tree; // Shape of the drawing for level-of-detail painting; null for a flat one
+    private int[] walk = new int[64]; // Ids still to visit in a tree repaint
+    private int[] shown = new int[64]; // Ids to draw: nodes as is, glyphs as ~id
+    private int[] edgeEnds = new int[64]; // Parent and child id of each edge to draw
+
+    // Current state, indexed by id; a node exists while its text is non-null
+    private String[] text = new String[0];
+    private Color[] fill = new Color[0];
+    private Color[] flashFill = new Color[0];
+    private double[] x = new double[0];
+    private double[] y = new double[0];
+    private int[] parent = new int[0];
+    // Children of each node as sibling lists, so moving a node also revisits the edges leading to it
+    private int[] firstChild = new int[0];
+    private int[] nextSibling = new int[0];
+    private int[] prevSibling = new int[0];
+    private int limit; // One past the highest id ever set since the last clear
+    private int extent; // One past the highest id given text or children since the last clear; never shrinks
+    private int painted; // Nodes and glyphs drawn by the flush in progress
+
+    // What is currently on the canvas, compared against the state above
+    private String[] drawnText = new String[0];
+    private Color[] drawnFill = new Color[0];
+    private double[] drawnX = new double[0];
+    private double[] drawnY = new double[0];
+    private double[] drawnParentX = new double[0];
+    private double[] drawnParentY = new double[0];
+    private int drawnLimit;
+
+    // Nodes touched by a setter since the last flush; only they are compared with the canvas
+    private int[] touched = new int[64];
+    private int touchedCount;
+    private boolean[] isTouched = new boolean[0];
+
+    // Uniform grid over what is on the canvas, in node coordinates; a bucket holds every id whose box meets its cell
+    private final Map<Long, Bucket> grid = new HashMap<>();
+    private final Bucket wide = new Bucket(); // Ids spanning too many cells, e.g. long edges; met by every rectangle
+    private int indexed; // Ids in the grid or the wide list
+    private double gridRadius = Double.NaN; // Radius the grid was built with; boxes grow with it
+    private int[] seen = new int[0]; // Stamp of the last rectangle that gathered each id
+    private int stamp;
+    private int[] candidates = new int[64]; // Ids gathered for the rectangle being painted
+
+    private final double[] dirty = new double[4 * MAX_DIRTY_RECTS];
+    private int dirtyCount;
+    private boolean collapsed;
+    private boolean changed;
+    private boolean repaintAll;
+
+    /**
+     * @param pane      The pane the canvas is placed in, behind everything else.
+     * @param edgeColor Stroke used for edges.
+     * @param edgeWidth Stroke width used for edges.
+     */
+    CanvasRenderer(Pane pane, Color edgeColor, double edgeWidth) {
+        this.pane = pane;
+        this.edgeColor = edgeColor;
+        this.edgeWidth = edgeWidth;
+        this.canvas = new Canvas();
+        this.canvas.setManaged(false); // Sized from the pane, must not feed back into its size
+        this.canvas.widthProperty().addListener((obs, old, now) -> invalidateAll());
+        this.canvas.heightProperty().addListener((obs, old, now) -> invalidateAll());
+        this.pulse = new AnimationTimer() {
+            @Override
+            public void handle(long now) {
+                flush();
+            }
+        };
+    }
+
+    /**
+     * Puts the canvas into the pane and starts repainting on every pulse.
+     */
+    void attach() {
+        canvas.widthProperty().bind(pane.widthProperty());
+        canvas.heightProperty().bind(pane.heightProperty());
+        pane.getChildren().add(0, canvas);
+        invalidateAll();
+        if (AnimationScheduler.isShowing(pane)) {
+            pulse.start();
+        }
+    }
+
+    /**
+     * Stops repainting and takes the canvas out of the pane.
+     */
+    void detach() {
+        pulse.stop();
+        canvas.widthProperty().unbind();
+        canvas.heightProperty().unbind();
+        pane.getChildren().remove(canvas);
+    }
+
+    /**
+     * @return Whether the canvas is in the pane; clearing the pane's children
+     *         takes it out without detaching.
+     */
+    boolean isAttached() {
+        return canvas.getParent() == pane;
+    }
+
+    /**
+     * Sets the circle radius used for every node.
+     */
+    void setRadius(double radius) {
+        if (radius != this.radius) {
+            this.radius = radius;
+            invalidateAll();
+        }
+    }
+
+    double getRadius() {
+        return radius;
+    }
+
+    /**
+     * Sets the mapping from node positions to the screen:
+     * {@code screen = position * scale + translate}.
+     */
+    void setView(double scale, double translateX, double translateY) {
+        setView(scale, scale, translateX, translateY);
+    }
+
+    /**
+     * Sets the mapping from node positions to the screen with a different
+     * scale across and down, e.g. to spread a wide tree without stretching
+     * its levels apart. Only a {@link #setTree tree} keeps its circles round.
+     */
+    void setView(double scaleX, double scaleY, double translateX, double translateY) {
+        if (scaleX != this.scaleX || scaleY != this.scaleY || translateX != this.translateX
+                || translateY != this.translateY) {
+            this.scaleX = scaleX;
+            this.scaleY = scaleY;
+            this.translateX = translateX;
+            this.translateY = translateY;
+            invalidateAll();
+        }
+    }
+
+    /**
+     * Switches to level-of-detail painting of the given tree, whose ids are
+     * those the nodes are set under here.
+     */
+    void setTree(Tree tree) {
+        this.tree = tree;
+        invalidateAll();
+    }
+
+    /**
+     * The shape of a tree being drawn. Each node owns a horizontal room that
+     * holds its subtree and leaves half the sibling gap on either side; rooms
+     * of siblings do not overlap.
+     */
+    interface Tree {
+        /**
+         * @return The root's id, or -1 if the tree is empty.
+         */
+        int root();
+
+        /**
+         * @return How many trees are drawn side by side; a forest overrides
+         *         this and {@link #root(int)}.
+         */
+        default int rootCount() {
+            return root() < 0 ? 0 : 1;
+        }
+
+        /**
+         * @return The id of the n-th tree's root, from left to right.
+         */
+        default int root(int n) {
+            return root();
+        }
+
+        /**
+         * @return How many children node id can have; see {@link #child}.
+         */
+        int childCount(int id);
+
+        /**
+         * @return The id of the n-th child, or -1 if that child is missing.
+         */
+        int child(int id, int n);
+
+        /**
+         * @return Left edge of the room of the subtree at id.
+         */
+        double left(int id);
+
+        /**
+         * @return Right edge of the room of the subtree at id.
+         */
+        double right(int id);
+
+        /**
+         * @return y of the deepest level of the subtree at id.
+         */
+        double bottom(int id);
+
+        /**
+         * @return Lines describing the subtree at id when it is drawn as a
+         *         glyph, e.g. its size, key range and height. Only asked
+         *         for glyphs large enough to show them.
+         */
+        String[] summary(int id);
+    }
+
+    /**
+     * Creates the node if needed and sets its label. A new node is not drawn
+     * until it has a position.
+     */
+    void setText(int id, String value) {
+        ensureCapacity(id + 1);
+        if (text[id] == null) {
+            x[id] = Double.NaN;
+            y[id] = Double.NaN;
+            link(id, -1);
+        }
+        text[id] = value;
+        limit = Math.max(limit, id + 1);
+        extent = Math.max(extent, limit);
+        touch(id);
+    }
+
+    void setPosition(int id, double px, double py) {
+        x[id] = px;
+        y[id] = py;
+        touch(id);
+        touchChildren(id);
+    }
+
+    /**
+     * @param parentId The node this one's edge leads to, or -1 for none.
+     */
+    void setParent(int id, int parentId) {
+        if (parentId != parent[id]) {
+            link(id, parentId);
+        }
+        touch(id);
+    }
+
+    void setFill(int id, Color color) {
+        fill[id] = color;
+        touch(id);
+    }
+
+    /**
+     * Exchanges the label and colours of two nodes, leaving their positions
+     * and edges in place.
+     */
+    void swap(int i, int j) {
+        String t = text[i];
+        text[i] = text[j];
+        text[j] = t;
+        Color f = fill[i];
+        fill[i] = fill[j];
+        fill[j] = f;
+        f = flashFill[i];
+        flashFill[i] = flashFill[j];
+        flashFill[j] = f;
+        touch(i);
+        touch(j);
+    }
+
+    /**
+     * Removes a node. Its children keep it as their parent, and their edges
+     * come back if it is set again.
+     */
+    void remove(int id) {
+        text[id] = null;
+        flashFill[id] = null;
+        link(id, -1);
+        while (limit > 0 && text[limit - 1] == null) {
+            limit--;
+        }
+        touch(id);
+        touchChildren(id);
+    }
+
+    /**
+     * Briefly paints a node in another colour.
+     */
+    void flash(int id, Color color) {
+        if (!AnimationScheduler.isShowing(pane) || id < 0 || id >= limit || text[id] == null) {
+            return;
+        }
+        flashFill[id] = color;
+        touch(id);
+        AnimationScheduler.shared().play(AnimationScheduler.delay(0.5, () -> {
+            if (id < flashFill.length && flashFill[id] == color) {
+                flashFill[id] = null;
+                touch(id);
+            }
+        }));
+    }
+
+    /**
+     * @return The node drawn nearest to a point of the canvas, within its
+     *         radius, or -1 if there is none.
+     */
+    int pick(double px, double py) {
+        double r = Math.max(radius * Math.min(scaleX, scaleY), 4);
+        int nearest = -1;
+        double nearestDistance = r * r;
+        for (int id = 0; id < limit; id++) {
+            if (text[id] == null) {
+                continue;
+            }
+            double dx = screenX(x[id]) - px, dy = screenY(y[id]) - py;
+            double distance = dx * dx + dy * dy;
+            if (distance <= nearestDistance) {
+                nearest = id;
+                nearestDistance = distance;
+            }
+        }
+        return nearest;
+    }
+
+    /**
+     * Removes every node.
+     */
+    void clear() {
+        Arrays.fill(text, 0, limit, null);
+        Arrays.fill(flashFill, 0, limit, null);
+        // Removed nodes past the limit keep their children, so this covers the extent
+        Arrays.fill(parent, 0, extent, -1);
+        Arrays.fill(firstChild, 0, extent, -1);
+        for (int id = 0, end = Math.max(extent, drawnLimit); id < end; id++) {
+            touch(id); // Erases whatever is drawn
+        }
+        limit = 0;
+        extent = 0;
+    }
+
+    /**
+     * Repaints whatever changed since the last call. Runs on every pulse
+     * while attached; cheap when nothing did.
+     */
+    void flush() {
+        if (!isAttached()) {
+            pulse.stop(); // The pane was cleared under us; attach() starts it again
+            return;
+        }
+        if (!changed && !repaintAll) {
+            return;
+        }
+        OpStats stats = OpStats.shared();
+        long start = stats.start();
+        LayoutEvent pass = LayoutEvent.start("CanvasRenderer", tree != null ? "paintTree" : "paint");
+        painted = 0;
+        repaint();
+        pass.end(limit, painted);
+        stats.paintTime(start);
+    }
+
+    private void repaint() {
+        changed = false;
+        if (tree == null && gridRadius != radius) {
+            rebuildGrid(); // Boxes depend on the radius
+        }
+        for (int i = 0; i < touchedCount; i++) {
+            int id = touched[i];
+            isTouched[id] = false;
+            if (tree == null) {
+                diff(id);
+            }
+        }
+        touchedCount = 0;
+        drawnLimit = limit;
+
+        GraphicsContext gc = canvas.getGraphicsContext2D();
+        if (tree != null) {
+            repaintAll = false;
+            paintTree(gc); // Bounded by what is visible; cheaper than diffing every node
+            return;
+        }
+        if (repaintAll) {
+            repaintAll = false;
+            dirtyCount = 0;
+            collapsed = false;
+            paint(gc, 0, 0, canvas.getWidth(), canvas.getHeight());
+            return;
+        }
+        for (int r = 0; r < dirtyCount; r++) {
+            paint(gc, dirty[4 * r] * scaleX + translateX, dirty[4 * r + 1] * scaleY + translateY,
+                    dirty[4 * r + 2] * scaleX + translateX, dirty[4 * r + 3] * scaleY + translateY);
+        }
+        dirtyCount = 0;
+        collapsed = false;
+    }
+
+    private void invalidateAll() {
+        repaintAll = true;
+        changed = true;
+    }
+
+    // Compares one node with what is on the canvas and marks both versions dirty if they differ
+    private void diff(int id) {
+        boolean live = id < limit && isPlaced(id);
+        double px = Double.NaN, py = Double.NaN;
+        if (live && parent[id] >= 0 && parent[id] < limit && isPlaced(parent[id])) {
+            px = x[parent[id]];
+            py = y[parent[id]];
+        }
+        String label = live ? text[id] : null;
+        if (label == null && drawnText[id] == null) {
+            return;
+        }
+        Color color = live ? effectiveFill(id) : null;
+        if (label != null && label.equals(drawnText[id]) && color == drawnFill[id]
+                && x[id] == drawnX[id] && y[id] == drawnY[id]
+                && same(px, drawnParentX[id]) && same(py, drawnParentY[id])) {
+            return;
+        }
+        if (drawnText[id] != null) {
+            markNode(drawnText[id], drawnX[id], drawnY[id]);
+            markEdge(drawnX[id], drawnY[id], drawnParentX[id], drawnParentY[id]);
+            index(id, false);
+        }
+        drawnText[id] = label;
+        drawnFill[id] = color;
+        if (label != null) {
+            drawnX[id] = x[id];
+            drawnY[id] = y[id];
+            drawnParentX[id] = px;
+            drawnParentY[id] = py;
+            markNode(label, x[id], y[id]);
+            markEdge(x[id], y[id], px, py);
+            index(id, true);
+        }
+    }
+
+    // Repaints one screen rectangle
+    private void paint(GraphicsContext gc, double x0, double y0, double x1, double y1) {
+        // Whole pixels only; a fractional clip would blend old and new along its border
+        x0 = Math.max(0, Math.floor(x0));
+        y0 = Math.max(0, Math.floor(y0));
+        x1 = Math.min(canvas.getWidth(), Math.ceil(x1));
+        y1 = Math.min(canvas.getHeight(), Math.ceil(y1));
+        if (x1 <= x0 || y1 <= y0) {
+            return; // Off-screen
+        }
+        gc.save();
+        gc.beginPath();
+        gc.rect(x0, y0, x1 - x0, y1 - y0);
+        gc.clip();
+        gc.clearRect(x0, y0, x1 - x0, y1 - y0);
+
+        // From here on draw and cull in node coordinates
+        gc.setTransform(scaleX, 0, 0, scaleY, translateX, translateY);
+        x0 = (x0 - translateX) / scaleX;
+        y0 = (y0 - translateY) / scaleY;
+        x1 = (x1 - translateX) / scaleX;
+        y1 = (y1 - translateY) / scaleY;
+
+        // Edges first so nodes sit on top of them
+        int count = gather(x0, y0, x1, y1);
+        gc.setStroke(edgeColor);
+        gc.setLineWidth(edgeWidth);
+        double pad = edgeWidth;
+        for (int i = 0; i < count; i++) {
+            int id = candidates[i];
+            if (Double.isNaN(drawnParentX[id])) {
+                continue;
+            }
+            double ax = drawnX[id], ay = drawnY[id], bx = drawnParentX[id], by = drawnParentY[id];
+            if (Math.max(ax, bx) + pad >= x0 && Math.min(ax, bx) - pad <= x1
+                    && Math.max(ay, by) + pad >= y0 && Math.min(ay, by) - pad <= y1) {
+                gc.strokeLine(ax, ay, bx, by);
+            }
+        }
+
+        boolean labels = showsLabels();
+        gc.setStroke(Color.BLACK);
+        gc.setLineWidth(1);
+        gc.setFont(LABEL_FONT);
+        gc.setTextAlign(TextAlignment.CENTER);
+        gc.setTextBaseline(VPos.CENTER);
+        for (int i = 0; i < count; i++) {
+            int id = candidates[i];
+            String label = drawnText[id];
+            double cx = drawnX[id], cy = drawnY[id];
+            double halfWidth = halfWidth(label), halfHeight = halfHeight();
+            if (cx + halfWidth < x0 || cx - halfWidth > x1 || cy + halfHeight < y0 || cy - halfHeight > y1) {
+                continue;
+            }
+            gc.setFill(drawnFill[id]);
+            gc.fillOval(cx - radius, cy - radius, 2 * radius, 2 * radius);
+            painted++;
+            if (radius * Math.min(scaleX, scaleY) >= 3) {
+                gc.strokeOval(cx - radius, cy - radius, 2 * radius, 2 * radius);
+            }
+            if (labels) {
+                gc.setFill(Color.BLACK);
+                gc.fillText(label, cx, cy);
+            }
+        }
+        gc.restore();
+    }
+
+    /**
+     * Repaints the whole canvas from the tree. Subtrees whose room is off
+     * the canvas are not visited; those narrower than COLLAPSE_WIDTH become
+     * a glyph. Drawn in screen coordinates, so circles and text keep their
+     * size whatever the scale.
+     */
+    private void paintTree(GraphicsContext gc) {
+        double width = canvas.getWidth(), height = canvas.getHeight();
+        gc.clearRect(0, 0, width, height);
+        // Decide what to draw: walk down, stopping at off-screen subtrees and glyphs
+        int walking = 0, shownCount = 0, edgeCount = 0;
+        for (int n = tree.rootCount() - 1; n >= 0; n--) {
+            int root = tree.root(n);
+            if (root >= 0 && root < limit && isPlaced(root)) {
+                walk = push(walk, walking++, root);
+            }
+        }
+        while (walking > 0) {
+            int id = walk[--walking];
+            double left = screenX(tree.left(id)), right = screenX(tree.right(id));
+            double top = screenY(y[id]) - radius * scaleY, bottom = screenY(tree.bottom(id)) + radius * scaleY;
+            if (right < 0 || left > width || bottom < 0 || top > height) {
+                continue;
+            }
+            int children = tree.childCount(id);
+            boolean leaf = true;
+            for (int n = 0; n < children && leaf; n++) {
+                leaf = tree.child(id, n) < 0;
+            }
+            if (!leaf && right - left < COLLAPSE_WIDTH) {
+                shown = push(shown, shownCount++, ~id);
+                continue;
+            }
+            shown = push(shown, shownCount++, id);
+            for (int n = children - 1; n >= 0; n--) {
+                int child = tree.child(id, n);
+                if (child >= 0 && child < limit && isPlaced(child)) {
+                    edgeEnds = push(edgeEnds, edgeCount++, id);
+                    edgeEnds = push(edgeEnds, edgeCount++, child);
+                    walk = push(walk, walking++, child); // An edge may cross the canvas even if its child does not
+                }
+            }
+        }
+
+        // Edges first so nodes and glyphs sit on top of them
+        gc.setStroke(edgeColor);
+        gc.setLineWidth(edgeWidth);
+        for (int e = 0; e < edgeCount; e += 2) {
+            double ax = screenX(x[edgeEnds[e]]), ay = screenY(y[edgeEnds[e]]);
+            double bx = screenX(x[edgeEnds[e + 1]]), by = screenY(y[edgeEnds[e + 1]]);
+            if (Math.max(ax, bx) >= 0 && Math.min(ax, bx) <= width && Math.max(ay, by) >= 0
+                    && Math.min(ay, by) <= height) {
+                gc.strokeLine(ax, ay, bx, by);
+            }
+        }
+
+        gc.setFont(LABEL_FONT);
+        gc.setTextAlign(TextAlignment.CENTER);
+        gc.setTextBaseline(VPos.CENTER);
+        for (int i = 0; i < shownCount; i++) {
+            int id = shown[i];
+            if (id < 0) {
+                paintGlyph(gc, ~id);
+                painted++;
+                continue;
+            }
+            // A circle never outgrows its room, so neighbours do not overlap when zoomed out
+            double room = screenX(tree.right(id)) - screenX(tree.left(id));
+            double r = Math.max(1, Math.min(radius * Math.min(scaleX, scaleY), 0.4 * room));
+            double cx = screenX(x[id]), cy = screenY(y[id]);
+            gc.setFill(effectiveFill(id));
+            gc.fillOval(cx - r, cy - r, 2 * r, 2 * r);
+            painted++;
+            if (r >= 3) {
+                gc.setStroke(Color.BLACK);
+                gc.setLineWidth(1);
+                gc.strokeOval(cx - r, cy - r, 2 * r, 2 * r);
+            }
+            if (r >= LABEL_MIN_RADIUS) {
+                gc.setFill(Color.BLACK);
+                gc.fillText(text[id], cx, cy);
+            }
+        }
+    }
+
+    // Draws a collapsed subtree as a triangle from its root down to its deepest level
+    private void paintGlyph(GraphicsContext gc, int id) {
+        double left = screenX(tree.left(id)), right = screenX(tree.right(id));
+        double apexX = screenX(x[id]), apexY = screenY(y[id]), bottom = screenY(tree.bottom(id));
+        gc.setFill(flashFill[id] != null ? flashFill[id] : GLYPH_FILL);
+        gc.fillPolygon(new double[] { apexX, right, left }, new double[] { apexY, bottom, bottom }, 3);
+        gc.setStroke(edgeColor);
+        gc.setLineWidth(1);
+        gc.strokePolygon(new double[] { apexX, right, left }, new double[] { apexY, bottom, bottom }, 3);
+
+        // The summary goes in the lower part of the triangle, as many lines as fit
+        double roomHeight = (bottom - apexY) / 2;
+        int lines = (int) (roomHeight / SUMMARY_LINE_HEIGHT);
+        if (lines == 0 || right - left < 4 * LABEL_CHAR_WIDTH) {
+            return;
+        }
+        String[] summary = tree.summary(id);
+        double lineY = bottom - roomHeight + SUMMARY_LINE_HEIGHT / 2;
+        gc.setFill(Color.BLACK);
+        for (int i = 0; i < summary.length && i < lines; i++, lineY += SUMMARY_LINE_HEIGHT) {
+            if (summary[i].length() * LABEL_CHAR_WIDTH <= right - left) {
+                gc.fillText(summary[i], (left + right) / 2, lineY);
+            }
+        }
+    }
+
+    /**
+     * Collects into {@link #candidates}, in id order, every drawn id whose
+     * node or edge may meet a rectangle in node coordinates.
+     *
+     * @return How many were collected.
+     */
+    private int gather(double x0, double y0, double x1, double y1) {
+        int count = 0;
+        int cx0 = cell(x0), cx1 = cell(x1), cy0 = cell(y0), cy1 = cell(y1);
+        if ((double) (cx1 - cx0 + 1) * (cy1 - cy0 + 1) > indexed) {
+            // More cells than ids; visiting every id is cheaper
+            for (int id = 0; id < drawnLimit; id++) {
+                if (drawnText[id] != null) {
+                    candidates = push(candidates, count++, id);
+                }
+            }
+            return count;
+        }
+        if (++stamp == 0) {
+            Arrays.fill(seen, 0); // Wrapped around; no id may look seen by this rectangle
+            stamp = 1;
+        }
+        count = collect(wide, count);
+        for (int cx = cx0; cx <= cx1; cx++) {
+            for (int cy = cy0; cy <= cy1; cy++) {
+                Bucket bucket = grid.get(cellKey(cx, cy));
+                if (bucket != null) {
+                    count = collect(bucket, count);
+                }
+            }
+        }
+        Arrays.sort(candidates, 0, count); // Drawn in id order, as a full repaint does
+        return count;
+    }
+
+    // Appends the ids of a bucket not yet gathered for this rectangle
+    private int collect(Bucket bucket, int count) {
+        for (int i = 0; i < bucket.size; i++) {
+            int id = bucket.ids[i];
+            if (seen[id] != stamp) {
+                seen[id] = stamp;
+                candidates = push(candidates, count++, id);
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Adds a drawn id to, or takes it out of, every grid cell its box meets.
+     * The box holds the circle, the widest label it may show and its edge,
+     * whatever the view, so the grid survives zooming and panning.
+     */
+    private void index(int id, boolean add) {
+        double halfWidth = Math.max(radius, drawnText[id].length() * LABEL_CHAR_WIDTH / 2) + 2;
+        double halfHeight = Math.max(radius, 8) + 2;
+        double x0 = drawnX[id] - halfWidth, x1 = drawnX[id] + halfWidth;
+        double y0 = drawnY[id] - halfHeight, y1 = drawnY[id] + halfHeight;
+        if (!Double.isNaN(drawnParentX[id])) {
+            double pad = edgeWidth + 1;
+            x0 = Math.min(x0, drawnParentX[id] - pad);
+            x1 = Math.max(x1, drawnParentX[id] + pad);
+            y0 = Math.min(y0, drawnParentY[id] - pad);
+            y1 = Math.max(y1, drawnParentY[id] + pad);
+        }
+        indexed += add ? 1 : -1;
+        int cx0 = cell(x0), cx1 = cell(x1), cy0 = cell(y0), cy1 = cell(y1);
+        if ((double) (cx1 - cx0 + 1) * (cy1 - cy0 + 1) > MAX_CELLS_PER_ENTRY) {
+            if (add) {
+                wide.add(id);
+            } else {
+                wide.remove(id);
+            }
+            return;
+        }
+        for (int cx = cx0; cx <= cx1; cx++) {
+            for (int cy = cy0; cy <= cy1; cy++) {
+                long key = cellKey(cx, cy);
+                if (add) {
+                    grid.computeIfAbsent(key, k -> new Bucket()).add(id);
+                } else {
+                    Bucket bucket = grid.get(key);
+                    bucket.remove(id);
+                    if (bucket.size == 0) {
+                        grid.remove(key);
+                    }
+                }
+            }
+        }
+    }
+
+    // Indexes everything drawn again, after the radius changed every box
+    private void rebuildGrid() {
+        grid.clear();
+        wide.size = 0;
+        indexed = 0;
+        gridRadius = radius;
+        for (int id = 0; id < drawnLimit; id++) {
+            if (drawnText[id] != null) {
+                index(id, true);
+            }
+        }
+    }
+
+    private static int cell(double v) {
+        return (int) Math.floor(v / GRID_CELL); // Saturates far off, which only merges distant cells
+    }
+
+    private static long cellKey(int cx, int cy) {
+        return (long) cx << 32 | (cy & 0xffffffffL);
+    }
+
+    // Marks a node to be compared with the canvas at the next flush
+    private void touch(int id) {
+        if (!isTouched[id]) {
+            isTouched[id] = true;
+            touched = push(touched, touchedCount++, id);
+        }
+        changed = true;
+    }
+
+    // The edges of a node's children lead to it, so they change when it moves or goes
+    private void touchChildren(int id) {
+        for (int child = firstChild[id]; child >= 0; child = nextSibling[child]) {
+            touch(child);
+        }
+    }
+
+    // Moves a node from its parent's children to those of another, or to none for -1
+    private void link(int id, int parentId) {
+        int old = parent[id];
+        if (old >= 0) {
+            if (prevSibling[id] >= 0) {
+                nextSibling[prevSibling[id]] = nextSibling[id];
+            } else {
+                firstChild[old] = nextSibling[id];
+            }
+            if (nextSibling[id] >= 0) {
+                prevSibling[nextSibling[id]] = prevSibling[id];
+            }
+        }
+        parent[id] = parentId;
+        prevSibling[id] = -1;
+        nextSibling[id] = -1;
+        if (parentId >= 0) {
+            ensureCapacity(parentId + 1); // The parent may be set before it is
+            extent = Math.max(extent, parentId + 1);
+            nextSibling[id] = firstChild[parentId];
+            if (firstChild[parentId] >= 0) {
+                prevSibling[firstChild[parentId]] = id;
+            }
+            firstChild[parentId] = id;
+        }
+    }
+
+    private double screenX(double px) {
+        return px * scaleX + translateX;
+    }
+
+    private double screenY(double py) {
+        return py * scaleY + translateY;
+    }
+
+    // Stores value at index, growing the array if needed
+    private static int[] push(int[] array, int index, int value) {
+        if (index == array.length) {
+            array = Arrays.copyOf(array, 2 * index);
+        }
+        array[index] = value;
+        return array;
+    }
+
+    private void markNode(String label, double cx, double cy) {
+        double halfWidth = halfWidth(label), halfHeight = halfHeight();
+        addDirty(cx - halfWidth, cy - halfHeight, cx + halfWidth, cy + halfHeight);
+    }
+
+    private void markEdge(double ax, double ay, double bx, double by) {
+        if (Double.isNaN(bx)) {
+            return;
+        }
+        double pad = edgeWidth + 1;
+        addDirty(Math.min(ax, bx) - pad, Math.min(ay, by) - pad, Math.max(ax, bx) + pad, Math.max(ay, by) + pad);
+    }
+
+    private void addDirty(double x0, double y0, double x1, double y1) {
+        if (repaintAll) {
+            return;
+        }
+        if (dirtyCount == MAX_DIRTY_RECTS) {
+            // Too many scattered changes; from here on grow one rectangle covering them all
+            for (int r = 1; r < dirtyCount; r++) {
+                grow(dirty[4 * r], dirty[4 * r + 1], dirty[4 * r + 2], dirty[4 * r + 3]);
+            }
+            dirtyCount = 1;
+            collapsed = true;
+        }
+        if (collapsed) {
+            grow(x0, y0, x1, y1);
+            return;
+        }
+        int r = 4 * dirtyCount++;
+        dirty[r] = x0;
+        dirty[r + 1] = y0;
+        dirty[r + 2] = x1;
+        dirty[r + 3] = y1;
+    }
+
+    private void grow(double x0, double y0, double x1, double y1) {
+        dirty[0] = Math.min(dirty[0], x0);
+        dirty[1] = Math.min(dirty[1], y0);
+        dirty[2] = Math.max(dirty[2], x1);
+        dirty[3] = Math.max(dirty[3], y1);
+    }
+
+    private double halfWidth(String label) {
+        double half = radius;
+        if (showsLabels()) {
+            half = Math.max(half, label.length() * LABEL_CHAR_WIDTH / 2);
+        }
+        return half + 2;
+    }
+
+    private double halfHeight() {
+        return Math.max(radius, showsLabels() ? 8 : 0) + 2;
+    }
+
+    private boolean showsLabels() {
+        return radius * Math.min(scaleX, scaleY) >= LABEL_MIN_RADIUS;
+    }
+
+    private Color effectiveFill(int id) {
+        if (flashFill[id] != null) {
+            return flashFill[id];
+        }
+        return fill[id] != null ? fill[id] : Color.LIGHTGRAY;
+    }
+
+    private boolean isPlaced(int id) {
+        return text[id] != null && !Double.isNaN(x[id]);
+    }
+
+    private static boolean same(double a, double b) {
+        return a == b || (Double.isNaN(a) && Double.isNaN(b));
+    }
+
+    // Ids in one grid cell, unordered
+    private static final class Bucket {
+        int[] ids = new int[4];
+        int size;
+
+        void add(int id) {
+            ids = push(ids, size++, id);
+        }
+
+        void remove(int id) {
+            for (int i = 0; i < size; i++) {
+                if (ids[i] == id) {
+                    ids[i] = ids[--size];
+                    return;
+                }
+            }
+        }
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity <= text.length) {
+            return;
+        }
+        int length = Math.max(capacity, Math.max(16, text.length * 2));
+        int old = text.length;
+        text = Arrays.copyOf(text, length);
+        fill = Arrays.copyOf(fill, length);
+        flashFill = Arrays.copyOf(flashFill, length);
+        x = Arrays.copyOf(x, length);
+        y = Arrays.copyOf(y, length);
+        parent = Arrays.copyOf(parent, length);
+        firstChild = Arrays.copyOf(firstChild, length);
+        nextSibling = Arrays.copyOf(nextSibling, length);
+        prevSibling = Arrays.copyOf(prevSibling, length);
+        Arrays.fill(parent, old, length, -1);
+        Arrays.fill(firstChild, old, length, -1);
+        isTouched = Arrays.copyOf(isTouched, length);
+        seen = Arrays.copyOf(seen, length);
+        drawnText = Arrays.copyOf(drawnText, length);
+        drawnFill = Arrays.copyOf(drawnFill, length);
+        drawnX = Arrays.copyOf(drawnX, length);
+        drawnY = Arrays.copyOf(drawnY, length);
+        drawnParentX = Arrays.copyOf(drawnParentX, length);
+        drawnParentY = Arrays.copyOf(drawnParentY, length);
+    }
+}
@@ -0,0 +1,1670 @@
+// DataVisu.java
+package com.example.ds;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import javafx.animation.AnimationTimer;
+import javafx.application.Application;
+import javafx.application.Platform;
+import javafx.event.ActionEvent;
+import javafx.geometry.Insets;
+import javafx.geometry.Pos;
+import javafx.scene.Node;
+import javafx.scene.Scene;
+import javafx.scene.control.Button;
+import javafx.scene.control.ButtonBase;
+import javafx.scene.control.Label;
+import javafx.scene.control.MenuButton;
+import javafx.scene.control.MenuItem;
+import javafx.scene.control.ProgressBar;
+import javafx.scene.control.Slider;
+import javafx.scene.control.TextArea;
+import javafx.scene.control.TextField;
+import javafx.scene.control.ToggleButton;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.Pane;
+import javafx.scene.layout.Priority;
+import javafx.scene.layout.VBox;
+import javafx.scene.text.Font;
+import javafx.stage.FileChooser;
+import javafx.stage.Stage;
+
+import com.example.ds.core.BstModel;
+import com.example.ds.core.KeyFileReader;
+import com.example.ds.core.MeldableHeapModel;
+import com.example.ds.core.ObservableStructure;
+import com.example.ds.core.Snapshot;
+import com.example.ds.core.TraceOp;
+import com.example.ds.core.TraceReader;
+import com.example.ds.core.TraceWriter;
+import com.example.ds.core.ValueParser;
+
+/**
+ * Main application class for the Data Structure Visualizer.
+ * Acts as the controller, managing the UI and delegating operations
+ * to specific data structure implementations.
+ */
+public class DataVisu extends Application {
+
+    private enum Mode {
+        LINKED_LIST, STACK, QUEUE, HEAP, BST, MELDABLE_HEAP, POINTER_LIST, QUIT
+    }
+
+    // Operations listed in the stats overlay, newest last
+    private static final int STATS_ROWS_SHOWN = 6;
+
+    private Mode currentMode;
+    private ToggleButton activeButton;
+    private Stack stack;
+    private Queue queue;
+    private Heap heap;
+    private BinarySearchTree bst;
+    private MeldableHeap meldable;
+    private PointerList pointerList;
+    // Use the external LinkedList class
+    private LinkedList linkedList;
+    private Stage stage;
+    private String initialMode;
+    private VBox leftPanel;
+    private MenuButton createDataStructureMenu;
+    private Pane canvas;
+    // Operation trace being recorded, or being replayed; at most one at a time
+    private TraceWriter traceWriter;
+    private TracePlayer tracePlayer;
+    private Path traceDirectory; // Of that trace; its loads name key files relative to it
+    private HBox traceControls = new HBox(5);
+    private HBox animationControls;
+    // Per-operation costs, shown beneath the canvas while counting
+    private final OpStats stats = OpStats.shared();
+    private HBox statsControls;
+    private Label statsOverlay;
+    private AnimationTimer statsRefresh;
+    // Flight Recorder event spanning the side-panel operation in progress
+    private OperationEvent operationEvent;
+
+    /**
+     * Constructor to set initial mode based on a string.
+     * 
+     * @param mode The name of the initial data structure mode.
+     */
+    public DataVisu(String mode) {
+        this.initialMode = mode;
+        switch (mode) {
+            case "Linked List":
+                this.currentMode = Mode.LINKED_LIST;
+                break;
+            case "Stack":
+                this.currentMode = Mode.STACK;
+                break;
+            case "Queue":
+                this.currentMode = Mode.QUEUE;
+                break;
+            case "Heap":
+                this.currentMode = Mode.HEAP;
+                break;
+            case "Binary Search Tree":
+                this.currentMode = Mode.BST;
+                break;
+            case "Meldable Heap":
+                this.currentMode = Mode.MELDABLE_HEAP;
+                break;
+            case "Pointer Linked List":
+                this.currentMode = Mode.POINTER_LIST;
+                break;
+            case "Quit Program":
+                this.currentMode = Mode.QUIT;
+                break;
+            default:
+                this.currentMode = Mode.LINKED_LIST;
+        }
+    }
+
+    /**
+     * Default constructor, defaults to Linked List mode.
+     */
+    public DataVisu() {
+        this("Linked List"); // Default to Linked List
+    }
+
+    @Override
+    public void start(Stage stage) {
+        this.stage = stage;
+        leftPanel = new VBox(10);
+        leftPanel.setPrefWidth(150);
+        leftPanel.setPadding(new Insets(10));
+        leftPanel.setStyle("-fx-background-color: #ffffff; -fx-border-color: #dcdcdc; -fx-border-width: 1;");
+
+        createDataStructureMenu = new MenuButton("Select Data Structure");
+        MenuItem linkedListItem = new MenuItem("Linked List");
+        MenuItem stackItem = new MenuItem("Stack");
+        MenuItem queueItem = new MenuItem("Queue");
+        MenuItem heapItem = new MenuItem("Heap");
+        MenuItem bstItem = new MenuItem("Binary Search Tree");
+        MenuItem meldableItem = new MenuItem("Meldable Heap");
+        MenuItem pointerListItem = new MenuItem("Pointer Linked List");
+
+        createDataStructureMenu.getItems().addAll(linkedListItem, stackItem, queueItem, heapItem, bstItem, meldableItem,
+                pointerListItem);
+
+        leftPanel.getChildren().add(createDataStructureMenu);
+        // Runs before the button's own handler, so the operation's costs start from zero
+        leftPanel.addEventFilter(ActionEvent.ACTION, e -> {
+            if (e.getTarget() instanceof ButtonBase) {
+                String structure = createDataStructureMenu.getText();
+                String operation = ((ButtonBase) e.getTarget()).getText();
+                stats.begin(structure + ": " + operation, currentModel());
+                operationEvent = OperationEvent.start(structure, operation, currentSize());
+            }
+        });
+        // Runs once the button's handler returned
+        leftPanel.addEventHandler(ActionEvent.ACTION, e -> {
+            if (operationEvent != null) {
+                operationEvent.end(currentSize());
+                operationEvent = null;
+            }
+        });
+
+        canvas = new Pane();
+        canvas.setStyle("-fx-background-color: #e6f7ff; -fx-border-color: #dcdcdc;");
+
+        Button clearBtn = new Button("Clear");
+        clearBtn.setOnAction(e -> clearCurrentStructure());
+
+        Button backBtn = new Button("Back to Main");
+        backBtn.setOnAction(e -> {
+            try {
+                stopRecording();
+                new Program().start(stage); // Assumes Program class exists
+            } catch (Exception ex) {
+                // Handle potential exception if Program.start throws one or if Program doesn't
+                // exist
+                System.err.println("Could not navigate back to main program: " + ex.getMessage());
+                // Optionally, just close the stage: stage.close();
+            }
+        });
+
+        Button quitBtn = new Button("Quit Program");
+        quitBtn.setOnAction(e -> {
+            stopRecording(); // Flushes the trace being recorded
+            Platform.exit();
+        });
+
+        HBox controlBar = new HBox(10);
+        controlBar.setPadding(new Insets(10));
+        controlBar.getChildren().addAll(clearBtn, backBtn, quitBtn);
+
+        statsOverlay = new Label();
+        statsOverlay.setFont(Font.font("Monospaced", 11));
+        statsOverlay.setPadding(new Insets(5, 10, 5, 10));
+        statsOverlay.setVisible(false);
+        statsOverlay.setManaged(false);
+        statsRefresh = new AnimationTimer() {
+            @Override
+            public void handle(long now) {
+                String text = stats.summary(STATS_ROWS_SHOWN);
+                if (!text.equals(statsOverlay.getText())) {
+                    statsOverlay.setText(text);
+                }
+            }
+        };
+
+        VBox rightPanel = new VBox(controlBar, canvas, statsOverlay);
+        VBox.setVgrow(canvas, Priority.ALWAYS);
+
+        // Setup data structure menu handlers
+        linkedListItem.setOnAction(e -> switchToMode(Mode.LINKED_LIST));
+        stackItem.setOnAction(e -> switchToMode(Mode.STACK));
+        queueItem.setOnAction(e -> switchToMode(Mode.QUEUE));
+        heapItem.setOnAction(e -> switchToMode(Mode.HEAP));
+        bstItem.setOnAction(e -> switchToMode(Mode.BST));
+        meldableItem.setOnAction(e -> switchToMode(Mode.MELDABLE_HEAP));
+        pointerListItem.setOnAction(e -> switchToMode(Mode.POINTER_LIST));
+
+        HBox root = new HBox(leftPanel, rightPanel);
+        HBox.setHgrow(rightPanel, Priority.ALWAYS);
+
+        Scene scene = new Scene(root, 1000, 600);
+        scene.getStylesheets().add("styles.css"); // Optional: Uncomment if using a
+        // stylesheet
+
+        stage.setTitle("Data Structure Visualizer - " + initialMode);
+        stage.setOnCloseRequest(e -> stopRecording());
+        stage.setScene(scene);
+        stage.show();
+
+        // Initialize data structures (assuming these classes exist and manage their own
+        // visualization)
+        stack = new Stack(canvas);
+        queue = new Queue(canvas);
+        heap = new Heap(canvas, true); // Assuming true for max heap, adjust if needed
+        bst = new BinarySearchTree(canvas);
+        meldable = new MeldableHeap(canvas, MeldableHeapModel.Kind.PAIRING);
+        pointerList = new PointerList(canvas, false);
+        // Initialize the LinkedList controller
+        linkedList = new LinkedList(canvas);
+
+        switchToMode(currentMode);
+    }
+
+    /**
+     * Switches the visualization to the specified mode.
+     * Clears the canvas and rebuilds the control panel.
+     * 
+     * @param mode The target Mode enum.
+     */
+    private void switchToMode(Mode mode) {
+        currentMode = mode;
+        clearCurrentStructure(); // Clear visualization for the previous mode
+        leftPanel.getChildren().clear();
+        leftPanel.getChildren().add(createDataStructureMenu); // Re-add the menu
+
+        // Clear existing control bar and rebuild
+        VBox rightPanel = (VBox) canvas.getParent();
+        if (rightPanel.getChildren().size() > 0) {
+            rightPanel.getChildren().remove(0); // Remove old control bar (index 0)
+        }
+
+        HBox controlBar = new HBox(10);
+        controlBar.setPadding(new Insets(10));
+
+        Button clearBtn = new Button("Clear");
+        clearBtn.setOnAction(e -> clearCurrentStructure());
+
+        Button backBtn = new Button("Back to Main");
+        backBtn.setOnAction(e -> {
+            try {
+                stopRecording();
+                new Program().start(stage); // Assumes Program class exists
+            } catch (Exception ex) {
+                System.err.println("Could not navigate back to main program: " + ex.getMessage());
+            }
+        });
+
+        Button quitBtn = new Button("Quit Program");
+        quitBtn.setOnAction(e -> {
+            stopRecording(); // Flushes the trace being recorded
+            Platform.exit();
+        });
+
+        switch (mode) {
+            case LINKED_LIST:
+                createDataStructureMenu.setText("Linked List");
+                setupLinkedListControls();
+                controlBar.getChildren().addAll(clearBtn, backBtn, quitBtn);
+                break;
+            case STACK:
+                createDataStructureMenu.setText("Stack");
+                setupStackControls();
+                controlBar.getChildren().addAll(clearBtn, backBtn, quitBtn);
+                break;
+            case QUEUE:
+                createDataStructureMenu.setText("Queue");
+                setupQueueControls();
+                controlBar.getChildren().addAll(clearBtn, backBtn, quitBtn);
+                break;
+            case HEAP:
+                createDataStructureMenu.setText("Heap");
+                setupHeapControls();
+                controlBar.getChildren().addAll(clearBtn, backBtn, quitBtn);
+                break;
+            case BST:
+                createDataStructureMenu.setText("Binary Search Tree");
+                setupBSTControls();
+                controlBar.getChildren().addAll(clearBtn, backBtn, quitBtn);
+                break;
+            case MELDABLE_HEAP:
+                createDataStructureMenu.setText("Meldable Heap");
+                setupMeldableHeapControls();
+                controlBar.getChildren().addAll(clearBtn, backBtn, quitBtn);
+                break;
+            case POINTER_LIST:
+                createDataStructureMenu.setText("Pointer Linked List");
+                setupPointerListControls();
+                controlBar.getChildren().addAll(clearBtn, backBtn, quitBtn);
+                break;
+            case QUIT:
+                createDataStructureMenu.setText("Quit Program");
+                controlBar.getChildren().addAll(quitBtn);
+                break;
+        }
+        animationControls = createAnimationControls();
+        statsControls = createStatsControls();
+        if (mode != Mode.QUIT) {
+            refreshTraceControls();
+            controlBar.getChildren().addAll(animationControls, traceControls, statsControls);
+        }
+        rightPanel.getChildren().add(0, controlBar); // Add the new control bar at index 0
+        if (tracePlayer != null) {
+            setControlsLocked(true, animationControls, traceControls, statsControls); // The replay may switch modes
+        }
+    }
+
+    // --- Control Setup Methods for Each Data Structure ---
+
+    private void setupLinkedListControls() {
+        TextField inputField = new TextField();
+        inputField.setPromptText("Enter value");
+
+        Button addBtn = new Button("Add Node");
+        Button insertAtBtn = new Button("Insert At");
+        Button removeBtn = new Button("Remove Node");
+        Button removeAtBtn = new Button("Remove At");
+        Button searchBtn = new Button("Search");
+        Button searchAllBtn = new Button("Find All");
+        Button countBtn = new Button("Count");
+        // Hash index from value to positions; searches stop scanning the list
+        ToggleButton indexBtn = new ToggleButton("Value Index");
+        indexBtn.setSelected(linkedList.isIndexed());
+        indexBtn.setOnAction(e -> {
+            boolean indexed = indexBtn.isSelected();
+            linkedList.setIndexed(indexed);
+            record(w -> w.write(TraceOp.LIST_INDEXED, indexed ? 1 : 0));
+        });
+
+        addBtn.setOnAction(e -> {
+            String value = inputField.getText().trim();
+            if (!value.isEmpty()) {
+                linkedList.addNode(value); // Delegate to LinkedList class
+                record(w -> w.write(TraceOp.LIST_ADD, value));
+                inputField.clear();
+            } else {
+                showWarning(canvas, "Please enter a value");
+            }
+        });
+
+        insertAtBtn.setOnAction(e -> {
+            String[] inputs = inputField.getText().trim().split(",");
+            if (inputs.length == 2) {
+                try {
+                    String value = inputs[0].trim();
+                    int index = Integer.parseInt(inputs[1].trim());
+                    linkedList.insertAt(value, index); // Delegate to LinkedList class
+                    record(w -> w.write(TraceOp.LIST_INSERT_AT, value, index));
+                    inputField.clear();
+                } catch (NumberFormatException ex) {
+                    showWarning(canvas, "Invalid index format. Use: value,index");
+                } catch (IndexOutOfBoundsException ex) {
+                    showWarning(canvas, ex.getMessage());
+                }
+            } else {
+                showWarning(canvas, "Enter value,index (e.g., 5,2)");
+            }
+        });
+
+        removeBtn.setOnAction(e -> {
+            // Delegate to LinkedList class
+            if (!linkedList.isEmpty()) {
+                linkedList.removeLast();
+                record(w -> w.write(TraceOp.LIST_REMOVE_LAST));
+            } else {
+                showWarning(canvas, "List is empty");
+            }
+        });
+
+        removeAtBtn.setOnAction(e -> {
+            try {
+                int index = Integer.parseInt(inputField.getText().trim());
+                linkedList.removeAt(index); // Delegate to LinkedList class
+                record(w -> w.write(TraceOp.LIST_REMOVE_AT, index));
+                inputField.clear();
+            } catch (NumberFormatException ex) {
+                showWarning(canvas, "Enter a valid index");
+            } catch (IndexOutOfBoundsException ex) {
+                showWarning(canvas, ex.getMessage());
+            }
+        });
+
+        searchBtn.setOnAction(e -> {
+            String value = inputField.getText().trim();
+            if (!value.isEmpty()) {
+                int index = linkedList.search(value); // Delegate to LinkedList class
+                record(w -> w.write(TraceOp.LIST_SEARCH, value));
+                if (index == -1) {
+                    showWarning(canvas, "Value not found");
+                } else {
+                    // Optional: Show index found? The highlight happens in LinkedList.search
+                    // showWarning(canvas, "Value found at index: " + index);
+                }
+                inputField.clear();
+            } else {
+                showWarning(canvas, "Please enter a value");
+            }
+        });
+
+        searchAllBtn.setOnAction(e -> {
+            String value = inputField.getText().trim();
+            if (value.isEmpty()) {
+                showWarning(canvas, "Please enter a value");
+                return;
+            }
+            int[] found = linkedList.searchAll(value); // Highlights every match
+            record(w -> w.write(TraceOp.LIST_SEARCH_ALL, value));
+            showWarning(canvas, found.length == 0 ? "Value not found" : "Found " + found.length + " nodes");
+        });
+
+        countBtn.setOnAction(e -> {
+            String value = inputField.getText().trim();
+            if (value.isEmpty()) {
+                showWarning(canvas, "Please enter a value");
+                return;
+            }
+            int count = linkedList.count(value);
+            showWarning(canvas, count + (count == 1 ? " node holds " : " nodes hold ") + value);
+        });
+
+        VBox batch = createBatchControls("Add All", text -> {
+            List<String> values = ValueParser.parseValues(text);
+            linkedList.addAll(values);
+            record(w -> w.write(TraceOp.LIST_ADD_ALL, values));
+        });
+
+        VBox controls = new VBox(10, new Label("Linked List Operations"), inputField, addBtn, insertAtBtn, removeBtn,
+                removeAtBtn, searchBtn, searchAllBtn, countBtn, indexBtn, batch);
+        controls.setAlignment(Pos.CENTER);
+        leftPanel.getChildren().add(controls);
+    }
+
+    private void setupStackControls() {
+        TextField inputField = new TextField();
+        inputField.setPromptText("Enter value");
+
+        Button pushBtn = new Button("Push");
+        Button popBtn = new Button("Pop");
+        Button peekBtn = new Button("Peek");
+        Button isEmptyBtn = new Button("Is Empty");
+
+        pushBtn.setOnAction(e -> {
+            String value = inputField.getText().trim();
+            if (!value.isEmpty()) {
+                stack.push(value); // Delegate to Stack class
+                record(w -> w.write(TraceOp.STACK_PUSH, value));
+                inputField.clear();
+            } else {
+                showWarning(canvas, "Please enter a value");
+            }
+        });
+
+        popBtn.setOnAction(e -> {
+            try {
+                stack.pop(); // Delegate to Stack class
+                record(w -> w.write(TraceOp.STACK_POP));
+            } catch (Exception ex) { // Assuming Stack.pop might throw if empty
+                showWarning(canvas, ex.getMessage());
+            }
+        });
+        peekBtn.setOnAction(e -> {
+            stack.peek(); // Delegate to Stack class
+            record(w -> w.write(TraceOp.STACK_PEEK));
+        });
+        isEmptyBtn.setOnAction(e -> stack.isEmptyVisual()); // Delegate to Stack class
+
+        VBox batch = createBatchControls("Push All", text -> {
+            List<String> values = ValueParser.parseValues(text);
+            stack.pushAll(values);
+            record(w -> w.write(TraceOp.STACK_PUSH_ALL, values));
+        });
+
+        VBox controls = new VBox(10, new Label("Stack Operations"), inputField, pushBtn, popBtn, peekBtn, isEmptyBtn,
+                batch);
+        controls.setAlignment(Pos.CENTER);
+        leftPanel.getChildren().add(controls);
+    }
+
+    private void setupQueueControls() {
+        TextField inputField = new TextField();
+        inputField.setPromptText("Enter value");
+
+        Button enqueueBtn = new Button("Enqueue");
+        Button dequeueBtn = new Button("Dequeue");
+        Button enqueueFrontBtn = new Button("Enqueue Front");
+        Button dequeueBackBtn = new Button("Dequeue Back");
+        Button peekBtn = new Button("Peek");
+        Button frontBtn = new Button("Front");
+        Button isEmptyBtn = new Button("Is Empty");
+
+        enqueueBtn.setOnAction(e -> {
+            String value = inputField.getText().trim();
+            if (!value.isEmpty()) {
+                queue.enqueue(value); // Delegate to Queue class
+                record(w -> w.write(TraceOp.QUEUE_ENQUEUE, value));
+                inputField.clear();
+            } else {
+                showWarning(canvas, "Please enter a value");
+            }
+        });
+
+        dequeueBtn.setOnAction(e -> {
+            try {
+                queue.dequeue(); // Delegate to Queue class
+                record(w -> w.write(TraceOp.QUEUE_DEQUEUE));
+            } catch (Exception ex) { // Assuming Queue.dequeue might throw if empty
+                showWarning(canvas, ex.getMessage());
+            }
+        });
+        enqueueFrontBtn.setOnAction(e -> {
+            String value = inputField.getText().trim();
+            if (!value.isEmpty()) {
+                queue.enqueueFront(value); // Delegate to Queue class
+                record(w -> w.write(TraceOp.QUEUE_ENQUEUE_FRONT, value));
+                inputField.clear();
+            } else {
+                showWarning(canvas, "Please enter a value");
+            }
+        });
+
+        dequeueBackBtn.setOnAction(e -> {
+            queue.dequeueBack(); // Delegate to Queue class
+            record(w -> w.write(TraceOp.QUEUE_DEQUEUE_BACK));
+        });
+        peekBtn.setOnAction(e -> {
+            queue.peek(); // Delegate to Queue class
+            record(w -> w.write(TraceOp.QUEUE_PEEK));
+        });
+
+        frontBtn.setOnAction(e -> {
+            try {
+                String frontValue = queue.front(); // Delegate to Queue class
+                showWarning(canvas, "Front element: " + frontValue);
+            } catch (NoSuchElementException ex) {
+                showWarning(canvas, ex.getMessage());
+            }
+        });
+
+        isEmptyBtn.setOnAction(e -> queue.isEmptyVisual()); // Delegate to Queue class
+
+        VBox batch = createBatchControls("Enqueue All", text -> {
+            List<String> values = ValueParser.parseValues(text);
+            queue.enqueueAll(values);
+            record(w -> w.write(TraceOp.QUEUE_ENQUEUE_ALL, values));
+        });
+
+        VBox controls = new VBox(10, new Label("Queue Operations"), inputField, enqueueBtn, dequeueBtn,
+                enqueueFrontBtn, dequeueBackBtn, peekBtn, frontBtn, isEmptyBtn, batch);
+        controls.setAlignment(Pos.CENTER);
+        leftPanel.getChildren().add(controls);
+    }
+
+    private void setupHeapControls() {
+        TextField inputField = new TextField();
+        inputField.setPromptText("Enter number");
+
+        Button insertBtn = new Button("Insert");
+        Button removeMaxBtn = new Button("Remove Max"); // Or Min, depending on heap type
+        Button peekBtn = new Button("Peek Max"); // Or Min, depending on heap type
+        Button isEmptyBtn = new Button("Is Empty");
+        // Act on the node last clicked, wherever it has moved since
+        Label selectedLabel = new Label();
+        Button updateKeyBtn = new Button("Update Key");
+        Button removeNodeBtn = new Button("Remove Node");
+        Runnable showSelected = () -> {
+            int handle = heap.getSelected();
+            selectedLabel.setText(handle < 0 ? "Click a node to pick it"
+                    : "Picked: " + heap.getModel().keyOf(handle));
+        };
+        showSelected.run();
+        heap.setOnSelect(showSelected);
+
+        // Children per node; switching rebuilds an empty heap of the new shape
+        MenuButton arityMenu = new MenuButton(arityName(heap.getArity()));
+        for (int arity : new int[] { 2, 4, 8 }) {
+            MenuItem item = new MenuItem(arityName(arity));
+            item.setOnAction(e -> {
+                setHeapArity(arity);
+                record(w -> w.write(TraceOp.HEAP_ARITY, arity));
+                arityMenu.setText(arityName(arity));
+                heap.setOnSelect(showSelected);
+                showSelected.run();
+            });
+            arityMenu.getItems().add(item);
+        }
+
+        insertBtn.setOnAction(e -> {
+            String value = inputField.getText().trim();
+            try {
+                int num = Integer.parseInt(value);
+                heap.insert(num); // Delegate to Heap class
+                record(w -> w.write(TraceOp.HEAP_INSERT, num));
+                inputField.clear();
+            } catch (NumberFormatException ex) {
+                showWarning(canvas, "Please enter a valid number");
+            }
+        });
+
+        removeMaxBtn.setOnAction(e -> {
+            try {
+                heap.removeRoot(); // Delegate to Heap class
+                record(w -> w.write(TraceOp.HEAP_REMOVE_ROOT));
+                showSelected.run(); // The picked node may have been the root
+            } catch (Exception ex) { // Assuming Heap.removeRoot might throw if empty
+                showWarning(canvas, ex.getMessage());
+            }
+        });
+        peekBtn.setOnAction(e -> {
+            heap.peekRoot(); // Delegate to Heap class
+            record(w -> w.write(TraceOp.HEAP_PEEK));
+        });
+        isEmptyBtn.setOnAction(e -> heap.isEmptyVisual()); // Delegate to Heap class
+
+        updateKeyBtn.setOnAction(e -> {
+            int handle = heap.getSelected();
+            if (handle < 0) {
+                showWarning(canvas, "Click a node to pick it first");
+                return;
+            }
+            try {
+                int num = Integer.parseInt(inputField.getText().trim());
+                heap.updateKey(handle, num);
+                record(w -> w.write(TraceOp.HEAP_UPDATE_KEY, new int[] { handle, num }));
+                inputField.clear();
+                showSelected.run();
+            } catch (NumberFormatException ex) {
+                showWarning(canvas, "Enter the new key as a number");
+            }
+        });
+
+        removeNodeBtn.setOnAction(e -> {
+            int handle = heap.getSelected();
+            if (handle < 0) {
+                showWarning(canvas, "Click a node to pick it first");
+                return;
+            }
+            heap.remove(handle);
+            record(w -> w.write(TraceOp.HEAP_REMOVE, handle));
+            showSelected.run();
+        });
+
+        // One bulk heapify instead of one insert per value
+        VBox batch = createBatchControls("Insert All", text -> {
+            int[] values = ValueParser.parseInts(text);
+            heap.insertAll(values);
+            record(w -> w.write(TraceOp.HEAP_INSERT_ALL, values));
+        });
+
+        VBox controls = new VBox(10, new Label("Heap Operations"), arityMenu, inputField, insertBtn, removeMaxBtn,
+                peekBtn, isEmptyBtn, selectedLabel, updateKeyBtn, removeNodeBtn, batch);
+        controls.setAlignment(Pos.CENTER);
+        leftPanel.getChildren().addAll(controls, createFileLoadControls(TraceOp.HEAP_LOAD,
+                reader -> heap.load(reader, Long.MAX_VALUE)));
+    }
+
+    // Replaces the heap with an empty one of the given shape
+    private void setHeapArity(int arity) {
+        heap.dispose();
+        heap = new Heap(canvas, true, arity);
+    }
+
+    private static String arityName(int arity) {
+        return arity == 2 ? "Binary Heap" : arity + "-ary Heap";
+    }
+
+    private void setupBSTControls() {
+        TextField inputField = new TextField();
+        inputField.setPromptText("Enter number");
+
+        Button insertBtn = new Button("Insert");
+        Button deleteBtn = new Button("Delete");
+        Button searchBtn = new Button("Search");
+
+        // Balancing scheme; switching rebuilds an empty tree
+        MenuButton balanceMenu = new MenuButton(balanceName(bst.getBalance()));
+        for (BstModel.Balance balance : BstModel.Balance.values()) {
+            MenuItem item = new MenuItem(balanceName(balance));
+            item.setOnAction(e -> {
+                setBstBalance(balance);
+                record(w -> w.write(TraceOp.BST_BALANCE, balance.ordinal()));
+                balanceMenu.setText(balanceName(balance));
+            });
+            balanceMenu.getItems().add(item);
+        }
+
+        insertBtn.setOnAction(e -> {
+            String value = inputField.getText().trim();
+            try {
+                int num = Integer.parseInt(value);
+                bst.insert(num); // Delegate to BST class
+                record(w -> w.write(TraceOp.BST_INSERT, num));
+                inputField.clear();
+            } catch (NumberFormatException ex) {
+                showWarning(canvas, "Please enter a valid number");
+            }
+        });
+
+        deleteBtn.setOnAction(e -> {
+            String value = inputField.getText().trim();
+            try {
+                int num = Integer.parseInt(value);
+                bst.delete(num); // Delegate to BST class
+                record(w -> w.write(TraceOp.BST_DELETE, num));
+                inputField.clear();
+            } catch (NumberFormatException ex) {
+                showWarning(canvas, "Please enter a valid number");
+            }
+        });
+
+        searchBtn.setOnAction(e -> {
+            String value = inputField.getText().trim();
+            try {
+                int num = Integer.parseInt(value);
+                bst.search(num); // Delegate to BST class
+                record(w -> w.write(TraceOp.BST_SEARCH, num));
+                inputField.clear();
+            } catch (NumberFormatException ex) {
+                showWarning(canvas, "Please enter a valid number");
+            }
+        });
+
+        VBox batch = createBatchControls("Insert All", text -> {
+            int[] keys = ValueParser.parseInts(text);
+            bst.insertAll(keys);
+            record(w -> w.write(TraceOp.BST_INSERT_ALL, keys));
+        });
+
+        VBox controls = new VBox(10, new Label("BST Operations"), balanceMenu, inputField, insertBtn, deleteBtn,
+                searchBtn, batch);
+        controls.setAlignment(Pos.CENTER);
+        leftPanel.getChildren().addAll(controls, createFileLoadControls(TraceOp.BST_LOAD,
+                reader -> bst.load(reader, Long.MAX_VALUE)));
+    }
+
+    // Replaces the tree with an empty one balanced the given way
+    private void setBstBalance(BstModel.Balance balance) {
+        bst.dispose();
+        bst = new BinarySearchTree(canvas, balance);
+    }
+
+    private static String balanceName(BstModel.Balance balance) {
+        switch (balance) {
+            case AVL:
+                return "AVL Tree";
+            case RED_BLACK:
+                return "Red-Black Tree";
+            default:
+                return "Unbalanced BST";
+        }
+    }
+
+    private void setupMeldableHeapControls() {
+        TextField inputField = new TextField();
+        inputField.setPromptText("Enter number");
+
+        Button insertBtn = new Button("Insert");
+        Button removeMaxBtn = new Button("Remove Max");
+        Button peekBtn = new Button("Peek Max");
+        Button isEmptyBtn = new Button("Is Empty");
+        Button meldBtn = new Button("Meld");
+
+        // Pointer structure; switching empties both heaps
+        MenuButton kindMenu = new MenuButton(kindName(meldable.getKind()));
+        for (MeldableHeapModel.Kind kind : MeldableHeapModel.Kind.values()) {
+            MenuItem item = new MenuItem(kindName(kind));
+            item.setOnAction(e -> {
+                meldable.setKind(kind);
+                record(w -> w.write(TraceOp.MELDABLE_KIND, kind.ordinal()));
+                kindMenu.setText(kindName(kind));
+            });
+            kindMenu.getItems().add(item);
+        }
+
+        insertBtn.setOnAction(e -> {
+            String value = inputField.getText().trim();
+            try {
+                int num = Integer.parseInt(value);
+                meldable.insert(num);
+                record(w -> w.write(TraceOp.MELDABLE_INSERT, num));
+                inputField.clear();
+            } catch (NumberFormatException ex) {
+                showWarning(canvas, "Please enter a valid number");
+            }
+        });
+
+        removeMaxBtn.setOnAction(e -> {
+            meldable.removeRoot();
+            record(w -> w.write(TraceOp.MELDABLE_REMOVE_ROOT));
+        });
+        peekBtn.setOnAction(e -> {
+            meldable.peekRoot();
+            record(w -> w.write(TraceOp.MELDABLE_PEEK));
+        });
+        isEmptyBtn.setOnAction(e -> meldable.isEmptyVisual());
+
+        VBox batch = createBatchControls("Insert All", text -> {
+            int[] values = ValueParser.parseInts(text);
+            meldable.insertAll(values);
+            record(w -> w.write(TraceOp.MELDABLE_INSERT_ALL, values));
+        });
+
+        // The second heap is drawn to the right of the first until it is melded in
+        VBox second = createBatchControls("Add to Second Heap", text -> {
+            int[] values = ValueParser.parseInts(text);
+            meldable.stage(values);
+            record(w -> w.write(TraceOp.MELDABLE_STAGE, values));
+        });
+        meldBtn.setOnAction(e -> {
+            meldable.meld();
+            record(w -> w.write(TraceOp.MELDABLE_MELD));
+        });
+
+        VBox controls = new VBox(10, new Label("Meldable Heap Operations"), kindMenu, inputField, insertBtn,
+                removeMaxBtn, peekBtn, isEmptyBtn, batch, second, meldBtn);
+        controls.setAlignment(Pos.CENTER);
+        leftPanel.getChildren().add(controls);
+    }
+
+    private static String kindName(MeldableHeapModel.Kind kind) {
+        return kind == MeldableHeapModel.Kind.PAIRING ? "Pairing Heap" : "Leftist Heap";
+    }
+
+    private void setupPointerListControls() {
+        TextField inputField = new TextField();
+        inputField.setPromptText("Enter value");
+
+        Button addBtn = new Button("Add Node");
+        Button insertAfterBtn = new Button("Insert After Cursor");
+        Button removeBtn = new Button("Remove At Cursor");
+        Button nextBtn = new Button("Next");
+        Button prevBtn = new Button("Prev");
+        Button resetBtn = new Button("Cursor Before Head");
+        Button tidyBtn = new Button("Tidy Layout");
+
+        // Links per node; switching rebuilds an empty list
+        MenuButton linkMenu = new MenuButton(linkName(pointerList.isDoubly()));
+        for (boolean doubly : new boolean[] { false, true }) {
+            MenuItem item = new MenuItem(linkName(doubly));
+            item.setOnAction(e -> {
+                pointerList.setDoubly(doubly);
+                record(w -> w.write(TraceOp.POINTER_DOUBLY, doubly ? 1 : 0));
+                linkMenu.setText(linkName(doubly));
+            });
+            linkMenu.getItems().add(item);
+        }
+
+        addBtn.setOnAction(e -> {
+            String value = inputField.getText().trim();
+            if (value.isEmpty()) {
+                showWarning(canvas, "Please enter a value");
+                return;
+            }
+            pointerList.add(value);
+            record(w -> w.write(TraceOp.POINTER_ADD, value));
+            inputField.clear();
+        });
+
+        insertAfterBtn.setOnAction(e -> {
+            String value = inputField.getText().trim();
+            if (value.isEmpty()) {
+                showWarning(canvas, "Please enter a value");
+                return;
+            }
+            pointerList.insertAfterCursor(value);
+            record(w -> w.write(TraceOp.POINTER_INSERT_AFTER_CURSOR, value));
+            inputField.clear();
+        });
+
+        removeBtn.setOnAction(e -> {
+            pointerList.removeAtCursor();
+            record(w -> w.write(TraceOp.POINTER_REMOVE_AT_CURSOR));
+        });
+        nextBtn.setOnAction(e -> {
+            pointerList.next();
+            record(w -> w.write(TraceOp.POINTER_NEXT));
+        });
+        prevBtn.setOnAction(e -> {
+            pointerList.prev();
+            record(w -> w.write(TraceOp.POINTER_PREV));
+        });
+        resetBtn.setOnAction(e -> {
+            pointerList.resetCursor();
+            record(w -> w.write(TraceOp.POINTER_RESET_CURSOR));
+        });
+        tidyBtn.setOnAction(e -> {
+            pointerList.tidy();
+            record(w -> w.write(TraceOp.POINTER_TIDY));
+        });
+
+        VBox batch = createBatchControls("Add All", text -> {
+            List<String> values = ValueParser.parseValues(text);
+            pointerList.addAll(values);
+            record(w -> w.write(TraceOp.POINTER_ADD_ALL, values));
+        });
+
+        HBox cursorButtons = new HBox(5, prevBtn, nextBtn);
+        cursorButtons.setAlignment(Pos.CENTER);
+        VBox controls = new VBox(10, new Label("Pointer List Operations"), linkMenu, inputField, addBtn,
+                insertAfterBtn, removeBtn, cursorButtons, resetBtn, tidyBtn, batch);
+        controls.setAlignment(Pos.CENTER);
+        leftPanel.getChildren().add(controls);
+    }
+
+    private static String linkName(boolean doubly) {
+        return doubly ? "Doubly Linked" : "Singly Linked";
+    }
+
+    // --- General Utility Methods ---
+
+    /**
+     * Creates a box for typing or pasting many values at once, e.g.
+     * {@code 5, 3 9} on several lines or a range such as {@code 1..1000},
+     * with a button handing the whole text to the given action.
+     */
+    private VBox createBatchControls(String buttonText, Consumer<String> action) {
+        TextArea batchArea = new TextArea(); // Unlike a TextField, keeps the line breaks of a pasted block
+        batchArea.setPromptText("Many values: 1, 2 3 or 1..100");
+        batchArea.setPrefRowCount(3);
+        batchArea.setPrefColumnCount(12);
+        batchArea.setWrapText(true);
+
+        Button batchBtn = new Button(buttonText);
+        batchBtn.setOnAction(e -> {
+            String text = batchArea.getText();
+            if (text.isBlank()) {
+                showWarning(canvas, "Please enter a value");
+                return;
+            }
+            try {
+                action.accept(text);
+                batchArea.clear();
+            } catch (NumberFormatException ex) {
+                showWarning(canvas, "Enter numbers separated by commas or spaces, or ranges like 1..100");
+            } catch (IllegalArgumentException ex) {
+                showWarning(canvas, ex.getMessage());
+            }
+        });
+
+        VBox batch = new VBox(5, batchArea, batchBtn);
+        batch.setAlignment(Pos.CENTER);
+        return batch;
+    }
+
+    /**
+     * Creates a button that streams a file of keys into the current
+     * structure on a background thread, with a progress bar and a Stop
+     * button while it runs. Binary files ({@code .bin}, {@code .i32},
+     * {@code .dat}) hold little-endian 32-bit keys; any other file is read
+     * as text.
+     *
+     * @param op   Records the load, with the keys it delivered, once it ends.
+     * @param load Prepares the load for the chosen file.
+     */
+    private VBox createFileLoadControls(TraceOp op, Function<KeyFileReader, KeyLoadTask> load) {
+        Button loadBtn = new Button("Load File...");
+        ProgressBar progressBar = new ProgressBar(0);
+        progressBar.setPrefWidth(90);
+        Button stopBtn = new Button("Stop");
+        HBox progressBox = new HBox(5, progressBar, stopBtn);
+        progressBox.setAlignment(Pos.CENTER);
+        progressBox.setVisible(false);
+        progressBox.setManaged(false);
+        VBox box = new VBox(5, loadBtn, progressBox);
+        box.setAlignment(Pos.CENTER);
+
+        loadBtn.setOnAction(e -> {
+            FileChooser chooser = new FileChooser();
+            chooser.setTitle("Load Keys");
+            chooser.getExtensionFilters().addAll(
+                    new FileChooser.ExtensionFilter("Key files", "*.bin", "*.i32", "*.dat", "*.txt", "*.csv"),
+                    new FileChooser.ExtensionFilter("All files", "*.*"));
+            File file = chooser.showOpenDialog(stage);
+            if (file == null) {
+                return;
+            }
+            KeyLoadTask task = load.apply(new KeyFileReader(file.toPath()));
+            progressBar.progressProperty().bind(task.progressProperty());
+            stopBtn.setOnAction(ev -> task.stop());
+            task.setOnSucceeded(ev -> {
+                String verb = task.isStopped() ? "Stopped after " : "Loaded ";
+                showWarning(canvas, verb + task.getValue() + " keys from " + file.getName());
+            });
+            task.setOnFailed(ev -> showWarning(canvas, "Could not load " + file.getName() + ": "
+                    + task.getException().getMessage()));
+            // The structure belongs to the loader until it is done
+            setControlsLocked(true, box);
+            loadBtn.setDisable(true);
+            progressBox.setVisible(true);
+            progressBox.setManaged(true);
+            task.setOnEnded(() -> {
+                recordLoad(op, file.toPath(), task.delivered());
+                setControlsLocked(false);
+                loadBtn.setDisable(false);
+                progressBox.setVisible(false);
+                progressBox.setManaged(false);
+                progressBar.progressProperty().unbind();
+            });
+            Thread loader = new Thread(task, "key-loader");
+            loader.setDaemon(true);
+            loader.start();
+        });
+        return box;
+    }
+
+    /**
+     * Disables or re-enables every control in the side panel and the control
+     * bar, apart from the given ones, while something else owns the current
+     * structure.
+     */
+    private void setControlsLocked(boolean locked, Node... keep) {
+        List<Node> controls = new ArrayList<>(leftPanel.getChildren());
+        VBox rightPanel = (VBox) canvas.getParent();
+        controls.addAll(((HBox) rightPanel.getChildren().get(0)).getChildren()); // Control bar
+        for (Node node : controls) {
+            node.setDisable(locked && !Arrays.asList(keep).contains(node));
+        }
+    }
+
+    /**
+     * Fills the trace controls for the current state: a Record toggle, a
+     * Replay menu and a Snapshot menu, or a Stop button while a replay runs.
+     */
+    private void refreshTraceControls() {
+        if (tracePlayer != null) {
+            Button stopBtn = new Button("Stop Replay");
+            stopBtn.setOnAction(e -> tracePlayer.stop());
+            traceControls.getChildren().setAll(stopBtn);
+            return;
+        }
+        ToggleButton recordBtn = new ToggleButton("Record");
+        recordBtn.setSelected(traceWriter != null);
+        MenuButton replayMenu = new MenuButton("Replay");
+        replayMenu.setDisable(traceWriter != null);
+        // A trace cannot hold a restored snapshot, so none is opened while recording
+        MenuItem openSnapshotItem = new MenuItem("Open...");
+        openSnapshotItem.setDisable(traceWriter != null);
+        recordBtn.setOnAction(e -> {
+            if (recordBtn.isSelected()) {
+                recordBtn.setSelected(startRecording());
+            } else {
+                stopRecording();
+            }
+            replayMenu.setDisable(traceWriter != null);
+            openSnapshotItem.setDisable(traceWriter != null);
+        });
+        MenuItem animatedItem = new MenuItem("Animated...");
+        animatedItem.setOnAction(e -> startReplay(true));
+        MenuItem fullSpeedItem = new MenuItem("Full Speed...");
+        fullSpeedItem.setOnAction(e -> startReplay(false));
+        replayMenu.getItems().addAll(animatedItem, fullSpeedItem);
+        MenuItem saveSnapshotItem = new MenuItem("Save...");
+        saveSnapshotItem.setOnAction(e -> saveSnapshot());
+        openSnapshotItem.setOnAction(e -> openSnapshot());
+        MenuButton snapshotMenu = new MenuButton("Snapshot", null, saveSnapshotItem, openSnapshotItem);
+        traceControls.getChildren().setAll(recordBtn, replayMenu, snapshotMenu);
+        traceControls.setAlignment(Pos.CENTER_LEFT);
+    }
+
+    private static FileChooser traceChooser(String title) {
+        FileChooser chooser = new FileChooser();
+        chooser.setTitle(title);
+        chooser.getExtensionFilters().addAll(new FileChooser.ExtensionFilter("Operation traces", "*.dstrace"),
+                new FileChooser.ExtensionFilter("All files", "*.*"));
+        return chooser;
+    }
+
+    /**
+     * Asks where to save a trace and starts recording every operation to it.
+     *
+     * @return Whether recording started.
+     */
+    private boolean startRecording() {
+        File file = traceChooser("Record Operations").showSaveDialog(stage);
+        if (file == null) {
+            return false;
+        }
+        try {
+            traceWriter = new TraceWriter(file.toPath());
+            traceDirectory = file.toPath().toAbsolutePath().getParent();
+            return true;
+        } catch (IOException ex) {
+            showWarning(canvas, "Could not record to " + file.getName() + ": " + ex.getMessage());
+            return false;
+        }
+    }
+
+    private void stopRecording() {
+        if (traceWriter == null) {
+            return;
+        }
+        TraceWriter writer = traceWriter;
+        traceWriter = null;
+        try {
+            writer.close();
+            showWarning(canvas, "Recorded " + writer.getRecordCount() + " operations");
+        } catch (IOException ex) {
+            showWarning(canvas, "Recording incomplete: " + ex.getMessage());
+        }
+    }
+
+    // Writes one record of the trace being recorded
+    private interface TraceRecord {
+        void writeTo(TraceWriter writer) throws IOException;
+    }
+
+    /**
+     * Appends an operation that has just been issued to the trace, if one is
+     * being recorded. A write error ends the recording.
+     */
+    private void record(TraceRecord operation) {
+        if (traceWriter == null) {
+            return;
+        }
+        try {
+            operation.writeTo(traceWriter);
+        } catch (IOException ex) {
+            showWarning(canvas, "Recording stopped: " + ex.getMessage());
+            try {
+                traceWriter.close();
+            } catch (IOException ignored) {
+                // Already reported
+            }
+            traceWriter = null;
+            refreshTraceControls();
+        }
+    }
+
+    /**
+     * Records a key file load that has ended. The file is named relative to
+     * the trace, so the two can be moved together, unless it is on another
+     * file system root.
+     *
+     * @param keys How many keys the load delivered; a replay stops there.
+     */
+    private void recordLoad(TraceOp op, Path file, long keys) {
+        if (traceWriter == null) {
+            return;
+        }
+        Path name = file.toAbsolutePath();
+        try {
+            name = traceDirectory.relativize(name);
+        } catch (IllegalArgumentException e) {
+            // On another root; kept absolute
+        }
+        String path = name.toString();
+        int count = (int) Math.min(keys, Integer.MAX_VALUE);
+        record(w -> w.write(op, path, count));
+    }
+
+    // Resolves the key file of a load record against the trace being replayed
+    private KeyFileReader replayedFile(TraceReader record) {
+        return new KeyFileReader(traceDirectory.resolve(record.textOperand()));
+    }
+
+    /**
+     * Asks for a trace and replays it against the structures as they are.
+     *
+     * @param animated Whether to play each operation's animation, or issue
+     *                 them at full speed.
+     */
+    private void startReplay(boolean animated) {
+        File file = traceChooser("Replay Operations").showOpenDialog(stage);
+        if (file == null) {
+            return;
+        }
+        TraceReader reader;
+        try {
+            reader = new TraceReader(file.toPath());
+            traceDirectory = file.toPath().toAbsolutePath().getParent();
+        } catch (IOException ex) {
+            showWarning(canvas, "Could not replay " + file.getName() + ": " + ex.getMessage());
+            return;
+        }
+        tracePlayer = new TracePlayer(reader, this::apply, animated, message -> {
+            tracePlayer = null;
+            refreshTraceControls();
+            setControlsLocked(false);
+            showWarning(canvas, message);
+        });
+        refreshTraceControls();
+        setControlsLocked(true, animationControls, traceControls, statsControls);
+        tracePlayer.start();
+    }
+
+    /**
+     * Issues the operation of a trace record, switching to its structure first.
+     *
+     * @return The key file load it started, if any.
+     */
+    private KeyLoadTask apply(TraceReader record) {
+        TraceOp op = record.op();
+        Mode mode = Mode.valueOf(op.structure().name());
+        if (mode != currentMode) {
+            switchToMode(mode);
+        }
+        stats.begin(op.name(), currentModel());
+        OperationEvent event = OperationEvent.start(op.structure().name(), op.name(), currentSize());
+        try {
+            return issue(op, record);
+        } finally {
+            event.end(currentSize());
+        }
+    }
+
+    private KeyLoadTask issue(TraceOp op, TraceReader record) {
+        switch (op) {
+            case LIST_ADD:
+                linkedList.addNode(record.textOperand());
+                break;
+            case LIST_INSERT_AT:
+                linkedList.insertAt(record.textOperand(), record.intOperand());
+                break;
+            case LIST_REMOVE_LAST:
+                linkedList.removeLast();
+                break;
+            case LIST_REMOVE_AT:
+                linkedList.removeAt(record.intOperand());
+                break;
+            case LIST_SEARCH:
+                linkedList.search(record.textOperand());
+                break;
+            case LIST_ADD_ALL:
+                linkedList.addAll(record.textOperands());
+                break;
+            case LIST_SEARCH_ALL:
+                linkedList.searchAll(record.textOperand());
+                break;
+            case LIST_INDEXED:
+                linkedList.setIndexed(record.intOperand() != 0); // Switching modes would clear the list
+                break;
+            case STACK_PUSH:
+                stack.push(record.textOperand());
+                break;
+            case STACK_POP:
+                stack.pop();
+                break;
+            case STACK_PEEK:
+                stack.peek();
+                break;
+            case STACK_PUSH_ALL:
+                stack.pushAll(record.textOperands());
+                break;
+            case QUEUE_ENQUEUE:
+                queue.enqueue(record.textOperand());
+                break;
+            case QUEUE_DEQUEUE:
+                queue.dequeue();
+                break;
+            case QUEUE_ENQUEUE_FRONT:
+                queue.enqueueFront(record.textOperand());
+                break;
+            case QUEUE_DEQUEUE_BACK:
+                queue.dequeueBack();
+                break;
+            case QUEUE_PEEK:
+                queue.peek();
+                break;
+            case QUEUE_ENQUEUE_ALL:
+                queue.enqueueAll(record.textOperands());
+                break;
+            case HEAP_INSERT:
+                heap.insert(record.intOperand());
+                break;
+            case HEAP_REMOVE_ROOT:
+                heap.removeRoot();
+                break;
+            case HEAP_PEEK:
+                heap.peekRoot();
+                break;
+            case HEAP_INSERT_ALL:
+                heap.insertAll(record.intOperands());
+                break;
+            case HEAP_ARITY:
+                setHeapArity(record.intOperand());
+                switchToMode(Mode.HEAP); // Shows the new arity in the panel
+                break;
+            case HEAP_LOAD:
+                return heap.load(replayedFile(record), record.intOperand());
+            case HEAP_UPDATE_KEY:
+                int[] operands = record.intOperands();
+                heap.updateKey(operands[0], operands[1]);
+                break;
+            case HEAP_REMOVE:
+                heap.remove(record.intOperand());
+                break;
+            case BST_INSERT:
+                bst.insert(record.intOperand());
+                break;
+            case BST_DELETE:
+                bst.delete(record.intOperand());
+                break;
+            case BST_SEARCH:
+                bst.search(record.intOperand());
+                break;
+            case BST_INSERT_ALL:
+                bst.insertAll(record.intOperands());
+                break;
+            case BST_BALANCE:
+                setBstBalance(BstModel.Balance.values()[record.intOperand()]);
+                switchToMode(Mode.BST); // Shows the new balance in the panel
+                break;
+            case BST_LOAD:
+                return bst.load(replayedFile(record), record.intOperand());
+            case MELDABLE_INSERT:
+                meldable.insert(record.intOperand());
+                break;
+            case MELDABLE_REMOVE_ROOT:
+                meldable.removeRoot();
+                break;
+            case MELDABLE_PEEK:
+                meldable.peekRoot();
+                break;
+            case MELDABLE_INSERT_ALL:
+                meldable.insertAll(record.intOperands());
+                break;
+            case MELDABLE_KIND:
+                meldable.setKind(MeldableHeapModel.Kind.values()[record.intOperand()]);
+                switchToMode(Mode.MELDABLE_HEAP); // Shows the new kind in the panel
+                break;
+            case MELDABLE_STAGE:
+                meldable.stage(record.intOperands());
+                break;
+            case MELDABLE_MELD:
+                meldable.meld();
+                break;
+            case POINTER_ADD:
+                pointerList.add(record.textOperand());
+                break;
+            case POINTER_INSERT_AFTER_CURSOR:
+                pointerList.insertAfterCursor(record.textOperand());
+                break;
+            case POINTER_REMOVE_AT_CURSOR:
+                pointerList.removeAtCursor();
+                break;
+            case POINTER_NEXT:
+                pointerList.next();
+                break;
+            case POINTER_PREV:
+                pointerList.prev();
+                break;
+            case POINTER_RESET_CURSOR:
+                pointerList.resetCursor();
+                break;
+            case POINTER_ADD_ALL:
+                pointerList.addAll(record.textOperands());
+                break;
+            case POINTER_DOUBLY:
+                pointerList.setDoubly(record.intOperand() != 0);
+                switchToMode(Mode.POINTER_LIST); // Shows the new linking in the panel
+                break;
+            case POINTER_TIDY:
+                pointerList.tidy();
+                break;
+            default: // The clear of each structure
+                clearCurrentStructure();
+                break;
+        }
+        return null;
+    }
+
+    private static FileChooser snapshotChooser(String title) {
+        FileChooser chooser = new FileChooser();
+        chooser.setTitle(title);
+        chooser.getExtensionFilters().addAll(new FileChooser.ExtensionFilter("Snapshots", "*.dssnap"),
+                new FileChooser.ExtensionFilter("All files", "*.*"));
+        return chooser;
+    }
+
+    /**
+     * Asks where to save the current structure and writes it there.
+     */
+    private void saveSnapshot() {
+        File file = snapshotChooser("Save Snapshot").showSaveDialog(stage);
+        if (file == null) {
+            return;
+        }
+        Path path = file.toPath();
+        try {
+            switch (currentMode) {
+                case LINKED_LIST:
+                    Snapshot.write(path, linkedList.getModel());
+                    break;
+                case STACK:
+                    Snapshot.write(path, stack.getModel());
+                    break;
+                case QUEUE:
+                    Snapshot.write(path, queue.getModel());
+                    break;
+                case HEAP:
+                    Snapshot.write(path, heap.getModel());
+                    break;
+                case BST:
+                    Snapshot.write(path, bst.getModel());
+                    break;
+                case MELDABLE_HEAP:
+                case POINTER_LIST:
+                    showWarning(canvas, "Snapshots of " + createDataStructureMenu.getText().toLowerCase()
+                            + "s are not supported");
+                    return;
+                default:
+                    return;
+            }
+            showWarning(canvas, "Saved " + file.getName());
+        } catch (IOException ex) {
+            showWarning(canvas, "Could not save " + file.getName() + ": " + ex.getMessage());
+        }
+    }
+
+    /**
+     * Asks for a snapshot and restores it, switching to its structure and,
+     * for a heap or tree, to its shape.
+     */
+    private void openSnapshot() {
+        File file = snapshotChooser("Open Snapshot").showOpenDialog(stage);
+        if (file == null) {
+            return;
+        }
+        Snapshot snapshot;
+        try {
+            snapshot = Snapshot.read(file.toPath());
+        } catch (IOException ex) {
+            showWarning(canvas, "Could not open " + file.getName() + ": " + ex.getMessage());
+            return;
+        }
+        Mode mode = Mode.valueOf(snapshot.getStructure().name());
+        if (mode == Mode.HEAP && (heap.getModel().getArity() != snapshot.getArity()
+                || heap.getModel().isMaxHeap() != snapshot.isMaxHeap())) {
+            heap.dispose();
+            heap = new Heap(canvas, snapshot.isMaxHeap(), snapshot.getArity());
+        } else if (mode == Mode.BST && bst.getBalance() != snapshot.getBalance()) {
+            setBstBalance(snapshot.getBalance());
+        }
+        switchToMode(mode); // Also shows the restored shape in the panel
+        try {
+            switch (mode) {
+                case LINKED_LIST:
+                    linkedList.restore(snapshot);
+                    break;
+                case STACK:
+                    stack.restore(snapshot);
+                    break;
+                case QUEUE:
+                    queue.restore(snapshot);
+                    break;
+                case HEAP:
+                    heap.restore(snapshot);
+                    break;
+                default:
+                    bst.restore(snapshot);
+                    break;
+            }
+            showWarning(canvas, "Restored " + snapshot.size() + " elements");
+        } catch (IllegalArgumentException ex) {
+            showWarning(canvas, "Could not restore " + file.getName() + ": " + ex.getMessage());
+        }
+    }
+
+    /**
+     * Creates the pause, step, skip and speed controls shared by every
+     * structure's animations.
+     */
+    private HBox createAnimationControls() {
+        AnimationScheduler scheduler = AnimationScheduler.shared();
+
+        ToggleButton pauseBtn = new ToggleButton("Pause");
+        pauseBtn.setSelected(scheduler.isPaused());
+        pauseBtn.setOnAction(e -> scheduler.setPaused(pauseBtn.isSelected()));
+
+        Button stepBtn = new Button("Step");
+        stepBtn.setOnAction(e -> scheduler.step());
+
+        Button skipBtn = new Button("Skip");
+        skipBtn.setOnAction(e -> scheduler.skip());
+
+        // Slider works in powers of two so 1x sits in the middle of 0.25x..4x
+        Slider speedSlider = new Slider(-2, 2, Math.log(scheduler.getSpeed()) / Math.log(2));
+        speedSlider.setPrefWidth(100);
+        Label speedLabel = new Label(speedName(scheduler.getSpeed()));
+        speedSlider.valueProperty().addListener((obs, old, now) -> {
+            double speed = Math.pow(2, now.doubleValue());
+            scheduler.setSpeed(speed);
+            speedLabel.setText(speedName(speed));
+        });
+
+        HBox controls = new HBox(5, pauseBtn, stepBtn, skipBtn, new Label("Speed"), speedSlider, speedLabel);
+        controls.setAlignment(Pos.CENTER_LEFT);
+        return controls;
+    }
+
+    private static String speedName(double speed) {
+        return String.format("%.2fx", speed);
+    }
+
+    /**
+     * Creates the Stats toggle, which counts each operation's costs and lists
+     * the latest ones beneath the canvas, and a button exporting them as CSV.
+     */
+    private HBox createStatsControls() {
+        ToggleButton statsBtn = new ToggleButton("Stats");
+        statsBtn.setSelected(stats.isEnabled());
+        statsBtn.setOnAction(e -> {
+            boolean on = statsBtn.isSelected();
+            stats.setEnabled(on, canvas);
+            statsOverlay.setVisible(on);
+            statsOverlay.setManaged(on);
+            if (on) {
+                statsRefresh.start();
+            } else {
+                statsRefresh.stop();
+            }
+        });
+
+        Button exportBtn = new Button("Export CSV...");
+        exportBtn.setOnAction(e -> exportStats());
+
+        HBox controls = new HBox(5, statsBtn, exportBtn);
+        controls.setAlignment(Pos.CENTER_LEFT);
+        return controls;
+    }
+
+    /**
+     * Asks where to save the counted operations and writes them there as CSV.
+     */
+    private void exportStats() {
+        if (stats.isEmpty()) {
+            showWarning(canvas, "No operations counted; turn on Stats first");
+            return;
+        }
+        FileChooser chooser = new FileChooser();
+        chooser.setTitle("Export Operation Stats");
+        chooser.getExtensionFilters().addAll(new FileChooser.ExtensionFilter("CSV files", "*.csv"),
+                new FileChooser.ExtensionFilter("All files", "*.*"));
+        File file = chooser.showSaveDialog(stage);
+        if (file == null) {
+            return;
+        }
+        try {
+            stats.writeCsv(file.toPath());
+            showWarning(canvas, "Exported stats to " + file.getName());
+        } catch (IOException ex) {
+            showWarning(canvas, "Could not export " + file.getName() + ": " + ex.getMessage());
+        }
+    }
+
+    private int currentSize() {
+        ObservableStructure model = currentModel();
+        return model == null ? 0 : model.size();
+    }
+
+    /**
+     * @return The model behind the current structure, or null in quit mode.
+     */
+    private ObservableStructure currentModel() {
+        switch (currentMode) {
+            case LINKED_LIST:
+                return linkedList.getModel();
+            case STACK:
+                return stack.getModel();
+            case QUEUE:
+                return queue.getModel();
+            case HEAP:
+                return heap.getModel();
+            case BST:
+                return bst.getModel();
+            case MELDABLE_HEAP:
+                return meldable.getModel();
+            case POINTER_LIST:
+                return pointerList.getModel();
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Displays a temporary warning message on the canvas.
+     * 
+     * @param canvas The canvas to display the message on.
+     * @param msg    The warning message text.
+     */
+    private void showWarning(Pane canvas, String msg) {
+        Label warning = new Label(msg);
+        warning.setStyle(
+                "-fx-background-color: #ffeb3b; -fx-text-fill: #d32f2f; -fx-padding: 5; -fx-border-radius: 5;");
+        warning.setLayoutX(10);
+        warning.setLayoutY(10);
+        // Ensure the warning is visible by bringing it to the front
+        warning.setViewOrder(-1); // Lower view order means higher z-index
+        canvas.getChildren().add(warning);
+
+        // Remove the warning after a delay, whatever the animation speed
+        AnimationScheduler.shared().after(2, () -> canvas.getChildren().remove(warning));
+    }
+
+    /**
+     * Clears the visualization for the currently selected data structure.
+     */
+    private void clearCurrentStructure() {
+        canvas.getChildren().clear(); // Clear all visual elements first
+        if (currentMode == Mode.LINKED_LIST) {
+            // Delegate clearing to the LinkedList class
+            linkedList.clear();
+        } else if (currentMode == Mode.STACK) {
+            // Delegate clearing to the Stack class
+            stack.clear();
+        } else if (currentMode == Mode.QUEUE) {
+            // Delegate clearing to the Queue class
+            queue.clear();
+        } else if (currentMode == Mode.HEAP) {
+            // Delegate clearing to the Heap class
+            heap.clear(); // Also drops any swap animations still queued
+        } else if (currentMode == Mode.BST) {
+            // Delegate clearing to the BST class
+            bst.clear(); // This should handle visualization removal
+        } else if (currentMode == Mode.MELDABLE_HEAP) {
+            meldable.clear(); // Both heaps
+        } else if (currentMode == Mode.POINTER_LIST) {
+            pointerList.clear();
+        }
+        if (currentMode != Mode.QUIT) {
+            record(w -> w.write(TraceOp.clearOf(TraceOp.Structure.valueOf(currentMode.name()))));
+        }
+        // Add cases for other modes if they manage their own clearing logic differently
+    }
+
+    public static void main(String[] args) {
+        launch(args);
+    }
+}
\ No newline at end of file
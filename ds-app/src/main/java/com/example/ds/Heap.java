@@ -0,0 +1,911 @@
+package com.example.ds;
+
+import javafx.event.EventHandler;
+import javafx.scene.Group;
+import javafx.scene.Node;
+import javafx.scene.control.Label;
+import javafx.scene.input.MouseEvent;
+import javafx.scene.input.ScrollEvent;
+import javafx.scene.input.ZoomEvent;
+import javafx.scene.layout.Pane;
+import javafx.scene.paint.Color;
+import javafx.scene.shape.Circle;
+import javafx.scene.shape.Line;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import com.example.ds.core.Highlight;
+import com.example.ds.core.IndexedHeapModel;
+import com.example.ds.core.KeyFileReader;
+import com.example.ds.core.Snapshot;
+import com.example.ds.core.StructureListener;
+
+public class Heap implements StructureListener {
+    private IndexedHeapModel heap;
+    private List<Circle> circles;
+    private List<Label> labels;
+    // edges.get(i - 1) joins slot i to its parent; edges belong to slots, not values
+    private List<Line> edges;
+    private Group edgeLayer;
+    private Pane canvas;
+    private AnimationScheduler scheduler;
+    private final OpStats stats = OpStats.shared();
+    private boolean bulkLoading;
+    // Draws the heap once it outgrows canvasThreshold; null while nodes are retained
+    private CanvasRenderer renderer;
+    private int canvasThreshold = CanvasRenderer.DEFAULT_THRESHOLD;
+    // Slot geometry of the current layout; only changes when a level is added or removed
+    private int levels;
+    private double nodeSpacing, levelSpacing, layoutWidth;
+    // User pan and zoom of the canvas; zoom only spreads levels sideways, they already fit the height
+    private double zoom = 1, panX, panY;
+    // Handle of the node picked for a key change or removal, or -1
+    private int selected = -1;
+    private Circle selectedCircle;
+    private Runnable onSelect;
+    // Pan, zoom and pick handlers on the shared pane, taken off again by dispose()
+    private final EventHandler<ScrollEvent> onScroll;
+    private final EventHandler<ZoomEvent> onZoom;
+    private final EventHandler<MouseEvent> onClick;
+    private static final double RADIUS = 20;
+    private static final double HORIZONTAL_SPACING = 60; // Default spacing
+    private static final double VERTICAL_SPACING = 80;
+    private static final double LEFT_MARGIN = 50;
+    private static final double TOP_MARGIN = 50;
+    private static final double ANIMATION_DURATION = 0.3;
+    // Batches larger than this skip the sift animations and lay out once
+    private static final int ANIMATED_BATCH_LIMIT = 64;
+    private static final double MIN_ZOOM = 0.5, MAX_ZOOM = 4;
+
+    public Heap(Pane canvas, boolean isMaxHeap) {
+        this(canvas, isMaxHeap, 2);
+    }
+
+    /**
+     * @param arity Children per node: 2 for a binary heap, 4 or 8 for wider ones.
+     */
+    public Heap(Pane canvas, boolean isMaxHeap, int arity) {
+        this.canvas = canvas;
+        this.heap = new IndexedHeapModel(isMaxHeap, arity);
+        this.circles = new ArrayList<>();
+        this.labels = new ArrayList<>();
+        this.edges = new ArrayList<>();
+        this.edgeLayer = new Group();
+        this.scheduler = AnimationScheduler.shared();
+        heap.addListener(this);
+
+        // On the canvas, wheel pans, Ctrl+wheel or a pinch zooms around the pointer
+        onScroll = e -> {
+            if (!isOnScreen()) {
+                return;
+            }
+            if (e.isControlDown()) {
+                zoomAt(e.getX(), Math.pow(1.1, e.getDeltaY() / 40));
+            } else {
+                panX += e.getDeltaX();
+                panY += e.getDeltaY();
+                applyView();
+            }
+            e.consume();
+        };
+        onZoom = e -> {
+            if (isOnScreen()) {
+                zoomAt(e.getX(), e.getZoomFactor());
+                e.consume();
+            }
+        };
+        // Retained nodes are picked by their own handler, see newCircle()
+        onClick = e -> {
+            if (isOnScreen()) {
+                int index = renderer.pick(e.getX(), e.getY());
+                if (index >= 0) {
+                    select(index);
+                    renderer.flash(index, Color.ORANGE);
+                }
+            }
+        };
+        canvas.addEventHandler(ScrollEvent.SCROLL, onScroll);
+        canvas.addEventHandler(ZoomEvent.ZOOM, onZoom);
+        canvas.addEventHandler(MouseEvent.MOUSE_CLICKED, onClick);
+    }
+
+    public void insert(int value) {
+        // The model heapifies immediately; the queued steps replay it on screen
+        scheduler.beginOperation();
+        heap.insert(value);
+        syncRenderer();
+    }
+
+    /**
+     * Adds many values at once using the model's bulk heapify. Small batches
+     * replay their sift-downs, larger ones jump straight to the final layout.
+     *
+     * @param values The values to insert.
+     */
+    public void insertAll(int[] values) {
+        if (values.length <= ANIMATED_BATCH_LIMIT) {
+            scheduler.beginOperation();
+            heap.insertAll(values);
+            syncRenderer();
+            return;
+        }
+        bulkLoading = true;
+        try {
+            heap.insertAll(values);
+        } finally {
+            bulkLoading = false;
+        }
+        if (!syncRenderer()) {
+            rebuildFromModel();
+        }
+    }
+
+    /**
+     * Prepares to stream a key file into the heap on a background thread.
+     * Leave the heap alone from the moment the returned task is started
+     * until it has ended; it is then redrawn once.
+     *
+     * @param reader The file to read.
+     * @param limit  Most keys to add; {@link Long#MAX_VALUE} for the whole file.
+     * @return The load, not yet started.
+     */
+    public KeyLoadTask load(KeyFileReader reader, long limit) {
+        scheduler.cancel(this);
+        bulkLoading = true;
+        return new KeyLoadTask(reader, limit, heap::insertAll, () -> {
+            bulkLoading = false;
+            if (!syncRenderer()) {
+                rebuildFromModel();
+            }
+        });
+    }
+
+    /**
+     * Replaces the heap with a saved one, drawn once in its final shape.
+     *
+     * @param snapshot A snapshot of a heap of this type and arity.
+     * @throws IllegalArgumentException if it is not one.
+     */
+    public void restore(Snapshot snapshot) {
+        unselect();
+        bulkLoading = true;
+        try {
+            snapshot.restore(heap);
+        } finally {
+            bulkLoading = false;
+        }
+        if (!syncRenderer()) {
+            rebuildFromModel();
+        }
+    }
+
+    /**
+     * Replaces the heap contents with the given values.
+     *
+     * @param values The values to load.
+     */
+    public void buildHeap(int[] values) {
+        clear();
+        insertAll(values);
+    }
+
+    public void removeRoot() {
+        if (heap.isEmpty()) {
+            showWarning(heap.getHeapType() + " is empty");
+            return;
+        }
+        scheduler.beginOperation();
+        heap.removeRoot();
+        syncRenderer();
+    }
+
+    /**
+     * Changes the key of a node, which then sifts up or down to its new place.
+     *
+     * @param handle The node's handle, see {@link #getSelected()}.
+     * @param value  The new key.
+     */
+    public void updateKey(int handle, int value) {
+        if (!heap.contains(handle)) {
+            showWarning("That node is no longer in the heap");
+            return;
+        }
+        scheduler.beginOperation();
+        heap.updateKey(handle, value);
+        syncRenderer();
+    }
+
+    /**
+     * Removes a node wherever it is in the heap.
+     *
+     * @param handle The node's handle, see {@link #getSelected()}.
+     */
+    public void remove(int handle) {
+        if (!heap.contains(handle)) {
+            showWarning("That node is no longer in the heap");
+            return;
+        }
+        scheduler.beginOperation();
+        heap.remove(handle);
+        syncRenderer();
+    }
+
+    /**
+     * @return The handle of the node the user clicked last, or -1 if none is
+     *         picked or it has been removed since.
+     */
+    public int getSelected() {
+        return heap.contains(selected) ? selected : -1;
+    }
+
+    /**
+     * @param onSelect Called whenever the picked node changes.
+     */
+    public void setOnSelect(Runnable onSelect) {
+        this.onSelect = onSelect;
+    }
+
+    // Picks the node now at a position
+    private void select(int index) {
+        selected = heap.handleAt(index);
+        markSelected();
+        if (onSelect != null) {
+            onSelect.run();
+        }
+    }
+
+    // Handles restart from 0 when the model is cleared, so a picked one would name another node
+    private void unselect() {
+        if (selected >= 0) {
+            selected = -1;
+            markSelected();
+            if (onSelect != null) {
+                onSelect.run();
+            }
+        }
+    }
+
+    /**
+     * Outlines the picked node. Only called while the retained nodes match
+     * the model, since the outline then travels with its circle.
+     */
+    private void markSelected() {
+        if (selectedCircle != null) {
+            selectedCircle.setStroke(Color.BLACK);
+            selectedCircle.setStrokeWidth(1);
+            selectedCircle = null;
+        }
+        if (renderer == null && heap.contains(selected) && circles.size() == heap.size()) {
+            selectedCircle = circles.get(heap.positionOf(selected));
+            selectedCircle.setStroke(Color.ORANGE);
+            selectedCircle.setStrokeWidth(3);
+        }
+    }
+
+    @Override
+    public void inserted(int index) {
+        if (bulkLoading) {
+            return;
+        }
+        if (renderer != null) {
+            if (levelsFor(heap.size()) != levels) {
+                layoutCanvas(); // A new level changes every node's spacing
+            } else {
+                placeOnCanvas(index);
+            }
+            return;
+        }
+        int value = heap.get(index);
+        animate(AnimationScheduler.instant(() -> {
+            Circle circle = newCircle();
+            Label label = newLabel(value);
+
+            circles.add(index, circle);
+            labels.add(index, label);
+
+            canvas.getChildren().addAll(circle, label);
+            updateEnd(index);
+        }));
+    }
+
+    @Override
+    public void swapped(int i, int j) {
+        if (bulkLoading) {
+            return;
+        }
+        if (renderer != null) {
+            renderer.swap(i, j);
+            return;
+        }
+        animate(new SwapStep(i, j));
+    }
+
+    @Override
+    public void removed(int index) {
+        if (!heap.contains(selected)) {
+            unselect(); // Its handle is already free for the next insert
+        }
+        if (bulkLoading) {
+            return;
+        }
+        if (renderer != null) {
+            renderer.remove(index);
+            if (levelsFor(heap.size()) != levels) {
+                layoutCanvas();
+            }
+            return;
+        }
+        animate(new AnimationScheduler.Step() {
+            @Override
+            public double duration() {
+                return 0.5;
+            }
+
+            @Override
+            public void start() {
+                // Highlight the node being removed
+                highlightNode(circles.get(index), Color.RED);
+            }
+
+            @Override
+            public void finish() {
+                Circle circle = circles.remove(index);
+                Label label = labels.remove(index);
+                canvas.getChildren().removeAll(circle, label);
+                updateEnd(index);
+            }
+        });
+    }
+
+    @Override
+    public void updated(int index) {
+        if (bulkLoading) {
+            return;
+        }
+        String value = String.valueOf(heap.get(index));
+        if (renderer != null) {
+            renderer.setText(index, value);
+            renderer.flash(index, Color.ORANGE);
+            return;
+        }
+        animate(AnimationScheduler.instant(() -> {
+            labels.get(index).setText(value);
+            highlightNode(circles.get(index), Color.ORANGE);
+        }));
+    }
+
+    @Override
+    public void highlighted(int index, Highlight kind) {
+        if (bulkLoading) {
+            return;
+        }
+        if (renderer != null) {
+            renderer.flash(index, Color.CYAN);
+            return;
+        }
+        animate(AnimationScheduler.instant(() -> highlightNode(circles.get(index), Color.CYAN)));
+    }
+
+    @Override
+    public void cleared() {
+        scheduler.cancel(this);
+        selectedCircle = null; // Its circle is dropped below
+        if (renderer != null) {
+            renderer.clear();
+            return;
+        }
+        // One pass over the pane; removing lists of nodes is quadratic on big heaps
+        Set<Node> visuals = new HashSet<>(circles);
+        visuals.addAll(labels);
+        canvas.getChildren().removeAll(visuals);
+        edgeLayer.getChildren().clear();
+        circles.clear();
+        labels.clear();
+        edges.clear();
+    }
+
+    /**
+     * Drops any queued steps and recreates every node straight from the model.
+     */
+    private void rebuildFromModel() {
+        if (renderer != null) {
+            layoutCanvas();
+            return;
+        }
+        cleared();
+        for (int i = 0; i < heap.size(); i++) {
+            circles.add(newCircle());
+            labels.add(newLabel(heap.get(i)));
+        }
+        canvas.getChildren().addAll(circles);
+        canvas.getChildren().addAll(labels);
+        updatePositions();
+        markSelected();
+    }
+
+    /**
+     * Jumps to the model's current state when operations arrive faster than
+     * their steps can be shown. Reuses the nodes already on the pane and only
+     * adds or removes the difference.
+     */
+    private void catchUp() {
+        if (renderer != null) {
+            return; // The canvas never queues steps
+        }
+        while (circles.size() < heap.size()) {
+            Circle circle = newCircle();
+            Label label = newLabel(0);
+            circles.add(circle);
+            labels.add(label);
+            canvas.getChildren().addAll(circle, label);
+        }
+        if (circles.size() > heap.size()) {
+            List<Circle> extraCircles = circles.subList(heap.size(), circles.size());
+            List<Label> extraLabels = labels.subList(heap.size(), labels.size());
+            Set<Node> visuals = new HashSet<>(extraCircles);
+            visuals.addAll(extraLabels);
+            canvas.getChildren().removeAll(visuals);
+            extraCircles.clear();
+            extraLabels.clear();
+        }
+        for (int i = 0; i < circles.size(); i++) {
+            labels.get(i).setText(String.valueOf(heap.get(i)));
+        }
+        updatePositions();
+        markSelected(); // The reused circles may now stand for other nodes
+    }
+
+    /**
+     * Moves between retained nodes and the canvas renderer when the heap
+     * crosses the threshold.
+     *
+     * @return Whether the heap was just redrawn from the model.
+     */
+    private boolean syncRenderer() {
+        if (renderer == null && heap.size() > canvasThreshold) {
+            cleared(); // Drops the retained nodes and any steps still queued for them
+            renderer = new CanvasRenderer(canvas, Color.GRAY, 1.5);
+            renderer.setTree(new CanvasTree());
+            renderer.attach();
+            layoutCanvas();
+            return true;
+        }
+        if (renderer != null && heap.size() <= canvasThreshold / 2) {
+            renderer.detach();
+            renderer = null;
+            rebuildFromModel();
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Places every node on the canvas. Levels are squeezed to fit its
+     * height, and each node sits centred in an equal share of its parent's
+     * room; the renderer shrinks circles to their room and draws rooms too
+     * narrow to read as one summary each.
+     */
+    private void layoutCanvas() {
+        long start = stats.start();
+        LayoutEvent pass = LayoutEvent.start("Heap", "layoutCanvas");
+        measure(heap.size(), true);
+        renderer.setRadius(Math.min(RADIUS, levelSpacing * 0.4));
+        renderer.clear();
+        for (int i = 0; i < heap.size(); i++) {
+            placeOnCanvas(i);
+        }
+        applyView();
+        pass.end(heap.size(), heap.size());
+        stats.layoutTime(start);
+    }
+
+    private void placeOnCanvas(int index) {
+        renderer.setText(index, String.valueOf(heap.get(index)));
+        renderer.setFill(index, Color.LIGHTGREEN);
+        renderer.setPosition(index, (roomLeft(index) + roomRight(index)) / 2, slotY(index));
+        renderer.setParent(index, index == 0 ? -1 : (index - 1) / heap.getArity());
+    }
+
+    // Left edge of the canvas room of a slot's subtree
+    private double roomLeft(int index) {
+        long nodesInLevel = levelWidth(index);
+        long levelStart = (nodesInLevel - 1) / (heap.getArity() - 1);
+        return LEFT_MARGIN + (index - levelStart) * (layoutWidth - 2 * LEFT_MARGIN) / nodesInLevel;
+    }
+
+    private double roomRight(int index) {
+        return roomLeft(index) + (layoutWidth - 2 * LEFT_MARGIN) / levelWidth(index);
+    }
+
+    // Number of slots on the level holding index
+    private long levelWidth(int index) {
+        long levelStart = 0, nodesInLevel = 1;
+        while (index >= levelStart + nodesInLevel) {
+            levelStart += nodesInLevel;
+            nodesInLevel *= heap.getArity();
+        }
+        return nodesInLevel;
+    }
+
+    private void applyView() {
+        if (renderer != null) {
+            renderer.setView(zoom, 1, panX, panY);
+        }
+    }
+
+    // Spreads the levels by factor while keeping the point under x where it is
+    private void zoomAt(double x, double factor) {
+        // Far enough in that the bottom level's rooms fit a full-size circle
+        double deepest = (layoutWidth - 2 * LEFT_MARGIN) / levelWidth(heap.size() - 1);
+        double maxZoom = Math.max(MAX_ZOOM, 3 * RADIUS / deepest);
+        double newZoom = Math.max(MIN_ZOOM, Math.min(maxZoom, zoom * factor));
+        panX = x - newZoom / zoom * (x - panX);
+        zoom = newZoom;
+        applyView();
+    }
+
+    // Only the canvas pans and zooms; retained nodes always fit the pane. Another
+    // mode clears the pane, which takes the canvas out without detaching it.
+    private boolean isOnScreen() {
+        return renderer != null && renderer.isAttached() && !heap.isEmpty();
+    }
+
+    // Number of levels needed for count nodes, counted without floating-point logs
+    private int levelsFor(int count) {
+        int levels = 0;
+        for (long covered = 0, levelNodes = 1; covered < count; levelNodes *= heap.getArity()) {
+            covered += levelNodes;
+            levels++;
+        }
+        return levels;
+    }
+
+    private Circle newCircle() {
+        Circle circle = new Circle(RADIUS);
+        circle.setFill(Color.LIGHTGREEN);
+        circle.setStroke(Color.BLACK);
+        circle.setOnMouseClicked(e -> {
+            scheduler.skip(); // So the circles stand where the model has their nodes
+            int index = circles.indexOf(circle);
+            if (index >= 0) {
+                select(index);
+            }
+        });
+        return circle;
+    }
+
+    private Label newLabel(int value) {
+        Label label = new Label(String.valueOf(value));
+        label.setStyle("-fx-font-size: 12px; -fx-font-weight: bold;");
+        return label;
+    }
+
+    // Replays a step now, or queues it behind the steps still playing
+    private void animate(AnimationScheduler.Step step) {
+        if (AnimationScheduler.isShowing(canvas)) {
+            scheduler.enqueue(this, step, this::catchUp);
+        } else {
+            step.start();
+            step.finish();
+        }
+    }
+
+    // Slides two nodes into each other's slot, then swaps them in the lists
+    private final class SwapStep implements AnimationScheduler.Step {
+        private final int i, j;
+        private double dx, dy;
+
+        SwapStep(int i, int j) {
+            this.i = i;
+            this.j = j;
+        }
+
+        @Override
+        public double duration() {
+            return ANIMATION_DURATION;
+        }
+
+        @Override
+        public void start() {
+            dx = circles.get(j).getCenterX() - circles.get(i).getCenterX();
+            dy = circles.get(j).getCenterY() - circles.get(i).getCenterY();
+        }
+
+        @Override
+        public void update(double progress) {
+            circles.get(i).setTranslateX(dx * progress);
+            circles.get(i).setTranslateY(dy * progress);
+            labels.get(i).setTranslateX(dx * progress);
+            labels.get(i).setTranslateY(dy * progress);
+            circles.get(j).setTranslateX(-dx * progress);
+            circles.get(j).setTranslateY(-dy * progress);
+            labels.get(j).setTranslateX(-dx * progress);
+            labels.get(j).setTranslateY(-dy * progress);
+        }
+
+        @Override
+        public void finish() {
+            Circle c1 = circles.get(i);
+            Label l1 = labels.get(i);
+            circles.set(i, circles.get(j));
+            circles.set(j, c1);
+            labels.set(i, labels.get(j));
+            labels.set(j, l1);
+
+            // Only the two swapped nodes move; slots and edges stay put
+            place(i);
+            place(j);
+        }
+    }
+
+    /**
+     * Lays out every node and edge from scratch. Only needed when the number
+     * of levels changes, since that changes the spacing of every slot.
+     */
+    private void updatePositions() {
+        long start = stats.start();
+        LayoutEvent pass = LayoutEvent.start("Heap", "updatePositions");
+        measure(circles.size(), false);
+        syncEdges();
+        for (int i = 0; i < circles.size(); i++) {
+            place(i);
+        }
+        pass.end(heap.size(), circles.size());
+        stats.layoutTime(start);
+    }
+
+    /**
+     * Lays out after a node was appended at, or removed from, the given slot.
+     * Nothing else moves unless the heap gained or lost a level.
+     */
+    private void updateEnd(int index) {
+        if (levelsFor(circles.size()) != levels) {
+            updatePositions();
+            return;
+        }
+        long start = stats.start();
+        LayoutEvent pass = LayoutEvent.start("Heap", "updateEnd");
+        syncEdges();
+        if (index < circles.size()) {
+            place(index);
+        }
+        pass.end(heap.size(), 1);
+        stats.layoutTime(start);
+    }
+
+    // Moves the node now in the given slot into place, along with the edge to its parent
+    private void place(int index) {
+        double x = slotX(index);
+        double y = slotY(index);
+        Circle circle = circles.get(index);
+        Label label = labels.get(index);
+
+        // Reset translate if previously moved
+        circle.setTranslateX(0);
+        circle.setTranslateY(0);
+        label.setTranslateX(0);
+        label.setTranslateY(0);
+
+        circle.setCenterX(x);
+        circle.setCenterY(y);
+        label.setLayoutX(x - 6);
+        label.setLayoutY(y - 6);
+
+        if (index > 0) {
+            int parent = (index - 1) / heap.getArity();
+            Line edge = edges.get(index - 1);
+            edge.setStartX(slotX(parent));
+            edge.setStartY(slotY(parent));
+            edge.setEndX(x);
+            edge.setEndY(y);
+        }
+    }
+
+    // Keeps exactly one edge per non-root slot, in a layer behind the nodes
+    private void syncEdges() {
+        long start = stats.start();
+        LayoutEvent pass = LayoutEvent.start("Heap", "syncEdges");
+        int before = edges.size();
+        if (edgeLayer.getParent() != canvas) {
+            canvas.getChildren().add(0, edgeLayer); // First use, or the pane was cleared
+        }
+        while (edges.size() < circles.size() - 1) {
+            Line line = new Line();
+            line.setStroke(Color.GRAY);
+            line.setStrokeWidth(1.5);
+            edges.add(line);
+            edgeLayer.getChildren().add(line);
+        }
+        while (edges.size() > Math.max(0, circles.size() - 1)) {
+            edges.remove(edges.size() - 1);
+            edgeLayer.getChildren().remove(edgeLayer.getChildren().size() - 1);
+        }
+        pass.end(heap.size(), Math.abs(edges.size() - before));
+        stats.edgeTime(start);
+    }
+
+    // Computes the slot geometry for count nodes; fitHeight squeezes levels onto the pane
+    private void measure(int count, boolean fitHeight) {
+        levels = levelsFor(count);
+        long widest = 1;
+        for (int level = 1; level < levels; level++) {
+            widest = Math.min(widest * heap.getArity(), Integer.MAX_VALUE);
+        }
+        // Calculate proper spacing to prevent overflow
+        layoutWidth = Math.max(canvas.getWidth(), 400); // Minimum width
+        nodeSpacing = Math.min((layoutWidth - 2 * LEFT_MARGIN) / widest, 100); // Cap maximum spacing
+        levelSpacing = VERTICAL_SPACING;
+        if (fitHeight && levels > 1) {
+            levelSpacing = Math.min(VERTICAL_SPACING, (canvas.getHeight() - 2 * TOP_MARGIN) / (levels - 1));
+        }
+    }
+
+    private double slotX(int index) {
+        long levelStart = 0, nodesInLevel = 1;
+        while (index >= levelStart + nodesInLevel) {
+            levelStart += nodesInLevel;
+            nodesInLevel *= heap.getArity();
+        }
+        double startX = (layoutWidth - nodeSpacing * (nodesInLevel - 1)) / 2; // Center the level
+        return startX + (index - levelStart) * nodeSpacing;
+    }
+
+    private double slotY(int index) {
+        int level = 0;
+        for (long levelEnd = 1, nodesInLevel = 1; index >= levelEnd; level++) {
+            nodesInLevel *= heap.getArity();
+            levelEnd += nodesInLevel;
+        }
+        return TOP_MARGIN + level * levelSpacing;
+    }
+
+    private void highlightNode(Circle circle, Color color) {
+        if (!AnimationScheduler.isShowing(canvas)) {
+            return;
+        }
+        Color original = (Color) circle.getFill();
+        circle.setFill(color);
+        scheduler.play(AnimationScheduler.delay(0.5, () -> circle.setFill(original)));
+    }
+
+    private void showWarning(String msg) {
+        if (!AnimationScheduler.isShowing(canvas)) {
+            return;
+        }
+        Label warning = new Label(msg);
+        warning.setStyle(
+                "-fx-background-color: #ffeb3b; " +
+                        "-fx-text-fill: #d32f2f; " +
+                        "-fx-padding: 8; " +
+                        "-fx-border-radius: 4; " +
+                        "-fx-background-radius: 4;");
+        warning.setLayoutX(10);
+        warning.setLayoutY(10);
+        canvas.getChildren().add(warning);
+        scheduler.after(2, () -> canvas.getChildren().remove(warning));
+    }
+
+    public void peekRoot() {
+        if (heap.isEmpty()) {
+            showWarning(heap.getHeapType() + " is empty");
+            return;
+        }
+        scheduler.beginOperation();
+        heap.peekRoot();
+    }
+
+    public boolean isEmpty() {
+        return heap.isEmpty();
+    }
+
+    public void clear() {
+        unselect();
+        heap.clear();
+        syncRenderer();
+        zoom = 1;
+        panX = panY = 0;
+    }
+
+    /**
+     * Empties the heap and takes its handlers off the pane, for a heap that
+     * is being replaced by a new one on the same pane.
+     */
+    public void dispose() {
+        clear();
+        canvas.removeEventHandler(ScrollEvent.SCROLL, onScroll);
+        canvas.removeEventHandler(ZoomEvent.ZOOM, onZoom);
+        canvas.removeEventHandler(MouseEvent.MOUSE_CLICKED, onClick);
+    }
+
+    /**
+     * Sets the size above which the heap is painted on a single canvas instead
+     * of one node per element. It switches back once the heap shrinks to half
+     * of that.
+     *
+     * @param threshold The element count.
+     */
+    public void setCanvasThreshold(int threshold) {
+        canvasThreshold = threshold;
+        syncRenderer();
+    }
+
+    public int getCanvasThreshold() {
+        return canvasThreshold;
+    }
+
+    public void isEmptyVisual() {
+        showWarning(heap.getHeapType() + (isEmpty() ? " is empty" : " is not empty"));
+    }
+
+    public String getHeapType() {
+        return heap.getHeapType();
+    }
+
+    public int getArity() {
+        return heap.getArity();
+    }
+
+    public List<Integer> getHeapArray() {
+        return heap.getHeapArray();
+    }
+
+    public IndexedHeapModel getModel() {
+        return heap;
+    }
+
+    // The implicit tree of the heap array, as laid out on the canvas
+    private final class CanvasTree implements CanvasRenderer.Tree {
+        @Override
+        public int root() {
+            // A loader thread may be changing the model; the heap is redrawn after
+            return bulkLoading || heap.isEmpty() ? -1 : 0;
+        }
+
+        @Override
+        public int childCount(int id) {
+            return heap.getArity();
+        }
+
+        @Override
+        public int child(int id, int n) {
+            long child = (long) id * heap.getArity() + 1 + n;
+            return child < heap.size() ? (int) child : -1;
+        }
+
+        @Override
+        public double left(int id) {
+            return roomLeft(id);
+        }
+
+        @Override
+        public double right(int id) {
+            return roomRight(id);
+        }
+
+        @Override
+        public double bottom(int id) {
+            long deepest = id;
+            while (deepest * heap.getArity() + 1 < heap.size()) {
+                deepest = deepest * heap.getArity() + 1; // The leftmost path is the longest
+            }
+            return slotY((int) deepest);
+        }
+
+        @Override
+        public String[] summary(int id) {
+            // Count each level's slice of slots; heap order bounds the subtree by its root
+            long count = 0;
+            int height = 0;
+            for (long first = id, last = id; first < heap.size(); height++) {
+                count += Math.min(last, heap.size() - 1) - first + 1;
+                first = first * heap.getArity() + 1;
+                last = last * heap.getArity() + heap.getArity();
+            }
+            return new String[] { count + " keys", (heap.isMaxHeap() ? "max " : "min ") + heap.get(id),
+                    "height " + height };
+        }
+    }
+}
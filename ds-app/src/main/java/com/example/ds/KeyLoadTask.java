@@ -0,0 +1,107 @@
+package com.example.ds;
+
+import java.io.IOException;
+
+import javafx.concurrent.Task;
+
+import com.example.ds.core.KeyFileReader;
+
+/**
+ * Streams a key file into a view's model on a background thread. The view
+ * and {@link OpStats} ignore the model's events from the moment the task is
+ * created; once the read ends, however it ends, the view redraws whatever
+ * was loaded, once, on the FX thread, and the keys are counted.
+ * <p>
+ * A load can be limited to the first keys of the file, so that a trace
+ * replays a load that was stopped partway exactly as far as it went.
+ * <p>
+ * Stop a load with {@link #stop()} rather than {@link #cancel()}: a
+ * cancelled task reports that it is done while the read may still be
+ * adding a chunk, whereas a stopped one finishes the chunk and then
+ * succeeds with the keys delivered so far.
+ */
+class KeyLoadTask extends Task<Long> {
+    private final KeyFileReader reader;
+    private final KeyFileReader.KeySink sink;
+    private final long limit;
+    private final Runnable redraw;
+    private Runnable onEnded = () -> { };
+    private volatile boolean stopRequested;
+    private volatile long delivered; // Only written by the loading thread
+
+    /**
+     * @param limit  Most keys to add; {@link Long#MAX_VALUE} for the whole file.
+     * @param sink   Adds a chunk to the model; called on the background thread.
+     * @param redraw Brings the view up to date; called on the FX thread after
+     *               the last chunk.
+     */
+    KeyLoadTask(KeyFileReader reader, long limit, KeyFileReader.KeySink sink, Runnable redraw) {
+        this.reader = reader;
+        this.limit = limit;
+        this.sink = (keys, count) -> {
+            int taken = (int) Math.min(count, limit - delivered);
+            if (taken > 0) {
+                sink.accept(keys, taken);
+                delivered += taken;
+            }
+        };
+        this.redraw = redraw;
+        updateTitle("Loading " + reader.getFile().getFileName());
+        OpStats.shared().loadStarted();
+    }
+
+    /**
+     * Sets what to do once the load has ended and the view has redrawn. The
+     * task stops {@linkplain #runningProperty() running} before
+     * {@link #succeeded()} or {@link #failed()} is called, so anything that
+     * must see the redrawn view, or start another load, waits for this
+     * instead.
+     */
+    void setOnEnded(Runnable onEnded) {
+        this.onEnded = onEnded;
+    }
+
+    /**
+     * Asks the read to stop after the chunk in progress.
+     */
+    void stop() {
+        stopRequested = true;
+    }
+
+    /**
+     * @return Whether the load was stopped before the end of the file.
+     */
+    boolean isStopped() {
+        return stopRequested;
+    }
+
+    @Override
+    protected Long call() throws IOException {
+        reader.read(sink, this::updateProgress, () -> stopRequested || isCancelled() || delivered >= limit);
+        return delivered;
+    }
+
+    /**
+     * @return How many keys were added to the model so far; final once the
+     *         task has ended.
+     */
+    long delivered() {
+        return delivered;
+    }
+
+    @Override
+    protected void succeeded() {
+        ended();
+    }
+
+    @Override
+    protected void failed() {
+        ended(); // Keys read before the error stay in the model
+    }
+
+    private void ended() {
+        OpStats.shared().loadEnded(delivered);
+        redraw.run();
+        onEnded.run();
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.ds;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event spanning one layout, edge or paint pass of a view,
+ * so long FX pulses can be matched to the pass and the data size behind
+ * them.
+ */
+@Name("com.example.ds.LayoutPass")
+@Label("Layout Pass")
+@Category({ "Data Structure Visualizer", "Rendering" })
+@Description("A view bringing its visuals in line with the model")
+@StackTrace(false)
+class LayoutEvent extends Event {
+
+    @Label("View")
+    String view;
+
+    @Label("Pass")
+    @Description("The method doing the work, e.g. updatePositions or drawLines")
+    String pass;
+
+    @Label("Structure Size")
+    int size;
+
+    @Label("Elements Touched")
+    @Description("Nodes placed, edges redrawn or canvas nodes painted")
+    int elements;
+
+    static LayoutEvent start(String view, String pass) {
+        LayoutEvent event = new LayoutEvent();
+        event.view = view;
+        event.pass = pass;
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Ends the pass, keeping the elements counted so far, and commits the
+     * event if it is enabled.
+     */
+    void end(int size) {
+        this.size = size;
+        commit();
+    }
+
+    void end(int size, int elements) {
+        this.elements = elements;
+        end(size);
+    }
+}
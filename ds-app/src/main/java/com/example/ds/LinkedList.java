@@ -0,0 +1,493 @@
+// LinkedList.java
+package com.example.ds;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javafx.geometry.Pos;
+import javafx.scene.Group;
+import javafx.scene.control.Label;
+import javafx.scene.layout.Pane;
+import javafx.scene.layout.Region;
+import javafx.scene.paint.Color;
+import javafx.scene.shape.Circle;
+import javafx.scene.shape.Line;
+
+import com.example.ds.core.Highlight;
+import com.example.ds.core.LinkedListModel;
+import com.example.ds.core.Snapshot;
+import com.example.ds.core.StructureListener;
+
+/**
+ * Manages the visualization of a singly linked list.
+ * The list itself lives in a {@link LinkedListModel}; this class mirrors
+ * the model's events onto the canvas.
+ * <p>
+ * Every index has a fixed slot, filling rows as wide as the pane, so a
+ * change only moves the nodes from its index on; an append moves none.
+ */
+public class LinkedList implements StructureListener {
+
+    /**
+     * Represents a node in the visualized linked list.
+     * Encapsulates the visual elements (Circle, Label, Arrow) for a node.
+     */
+    public static class LinkedListNode {
+        public String value;
+        public Circle circle;
+        public Label label;
+        public Line nextArrow;
+
+        /**
+         * Constructor for LinkedListNode.
+         *
+         * @param value  The string value stored in the node.
+         * @param circle The Circle shape representing the node visually.
+         * @param label  The Label displaying the node's value.
+         */
+        public LinkedListNode(String value, Circle circle, Label label) {
+            this.value = value;
+            this.circle = circle;
+            this.label = label;
+            // Initialize the arrow pointing to the next node (initially invisible)
+            this.nextArrow = new Line();
+            this.nextArrow.setStroke(Color.BLACK);
+            this.nextArrow.setVisible(false); // Initially hidden, shown when connected
+        }
+    }
+
+    private LinkedListModel<String> model;
+    private List<LinkedListNode> nodes;
+    private Pane canvas;
+    private static final double NODE_RADIUS = 20.0;
+    private static final double HORIZONTAL_SPACING = 60.0;
+    private static final double ROW_SPACING = 70.0;
+    private static final double START_X = 50.0;
+    private static final double START_Y = 80.0;
+    private static final double LABEL_CHAR_WIDTH = 7; // Estimated, as on the canvas renderer
+    // Arrows behind the nodes; each node's arrow is added with it and removed with it
+    private final Group arrowLayer = new Group();
+    private final Group nodeLayer = new Group();
+    private int columns; // Slots per row in the current layout
+    // Draws the list once it outgrows canvasThreshold; null while nodes are retained
+    private CanvasRenderer renderer;
+    private int canvasThreshold = CanvasRenderer.DEFAULT_THRESHOLD;
+    private boolean bulkLoading; // A batch is being added; events are ignored and one redraw follows
+
+    /**
+     * Constructor for the LinkedList visualizer.
+     *
+     * @param canvas The JavaFX Pane where the list will be drawn.
+     */
+    public LinkedList(Pane canvas) {
+        this.model = new LinkedListModel<>();
+        this.nodes = new ArrayList<>();
+        this.canvas = canvas;
+        this.columns = columns();
+        model.addListener(this);
+        // Rows follow the pane's width; everything moves when it changes
+        canvas.widthProperty().addListener((obs, old, now) -> {
+            if (columns() != columns) {
+                columns = columns();
+                relayout();
+            }
+        });
+    }
+
+    /**
+     * Adds a new node with the given value to the end of the list.
+     *
+     * @param value The value for the new node.
+     */
+    public void addNode(String value) {
+        model.add(value);
+        syncRenderer();
+    }
+
+    /**
+     * Appends every value in order, then lays the list out once.
+     *
+     * @param values The values for the new nodes.
+     */
+    public void addAll(List<String> values) {
+        int oldSize = model.size();
+        bulkLoading = true;
+        try {
+            model.addAll(values);
+        } finally {
+            bulkLoading = false;
+        }
+        showAppended(oldSize);
+    }
+
+    /**
+     * Replaces the list with a saved one and lays it out once.
+     *
+     * @param snapshot A snapshot of a linked list.
+     * @throws IllegalArgumentException if it is not one.
+     */
+    public void restore(Snapshot snapshot) {
+        bulkLoading = true;
+        try {
+            snapshot.restore(model);
+        } finally {
+            bulkLoading = false;
+        }
+        showAppended(0);
+    }
+
+    // Draws the elements from the given index on, which arrived during a bulk load
+    private void showAppended(int from) {
+        if (syncRenderer()) {
+            return;
+        }
+        for (int i = from; i < model.size(); i++) {
+            if (renderer != null) {
+                renderer.setText(i, model.get(i));
+                placeOnCanvas(i);
+            } else {
+                addVisual(i);
+            }
+        }
+        if (renderer == null) {
+            updatePositions(from);
+        }
+    }
+
+    /**
+     * Inserts a new node at the specified index.
+     *
+     * @param value The value for the new node.
+     * @param index The index where the node should be inserted.
+     * @throws IndexOutOfBoundsException if the index is out of range (index < 0 ||
+     *                                   index > size()).
+     */
+    public void insertAt(String value, int index) throws IndexOutOfBoundsException {
+        model.insertAt(value, index);
+        syncRenderer();
+        if (renderer != null) {
+            renderer.flash(index, Color.GREEN);
+        } else {
+            highlightNode(nodes.get(index), Color.GREEN); // Visually indicate insertion
+        }
+    }
+
+    /**
+     * Removes the node at the specified index.
+     *
+     * @param index The index of the node to remove.
+     * @return The value of the removed node.
+     * @throws IndexOutOfBoundsException if the index is out of range (index < 0 ||
+     *                                   index >= size()).
+     */
+    public String removeAt(int index) throws IndexOutOfBoundsException {
+        String value = model.removeAt(index);
+        syncRenderer();
+        return value;
+    }
+
+    /**
+     * Removes the last node from the list.
+     *
+     * @return The value of the removed node, or null if the list is empty.
+     */
+    public String removeLast() {
+        if (model.isEmpty()) {
+            return null;
+        }
+        return removeAt(model.size() - 1);
+    }
+
+    /**
+     * Searches for the first node with the given value and highlights it.
+     *
+     * @param value The value to search for.
+     * @return The index of the first node with the value, or -1 if not found.
+     */
+    public int search(String value) {
+        // The model highlights the first match through the listener
+        return model.indexOf(value);
+    }
+
+    /**
+     * Searches for every node with the given value and highlights them all.
+     *
+     * @param value The value to search for.
+     * @return The indexes of the matching nodes, in ascending order.
+     */
+    public int[] searchAll(String value) {
+        return model.indexesOf(value);
+    }
+
+    /**
+     * @param value The value to count.
+     * @return How many nodes hold it.
+     */
+    public int count(String value) {
+        return model.count(value);
+    }
+
+    /**
+     * Turns the model's value index on or off; with it, searches and counts
+     * no longer scan the list.
+     */
+    public void setIndexed(boolean indexed) {
+        model.setIndexed(indexed);
+    }
+
+    public boolean isIndexed() {
+        return model.isIndexed();
+    }
+
+    /**
+     * Checks if the list is empty.
+     *
+     * @return true if the list is empty, false otherwise.
+     */
+    public boolean isEmpty() {
+        return model.isEmpty();
+    }
+
+    /**
+     * Gets the current number of nodes in the list.
+     *
+     * @return The size of the list.
+     */
+    public int size() {
+        return model.size();
+    }
+
+    /**
+     * Clears all nodes from the list and removes their visuals from the canvas.
+     */
+    public void clear() {
+        model.clear();
+        syncRenderer();
+    }
+
+    /**
+     * Sets the size above which the list is painted on a single canvas instead
+     * of one node per element. It switches back once the list shrinks to half
+     * of that.
+     *
+     * @param threshold The element count.
+     */
+    public void setCanvasThreshold(int threshold) {
+        canvasThreshold = threshold;
+        syncRenderer();
+    }
+
+    /**
+     * @return The size above which the list is painted on a single canvas.
+     */
+    public int getCanvasThreshold() {
+        return canvasThreshold;
+    }
+
+    /**
+     * @return The headless model backing this view.
+     */
+    public LinkedListModel<String> getModel() {
+        return model;
+    }
+
+    @Override
+    public void inserted(int index) {
+        if (bulkLoading) {
+            return;
+        }
+        if (renderer != null) {
+            // Positions belong to indices, so only the labels from here on move
+            for (int i = index; i < model.size(); i++) {
+                renderer.setText(i, model.get(i));
+            }
+            placeOnCanvas(model.size() - 1);
+            return;
+        }
+        addVisual(index);
+        updatePositions(index);
+    }
+
+    @Override
+    public void removed(int index) {
+        if (renderer != null) {
+            for (int i = index; i < model.size(); i++) {
+                renderer.setText(i, model.get(i));
+            }
+            renderer.remove(model.size());
+            return;
+        }
+        LinkedListNode node = nodes.remove(index);
+        nodeLayer.getChildren().removeAll(node.circle, node.label);
+        arrowLayer.getChildren().remove(node.nextArrow);
+        updatePositions(index);
+    }
+
+    @Override
+    public void highlighted(int index, Highlight kind) {
+        if (renderer != null) {
+            renderer.flash(index, Color.GREEN);
+            return;
+        }
+        highlightNode(nodes.get(index), Color.GREEN); // Highlight each match
+    }
+
+    @Override
+    public void cleared() {
+        if (renderer != null) {
+            renderer.clear();
+            return;
+        }
+        nodeLayer.getChildren().clear();
+        arrowLayer.getChildren().clear();
+        nodes.clear();
+        // No need to call updatePositions as the list is now empty
+    }
+
+    /**
+     * Creates the circle and label for the element at the given index.
+     *
+     * @param index The model index of the new element.
+     */
+    private void addVisual(int index) {
+        String value = model.get(index);
+        Circle circle = new Circle(0, 0, NODE_RADIUS);
+        circle.setFill(Color.LIGHTYELLOW);
+        circle.setStroke(Color.BLACK);
+        Label label = new Label(value);
+        sizeLabel(label);
+        LinkedListNode node = new LinkedListNode(value, circle, label);
+        nodes.add(index, node);
+        if (arrowLayer.getParent() != canvas) {
+            canvas.getChildren().addAll(arrowLayer, nodeLayer); // First use, or the pane was cleared
+        }
+        nodeLayer.getChildren().addAll(circle, label); // Add visual elements to the pane
+        arrowLayer.getChildren().add(node.nextArrow);
+    }
+
+    // Fixes the label's size from its length, so it can be centred without waiting for a layout pass
+    private static void sizeLabel(Label label) {
+        double width = Math.max(2 * NODE_RADIUS, label.getText().length() * LABEL_CHAR_WIDTH + 4);
+        label.setMinSize(Region.USE_PREF_SIZE, Region.USE_PREF_SIZE);
+        label.setPrefSize(width, 2 * NODE_RADIUS);
+        label.setAlignment(Pos.CENTER);
+        label.setMouseTransparent(true);
+    }
+
+    /**
+     * Moves between retained nodes and the canvas renderer when the list
+     * crosses the threshold.
+     *
+     * @return true if the list was just redrawn from the model.
+     */
+    private boolean syncRenderer() {
+        if (renderer == null && model.size() > canvasThreshold) {
+            cleared(); // Drop the retained nodes
+            renderer = new CanvasRenderer(canvas, Color.BLACK, 1);
+            renderer.setRadius(NODE_RADIUS);
+            renderer.attach();
+            for (int i = 0; i < model.size(); i++) {
+                renderer.setText(i, model.get(i));
+                placeOnCanvas(i);
+            }
+            return true;
+        }
+        if (renderer != null && model.size() <= canvasThreshold / 2) {
+            renderer.detach();
+            renderer = null;
+            for (int i = 0; i < model.size(); i++) {
+                addVisual(i);
+            }
+            updatePositions(0);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Gives the element at the given index its place on the canvas, with an
+     * arrow from its predecessor.
+     *
+     * @param index The model index.
+     */
+    private void placeOnCanvas(int index) {
+        renderer.setPosition(index, slotX(index), slotY(index));
+        renderer.setFill(index, Color.LIGHTYELLOW);
+        renderer.setParent(index, index - 1);
+    }
+
+    /**
+     * Moves the nodes from the given index on to their slots, and points
+     * the arrows into them. Called after any structural change there.
+     *
+     * @param from The first index whose node changed.
+     */
+    private void updatePositions(int from) {
+        long start = OpStats.shared().start();
+        LayoutEvent pass = LayoutEvent.start("LinkedList", "updatePositions");
+        int first = Math.max(0, from - 1); // The node before may have gained or lost its successor
+        for (int i = first; i < nodes.size(); i++) {
+            LinkedListNode node = nodes.get(i);
+            double x = slotX(i), y = slotY(i);
+            node.circle.setCenterX(x);
+            node.circle.setCenterY(y);
+            node.label.relocate(x - node.label.getPrefWidth() / 2, y - NODE_RADIUS); // Center label
+
+            // Arrow from the rim of this circle to the rim of the next
+            if (i < nodes.size() - 1) {
+                double nextX = slotX(i + 1), nextY = slotY(i + 1);
+                double length = Math.hypot(nextX - x, nextY - y);
+                double ux = (nextX - x) / length, uy = (nextY - y) / length;
+                node.nextArrow.setStartX(x + ux * NODE_RADIUS);
+                node.nextArrow.setStartY(y + uy * NODE_RADIUS);
+                node.nextArrow.setEndX(nextX - ux * NODE_RADIUS);
+                node.nextArrow.setEndY(nextY - uy * NODE_RADIUS);
+                node.nextArrow.setVisible(true);
+            } else {
+                node.nextArrow.setVisible(false); // The last node has no successor
+            }
+        }
+        pass.end(nodes.size(), nodes.size() - first);
+        OpStats.shared().layoutTime(start);
+    }
+
+    // Moves everything after the row width changed
+    private void relayout() {
+        if (renderer != null) {
+            for (int i = 0; i < model.size(); i++) {
+                placeOnCanvas(i);
+            }
+        } else {
+            updatePositions(0);
+        }
+    }
+
+    private int columns() {
+        double width = canvas.getWidth();
+        return width > 0 ? Math.max(1, (int) ((width - 2 * START_X) / HORIZONTAL_SPACING) + 1) : Integer.MAX_VALUE;
+    }
+
+    private double slotX(int index) {
+        return START_X + index % columns * HORIZONTAL_SPACING;
+    }
+
+    private double slotY(int index) {
+        return START_Y + index / columns * ROW_SPACING;
+    }
+
+    /**
+     * Temporarily changes a node's color to indicate an action.
+     * 
+     * @param node  The node to highlight.
+     * @param color The color to highlight with.
+     */
+    private void highlightNode(LinkedListNode node, Color color) {
+        if (canvas.getScene() == null) {
+            return; // Off-screen (e.g. benchmarks): nothing to watch
+        }
+        Color originalColor = (Color) node.circle.getFill();
+        node.circle.setFill(color);
+        AnimationScheduler.shared().play(AnimationScheduler.delay(1, () -> node.circle.setFill(originalColor))); // Reset color
+    }
+
+}
\ No newline at end of file
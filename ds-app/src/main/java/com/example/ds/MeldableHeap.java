@@ -0,0 +1,422 @@
+package com.example.ds;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+
+import javafx.scene.control.Label;
+import javafx.scene.layout.Pane;
+import javafx.scene.paint.Color;
+
+import com.example.ds.core.MeldableHeapModel;
+import com.example.ds.core.MeldableHeapModel.Node;
+
+/**
+ * Draws a pairing or leftist heap, plus a second heap of the same kind
+ * waiting to be melded into it, as a forest on a {@link CanvasRenderer}.
+ * The heap is on the left and the second heap to its right; melding joins
+ * them into one tree.
+ * <p>
+ * A meld relinks whole subtrees, so rather than following the model's
+ * events the forest is laid out again after every operation: leaves take
+ * consecutive columns and each parent is centred over its children. Each
+ * node keeps its renderer id for as long as it is in either heap, so only
+ * nodes that are new, moved or gone are touched, and the forest is given
+ * to the renderer as a {@link CanvasRenderer.Tree} so that repaints follow
+ * what is visible rather than the number of nodes.
+ */
+public class MeldableHeap {
+    private MeldableHeapModel heap;
+    private MeldableHeapModel second; // Melded into heap by meld()
+    private final Pane canvas;
+    private final CanvasRenderer renderer;
+    private final OpStats stats = OpStats.shared();
+    private Map<Integer, Integer> canvasIds = new HashMap<>(); // Node id to renderer id
+    private Deque<Integer> freeIds = new ArrayDeque<>();
+    // Layout scratch, indexed by preorder position
+    private Node[] pendingNode = new Node[0];
+    private int[] order = new int[0];
+    private int[] childList = new int[0]; // Renderer ids of each node's children, side by side
+    // Layout state, indexed by renderer id
+    private int[] nodeIdOf = new int[0]; // -1 for a free id
+    private int[] keyOf = new int[0];
+    private int[] stampOf = new int[0]; // Layout pass that last reached the node
+    private Color[] fillOf = new Color[0];
+    private int[] childStart = new int[0];
+    private int[] childCount = new int[0];
+    private int[] depthOf = new int[0];
+    private int[] bottomOf = new int[0]; // Depth of the deepest node below
+    private int[] sizeOf = new int[0];
+    private double[] columnOf = new double[0];
+    private double[] lowColumn = new double[0]; // Leftmost and rightmost leaf column below
+    private double[] highColumn = new double[0];
+    private double[] xOf = new double[0]; // Position last given to the renderer
+    private double[] yOf = new double[0];
+    private final int[] roots = new int[2];
+    private int rootCount;
+    private int stamp;
+    private int placed; // Nodes laid out so far in this pass
+    private int childEnd; // Used length of childList
+    private double columns; // Leaf columns used by the trees laid out so far
+    private static final double RADIUS = 20;
+    private static final double HORIZONTAL_SPACING = 50;
+    private static final double VERTICAL_SPACING = 70;
+    private static final double LEFT_MARGIN = 50;
+    private static final double TOP_MARGIN = 50;
+    private static final double FOREST_GAP = 2; // Empty columns between the two trees
+    private static final Color HEAP_FILL = Color.LIGHTGREEN;
+    private static final Color SECOND_FILL = Color.LIGHTSALMON;
+
+    public MeldableHeap(Pane canvas, MeldableHeapModel.Kind kind) {
+        this.canvas = canvas;
+        this.heap = MeldableHeapModel.create(kind, true);
+        this.second = MeldableHeapModel.create(kind, true);
+        this.renderer = new CanvasRenderer(canvas, Color.GRAY, 1.5);
+        renderer.setRadius(RADIUS);
+        renderer.setTree(new CanvasForest());
+    }
+
+    public void insert(int value) {
+        heap.insert(value);
+        redraw();
+    }
+
+    public void insertAll(int[] values) {
+        heap.insertAll(values);
+        redraw();
+    }
+
+    /**
+     * Adds values to the second heap, the one {@link #meld()} moves into
+     * this one.
+     */
+    public void stage(int[] values) {
+        second.insertAll(values);
+        redraw();
+    }
+
+    /**
+     * Moves the whole second heap into this one.
+     */
+    public void meld() {
+        if (second.isEmpty()) {
+            showWarning("Build the second heap first");
+            return;
+        }
+        heap.meld(second);
+        redraw();
+        renderer.flash(canvasIds.get(heap.getRoot().id()), Color.ORANGE);
+    }
+
+    public void removeRoot() {
+        if (heap.isEmpty()) {
+            showWarning(heap.getHeapType() + " is empty");
+            return;
+        }
+        heap.removeRoot();
+        redraw();
+    }
+
+    public void peekRoot() {
+        if (heap.isEmpty()) {
+            showWarning(heap.getHeapType() + " is empty");
+            return;
+        }
+        heap.peekRoot();
+        renderer.flash(canvasIds.get(heap.getRoot().id()), Color.CYAN);
+    }
+
+    public void isEmptyVisual() {
+        showWarning(heap.getHeapType() + (heap.isEmpty() ? " is empty" : " is not empty"));
+    }
+
+    public void clear() {
+        heap.clear();
+        second.clear();
+        redraw();
+    }
+
+    /**
+     * Replaces both heaps with empty ones of another kind.
+     */
+    public void setKind(MeldableHeapModel.Kind kind) {
+        heap = MeldableHeapModel.create(kind, true);
+        second = MeldableHeapModel.create(kind, true);
+        redraw();
+    }
+
+    public boolean isEmpty() {
+        return heap.isEmpty();
+    }
+
+    public MeldableHeapModel.Kind getKind() {
+        return heap.getKind();
+    }
+
+    public String getHeapType() {
+        return heap.getHeapType();
+    }
+
+    public MeldableHeapModel getModel() {
+        return heap;
+    }
+
+    public MeldableHeapModel getSecondModel() {
+        return second;
+    }
+
+    // --- Layout ---
+
+    private void redraw() {
+        long start = stats.start();
+        LayoutEvent pass = LayoutEvent.start("MeldableHeap", "layout");
+        if (!renderer.isAttached()) {
+            renderer.detach(); // Rebinds its size to the pane
+            renderer.attach();
+        }
+        int count = heap.size() + second.size();
+        ensureCapacity(count);
+        stamp++;
+        placed = 0;
+        childEnd = 0;
+        rootCount = 0;
+        columns = 0;
+        layoutTree(heap, HEAP_FILL);
+        if (placed > 0) {
+            columns += FOREST_GAP;
+        }
+        layoutTree(second, SECOND_FILL);
+        if (canvasIds.size() > count) {
+            removeStale();
+        }
+        fitView();
+        pass.end(count);
+        stats.layoutTime(start);
+    }
+
+    /**
+     * Places one tree to the right of those already placed.
+     */
+    private void layoutTree(MeldableHeapModel model, Color fill) {
+        if (model.getRoot() == null) {
+            return;
+        }
+        int first = placed;
+        int root = canvasId(model.getRoot());
+        roots[rootCount++] = root;
+        depthOf[root] = 0;
+        // Preorder with an explicit stack; a pairing heap can be a path as long as it is large
+        int top = 0;
+        pendingNode[top++] = model.getRoot();
+        while (top > 0) {
+            Node node = pendingNode[--top];
+            int id = canvasIds.get(node.id());
+            order[placed++] = id;
+            childStart[id] = childEnd;
+            int children = 0;
+            for (Node child = model.firstChild(node); child != null; child = model.nextSibling(node, child)) {
+                int childId = canvasId(child);
+                depthOf[childId] = depthOf[id] + 1;
+                childList[childEnd++] = childId;
+                pendingNode[top + children++] = child;
+            }
+            childCount[id] = children;
+            reverse(pendingNode, top, top + children); // So the leftmost child is visited first
+            top += children;
+            if (children == 0) {
+                columnOf[id] = columns++;
+                lowColumn[id] = columnOf[id];
+                highColumn[id] = columnOf[id];
+                bottomOf[id] = depthOf[id];
+                sizeOf[id] = 1;
+            }
+            if (fillOf[id] != fill) {
+                fillOf[id] = fill;
+                renderer.setFill(id, fill);
+            }
+        }
+        Arrays.fill(pendingNode, 0, placed - first, null);
+        // Children come after their parent in preorder, so walking back centres parents last
+        for (int i = placed - 1; i >= first; i--) {
+            int id = order[i];
+            if (childCount[id] > 0) {
+                int firstChild = childList[childStart[id]];
+                int lastChild = childList[childStart[id] + childCount[id] - 1];
+                columnOf[id] = (columnOf[firstChild] + columnOf[lastChild]) / 2;
+                lowColumn[id] = lowColumn[firstChild];
+                highColumn[id] = highColumn[lastChild];
+                bottomOf[id] = depthOf[id];
+                sizeOf[id] = 1;
+                for (int c = childStart[id], end = c + childCount[id]; c < end; c++) {
+                    bottomOf[id] = Math.max(bottomOf[id], bottomOf[childList[c]]);
+                    sizeOf[id] += sizeOf[childList[c]];
+                }
+            }
+            double x = columnOf[id] * HORIZONTAL_SPACING, y = depthOf[id] * VERTICAL_SPACING;
+            if (x != xOf[id] || y != yOf[id]) {
+                xOf[id] = x;
+                yOf[id] = y;
+                renderer.setPosition(id, x, y);
+            }
+        }
+    }
+
+    /**
+     * @return The renderer id of a node, given one if it has none yet.
+     *         Either way it is marked as reached by this layout pass.
+     */
+    private int canvasId(Node node) {
+        Integer id = canvasIds.get(node.id());
+        if (id == null) {
+            id = freeIds.isEmpty() ? canvasIds.size() : freeIds.pop();
+            canvasIds.put(node.id(), id);
+            ensureIdCapacity(id + 1);
+            nodeIdOf[id] = node.id();
+            keyOf[id] = node.key();
+            fillOf[id] = null;
+            xOf[id] = Double.NaN;
+            yOf[id] = Double.NaN;
+            renderer.setText(id, String.valueOf(node.key()));
+        }
+        stampOf[id] = stamp;
+        return id;
+    }
+
+    // Frees the ids of nodes the last pass did not reach: removed, cleared or left behind by setKind
+    private void removeStale() {
+        for (int id = 0, end = canvasIds.size() + freeIds.size(); id < end; id++) {
+            if (nodeIdOf[id] >= 0 && stampOf[id] != stamp) {
+                canvasIds.remove(nodeIdOf[id]);
+                nodeIdOf[id] = -1;
+                freeIds.push(id);
+                renderer.remove(id);
+            }
+        }
+    }
+
+    private static void reverse(Node[] nodes, int from, int to) {
+        for (int i = from, j = to - 1; i < j; i++, j--) {
+            Node t = nodes[i];
+            nodes[i] = nodes[j];
+            nodes[j] = t;
+        }
+    }
+
+    // Shrinks the forest to fit the pane; it is never enlarged
+    private void fitView() {
+        double width = 0, height = 0;
+        for (int n = 0; n < rootCount; n++) {
+            width = Math.max(width, highColumn[roots[n]] * HORIZONTAL_SPACING);
+            height = Math.max(height, bottomOf[roots[n]] * VERTICAL_SPACING);
+        }
+        double scale = 1;
+        if (canvas.getWidth() > 0 && width > 0) {
+            scale = Math.min(scale, (canvas.getWidth() - 2 * LEFT_MARGIN) / width);
+        }
+        if (canvas.getHeight() > 0 && height > 0) {
+            scale = Math.min(scale, (canvas.getHeight() - 2 * TOP_MARGIN) / height);
+        }
+        renderer.setView(Math.max(scale, 1e-6), LEFT_MARGIN, TOP_MARGIN);
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity <= order.length) {
+            return;
+        }
+        int length = Math.max(capacity, Math.max(16, order.length * 2));
+        pendingNode = Arrays.copyOf(pendingNode, length);
+        order = Arrays.copyOf(order, length);
+        childList = Arrays.copyOf(childList, length);
+    }
+
+    private void ensureIdCapacity(int capacity) {
+        if (capacity <= nodeIdOf.length) {
+            return;
+        }
+        int length = Math.max(capacity, Math.max(16, nodeIdOf.length * 2));
+        int old = nodeIdOf.length;
+        nodeIdOf = Arrays.copyOf(nodeIdOf, length);
+        Arrays.fill(nodeIdOf, old, length, -1);
+        keyOf = Arrays.copyOf(keyOf, length);
+        stampOf = Arrays.copyOf(stampOf, length);
+        fillOf = Arrays.copyOf(fillOf, length);
+        childStart = Arrays.copyOf(childStart, length);
+        childCount = Arrays.copyOf(childCount, length);
+        depthOf = Arrays.copyOf(depthOf, length);
+        bottomOf = Arrays.copyOf(bottomOf, length);
+        sizeOf = Arrays.copyOf(sizeOf, length);
+        columnOf = Arrays.copyOf(columnOf, length);
+        lowColumn = Arrays.copyOf(lowColumn, length);
+        highColumn = Arrays.copyOf(highColumn, length);
+        xOf = Arrays.copyOf(xOf, length);
+        yOf = Arrays.copyOf(yOf, length);
+    }
+
+    private void showWarning(String msg) {
+        if (!AnimationScheduler.isShowing(canvas)) {
+            return;
+        }
+        Label warning = new Label(msg);
+        warning.setStyle(
+                "-fx-background-color: #ffeb3b; " +
+                        "-fx-text-fill: #d32f2f; " +
+                        "-fx-padding: 8; " +
+                        "-fx-border-radius: 4; " +
+                        "-fx-background-radius: 4;");
+        warning.setLayoutX(10);
+        warning.setLayoutY(10);
+        canvas.getChildren().add(warning);
+        AnimationScheduler.shared().after(2, () -> canvas.getChildren().remove(warning));
+    }
+
+    // Both heaps side by side, as laid out by the last redraw
+    private final class CanvasForest implements CanvasRenderer.Tree {
+        @Override
+        public int root() {
+            return rootCount > 0 ? roots[0] : -1;
+        }
+
+        @Override
+        public int rootCount() {
+            return rootCount;
+        }
+
+        @Override
+        public int root(int n) {
+            return roots[n];
+        }
+
+        @Override
+        public int childCount(int id) {
+            return childCount[id];
+        }
+
+        @Override
+        public int child(int id, int n) {
+            return childList[childStart[id] + n];
+        }
+
+        @Override
+        public double left(int id) {
+            return (lowColumn[id] - 0.5) * HORIZONTAL_SPACING;
+        }
+
+        @Override
+        public double right(int id) {
+            return (highColumn[id] + 0.5) * HORIZONTAL_SPACING;
+        }
+
+        @Override
+        public double bottom(int id) {
+            return bottomOf[id] * VERTICAL_SPACING;
+        }
+
+        @Override
+        public String[] summary(int id) {
+            return new String[] { sizeOf[id] + " keys", (heap.isMaxHeap() ? "max " : "min ") + keyOf[id],
+                    "height " + (bottomOf[id] - depthOf[id] + 1) };
+        }
+    }
+}
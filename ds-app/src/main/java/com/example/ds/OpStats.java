@@ -0,0 +1,318 @@
+package com.example.ds;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+
+import javafx.collections.ListChangeListener;
+import javafx.scene.Group;
+import javafx.scene.Node;
+import javafx.scene.Parent;
+import javafx.scene.layout.Pane;
+
+import com.example.ds.core.ObservableStructure;
+import com.example.ds.core.StructureListener;
+
+/**
+ * Counts what each operation costs, so a slow interaction can be told apart
+ * as algorithmic work or rendering overhead. For every operation it keeps
+ * <ul>
+ * <li>comparisons, swaps and inserted elements, as reported by the model's
+ * events;</li>
+ * <li>nodes added to and removed from the scene under the canvas, in any
+ * {@link Group} or {@link Pane} layer;</li>
+ * <li>nanoseconds the view spent laying out (edges included), redrawing
+ * edges and painting the canvas renderer.</li>
+ * </ul>
+ * Costs are charged to the operation begun last, so animation steps still
+ * running from an earlier one count towards the later one. Nothing is
+ * counted, and the views' timers cost one flag test, while disabled.
+ * <p>
+ * A file load feeds its model from a background thread, so the model is not
+ * watched while one runs; the keys it delivered are charged on the FX
+ * thread once it ends.
+ */
+class OpStats implements StructureListener {
+
+    /**
+     * Operations kept for the overlay and the export; older ones are dropped.
+     */
+    static final int MAX_ROWS = 10_000;
+
+    private static final String CSV_HEADER = "operation,comparisons,swaps,inserted,scene_added,scene_removed,"
+            + "layout_ns,edge_ns,paint_ns";
+
+    private static OpStats shared;
+
+    private final Deque<Row> rows = new ArrayDeque<>();
+    private final ListChangeListener<Node> sceneListener = this::sceneChanged;
+    private Row current;
+    private ObservableStructure model;
+    private Parent scene;
+    private boolean enabled;
+    private boolean loading; // A background load owns the model; its events are not counted
+
+    /**
+     * @return The counters all views report to.
+     */
+    static OpStats shared() {
+        if (shared == null) {
+            shared = new OpStats();
+        }
+        return shared;
+    }
+
+    boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Starts or stops counting. Operations counted so far are kept.
+     *
+     * @param root The pane whose scene changes are counted.
+     */
+    void setEnabled(boolean enabled, Parent root) {
+        if (this.enabled == enabled) {
+            return;
+        }
+        this.enabled = enabled;
+        if (enabled) {
+            scene = root;
+            watch(root);
+        } else {
+            unwatch(scene);
+            scene = null;
+            watchModel(null);
+            current = null;
+        }
+    }
+
+    /**
+     * Starts charging costs to a new operation.
+     *
+     * @param name  What the operation was, e.g. {@code Heap: Insert}.
+     * @param model The model it acts on.
+     */
+    void begin(String name, ObservableStructure model) {
+        if (!enabled) {
+            return;
+        }
+        watchModel(loading ? null : model);
+        if (rows.size() == MAX_ROWS) {
+            rows.removeFirst();
+        }
+        current = new Row(name);
+        rows.addLast(current);
+    }
+
+    /**
+     * Stops listening to the model until {@link #loadEnded}, while another
+     * thread feeds it. Called on the FX thread before that thread starts.
+     */
+    void loadStarted() {
+        loading = true;
+        watchModel(null);
+    }
+
+    /**
+     * Charges the keys a background load delivered to the operation begun
+     * last; the model is watched again from the next operation on.
+     */
+    void loadEnded(long inserted) {
+        loading = false;
+        Row row = current;
+        if (row != null) {
+            row.inserted += inserted;
+        }
+    }
+
+    private void watchModel(ObservableStructure model) {
+        if (this.model == model) {
+            return;
+        }
+        if (this.model != null) {
+            this.model.removeListener(this);
+        }
+        this.model = model;
+        if (model != null) {
+            model.addListener(this);
+        }
+    }
+
+    /**
+     * Drops every counted operation.
+     */
+    void clear() {
+        rows.clear();
+        current = null;
+    }
+
+    /**
+     * @return Whether any operation was counted.
+     */
+    boolean isEmpty() {
+        return rows.isEmpty();
+    }
+
+    // --- Timers ---
+
+    /**
+     * @return The start time to hand to one of the {@code ...Time} methods,
+     *         or 0 while disabled.
+     */
+    long start() {
+        return enabled ? System.nanoTime() : 0;
+    }
+
+    /**
+     * Charges the time since {@code start} to laying out the view.
+     */
+    void layoutTime(long start) {
+        if (start != 0 && current != null) {
+            current.layoutNanos += System.nanoTime() - start;
+        }
+    }
+
+    /**
+     * Charges the time since {@code start} to redrawing edges.
+     */
+    void edgeTime(long start) {
+        if (start != 0 && current != null) {
+            current.edgeNanos += System.nanoTime() - start;
+        }
+    }
+
+    /**
+     * Charges the time since {@code start} to painting the canvas renderer.
+     */
+    void paintTime(long start) {
+        if (start != 0 && current != null) {
+            current.paintNanos += System.nanoTime() - start;
+        }
+    }
+
+    // --- Model events ---
+
+    @Override
+    public void inserted(int handle) {
+        Row row = current;
+        if (row != null) {
+            row.inserted++;
+        }
+    }
+
+    @Override
+    public void compared(int a, int b) {
+        Row row = current;
+        if (row != null) {
+            row.comparisons++;
+        }
+    }
+
+    @Override
+    public void swapped(int a, int b) {
+        Row row = current;
+        if (row != null) {
+            row.swaps++;
+        }
+    }
+
+    // --- Scene changes ---
+
+    private void sceneChanged(ListChangeListener.Change<? extends Node> change) {
+        while (change.next()) {
+            for (Node node : change.getRemoved()) {
+                unwatch(node);
+            }
+            for (Node node : change.getAddedSubList()) {
+                watch(node);
+            }
+            if (current != null) {
+                current.sceneAdded += change.getAddedSize();
+                current.sceneRemoved += change.getRemovedSize();
+            }
+        }
+    }
+
+    // Follows layers but not controls, whose skins add children of their own
+    private void watch(Node node) {
+        if (node instanceof Group || node instanceof Pane) {
+            Parent parent = (Parent) node;
+            parent.getChildrenUnmodifiable().addListener(sceneListener);
+            for (Node child : parent.getChildrenUnmodifiable()) {
+                watch(child);
+            }
+        }
+    }
+
+    private void unwatch(Node node) {
+        if (node instanceof Group || node instanceof Pane) {
+            Parent parent = (Parent) node;
+            parent.getChildrenUnmodifiable().removeListener(sceneListener);
+            for (Node child : parent.getChildrenUnmodifiable()) {
+                unwatch(child);
+            }
+        }
+    }
+
+    // --- Output ---
+
+    /**
+     * @return The last {@code count} operations, one per line, newest last.
+     */
+    String summary(int count) {
+        StringBuilder text = new StringBuilder(String.format("%-24s %10s %8s %8s %8s %8s %10s %10s %10s",
+                "Operation", "Compares", "Swaps", "Inserted", "+Scene", "-Scene", "Layout ms", "Edges ms",
+                "Paint ms"));
+        Iterator<Row> it = rows.descendingIterator();
+        Row[] last = new Row[Math.min(count, rows.size())];
+        for (int i = last.length - 1; i >= 0; i--) {
+            last[i] = it.next();
+        }
+        for (Row row : last) {
+            text.append(String.format("%n%-24.24s %10d %8d %8d %8d %8d %10.3f %10.3f %10.3f", row.name,
+                    row.comparisons, row.swaps, row.inserted, row.sceneAdded, row.sceneRemoved,
+                    row.layoutNanos / 1e6, row.edgeNanos / 1e6, row.paintNanos / 1e6));
+        }
+        return text.toString();
+    }
+
+    /**
+     * Writes every counted operation as CSV, oldest first, with a header line.
+     */
+    void writeCsv(Path file) throws IOException {
+        try (Writer out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            out.write(CSV_HEADER);
+            out.write('\n');
+            for (Row row : rows) {
+                out.write(csvField(row.name) + ',' + row.comparisons + ',' + row.swaps + ',' + row.inserted + ','
+                        + row.sceneAdded + ',' + row.sceneRemoved + ',' + row.layoutNanos + ',' + row.edgeNanos
+                        + ',' + row.paintNanos + '\n');
+            }
+        }
+    }
+
+    private static String csvField(String text) {
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0) {
+            return text;
+        }
+        return '"' + text.replace("\"", "\"\"") + '"';
+    }
+
+    // Costs of one operation
+    private static final class Row {
+        final String name;
+        long comparisons, swaps, inserted;
+        long sceneAdded, sceneRemoved;
+        long layoutNanos, edgeNanos, paintNanos;
+
+        Row(String name) {
+            this.name = name;
+        }
+    }
+}
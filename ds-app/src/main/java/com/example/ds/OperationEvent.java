@@ -0,0 +1,60 @@
+package com.example.ds;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event spanning one structure operation issued from the
+ * side panel or a trace replay, from the click to the return of the view's
+ * method. Animation the operation queued is reported separately by
+ * {@link AnimationStepEvent}s.
+ */
+@Name("com.example.ds.Operation")
+@Label("Structure Operation")
+@Category({ "Data Structure Visualizer", "Operations" })
+@Description("A structure operation, such as a heap insert or a tree delete")
+@StackTrace(false)
+class OperationEvent extends Event {
+
+    @Label("Structure")
+    String structure;
+
+    @Label("Operation")
+    String operation;
+
+    @Label("Size Before")
+    @Description("Elements in the structure when the operation started")
+    int sizeBefore;
+
+    @Label("Size After")
+    @Description("Elements in the structure when the operation returned")
+    int sizeAfter;
+
+    /**
+     * Begins timing an operation.
+     *
+     * @param size Elements in the structure now.
+     */
+    static OperationEvent start(String structure, String operation, int size) {
+        OperationEvent event = new OperationEvent();
+        event.structure = structure;
+        event.operation = operation;
+        event.sizeBefore = size;
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Ends the operation and commits the event if it is enabled.
+     *
+     * @param size Elements in the structure now.
+     */
+    void end(int size) {
+        sizeAfter = size;
+        commit();
+    }
+}
@@ -0,0 +1,407 @@
+package com.example.ds;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javafx.geometry.Pos;
+import javafx.scene.Group;
+import javafx.scene.control.Label;
+import javafx.scene.layout.Pane;
+import javafx.scene.paint.Color;
+import javafx.scene.shape.Circle;
+import javafx.scene.shape.Line;
+
+import com.example.ds.core.PointerListModel;
+import com.example.ds.core.PointerListModel.Node;
+
+/**
+ * Draws a {@link PointerListModel}: nodes joined by references and walked
+ * with a cursor. Unlike {@link LinkedList}, nodes keep the grid cell they
+ * were given when added, so an insert or removal re-places only the node
+ * concerned and redraws the arrows of its neighbours, just as the model
+ * relinks only them. {@link #tidy()} lays the whole list out in order
+ * again.
+ */
+public class PointerList {
+
+    // The shapes of one node; prev is null in a singly linked list
+    private static final class NodeVisual {
+        final Circle circle;
+        final Label label;
+        final Line next;
+        final Line prev;
+        int column, row;
+
+        NodeVisual(Circle circle, Label label, Line next, Line prev) {
+            this.circle = circle;
+            this.label = label;
+            this.next = next;
+            this.prev = prev;
+        }
+    }
+
+    private PointerListModel<String> model;
+    private final Pane canvas;
+    private final Group arrowLayer = new Group(); // Behind the nodes
+    private final Group nodeLayer = new Group();
+    private final Map<Integer, NodeVisual> visuals = new HashMap<>(); // By node id
+    private final Set<Long> occupied = new HashSet<>(); // Cells holding a node, as column << 32 | row
+    private int rows; // One past the lowest row a node has been placed in
+    private NodeVisual cursorVisual;
+    private final OpStats stats = OpStats.shared();
+    private static final double NODE_RADIUS = 20.0;
+    private static final double HORIZONTAL_SPACING = 60.0;
+    private static final double VERTICAL_SPACING = 70.0;
+    private static final double START_X = 50.0;
+    private static final double START_Y = 80.0;
+    private static final double ARROW_OFFSET = 4; // Next and prev arrows run side by side
+    private static final int DEFAULT_COLUMNS = 16; // Before the pane has a width
+    private static final int SEARCH_RADIUS = 2; // Rings tried around the wanted cell before opening a row
+
+    /**
+     * @param doubly true to also link every node to its predecessor.
+     */
+    public PointerList(Pane canvas, boolean doubly) {
+        this.canvas = canvas;
+        this.model = new PointerListModel<>(doubly);
+    }
+
+    /**
+     * Appends a value after the tail, in the first free cell after it.
+     */
+    public void add(String value) {
+        Node<String> tail = model.tail();
+        long start = stats.start();
+        LayoutEvent pass = LayoutEvent.start("PointerList", "relink");
+        Node<String> node = model.add(value);
+        NodeVisual previous = tail == null ? null : visuals.get(tail.id());
+        if (previous == null) {
+            place(node, 0, 0);
+        } else if (previous.column + 1 < columns()) {
+            place(node, previous.column + 1, previous.row);
+        } else {
+            place(node, 0, previous.row + 1); // Wraps into the next row
+        }
+        refreshArrows(tail);
+        refreshArrows(node);
+        pass.end(model.size(), 2);
+        stats.layoutTime(start);
+    }
+
+    public void addAll(List<String> values) {
+        for (String value : values) {
+            add(value);
+        }
+    }
+
+    /**
+     * Inserts a value after the cursor, in a free cell next to it or, when
+     * there is none nearby, in a new row, and moves the cursor onto it. Only the new node and its two neighbours
+     * are redrawn.
+     */
+    public void insertAfterCursor(String value) {
+        Node<String> cursor = model.cursor();
+        long start = stats.start();
+        LayoutEvent pass = LayoutEvent.start("PointerList", "relink");
+        Node<String> node = model.insertAfterCursor(value);
+        NodeVisual near = visuals.get(cursor != null ? cursor.id() : node.next() != null ? node.next().id() : -1);
+        if (near == null) {
+            place(node, 0, 0);
+        } else {
+            place(node, near.column + (cursor != null ? 1 : -1), near.row);
+        }
+        refreshArrows(cursor);
+        refreshArrows(node);
+        refreshArrows(node.next());
+        pass.end(model.size(), 3);
+        stats.layoutTime(start);
+        showCursor();
+        flash(visuals.get(node.id()), Color.GREEN);
+    }
+
+    /**
+     * Removes the node under the cursor and joins its neighbours.
+     */
+    public void removeAtCursor() {
+        Node<String> removed = model.cursor();
+        if (removed == null) {
+            showWarning("Move the cursor onto a node first");
+            return;
+        }
+        Node<String> before = model.beforeCursor();
+        Node<String> after = removed.next();
+        long start = stats.start();
+        LayoutEvent pass = LayoutEvent.start("PointerList", "relink");
+        model.removeAtCursor();
+        NodeVisual visual = visuals.remove(removed.id());
+        occupied.remove(cell(visual.column, visual.row));
+        nodeLayer.getChildren().removeAll(visual.circle, visual.label);
+        arrowLayer.getChildren().remove(visual.next);
+        if (visual.prev != null) {
+            arrowLayer.getChildren().remove(visual.prev);
+        }
+        if (cursorVisual == visual) {
+            cursorVisual = null;
+        }
+        refreshArrows(before);
+        refreshArrows(after);
+        pass.end(model.size(), 2);
+        stats.layoutTime(start);
+        showCursor();
+    }
+
+    /**
+     * Moves the cursor one node forward.
+     */
+    public void next() {
+        if (!model.next()) {
+            showWarning(model.isEmpty() ? "List is empty" : "The cursor is on the tail");
+        }
+        showCursor();
+    }
+
+    /**
+     * Moves the cursor one node back; a singly linked list walks from the
+     * head to find it.
+     */
+    public void prev() {
+        if (!model.prev()) {
+            showWarning("The cursor is before the head");
+        }
+        showCursor();
+    }
+
+    /**
+     * Moves the cursor to before the head.
+     */
+    public void resetCursor() {
+        model.resetCursor();
+        showCursor();
+    }
+
+    /**
+     * Lays every node out again in list order, in rows as wide as the pane.
+     * O(n), unlike every other operation.
+     */
+    public void tidy() {
+        long start = stats.start();
+        LayoutEvent pass = LayoutEvent.start("PointerList", "tidy");
+        occupied.clear();
+        int columns = columns();
+        rows = (model.size() + columns - 1) / columns;
+        int i = 0;
+        for (Node<String> node = model.head(); node != null; node = node.next(), i++) {
+            NodeVisual visual = visuals.get(node.id());
+            visual.column = i % columns;
+            visual.row = i / columns;
+            occupied.add(cell(visual.column, visual.row));
+            position(visual);
+        }
+        for (Node<String> node = model.head(); node != null; node = node.next()) {
+            refreshArrows(node);
+        }
+        pass.end(model.size(), model.size());
+        stats.layoutTime(start);
+    }
+
+    public void clear() {
+        model.clear();
+        visuals.clear();
+        occupied.clear();
+        rows = 0;
+        cursorVisual = null;
+        arrowLayer.getChildren().clear();
+        nodeLayer.getChildren().clear();
+    }
+
+    /**
+     * Replaces the list with an empty one, singly or doubly linked.
+     */
+    public void setDoubly(boolean doubly) {
+        clear();
+        model = new PointerListModel<>(doubly);
+    }
+
+    public boolean isDoubly() {
+        return model.isDoubly();
+    }
+
+    public boolean isEmpty() {
+        return model.isEmpty();
+    }
+
+    public PointerListModel<String> getModel() {
+        return model;
+    }
+
+    // --- Drawing ---
+
+    // Gives a new node the free cell nearest the wanted one and creates its shapes
+    private void place(Node<String> node, int column, int row) {
+        ensureLayers();
+        Circle circle = new Circle(NODE_RADIUS, Color.LIGHTYELLOW);
+        circle.setStroke(Color.BLACK);
+        Label label = new Label(node.value());
+        label.setAlignment(Pos.CENTER);
+        label.setPrefSize(2 * NODE_RADIUS, 2 * NODE_RADIUS); // Centred by size, without a layout pass
+        label.setMouseTransparent(true);
+        Line next = new Line();
+        next.setVisible(false);
+        Line prev = null;
+        if (model.isDoubly()) {
+            prev = new Line();
+            prev.setStroke(Color.GRAY);
+            prev.getStrokeDashArray().addAll(4.0, 3.0);
+            prev.setVisible(false);
+            arrowLayer.getChildren().add(prev);
+        }
+        arrowLayer.getChildren().add(next);
+        nodeLayer.getChildren().addAll(circle, label);
+        NodeVisual visual = new NodeVisual(circle, label, next, prev);
+        freeCellNear(visual, column, row);
+        position(visual);
+        visuals.put(node.id(), visual);
+    }
+
+    // Walks the perimeters of rings of growing radius around the wanted cell, which is
+    // clamped to the pane; past SEARCH_RADIUS the node opens a new row under the others
+    private void freeCellNear(NodeVisual visual, int column, int row) {
+        int columns = columns();
+        column = Math.max(0, Math.min(columns - 1, column));
+        row = Math.max(0, row);
+        for (int radius = 0; radius <= SEARCH_RADIUS; radius++) {
+            int left = Math.max(0, column - radius), right = Math.min(columns - 1, column + radius);
+            int top = Math.max(0, row - radius), bottom = row + radius;
+            for (int c = left; c <= right; c++) {
+                if (row - radius >= 0 && take(visual, c, row - radius)
+                        || radius > 0 && take(visual, c, bottom)) {
+                    return;
+                }
+            }
+            for (int r = top; r <= bottom; r++) {
+                if (column - radius >= 0 && take(visual, column - radius, r)
+                        || column + radius < columns && take(visual, column + radius, r)) {
+                    return;
+                }
+            }
+        }
+        take(visual, column, rows); // Below every occupied cell, so always free
+    }
+
+    // Claims a cell if it is free
+    private boolean take(NodeVisual visual, int column, int row) {
+        if (!occupied.add(cell(column, row))) {
+            return false;
+        }
+        visual.column = column;
+        visual.row = row;
+        rows = Math.max(rows, row + 1);
+        return true;
+    }
+
+    private void position(NodeVisual visual) {
+        double x = centerX(visual), y = centerY(visual);
+        visual.circle.setCenterX(x);
+        visual.circle.setCenterY(y);
+        visual.label.relocate(x - NODE_RADIUS, y - NODE_RADIUS);
+    }
+
+    // Redraws the arrows leaving a node, towards its successor and predecessor
+    private void refreshArrows(Node<String> node) {
+        if (node == null) {
+            return;
+        }
+        NodeVisual visual = visuals.get(node.id());
+        point(visual.next, visual, node.next() == null ? null : visuals.get(node.next().id()), -ARROW_OFFSET);
+        if (visual.prev != null) {
+            point(visual.prev, visual, node.prev() == null ? null : visuals.get(node.prev().id()), ARROW_OFFSET);
+        }
+    }
+
+    // Runs a line between the rims of two circles, shifted sideways by offset, or hides it
+    private void point(Line line, NodeVisual from, NodeVisual to, double offset) {
+        if (to == null) {
+            line.setVisible(false);
+            return;
+        }
+        double ax = centerX(from), ay = centerY(from), bx = centerX(to), by = centerY(to);
+        double length = Math.hypot(bx - ax, by - ay);
+        double ux = (bx - ax) / length, uy = (by - ay) / length;
+        double shift = model.isDoubly() ? offset : 0;
+        line.setStartX(ax + ux * NODE_RADIUS - uy * shift);
+        line.setStartY(ay + uy * NODE_RADIUS + ux * shift);
+        line.setEndX(bx - ux * NODE_RADIUS - uy * shift);
+        line.setEndY(by - uy * NODE_RADIUS + ux * shift);
+        line.setVisible(true);
+    }
+
+    // Outlines the node under the cursor
+    private void showCursor() {
+        Node<String> cursor = model.cursor();
+        NodeVisual visual = cursor == null ? null : visuals.get(cursor.id());
+        if (visual == cursorVisual) {
+            return;
+        }
+        if (cursorVisual != null) {
+            cursorVisual.circle.setStroke(Color.BLACK);
+            cursorVisual.circle.setStrokeWidth(1);
+        }
+        cursorVisual = visual;
+        if (visual != null) {
+            visual.circle.setStroke(Color.ORANGE);
+            visual.circle.setStrokeWidth(3);
+        }
+    }
+
+    private void ensureLayers() {
+        if (arrowLayer.getParent() != canvas) {
+            canvas.getChildren().addAll(arrowLayer, nodeLayer); // First use, or the pane was cleared
+        }
+    }
+
+    private int columns() {
+        double width = canvas.getWidth();
+        return width > 0 ? Math.max(1, (int) ((width - 2 * START_X) / HORIZONTAL_SPACING) + 1) : DEFAULT_COLUMNS;
+    }
+
+    private static double centerX(NodeVisual visual) {
+        return START_X + visual.column * HORIZONTAL_SPACING;
+    }
+
+    private static double centerY(NodeVisual visual) {
+        return START_Y + visual.row * VERTICAL_SPACING;
+    }
+
+    private static long cell(int column, int row) {
+        return (long) column << 32 | row;
+    }
+
+    private void flash(NodeVisual visual, Color color) {
+        if (!AnimationScheduler.isShowing(canvas)) {
+            return;
+        }
+        visual.circle.setFill(color);
+        AnimationScheduler.shared().play(AnimationScheduler.delay(0.5,
+                () -> visual.circle.setFill(Color.LIGHTYELLOW)));
+    }
+
+    private void showWarning(String msg) {
+        if (!AnimationScheduler.isShowing(canvas)) {
+            return;
+        }
+        Label warning = new Label(msg);
+        warning.setStyle(
+                "-fx-background-color: #ffeb3b; " +
+                        "-fx-text-fill: #d32f2f; " +
+                        "-fx-padding: 8; " +
+                        "-fx-border-radius: 4; " +
+                        "-fx-background-radius: 4;");
+        warning.setLayoutX(10);
+        warning.setLayoutY(10);
+        canvas.getChildren().add(warning);
+        AnimationScheduler.shared().after(2, () -> canvas.getChildren().remove(warning));
+    }
+}
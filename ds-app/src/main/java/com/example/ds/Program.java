@@ -23,6 +23,8 @@ public class Program extends Application {
         Button queueBtn = new Button("Queue Visualization");
         Button heapBtn = new Button("Heap Visualization");
         Button bstBtn = new Button("Binary Search Tree Visualization");
+        Button meldableBtn = new Button("Meldable Heap Visualization");
+        Button pointerListBtn = new Button("Pointer Linked List Visualization");
         Button quitBtn = new Button("Quit Program");
 
         
@@ -32,9 +34,12 @@ public class Program extends Application {
         queueBtn.setOnAction(e -> new DataVisu("Queue").start(stage));
         heapBtn.setOnAction(e -> new DataVisu("Heap").start(stage));
         bstBtn.setOnAction(e -> new DataVisu("Binary Search Tree").start(stage));
+        meldableBtn.setOnAction(e -> new DataVisu("Meldable Heap").start(stage));
+        pointerListBtn.setOnAction(e -> new DataVisu("Pointer Linked List").start(stage));
         quitBtn.setOnAction(e -> System.exit(0));
 
-        root.getChildren().addAll(linkedListBtn, stackBtn, queueBtn, heapBtn, bstBtn, quitBtn);
+        root.getChildren().addAll(linkedListBtn, stackBtn, queueBtn, heapBtn, bstBtn, meldableBtn, pointerListBtn,
+                quitBtn);
 
         Scene scene = new Scene(root, 600, 600);
         scene.getStylesheets().add("styles.css");
@@ -0,0 +1,234 @@
+package com.example.ds;
+
+import javafx.scene.control.Label;
+import javafx.scene.layout.Pane;
+import javafx.scene.paint.Color;
+import javafx.scene.shape.Rectangle;
+
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import com.example.ds.core.Highlight;
+import com.example.ds.core.QueueModel;
+import com.example.ds.core.Snapshot;
+import com.example.ds.core.StructureListener;
+
+public class Queue implements StructureListener {
+    private static final double START_X = 50;
+    private static final double CELL_WIDTH = 110; // Each item is ~110px wide
+    private static final double ROW_HEIGHT = 60;
+    private static final double TOP_MARGIN = 10;
+
+    private QueueModel<String> queue;
+    private VirtualStrip strip;
+    private Pane canvas;
+    // Window of positions currently drawn, front first; first is also how
+    // many elements are hidden ahead of the window
+    private int first, count;
+    private boolean bulkLoading; // A batch is being enqueued; events are ignored and one redraw follows
+
+    public Queue(Pane canvas) {
+        this.canvas = canvas;
+        this.queue = new QueueModel<>();
+        this.strip = new VirtualStrip(canvas, Color.LIGHTPINK, this::scrollBy);
+        queue.addListener(this);
+    }
+
+    public void enqueue(String value) {
+        queue.enqueue(value);
+    }
+
+    /**
+     * Enqueues every value in order, then redraws once.
+     *
+     * @param values The values to enqueue, front first.
+     */
+    public void enqueueAll(List<String> values) {
+        bulkLoading = true;
+        try {
+            queue.enqueueAll(values);
+        } finally {
+            bulkLoading = false;
+        }
+        updatePositions();
+    }
+
+    /**
+     * Replaces the queue with a saved one and redraws once.
+     *
+     * @param snapshot A snapshot of a queue.
+     * @throws IllegalArgumentException if it is not one.
+     */
+    public void restore(Snapshot snapshot) {
+        bulkLoading = true;
+        try {
+            snapshot.restore(queue);
+        } finally {
+            bulkLoading = false;
+        }
+        updatePositions();
+    }
+
+    public void dequeue() {
+        if (queue.isEmpty()) {
+            showWarning("Queue is empty");
+            return;
+        }
+        queue.dequeue();
+    }
+
+    /**
+     * Empties the queue at once; the strip is cleared in one step rather than
+     * per element.
+     */
+    public void clear() {
+        queue.clear();
+    }
+
+    public void enqueueFront(String value) {
+        queue.enqueueFront(value);
+    }
+
+    public void dequeueBack() {
+        if (queue.isEmpty()) {
+            showWarning("Queue is empty");
+            return;
+        }
+        queue.dequeueBack();
+    }
+
+    // public String front() {
+    // if (queue.isEmpty()) {
+    // throw new NoSuchElementException("Queue is empty");
+    // }
+    // return queue.get(0);
+    // }
+
+    // public String front() {
+    // if (queue.isEmpty()) {
+    // showWarning("Queue is empty");
+    // }
+    // return queue.get(0);
+    // }
+
+    public String front() {
+        if (queue == null) {
+            throw new IllegalStateException("Queue is not initialized");
+        }
+        if (queue.isEmpty()) {
+            throw new NoSuchElementException("Queue is empty");
+        }
+        return queue.get(0);
+    }
+
+    public void peek() {
+        if (queue.isEmpty()) {
+            showWarning("Queue is empty");
+            return;
+        }
+        queue.peek();
+    }
+
+    public boolean isEmpty() {
+        return queue.isEmpty();
+    }
+
+    public void isEmptyVisual() {
+        String msg = isEmpty() ? "Queue is empty" : "Queue is not empty";
+        showWarning(msg);
+    }
+
+    public QueueModel<String> getModel() {
+        return queue;
+    }
+
+    @Override
+    public void inserted(int index) {
+        if (bulkLoading) {
+            return;
+        }
+        updatePositions();
+        highlightElement(strip.cell(index - first), Color.YELLOW);
+    }
+
+    @Override
+    public void removed(int index) {
+        strip.flashRemoved(index - first); // The value is gone from the model; flash its old cell
+        updatePositions();
+    }
+
+    @Override
+    public void highlighted(int index, Highlight kind) {
+        highlightElement(strip.cell(index - first), Color.GREEN);
+    }
+
+    @Override
+    public void cleared() {
+        strip.clear();
+        first = count = 0;
+    }
+
+    private void scrollBy(int delta) {
+        first -= delta; // Wheel up reveals elements nearer the front
+        updatePositions();
+    }
+
+    private void highlightElement(Rectangle rect, Color color) {
+        if (rect == null || !AnimationScheduler.isShowing(canvas)) {
+            return; // Not drawn, or off-screen (e.g. benchmarks)
+        }
+        rect.setFill(color);
+        AnimationScheduler.shared().play(AnimationScheduler.delay(0.5, () -> rect.setFill(Color.LIGHTPINK)));
+    }
+
+    private void showWarning(String msg) {
+        if (!AnimationScheduler.isShowing(canvas)) {
+            return;
+        }
+        Label warning = new Label(msg);
+        warning.setStyle(
+                "-fx-background-color: #ffeb3b; -fx-text-fill: #d32f2f; -fx-padding: 5; -fx-border-radius: 5;");
+        warning.setLayoutX(10);
+        warning.setLayoutY(10);
+        canvas.getChildren().add(warning);
+        AnimationScheduler.shared().after(2, () -> canvas.getChildren().remove(warning));
+    }
+
+    /**
+     * Draws only the elements that fit on the canvas, wrapping into rows that
+     * grow upwards from the bottom. When the queue is longer than that, the
+     * first and last slots hold "… N more …" markers.
+     */
+    private void updatePositions() {
+        long start = OpStats.shared().start();
+        LayoutEvent pass = LayoutEvent.start("Queue", "updatePositions");
+        double startY = canvas.getHeight() - 50;
+        int itemsPerRow = Math.max(1, (int) ((canvas.getWidth() - START_X) / CELL_WIDTH));
+        int rows = Math.max(1, (int) ((startY - TOP_MARGIN) / ROW_HEIGHT) + 1);
+        int capacity = Math.max(3, itemsPerRow * rows);
+        int size = queue.size();
+        boolean elided = size > capacity;
+        count = elided ? capacity - 2 : size;
+        first = Math.max(0, Math.min(first, size - count));
+
+        int slot = elided ? 1 : 0; // Slot 0 is the front marker when elided
+        strip.begin();
+        for (int i = first; i < first + count; i++, slot++) {
+            strip.bind(queue.get(i), slotX(slot, itemsPerRow), slotY(slot, itemsPerRow, startY));
+        }
+        strip.end();
+        strip.marker(true, elided ? first : 0, slotX(0, itemsPerRow), slotY(0, itemsPerRow, startY));
+        strip.marker(false, elided ? size - first - count : 0,
+                slotX(slot, itemsPerRow), slotY(slot, itemsPerRow, startY));
+        pass.end(queue.size(), count);
+        OpStats.shared().layoutTime(start);
+    }
+
+    private static double slotX(int slot, int itemsPerRow) {
+        return START_X + (slot % itemsPerRow) * CELL_WIDTH;
+    }
+
+    private static double slotY(int slot, int itemsPerRow, double startY) {
+        return startY - (slot / itemsPerRow) * ROW_HEIGHT; // New row every itemsPerRow elements
+    }
+}
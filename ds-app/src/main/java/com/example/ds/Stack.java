@@ -0,0 +1,196 @@
+package com.example.ds;
+
+import javafx.scene.control.Label;
+import javafx.scene.layout.Pane;
+import javafx.scene.paint.Color;
+import javafx.scene.shape.Rectangle;
+
+import java.util.List;
+
+import com.example.ds.core.Highlight;
+import com.example.ds.core.Snapshot;
+import com.example.ds.core.StackModel;
+import com.example.ds.core.StructureListener;
+
+public class Stack implements StructureListener {
+    private static final double START_X = 50;
+    private static final double ROW_HEIGHT = 50;
+    private static final double TOP_MARGIN = 10;
+
+    private StackModel<String> stack;
+    private VirtualStrip strip;
+    private Pane canvas;
+    // Window of positions currently drawn, bottom first
+    private int first, count;
+    // Elements hidden above the window; 0 keeps the top in view
+    private int scroll;
+    private boolean bulkLoading; // A batch is being pushed; events are ignored and one redraw follows
+
+    public Stack(Pane canvas) {
+        this.canvas = canvas;
+        this.stack = new StackModel<>();
+        this.strip = new VirtualStrip(canvas, Color.LIGHTBLUE, this::scrollBy);
+        stack.addListener(this);
+    }
+
+    public void push(String value) {
+        stack.push(value);
+    }
+
+    /**
+     * Pushes every value in order, then redraws once with the last one on top.
+     *
+     * @param values The values to push, bottom first.
+     */
+    public void pushAll(List<String> values) {
+        bulkLoading = true;
+        try {
+            stack.pushAll(values);
+        } finally {
+            bulkLoading = false;
+        }
+        scroll = 0;
+        updatePositions();
+    }
+
+    /**
+     * Replaces the stack with a saved one and redraws once.
+     *
+     * @param snapshot A snapshot of a stack.
+     * @throws IllegalArgumentException if it is not one.
+     */
+    public void restore(Snapshot snapshot) {
+        bulkLoading = true;
+        try {
+            snapshot.restore(stack);
+        } finally {
+            bulkLoading = false;
+        }
+        scroll = 0;
+        updatePositions();
+    }
+
+    public void pop() {
+        if (stack.isEmpty()) {
+            showWarning("Stack is empty");
+            return;
+        }
+        stack.pop();
+    }
+
+    /**
+     * Empties the stack at once; the strip is cleared in one step rather than
+     * per element.
+     */
+    public void clear() {
+        stack.clear();
+    }
+
+    public void peek() {
+        if (stack.isEmpty()) {
+            showWarning("Stack is empty");
+            return;
+        }
+        stack.peek();
+    }
+
+    public boolean isEmpty() {
+        return stack.isEmpty();
+    }
+
+    public StackModel<String> getModel() {
+        return stack;
+    }
+
+    @Override
+    public void inserted(int index) {
+        if (bulkLoading) {
+            return;
+        }
+        updatePositions();
+        highlightElement(strip.cell(cellOf(index)), Color.YELLOW);
+    }
+
+    @Override
+    public void removed(int index) {
+        strip.flashRemoved(cellOf(index)); // The value is gone from the model; flash its old cell
+        updatePositions();
+    }
+
+    @Override
+    public void highlighted(int index, Highlight kind) {
+        highlightElement(strip.cell(cellOf(index)), Color.GREEN);
+    }
+
+    @Override
+    public void cleared() {
+        strip.clear();
+        first = count = scroll = 0;
+    }
+
+    public void isEmptyVisual() {
+        String msg = isEmpty() ? "Stack is empty" : "Stack is not empty";
+        showWarning(msg);
+    }
+
+    private void scrollBy(int delta) {
+        scroll += delta;
+        updatePositions();
+    }
+
+    private int cellOf(int index) {
+        return index - first;
+    }
+
+    private void highlightElement(Rectangle rect, Color color) {
+        if (rect == null || !AnimationScheduler.isShowing(canvas)) {
+            return; // Not drawn, or off-screen (e.g. benchmarks)
+        }
+        rect.setFill(color);
+        AnimationScheduler.shared().play(AnimationScheduler.delay(0.5, () -> rect.setFill(Color.LIGHTBLUE)));
+    }
+
+    private void showWarning(String msg) {
+        if (!AnimationScheduler.isShowing(canvas)) {
+            return;
+        }
+        Label warning = new Label(msg);
+        warning.setStyle(
+                "-fx-background-color: #ffeb3b; -fx-text-fill: #d32f2f; -fx-padding: 5; -fx-border-radius: 5;");
+        warning.setLayoutX(10);
+        warning.setLayoutY(10);
+        canvas.getChildren().add(warning);
+        AnimationScheduler.shared().after(2, () -> canvas.getChildren().remove(warning));
+    }
+
+    private double slotY(int slot) {
+        return canvas.getHeight() - 50 - (slot + 1) * ROW_HEIGHT;
+    }
+
+    /**
+     * Draws only the elements that fit on the canvas. When the stack is taller
+     * than that, the bottom and top slots hold "… N more …" markers and the
+     * window follows the top unless the user scrolled down.
+     */
+    private void updatePositions() {
+        long start = OpStats.shared().start();
+        LayoutEvent pass = LayoutEvent.start("Stack", "updatePositions");
+        int size = stack.size();
+        int capacity = Math.max(3, (int) ((canvas.getHeight() - 50 - TOP_MARGIN) / ROW_HEIGHT));
+        boolean elided = size > capacity;
+        count = elided ? capacity - 2 : size;
+        scroll = Math.max(0, Math.min(scroll, size - count));
+        first = size - count - scroll;
+
+        int slot = elided ? 1 : 0; // Slot 0 is the lower marker when elided
+        strip.begin();
+        for (int i = first; i < first + count; i++) {
+            strip.bind(stack.get(i), START_X, slotY(slot++));
+        }
+        strip.end();
+        strip.marker(true, elided ? first : 0, START_X, slotY(0));
+        strip.marker(false, elided ? scroll : 0, START_X, slotY(slot));
+        pass.end(stack.size(), count);
+        OpStats.shared().layoutTime(start);
+    }
+}
@@ -0,0 +1,376 @@
+package com.example.ds;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.example.ds.core.BstModel;
+
+/**
+ * Reingold-Tilford tidy layout for the binary search tree view. Siblings are
+ * pushed apart just far enough that no two nodes on the same level come
+ * closer than the gap, and each parent sits centred over its children.
+ * <p>
+ * Every node keeps the left and right outline (contour) of its subtree as a
+ * list of x steps per level. Contours share their tails with those of the
+ * children, so a full layout costs O(n). After an edit only the invalidated
+ * nodes and their ancestors are merged again, and only nodes whose position
+ * actually changed are reported.
+ * <p>
+ * The same merge keeps a summary of every subtree (size, key range, height
+ * and horizontal extent) so a zoomed-out view can draw it without visiting
+ * its nodes.
+ */
+class TidyTreeLayout {
+
+    /**
+     * Receives the new position of a node that moved or was just added.
+     */
+    interface Placement {
+        /**
+         * @param x     Horizontal position relative to the root.
+         * @param depth Level of the node, 0 for the root.
+         */
+        void place(BstModel.Node node, double x, int depth);
+    }
+
+    private final double gap;
+    private final Map<Integer, Entry> entries = new HashMap<>();
+    private final List<Integer> invalid = new ArrayList<>();
+    private boolean invalidAll;
+    private double leftExtent, rightExtent;
+
+    /**
+     * @param gap Minimum distance between two nodes on the same level.
+     */
+    TidyTreeLayout(double gap) {
+        this.gap = gap;
+    }
+
+    /**
+     * Marks a node whose children changed, or that was just added.
+     */
+    void invalidate(int key) {
+        invalid.add(key);
+    }
+
+    /**
+     * Lays out the whole tree again on the next update.
+     */
+    void invalidateAll() {
+        invalidAll = true;
+    }
+
+    void remove(int key) {
+        entries.remove(key);
+    }
+
+    void clear() {
+        entries.clear();
+        invalid.clear();
+        invalidAll = false;
+        leftExtent = rightExtent = 0;
+    }
+
+    /**
+     * @return x of the leftmost node relative to the root, after the last update.
+     */
+    double getLeftExtent() {
+        return leftExtent;
+    }
+
+    /**
+     * @return x of the rightmost node relative to the root, after the last update.
+     */
+    double getRightExtent() {
+        return rightExtent;
+    }
+
+    /**
+     * @return Position of the node after the last update, relative to the root.
+     */
+    double x(int key) {
+        return entries.get(key).x;
+    }
+
+    int depth(int key) {
+        return entries.get(key).depth;
+    }
+
+    /**
+     * @return Levels in the node's subtree, including the node.
+     */
+    int height(int key) {
+        return entries.get(key).height;
+    }
+
+    /**
+     * @return Number of nodes in the node's subtree.
+     */
+    int size(int key) {
+        return entries.get(key).size;
+    }
+
+    int minKey(int key) {
+        return entries.get(key).minKey;
+    }
+
+    int maxKey(int key) {
+        return entries.get(key).maxKey;
+    }
+
+    /**
+     * @return x of the leftmost node of the subtree, relative to the root.
+     */
+    double left(int key) {
+        Entry e = entries.get(key);
+        return e.x + e.minX;
+    }
+
+    /**
+     * @return x of the rightmost node of the subtree, relative to the root.
+     */
+    double right(int key) {
+        Entry e = entries.get(key);
+        return e.x + e.maxX;
+    }
+
+    /**
+     * Recomputes the invalidated parts of the layout and reports every node
+     * whose position changed.
+     */
+    void update(BstModel tree, Placement placement) {
+        BstModel.Node root = tree.getRoot();
+        List<Entry> changed = new ArrayList<>();
+        if (root != null) {
+            markChanged(tree, root, changed);
+        }
+        invalid.clear();
+        invalidAll = false;
+        if (root == null) {
+            leftExtent = rightExtent = 0;
+            return;
+        }
+
+        // Merge children before parents, touching only the changed nodes
+        Deque<BstModel.Node> pending = new ArrayDeque<>();
+        Deque<BstModel.Node> postOrder = new ArrayDeque<>();
+        if (entry(root).changed) {
+            pending.push(root);
+        }
+        while (!pending.isEmpty()) {
+            BstModel.Node node = pending.pop();
+            postOrder.push(node);
+            if (node.left() != null && entry(node.left()).changed) {
+                pending.push(node.left());
+            }
+            if (node.right() != null && entry(node.right()).changed) {
+                pending.push(node.right());
+            }
+        }
+        while (!postOrder.isEmpty()) {
+            merge(postOrder.pop());
+        }
+
+        Entry top = entry(root);
+        leftExtent = rightExtent = 0;
+        double x = 0;
+        for (Contour c = top.left; c != null; c = c.next) {
+            x += c.dx;
+            leftExtent = Math.min(leftExtent, x);
+        }
+        x = 0;
+        for (Contour c = top.right; c != null; c = c.next) {
+            x += c.dx;
+            rightExtent = Math.max(rightExtent, x);
+        }
+
+        // Walk down from the root; an unchanged node that did not move keeps its whole subtree in place
+        pending.push(root);
+        while (!pending.isEmpty()) {
+            BstModel.Node node = pending.pop();
+            Entry e = entry(node);
+            BstModel.Node parent = node.parent();
+            double nodeX = parent == null ? 0 : entry(parent).x + e.offset;
+            int depth = parent == null ? 0 : entry(parent).depth + 1;
+            if (!e.changed && e.placed && e.x == nodeX && e.depth == depth) {
+                continue;
+            }
+            e.x = nodeX;
+            e.depth = depth;
+            e.placed = true;
+            placement.place(node, nodeX, depth);
+            if (node.right() != null) {
+                pending.push(node.right());
+            }
+            if (node.left() != null) {
+                pending.push(node.left());
+            }
+        }
+
+        for (Entry e : changed) {
+            e.changed = false;
+        }
+    }
+
+    // Flags the invalidated nodes and all their ancestors
+    private void markChanged(BstModel tree, BstModel.Node root, List<Entry> changed) {
+        if (invalidAll) {
+            Deque<BstModel.Node> pending = new ArrayDeque<>();
+            pending.push(root);
+            while (!pending.isEmpty()) {
+                BstModel.Node node = pending.pop();
+                Entry e = entry(node);
+                e.changed = true;
+                changed.add(e);
+                if (node.left() != null) {
+                    pending.push(node.left());
+                }
+                if (node.right() != null) {
+                    pending.push(node.right());
+                }
+            }
+            return;
+        }
+        for (int key : invalid) {
+            BstModel.Node node = tree.getNode(key);
+            // Stops at the first ancestor already flagged; the rest of its path is too
+            while (node != null) {
+                Entry e = entry(node);
+                if (e.changed) {
+                    break;
+                }
+                e.changed = true;
+                changed.add(e);
+                node = node.parent();
+            }
+        }
+    }
+
+    // Places the children of node relative to it and builds its contours from theirs
+    private void merge(BstModel.Node node) {
+        Entry e = entry(node);
+        Entry left = node.left() == null ? null : entry(node.left());
+        Entry right = node.right() == null ? null : entry(node.right());
+        place(e, left, right);
+        summarize(node.key(), e, left, right); // Needs the child offsets place() just set
+    }
+
+    // Sets the children's offsets and the node's height and contours
+    private void place(Entry e, Entry left, Entry right) {
+        if (left == null && right == null) {
+            e.height = 1;
+            e.left = e.right = new Contour(0, null);
+            return;
+        }
+        if (right == null) {
+            // A lone child still leans to its side so the direction stays visible
+            left.offset = -gap / 2;
+            e.height = left.height + 1;
+            e.left = new Contour(0, outline(left.left, left.offset, left.height, null, 0, 0));
+            e.right = new Contour(0, outline(left.right, left.offset, left.height, null, 0, 0));
+            return;
+        }
+        if (left == null) {
+            right.offset = gap / 2;
+            e.height = right.height + 1;
+            e.left = new Contour(0, outline(right.left, right.offset, right.height, null, 0, 0));
+            e.right = new Contour(0, outline(right.right, right.offset, right.height, null, 0, 0));
+            return;
+        }
+
+        // Closest the two subtrees may sit: compare facing contours level by level
+        double separation = gap;
+        double leftX = 0, rightX = 0;
+        for (Contour l = left.right, r = right.left; l != null && r != null; l = l.next, r = r.next) {
+            leftX += l.dx;
+            rightX += r.dx;
+            separation = Math.max(separation, leftX - rightX + gap);
+        }
+        left.offset = -separation / 2;
+        right.offset = separation / 2;
+        e.height = Math.max(left.height, right.height) + 1;
+        e.left = new Contour(0, outline(left.left, left.offset, left.height, right.left, right.offset, right.height));
+        e.right = new Contour(0, outline(right.right, right.offset, right.height, left.right, left.offset, left.height));
+    }
+
+    private static void summarize(int key, Entry e, Entry left, Entry right) {
+        e.size = 1;
+        e.minKey = e.maxKey = key;
+        e.minX = e.maxX = 0;
+        if (left != null) {
+            e.size += left.size;
+            e.minKey = left.minKey;
+            e.minX = Math.min(e.minX, left.offset + left.minX);
+            e.maxX = Math.max(e.maxX, left.offset + left.maxX);
+        }
+        if (right != null) {
+            e.size += right.size;
+            e.maxKey = right.maxKey;
+            e.minX = Math.min(e.minX, right.offset + right.minX);
+            e.maxX = Math.max(e.maxX, right.offset + right.maxX);
+        }
+    }
+
+    /**
+     * Builds one side of a parent's outline, without the parent itself: the
+     * near subtree's contour for as deep as it goes, then the far subtree's
+     * below that. Shares the far tail, and the whole near contour when the
+     * far subtree is no deeper.
+     */
+    private static Contour outline(Contour near, double nearOffset, int nearHeight,
+            Contour far, double farOffset, int farHeight) {
+        if (nearHeight >= farHeight) {
+            return new Contour(nearOffset + near.dx, near.next);
+        }
+        Contour head = null, tail = null;
+        double previous = 0, nearX = nearOffset, farX = farOffset;
+        Contour f = far;
+        for (Contour c = near; c != null; c = c.next, f = f.next) {
+            nearX += c.dx;
+            farX += f.dx;
+            Contour cell = new Contour(nearX - previous, null);
+            previous = nearX;
+            if (tail == null) {
+                head = cell;
+            } else {
+                tail.next = cell;
+            }
+            tail = cell;
+        }
+        farX += f.dx;
+        tail.next = new Contour(farX - previous, f.next);
+        return head;
+    }
+
+    private Entry entry(BstModel.Node node) {
+        return entries.computeIfAbsent(node.key(), key -> new Entry());
+    }
+
+    // Layout state of one node
+    private static final class Entry {
+        double offset; // x relative to the parent
+        int height; // Levels in the subtree, including this node
+        Contour left, right; // Subtree outline, starting with this node at 0
+        int size, minKey, maxKey; // Subtree summary
+        double minX, maxX; // Subtree extent relative to this node
+        double x; // Last reported position
+        int depth;
+        boolean placed;
+        boolean changed; // Flagged for the update in progress
+    }
+
+    // One level of a contour; dx is relative to the level above
+    private static final class Contour {
+        final double dx;
+        Contour next;
+
+        Contour(double dx, Contour next) {
+            this.dx = dx;
+            this.next = next;
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.example.ds;
+
+import java.io.IOException;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import com.example.ds.core.TraceReader;
+
+/**
+ * Replays a recorded operation trace through the views, reading it one
+ * record at a time. Played animated, each operation waits for the animation
+ * of the one before, so the speed, pause and step controls apply; at full
+ * speed operations are issued back to back, a frame's worth at a time so
+ * the window stays responsive.
+ * <p>
+ * Full speed means the replay does not wait for animations; it does not
+ * bypass the views. Every operation still goes through its view, as it did
+ * when it was recorded, so the view stays in step with its model and the
+ * replay exercises the same drawing code. Views that can coalesce, like the
+ * heap, jump to their final layout once their animations fall behind, and
+ * the others finish queued steps without frames.
+ */
+class TracePlayer {
+    // Animation seconds between operations when animated
+    private static final double ANIMATED_GAP = 0.3;
+    // FX-thread time spent issuing operations per frame at full speed
+    private static final long SLICE_NANOS = 8_000_000;
+
+    private final TraceReader reader;
+    private final Function<TraceReader, KeyLoadTask> apply;
+    private final boolean animated;
+    private final Consumer<String> onFinished;
+    private final AnimationScheduler scheduler;
+    private KeyLoadTask load; // Running load the replay waits for, if any
+    private long played;
+    private boolean stopRequested, finished;
+
+    /**
+     * @param apply      Issues the current record's operation; returns the
+     *                   load it started, if any, which is waited for.
+     * @param animated   Whether to play each operation's animation.
+     * @param onFinished Told how the replay ended, once the reader is closed.
+     */
+    TracePlayer(TraceReader reader, Function<TraceReader, KeyLoadTask> apply, boolean animated,
+            Consumer<String> onFinished) {
+        this.reader = reader;
+        this.apply = apply;
+        this.animated = animated;
+        this.onFinished = onFinished;
+        this.scheduler = AnimationScheduler.shared();
+    }
+
+    void start() {
+        resume();
+    }
+
+    /**
+     * Ends the replay after the operation in progress.
+     */
+    void stop() {
+        stopRequested = true;
+        if (load != null) {
+            load.stop(); // The replay ends once the load has
+        } else if (animated) {
+            scheduler.cancel(this);
+            finish(null);
+        }
+    }
+
+    // Issues the next operation, or a frame's worth of them, then arranges to be called again
+    private void resume() {
+        if (finished) {
+            return;
+        }
+        long deadline = System.nanoTime() + SLICE_NANOS;
+        try {
+            do {
+                if (stopRequested || !reader.next()) {
+                    finish(null);
+                    return;
+                }
+                KeyLoadTask started = apply.apply(reader);
+                played++;
+                if (started != null) {
+                    waitFor(started);
+                    return;
+                }
+            } while (!animated && System.nanoTime() < deadline);
+        } catch (IOException | RuntimeException e) {
+            finish(e.getMessage());
+            return;
+        }
+        if (animated) {
+            // Queued behind the steps the operation just submitted. Resuming on
+            // the next frame keeps the next operation from starting inside
+            // another view's call, should that call fast-forward this step.
+            scheduler.enqueue(this, AnimationScheduler.delay(ANIMATED_GAP, () -> scheduler.after(0, this::resume)));
+        } else {
+            scheduler.after(0, this::resume);
+        }
+    }
+
+    private void waitFor(KeyLoadTask started) {
+        load = started;
+        load.setOnEnded(() -> {
+            load = null;
+            resume();
+        });
+        Thread loader = new Thread(load, "key-loader");
+        loader.setDaemon(true);
+        loader.start();
+    }
+
+    private void finish(String error) {
+        if (finished) {
+            return;
+        }
+        finished = true;
+        try {
+            reader.close();
+        } catch (IOException e) {
+            error = error != null ? error : e.getMessage();
+        }
+        if (error != null) {
+            onFinished.accept("Replay failed after " + played + " operations: " + error);
+        } else {
+            onFinished.accept((stopRequested ? "Replay stopped after " : "Replayed ") + played + " operations");
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package com.example.ds;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntConsumer;
+
+import javafx.scene.Group;
+import javafx.scene.control.Label;
+import javafx.scene.input.ScrollEvent;
+import javafx.scene.layout.Pane;
+import javafx.scene.paint.Color;
+import javafx.scene.shape.Rectangle;
+
+/**
+ * Draws a window of a long sequence of boxed values with a small, recycled
+ * pool of Rectangle/Label cells. Elements outside the window are summarised
+ * by "… N more …" markers, so memory and per-operation cost depend on how
+ * much fits on the canvas rather than on the size of the structure.
+ * <p>
+ * The owner decides which positions are visible and where each slot goes;
+ * this class only binds cells to slots between {@link #begin()} and
+ * {@link #end()}.
+ */
+class VirtualStrip {
+    static final double CELL_WIDTH = 100;
+    static final double CELL_HEIGHT = 40;
+
+    private final Pane canvas;
+    private final Color fill;
+    private final Group layer = new Group();
+    private final List<Rectangle> rects = new ArrayList<>();
+    private final List<Label> labels = new ArrayList<>();
+    private final Label leadingMarker = newMarker();
+    private final Label trailingMarker = newMarker();
+    private final Rectangle ghostRect = new Rectangle(CELL_WIDTH, CELL_HEIGHT);
+    private final Label ghostLabel = new Label();
+    private int ghostShown; // Counts flashes so only the latest one hides the ghost
+    private int bound;
+
+    /**
+     * @param canvas   The pane to draw on.
+     * @param fill     Resting colour of the cells.
+     * @param onScroll Receives +1/-1 per wheel notch while this strip is on screen.
+     */
+    VirtualStrip(Pane canvas, Color fill, IntConsumer onScroll) {
+        this.canvas = canvas;
+        this.fill = fill;
+        ghostRect.setFill(Color.RED);
+        ghostRect.setStroke(Color.BLACK);
+        ghostRect.setVisible(false);
+        ghostLabel.setVisible(false);
+        layer.getChildren().addAll(leadingMarker, trailingMarker, ghostRect, ghostLabel);
+        canvas.addEventHandler(ScrollEvent.SCROLL, e -> {
+            // Every structure shares the canvas; only react while our layer is shown
+            if (layer.getParent() == canvas && e.getDeltaY() != 0) {
+                onScroll.accept(e.getDeltaY() > 0 ? 1 : -1);
+            }
+        });
+    }
+
+    /**
+     * Starts a render pass. Re-attaches the layer if the canvas was cleared.
+     */
+    void begin() {
+        if (layer.getParent() != canvas) {
+            canvas.getChildren().add(layer);
+        }
+        bound = 0;
+    }
+
+    /**
+     * Binds the next pooled cell.
+     *
+     * @return The cell's rectangle, e.g. for highlighting.
+     */
+    Rectangle bind(String text, double x, double y) {
+        if (bound == rects.size()) {
+            Rectangle rect = new Rectangle(CELL_WIDTH, CELL_HEIGHT);
+            rect.setStroke(Color.BLACK);
+            rects.add(rect);
+            labels.add(new Label());
+            layer.getChildren().addAll(rect, labels.get(bound));
+        }
+        Rectangle rect = rects.get(bound);
+        Label label = labels.get(bound);
+        rect.setX(x);
+        rect.setY(y);
+        rect.setFill(fill);
+        rect.setVisible(true);
+        label.setText(text);
+        label.setLayoutX(x + 30);
+        label.setLayoutY(y + 10);
+        label.setVisible(true);
+        bound++;
+        return rect;
+    }
+
+    /**
+     * Shows or hides one of the two elision markers.
+     *
+     * @param leading true for the marker before the window, false for after it.
+     * @param hidden  How many elements it stands for; 0 hides the marker.
+     */
+    void marker(boolean leading, int hidden, double x, double y) {
+        Label marker = leading ? leadingMarker : trailingMarker;
+        marker.setVisible(hidden > 0);
+        if (hidden > 0) {
+            marker.setText("… " + hidden + " more …");
+            marker.setLayoutX(x + 10);
+            marker.setLayoutY(y + 10);
+        }
+    }
+
+    /**
+     * Ends a render pass, hiding pooled cells that were not bound.
+     */
+    void end() {
+        for (int i = bound; i < rects.size(); i++) {
+            rects.get(i).setVisible(false);
+            labels.get(i).setVisible(false);
+        }
+    }
+
+    /**
+     * @return The rectangle bound {@code k}-th in the last pass, or null.
+     */
+    Rectangle cell(int k) {
+        return k >= 0 && k < bound ? rects.get(k) : null;
+    }
+
+    /**
+     * Briefly shows the value of cell {@code k} in red where it was drawn.
+     * Call before the render pass that drops the value from the window.
+     */
+    void flashRemoved(int k) {
+        if (k < 0 || k >= bound || canvas.getScene() == null) {
+            return; // Not drawn, or off-screen (e.g. benchmarks)
+        }
+        Rectangle rect = rects.get(k);
+        ghostRect.setX(rect.getX());
+        ghostRect.setY(rect.getY());
+        ghostLabel.setText(labels.get(k).getText());
+        ghostLabel.setLayoutX(rect.getX() + 30);
+        ghostLabel.setLayoutY(rect.getY() + 10);
+        ghostRect.setVisible(true);
+        ghostLabel.setVisible(true);
+        ghostRect.toFront();
+        ghostLabel.toFront();
+        int shown = ++ghostShown;
+        AnimationScheduler.shared().play(AnimationScheduler.delay(0.5, () -> {
+            if (shown == ghostShown) {
+                ghostRect.setVisible(false);
+                ghostLabel.setVisible(false);
+            }
+        }));
+    }
+
+    /**
+     * Drops every pooled cell.
+     */
+    void clear() {
+        layer.getChildren().removeAll(rects);
+        layer.getChildren().removeAll(labels);
+        rects.clear();
+        labels.clear();
+        bound = 0;
+        leadingMarker.setVisible(false);
+        trailingMarker.setVisible(false);
+    }
+
+    private static Label newMarker() {
+        Label marker = new Label();
+        marker.setStyle("-fx-font-style: italic; -fx-text-fill: #555555;");
+        marker.setVisible(false);
+        return marker;
+    }
+}
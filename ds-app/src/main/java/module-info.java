@@ -1,8 +1,10 @@
 module com.example.ds {
+    requires com.example.ds.core;
     requires javafx.controls;
     requires javafx.fxml;
+    requires jdk.jfr;
 
     opens com.example.ds to javafx.fxml;
 
     exports com.example.ds;
-}
\ No newline at end of file
+}
@@ -0,0 +1,37 @@
+package com.example.ds.bench;
+
+import javafx.application.Platform;
+import javafx.scene.layout.Pane;
+
+/**
+ * Boots the JavaFX toolkit once per JVM so controls such as Label can be
+ * created. Run with the Monocle headless flags set in {@link LayoutBenchmarks}
+ * to avoid needing a display.
+ */
+final class HeadlessFx {
+
+    private static boolean started;
+
+    private HeadlessFx() {
+    }
+
+    /**
+     * @return A detached Pane sized like the visualizer canvas. Because it is
+     *         not part of a scene the views lay it out but skip animations.
+     */
+    static synchronized Pane newCanvas() {
+        if (!started) {
+            Platform.setImplicitExit(false);
+            try {
+                Platform.startup(() -> {
+                });
+            } catch (IllegalStateException alreadyRunning) {
+                // Toolkit was started by someone else, which is all we need
+            }
+            started = true;
+        }
+        Pane canvas = new Pane();
+        canvas.resize(850, 550);
+        return canvas;
+    }
+}
@@ -0,0 +1,182 @@
+package com.example.ds.bench;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.example.ds.BinarySearchTree;
+import com.example.ds.Heap;
+import com.example.ds.LinkedList;
+import com.example.ds.Queue;
+import com.example.ds.Stack;
+
+/**
+ * The same operations as {@link ModelBenchmarks}, issued through the visual
+ * classes so every step also pays for updatePositions/drawLines on a headless
+ * Pane.
+ * <p>
+ * Heap, tree and list sizes above the views' canvas threshold measure the
+ * canvas renderer rather than retained nodes. Sizes sweep 10^3 to 10^7 like
+ * the model benchmarks; each state is built with the view's batch insert,
+ * so setup lays out once rather than once per element.
+ * <p>
+ * The tree view keeps a tidy-layout entry and a renderer slot per key, close
+ * to 500 bytes each, so its benchmarks fork with a larger heap; a 10^7 key
+ * tree does not fit in 4 GB.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = { "-Xms4g", "-Xmx4g",
+        "-Dglass.platform=Monocle", "-Dmonocle.platform=Headless", "-Dprism.order=sw" })
+public class LayoutBenchmarks {
+
+    @State(Scope.Thread)
+    public static class StackState {
+        @Param({ "1000", "10000", "100000", "1000000", "10000000" })
+        int size;
+
+        Stack stack;
+
+        @Setup
+        public void setup() {
+            stack = new Stack(HeadlessFx.newCanvas());
+            stack.pushAll(numbered(size));
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class QueueState {
+        @Param({ "1000", "10000", "100000", "1000000", "10000000" })
+        int size;
+
+        Queue queue;
+
+        @Setup
+        public void setup() {
+            queue = new Queue(HeadlessFx.newCanvas());
+            queue.enqueueAll(numbered(size));
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class HeapState {
+        @Param({ "1000", "10000", "100000", "1000000", "10000000" })
+        int size;
+
+        Heap heap;
+        Probes probes;
+
+        @Setup
+        public void setup() {
+            heap = new Heap(HeadlessFx.newCanvas(), true);
+            probes = new Probes(Integer.MAX_VALUE, 3);
+            heap.insertAll(Probes.shuffledEvenKeys(size, 1));
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class BstState {
+        @Param({ "1000", "10000", "100000", "1000000", "10000000" })
+        int size;
+
+        BinarySearchTree tree;
+        Probes probes;
+
+        @Setup
+        public void setup() {
+            tree = new BinarySearchTree(HeadlessFx.newCanvas());
+            probes = new Probes(size, 3);
+            tree.insertAll(Probes.shuffledEvenKeys(size, 1));
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class LinkedListState {
+        @Param({ "1000", "10000", "100000", "1000000", "10000000" })
+        int size;
+
+        LinkedList list;
+        Probes probes;
+
+        @Setup
+        public void setup() {
+            list = new LinkedList(HeadlessFx.newCanvas());
+            probes = new Probes(size, 3);
+            list.addAll(numbered(size));
+        }
+    }
+
+    // "0", "1", ... as values for the string structures
+    private static List<String> numbered(int size) {
+        List<String> values = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            values.add(String.valueOf(i));
+        }
+        return values;
+    }
+
+    @Benchmark
+    public Stack stackPushPop(StackState s) {
+        s.stack.push("x");
+        s.stack.pop();
+        return s.stack;
+    }
+
+    @Benchmark
+    public Queue queueEnqueueDequeue(QueueState s) {
+        s.queue.enqueue("x");
+        s.queue.dequeue();
+        return s.queue;
+    }
+
+    @Benchmark
+    public Heap heapInsertRemoveRoot(HeapState s) {
+        s.heap.insert(s.probes.next());
+        s.heap.removeRoot();
+        return s.heap;
+    }
+
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = { "-Xmx8g",
+            "-Dglass.platform=Monocle", "-Dmonocle.platform=Headless", "-Dprism.order=sw" })
+    public BinarySearchTree bstInsertDelete(BstState s) {
+        int key = 2 * s.probes.next() + 1; // Odd keys are never stored
+        s.tree.insert(key);
+        s.tree.delete(key);
+        return s.tree;
+    }
+
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = { "-Xmx8g",
+            "-Dglass.platform=Monocle", "-Dmonocle.platform=Headless", "-Dprism.order=sw" })
+    public BinarySearchTree bstSearch(BstState s) {
+        s.tree.search(2 * s.probes.next());
+        return s.tree;
+    }
+
+    @Benchmark
+    public String linkedListInsertAtRemoveAt(LinkedListState s) {
+        int index = s.probes.next();
+        s.list.insertAt("x", index);
+        return s.list.removeAt(index);
+    }
+
+    @Benchmark
+    public int linkedListSearch(LinkedListState s) {
+        return s.list.search(String.valueOf(s.probes.next()));
+    }
+}
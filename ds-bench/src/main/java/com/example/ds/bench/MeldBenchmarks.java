@@ -0,0 +1,109 @@
+package com.example.ds.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.example.ds.core.HeapModel;
+import com.example.ds.core.MeldableHeapModel;
+
+/**
+ * The binary array heap against the pairing and leftist heaps, with no
+ * listener attached, on the two workloads that tell them apart:
+ * <ul>
+ * <li>insert-heavy: an insert and a root removal per operation;</li>
+ * <li>merge-heavy: {@code batch} keys are built into a heap of their own and
+ * merged in, then as many roots are removed. The array heap merges by bulk
+ * inserting the other heap's array, the others by melding.</li>
+ * </ul>
+ * Either way the heap stays at {@code size} elements.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = { "-Xms4g", "-Xmx4g" })
+public class MeldBenchmarks {
+
+    @State(Scope.Thread)
+    public static class HeapState {
+        @Param({ "1000", "100000", "1000000" })
+        int size;
+
+        // ARRAY or a MeldableHeapModel.Kind
+        @Param({ "ARRAY", "PAIRING", "LEFTIST" })
+        String kind;
+
+        HeapModel array;
+        MeldableHeapModel meldable;
+        Probes probes;
+
+        @Setup
+        public void setup() {
+            int[] keys = Probes.shuffledEvenKeys(size, 1);
+            if (kind.equals("ARRAY")) {
+                array = new HeapModel(true);
+                array.buildHeap(keys);
+            } else {
+                meldable = MeldableHeapModel.create(MeldableHeapModel.Kind.valueOf(kind), true);
+                meldable.insertAll(keys);
+            }
+            probes = new Probes(2 * size, 3); // Within the key range, so inserts do not all become the root
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class MergeState extends HeapState {
+        @Param({ "16", "1024" })
+        int batch;
+
+        int[] batchKeys;
+
+        @Setup
+        public void allocateBatch() {
+            batchKeys = new int[batch];
+        }
+    }
+
+    @Benchmark
+    public int insertRemoveRoot(HeapState s) {
+        if (s.array != null) {
+            s.array.insert(s.probes.next());
+            return s.array.removeRoot();
+        }
+        s.meldable.insert(s.probes.next());
+        return s.meldable.removeRoot();
+    }
+
+    @Benchmark
+    public int mergeRemoveRoots(MergeState s) {
+        for (int i = 0; i < s.batch; i++) {
+            s.batchKeys[i] = s.probes.next();
+        }
+        int sum = 0;
+        if (s.array != null) {
+            s.array.insertAll(s.batchKeys);
+            for (int i = 0; i < s.batch; i++) {
+                sum += s.array.removeRoot();
+            }
+            return sum;
+        }
+        MeldableHeapModel other = MeldableHeapModel.create(s.meldable.getKind(), true);
+        other.insertAll(s.batchKeys);
+        s.meldable.meld(other);
+        for (int i = 0; i < s.batch; i++) {
+            sum += s.meldable.removeRoot();
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,271 @@
+package com.example.ds.bench;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.example.ds.core.BstModel;
+import com.example.ds.core.HeapModel;
+import com.example.ds.core.KeyFileReader;
+import com.example.ds.core.LinkedListModel;
+import com.example.ds.core.PointerListModel;
+import com.example.ds.core.QueueModel;
+import com.example.ds.core.StackModel;
+
+/**
+ * Throughput of the headless {@code ds-core} models, with no listener attached.
+ * <p>
+ * Every benchmark performs an operation together with its inverse (push/pop,
+ * insert/delete, ...) so the structure stays at {@code size} elements for the
+ * whole measurement.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = { "-Xms4g", "-Xmx4g" })
+public class ModelBenchmarks {
+
+    @State(Scope.Thread)
+    public static class StackState {
+        @Param({ "1000", "10000", "100000", "1000000", "10000000" })
+        int size;
+
+        StackModel<Integer> stack;
+
+        @Setup
+        public void setup() {
+            stack = new StackModel<>();
+            for (int i = 0; i < size; i++) {
+                stack.push(i);
+            }
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class QueueState {
+        @Param({ "1000", "10000", "100000", "1000000", "10000000" })
+        int size;
+
+        QueueModel<Integer> queue;
+
+        @Setup
+        public void setup() {
+            queue = new QueueModel<>();
+            for (int i = 0; i < size; i++) {
+                queue.enqueue(i);
+            }
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class HeapState {
+        @Param({ "1000", "10000", "100000", "1000000", "10000000" })
+        int size;
+
+        @Param({ "2", "4", "8" })
+        int arity;
+
+        HeapModel heap;
+        HeapModel scratch;
+        int[] keys;
+        Probes probes;
+
+        @Setup
+        public void setup() {
+            heap = new HeapModel(true, arity);
+            scratch = new HeapModel(true, arity);
+            probes = new Probes(Integer.MAX_VALUE, 3);
+            keys = Probes.shuffledEvenKeys(size, 1);
+            for (int key : keys) {
+                heap.insert(key);
+            }
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class BstState {
+        @Param({ "1000", "10000", "100000", "1000000", "10000000" })
+        int size;
+
+        @Param({ "NONE", "AVL", "RED_BLACK" })
+        BstModel.Balance balance;
+
+        BstModel tree;
+        Probes probes;
+
+        @Setup
+        public void setup() {
+            tree = new BstModel(balance);
+            probes = new Probes(size, 3);
+            for (int key : Probes.shuffledEvenKeys(size, 1)) {
+                tree.insert(key);
+            }
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class LinkedListState {
+        @Param({ "1000", "10000", "100000", "1000000", "10000000" })
+        int size;
+
+        // With the value index, searches are lookups and inserts also update it
+        @Param({ "false", "true" })
+        boolean indexed;
+
+        LinkedListModel<Integer> list;
+        Probes probes;
+
+        @Setup
+        public void setup() {
+            list = new LinkedListModel<>();
+            list.setIndexed(indexed);
+            probes = new Probes(size, 3);
+            for (int i = 0; i < size; i++) {
+                list.add(i);
+            }
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class PointerListState {
+        @Param({ "1000", "10000", "100000", "1000000", "10000000" })
+        int size;
+
+        @Param({ "false", "true" })
+        boolean doubly;
+
+        PointerListModel<Integer> list;
+
+        @Setup
+        public void setup() {
+            list = new PointerListModel<>(doubly);
+            for (int i = 0; i < size; i++) {
+                list.add(i);
+            }
+            for (int i = 0; i <= size / 2; i++) {
+                list.next(); // Work in the middle, like linkedListInsertAtRemoveAt on average
+            }
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class KeyFileState {
+        @Param({ "1000000", "10000000" })
+        int size;
+
+        @Param({ "INT32", "TEXT" })
+        KeyFileReader.Format format;
+
+        Path file;
+        KeyFileReader reader;
+
+        @Setup(Level.Trial)
+        public void setup() throws IOException {
+            int[] keys = Probes.shuffledEvenKeys(size, 1);
+            file = Files.createTempFile("keys", format == KeyFileReader.Format.INT32 ? ".bin" : ".txt");
+            if (format == KeyFileReader.Format.INT32) {
+                ByteBuffer bytes = ByteBuffer.allocate(size * Integer.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+                bytes.asIntBuffer().put(keys);
+                Files.write(file, bytes.array());
+            } else {
+                try (Writer out = Files.newBufferedWriter(file)) {
+                    for (int key : keys) {
+                        out.write(Integer.toString(key));
+                        out.write('\n');
+                    }
+                }
+            }
+            reader = new KeyFileReader(file, format);
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() throws IOException {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Benchmark
+    public Integer stackPushPop(StackState s) {
+        s.stack.push(s.size);
+        return s.stack.pop();
+    }
+
+    @Benchmark
+    public Integer queueEnqueueDequeue(QueueState s) {
+        s.queue.enqueue(s.size);
+        return s.queue.dequeue();
+    }
+
+    @Benchmark
+    public int heapInsertRemoveRoot(HeapState s) {
+        s.heap.insert(s.probes.next());
+        return s.heap.removeRoot();
+    }
+
+    @Benchmark
+    public int heapBuildHeap(HeapState s) {
+        s.scratch.buildHeap(s.keys);
+        return s.scratch.peekRoot();
+    }
+
+    @Benchmark
+    public int heapLoadKeyFile(KeyFileState s) throws IOException {
+        HeapModel heap = new HeapModel(true);
+        s.reader.read(heap::insertAll, null, null);
+        return heap.peekRoot();
+    }
+
+    @Benchmark
+    public boolean bstInsertDelete(BstState s) {
+        int key = 2 * s.probes.next() + 1; // Odd keys are never stored
+        s.tree.insert(key);
+        return s.tree.delete(key);
+    }
+
+    @Benchmark
+    public boolean bstSearch(BstState s) {
+        return s.tree.search(2 * s.probes.next());
+    }
+
+    @Benchmark
+    public Integer linkedListInsertAtRemoveAt(LinkedListState s) {
+        int index = s.probes.next();
+        s.list.insertAt(-1, index);
+        return s.list.removeAt(index);
+    }
+
+    @Benchmark
+    public int linkedListSearch(LinkedListState s) {
+        return s.list.indexOf(s.probes.next());
+    }
+
+    @Benchmark
+    public Integer pointerListInsertRemoveAtCursor(PointerListState s) {
+        s.list.insertAfterCursor(-1);
+        Integer value = s.list.removeAtCursor(); // Leaves the cursor one node further on
+        if (s.list.cursor().next() == null) {
+            s.list.resetCursor(); // Wraps before reaching the tail, whose removal walks back in a singly linked list
+            s.list.next();
+        }
+        return value;
+    }
+}
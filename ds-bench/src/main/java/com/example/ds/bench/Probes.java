@@ -0,0 +1,49 @@
+package com.example.ds.bench;
+
+import java.util.Random;
+
+/**
+ * Fixed, pre-generated operands so benchmarks do not measure random number
+ * generation. Values are cycled through with {@link #next()}.
+ */
+final class Probes {
+
+    private static final int COUNT = 1 << 12;
+
+    private final int[] values = new int[COUNT];
+    private int cursor;
+
+    /**
+     * @param bound Exclusive upper bound of the generated values.
+     */
+    Probes(int bound, long seed) {
+        Random random = new Random(seed);
+        for (int i = 0; i < COUNT; i++) {
+            values[i] = random.nextInt(bound);
+        }
+    }
+
+    int next() {
+        cursor = (cursor + 1) & (COUNT - 1);
+        return values[cursor];
+    }
+
+    /**
+     * @return The keys 0, 2, 4, ... up to {@code 2 * (n - 1)} in random order,
+     *         leaving every odd key free for insert/delete probes.
+     */
+    static int[] shuffledEvenKeys(int n, long seed) {
+        int[] keys = new int[n];
+        for (int i = 0; i < n; i++) {
+            keys[i] = 2 * i;
+        }
+        Random random = new Random(seed);
+        for (int i = n - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int tmp = keys[i];
+            keys[i] = keys[j];
+            keys[j] = tmp;
+        }
+        return keys;
+    }
+}
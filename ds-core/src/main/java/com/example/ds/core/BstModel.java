@@ -0,0 +1,611 @@
+package com.example.ds.core;
+
+import java.util.ArrayDeque;
+import java.util.BitSet;
+
+/**
+ * Binary search tree of distinct int keys, optionally self-balancing.
+ * Events identify nodes by their key; inserting a key that is already
+ * present does nothing.
+ * <p>
+ * All operations are iterative, so even an unbalanced tree fed sorted input
+ * cannot overflow the call stack. The AVL and red-black modes keep the height
+ * within O(log n) by rotating on the way back up from the modified leaf.
+ */
+public class BstModel extends ObservableStructure {
+
+    /**
+     * How the tree keeps its shape.
+     */
+    public enum Balance {
+        /** Plain insertion order; sorted input degenerates into a list. */
+        NONE,
+        /** Subtree heights differ by at most one at every node. */
+        AVL,
+        /** Red-black colouring; no path is more than twice as long as another. */
+        RED_BLACK
+    }
+
+    /**
+     * A tree node. Read-only outside the model so renderers can walk the tree.
+     */
+    public static final class Node {
+        private final int key;
+        private Node left, right, parent;
+        private int height = 1;
+        private boolean red;
+
+        private Node(int key) {
+            this.key = key;
+        }
+
+        public int key() {
+            return key;
+        }
+
+        public Node left() {
+            return left;
+        }
+
+        public Node right() {
+            return right;
+        }
+
+        public Node parent() {
+            return parent;
+        }
+
+        /**
+         * @return true if this node is red. Always false outside red-black mode.
+         */
+        public boolean isRed() {
+            return red;
+        }
+    }
+
+    private final Balance balance;
+    private Node root;
+    private int size;
+
+    /**
+     * Creates an unbalanced tree.
+     */
+    public BstModel() {
+        this(Balance.NONE);
+    }
+
+    /**
+     * @param balance The balancing scheme to maintain.
+     */
+    public BstModel(Balance balance) {
+        this.balance = balance;
+    }
+
+    /**
+     * Inserts a key as a new leaf, then rebalances if the mode requires it.
+     *
+     * @param key The key to insert.
+     * @return true if the key was added, false if it was already present.
+     */
+    public boolean insert(int key) {
+        if (root == null) {
+            root = new Node(key);
+            size++;
+            fireInserted(key);
+            return true;
+        }
+        Node node = root;
+        while (true) {
+            fireCompared(node.key, key);
+            if (key == node.key) {
+                return false;
+            }
+            boolean goLeft = key < node.key;
+            Node next = goLeft ? node.left : node.right;
+            if (next == null) {
+                Node newNode = new Node(key);
+                newNode.red = balance == Balance.RED_BLACK;
+                size++;
+                fireInserted(key);
+                setChild(node, goLeft, newNode);
+                if (balance == Balance.AVL) {
+                    rebalanceAvl(node);
+                } else if (balance == Balance.RED_BLACK) {
+                    fixAfterRedBlackInsert(newNode);
+                }
+                return true;
+            }
+            node = next;
+        }
+    }
+
+    /**
+     * Inserts many keys, one after another, in the given order.
+     *
+     * @param keys The keys to insert.
+     * @return How many were added; keys already present are skipped.
+     */
+    public int insertAll(int[] keys) {
+        return insertAll(keys, keys.length);
+    }
+
+    /**
+     * Inserts the first {@code count} keys of an array, so a reused buffer
+     * can be passed as is.
+     *
+     * @return How many were added; keys already present are skipped.
+     */
+    public int insertAll(int[] keys, int count) {
+        int added = 0;
+        for (int i = 0; i < count; i++) {
+            if (insert(keys[i])) {
+                added++;
+            }
+        }
+        return added;
+    }
+
+    /**
+     * Replaces the contents with the tree whose pre-order walk is given, in
+     * linear time and without any rotation. Fires {@code cleared} and then
+     * {@code inserted} for every key, in pre-order.
+     *
+     * @param preorder The keys, each node before its left subtree and that
+     *                 before its right subtree.
+     * @param red      Which nodes, by pre-order position, are red; only read
+     *                 in red-black mode.
+     * @throws IllegalArgumentException if the keys are not the pre-order walk
+     *                                  of a search tree with distinct keys, or
+     *                                  the shape breaks this tree's balance.
+     */
+    public void restore(int[] preorder, BitSet red) {
+        Node[] nodes = new Node[preorder.length];
+        Node newRoot = null;
+        // Nodes whose right subtree may still receive keys, deepest on top
+        ArrayDeque<Node> open = new ArrayDeque<>();
+        long lower = Long.MIN_VALUE; // Every key from here on lies in some right subtree above this key
+        for (int i = 0; i < preorder.length; i++) {
+            int key = preorder[i];
+            if (key <= lower) {
+                throw new IllegalArgumentException("Key " + key + " at position " + i + " is out of order");
+            }
+            Node node = new Node(key);
+            node.red = balance == Balance.RED_BLACK && red.get(i);
+            Node parent = null;
+            while (!open.isEmpty() && open.peek().key < key) {
+                parent = open.pop();
+                lower = parent.key;
+            }
+            if (!open.isEmpty() && open.peek().key == key) {
+                throw new IllegalArgumentException("Duplicate key " + key);
+            }
+            if (parent != null) {
+                parent.right = node;
+                node.parent = parent;
+            } else if (!open.isEmpty()) {
+                open.peek().left = node;
+                node.parent = open.peek();
+            } else {
+                newRoot = node;
+            }
+            open.push(node);
+            nodes[i] = node;
+        }
+        checkShape(nodes);
+
+        root = newRoot;
+        size = nodes.length;
+        fireCleared();
+        for (Node node : nodes) {
+            fireInserted(node.key);
+        }
+    }
+
+    /**
+     * Fills in the heights of a freshly built tree and checks its balance.
+     * In pre-order every node comes before its children, so walking the
+     * array backwards finishes both subtrees before their parent.
+     */
+    private void checkShape(Node[] preorder) {
+        if (balance == Balance.RED_BLACK && preorder.length > 0 && preorder[0].red) {
+            throw new IllegalArgumentException("Red root");
+        }
+        for (int i = preorder.length - 1; i >= 0; i--) {
+            Node node = preorder[i];
+            if (balance != Balance.RED_BLACK) {
+                updateHeight(node);
+                if (balance == Balance.AVL && Math.abs(height(node.left) - height(node.right)) > 1) {
+                    throw new IllegalArgumentException("Unbalanced at key " + node.key);
+                }
+                continue;
+            }
+            if (node.red && (isRed(node.left) || isRed(node.right))) {
+                throw new IllegalArgumentException("Red key " + node.key + " has a red child");
+            }
+            if (blackHeight(node.left) != blackHeight(node.right)) {
+                throw new IllegalArgumentException("Black heights differ below key " + node.key);
+            }
+            node.height = blackHeight(node.left) + (node.red ? 0 : 1);
+        }
+        if (balance == Balance.RED_BLACK) {
+            // height held the black height while checking; red-black mode does not track heights
+            for (Node node : preorder) {
+                node.height = 1;
+            }
+        }
+    }
+
+    // Black nodes from here down to a leaf, counting this one; heights hold it while checking
+    private int blackHeight(Node node) {
+        return node == null ? 0 : node.height;
+    }
+
+    /**
+     * Deletes a key. A node with two children is replaced by its in-order
+     * successor node, so every remaining key keeps its own node.
+     *
+     * @param key The key to delete.
+     * @return true if the key was found and removed.
+     */
+    public boolean delete(int key) {
+        Node node = find(key);
+        if (node == null) {
+            return false;
+        }
+        fireHighlighted(key, Highlight.REMOVED);
+
+        // lowest is the deepest node whose subtree changed; for red-black the
+        // removed colour may leave a black deficit at child under lowest
+        Node lowest;
+        Node child;
+        boolean removedBlack = !node.red;
+        if (node.left == null || node.right == null) {
+            child = node.left != null ? node.left : node.right;
+            lowest = node.parent;
+            replace(node, child);
+        } else {
+            Node successor = getMinValueNode(node.right);
+            removedBlack = !successor.red;
+            child = successor.right;
+            if (successor.parent != node) {
+                lowest = successor.parent;
+                replace(successor, successor.right);
+                setChild(successor, false, node.right);
+            } else {
+                lowest = successor;
+            }
+            replace(node, successor);
+            setChild(successor, true, node.left);
+            setRed(successor, node.red);
+        }
+        node.left = node.right = node.parent = null;
+        size--;
+        fireRemoved(key);
+
+        if (balance == Balance.AVL) {
+            rebalanceAvl(lowest);
+        } else if (balance == Balance.RED_BLACK && removedBlack) {
+            fixAfterRedBlackDelete(child, lowest);
+        }
+        return true;
+    }
+
+    /**
+     * Looks up a key, highlighting the node if it is found.
+     *
+     * @param key The key to look for.
+     * @return true if the key is present.
+     */
+    public boolean search(int key) {
+        Node found = find(key);
+        if (found != null) {
+            fireHighlighted(key, Highlight.FOUND);
+        }
+        return found != null;
+    }
+
+    private Node find(int key) {
+        Node node = root;
+        while (node != null) {
+            fireCompared(node.key, key);
+            if (key == node.key) {
+                return node;
+            }
+            node = key < node.key ? node.left : node.right;
+        }
+        return null;
+    }
+
+    private Node getMinValueNode(Node node) {
+        while (node.left != null) {
+            node = node.left;
+        }
+        return node;
+    }
+
+    // --- AVL ---
+
+    private static int height(Node node) {
+        return node == null ? 0 : node.height;
+    }
+
+    private static void updateHeight(Node node) {
+        node.height = 1 + Math.max(height(node.left), height(node.right));
+    }
+
+    /**
+     * Walks from {@code node} to the root, fixing heights and rotating any
+     * node whose subtrees differ in height by more than one.
+     */
+    private void rebalanceAvl(Node node) {
+        while (node != null) {
+            updateHeight(node);
+            int skew = height(node.left) - height(node.right);
+            if (skew > 1) {
+                if (height(node.left.left) < height(node.left.right)) {
+                    rotateLeft(node.left);
+                }
+                node = rotateRight(node);
+            } else if (skew < -1) {
+                if (height(node.right.right) < height(node.right.left)) {
+                    rotateRight(node.right);
+                }
+                node = rotateLeft(node);
+            }
+            node = node.parent;
+        }
+    }
+
+    // --- Red-black ---
+
+    private static boolean isRed(Node node) {
+        return node != null && node.red;
+    }
+
+    private void fixAfterRedBlackInsert(Node node) {
+        while (isRed(node.parent)) {
+            Node parent = node.parent;
+            Node grandparent = parent.parent; // Exists: a red parent is never the root
+            boolean parentIsLeft = parent == grandparent.left;
+            Node uncle = parentIsLeft ? grandparent.right : grandparent.left;
+            if (isRed(uncle)) {
+                setRed(parent, false);
+                setRed(uncle, false);
+                setRed(grandparent, true);
+                node = grandparent;
+                continue;
+            }
+            if (node == (parentIsLeft ? parent.right : parent.left)) {
+                // Inner grandchild: rotate it outward first
+                node = parent;
+                rotate(node, parentIsLeft);
+                parent = node.parent;
+            }
+            setRed(parent, false);
+            setRed(grandparent, true);
+            rotate(grandparent, !parentIsLeft);
+        }
+        setRed(root, false);
+    }
+
+    /**
+     * Restores the black height after a black node was removed.
+     *
+     * @param node   The node (possibly null) now carrying the extra black.
+     * @param parent Its parent, tracked separately because node may be null.
+     */
+    private void fixAfterRedBlackDelete(Node node, Node parent) {
+        while (node != root && !isRed(node)) {
+            boolean isLeft = node == parent.left;
+            Node sibling = isLeft ? parent.right : parent.left;
+            if (isRed(sibling)) {
+                setRed(sibling, false);
+                setRed(parent, true);
+                rotate(parent, isLeft);
+                sibling = isLeft ? parent.right : parent.left;
+            }
+            Node near = isLeft ? sibling.left : sibling.right;
+            Node far = isLeft ? sibling.right : sibling.left;
+            if (!isRed(near) && !isRed(far)) {
+                setRed(sibling, true);
+                node = parent;
+                parent = node.parent;
+                continue;
+            }
+            if (!isRed(far)) {
+                setRed(near, false);
+                setRed(sibling, true);
+                rotate(sibling, !isLeft);
+                sibling = isLeft ? parent.right : parent.left;
+                far = isLeft ? sibling.right : sibling.left;
+            }
+            setRed(sibling, parent.red);
+            setRed(parent, false);
+            setRed(far, false);
+            rotate(parent, isLeft);
+            node = root;
+        }
+        if (node != null) {
+            setRed(node, false);
+        }
+    }
+
+    // Colours only change through here so views hear about every flip
+    private void setRed(Node node, boolean red) {
+        if (node.red != red) {
+            node.red = red;
+            fireRecolored(node.key);
+        }
+    }
+
+    // --- Rotations and linking ---
+
+    private Node rotate(Node node, boolean left) {
+        return left ? rotateLeft(node) : rotateRight(node);
+    }
+
+    /**
+     * Lifts the right child of {@code node} into its place.
+     *
+     * @return The node now at the top of the rotated subtree.
+     */
+    private Node rotateLeft(Node node) {
+        Node pivot = node.right;
+        Node inner = pivot.left;
+        fireRotated(node.key, pivot.key);
+        setChild(pivot, true, null);
+        setChild(node, false, inner);
+        replace(node, pivot);
+        setChild(pivot, true, node);
+        updateHeight(node);
+        updateHeight(pivot);
+        return pivot;
+    }
+
+    /**
+     * Lifts the left child of {@code node} into its place.
+     *
+     * @return The node now at the top of the rotated subtree.
+     */
+    private Node rotateRight(Node node) {
+        Node pivot = node.left;
+        Node inner = pivot.right;
+        fireRotated(node.key, pivot.key);
+        setChild(pivot, false, null);
+        setChild(node, true, inner);
+        replace(node, pivot);
+        setChild(pivot, false, node);
+        updateHeight(node);
+        updateHeight(pivot);
+        return pivot;
+    }
+
+    /**
+     * Puts {@code replacement} (possibly null) into the slot {@code node}
+     * occupies under its parent.
+     */
+    private void replace(Node node, Node replacement) {
+        Node parent = node.parent;
+        if (parent == null) {
+            root = replacement;
+            if (replacement != null && replacement.parent != null) {
+                Node old = replacement.parent;
+                replacement.parent = null;
+                fireUnlinked(old.key, replacement.key);
+            }
+        } else {
+            setChild(parent, parent.left == node, replacement);
+        }
+    }
+
+    private void setChild(Node parent, boolean left, Node child) {
+        Node old = left ? parent.left : parent.right;
+        if (old == child) {
+            return;
+        }
+        if (old != null) {
+            if (old.parent == parent) {
+                old.parent = null;
+            }
+            fireUnlinked(parent.key, old.key);
+        }
+        if (left) {
+            parent.left = child;
+        } else {
+            parent.right = child;
+        }
+        if (child != null) {
+            detach(child);
+            child.parent = parent;
+            fireLinked(parent.key, child.key);
+        }
+    }
+
+    /**
+     * Takes {@code child} out of the slot it still holds under its old
+     * parent, so moving a node never leaves a stale edge behind.
+     */
+    private void detach(Node child) {
+        Node old = child.parent;
+        if (old == null) {
+            return;
+        }
+        if (old.left == child) {
+            old.left = null;
+        } else if (old.right == child) {
+            old.right = null;
+        } else {
+            return;
+        }
+        fireUnlinked(old.key, child.key);
+    }
+
+    /**
+     * @return The root node, or null if the tree is empty.
+     */
+    public Node getRoot() {
+        return root;
+    }
+
+    /**
+     * Looks up the node holding a key without firing any events, so views
+     * can read its current parent and children.
+     *
+     * @param key The key to look for.
+     * @return The node, or null if the key is not present.
+     */
+    public Node getNode(int key) {
+        Node node = root;
+        while (node != null && node.key != key) {
+            node = key < node.key ? node.left : node.right;
+        }
+        return node;
+    }
+
+    /**
+     * @return The balancing scheme this tree maintains.
+     */
+    public Balance getBalance() {
+        return balance;
+    }
+
+    /**
+     * @return The number of levels, 0 for an empty tree. O(n) in NONE and
+     *         RED_BLACK mode, O(1) in AVL mode.
+     */
+    public int height() {
+        if (balance == Balance.AVL) {
+            return height(root);
+        }
+        int levels = 0;
+        ArrayDeque<Node> level = new ArrayDeque<>();
+        if (root != null) {
+            level.add(root);
+        }
+        while (!level.isEmpty()) {
+            levels++;
+            for (int i = level.size(); i > 0; i--) {
+                Node node = level.poll();
+                if (node.left != null) {
+                    level.add(node.left);
+                }
+                if (node.right != null) {
+                    level.add(node.right);
+                }
+            }
+        }
+        return levels;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public void clear() {
+        root = null;
+        size = 0;
+        fireCleared();
+    }
+}
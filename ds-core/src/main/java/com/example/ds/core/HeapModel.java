@@ -0,0 +1,351 @@
+package com.example.ds.core;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Array-backed d-ary heap of ints, either max- or min-ordered.
+ * Keys live in a growable {@code int[]}, so inserts and removals never box or
+ * allocate once the array has grown to its working size.
+ * <p>
+ * Positions are array indices: the root is at 0, the parent of {@code i} is
+ * {@code (i - 1) / d} and its children are {@code d*i + 1} to {@code d*i + d}.
+ * Wider heaps are shallower, trading more comparisons per level for fewer
+ * levels and fewer cache misses on large heaps.
+ */
+public class HeapModel extends ObservableStructure {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private int[] heap = new int[INITIAL_CAPACITY];
+    private int size;
+    private final boolean isMaxHeap;
+    private final int arity;
+
+    /**
+     * Creates a binary heap.
+     *
+     * @param isMaxHeap true for a max heap, false for a min heap.
+     */
+    public HeapModel(boolean isMaxHeap) {
+        this(isMaxHeap, 2);
+    }
+
+    /**
+     * @param isMaxHeap true for a max heap, false for a min heap.
+     * @param arity     Children per node, at least 2.
+     * @throws IllegalArgumentException if arity is less than 2.
+     */
+    public HeapModel(boolean isMaxHeap, int arity) {
+        if (arity < 2) {
+            throw new IllegalArgumentException("Arity must be at least 2: " + arity);
+        }
+        this.isMaxHeap = isMaxHeap;
+        this.arity = arity;
+    }
+
+    /**
+     * Adds a value and sifts it up to restore the heap property.
+     *
+     * @param value The value to insert.
+     */
+    public void insert(int value) {
+        ensureCapacity(size + 1);
+        heap[size++] = value;
+        appended(size - 1);
+        fireInserted(size - 1);
+        siftUp(size - 1);
+    }
+
+    /**
+     * Replaces the contents with the given values and heapifies them
+     * bottom-up (Floyd's method) in O(n).
+     *
+     * @param values The values to load; the array is copied, not kept.
+     */
+    public void buildHeap(int[] values) {
+        clear();
+        insertAll(values);
+    }
+
+    /**
+     * Adds many values at once. Appends them all, then either sifts each one
+     * up or re-heapifies the whole array bottom-up, whichever needs fewer
+     * comparisons for this batch.
+     *
+     * @param values The values to add; the array is copied, not kept.
+     */
+    public void insertAll(int[] values) {
+        insertAll(values, values.length);
+    }
+
+    /**
+     * Adds the first {@code count} values of an array, so a reused buffer
+     * can be passed as is.
+     */
+    public void insertAll(int[] values, int count) {
+        int oldSize = size;
+        ensureCapacity(size + count);
+        System.arraycopy(values, 0, heap, size, count);
+        size += count;
+        appended(oldSize);
+        for (int i = oldSize; i < size; i++) {
+            fireInserted(i);
+        }
+
+        if ((long) count * depth(size) < size) {
+            for (int i = oldSize; i < size; i++) {
+                siftUp(i);
+            }
+        } else {
+            // Sift down every parent, deepest level first
+            for (int i = (size - 2) / arity; i >= 0; i--) {
+                siftDown(i);
+            }
+        }
+    }
+
+    /**
+     * Replaces the contents with an array already in heap order, such as one
+     * from {@link #toArray()}, in linear time. Fires {@code cleared} and then
+     * {@code inserted} for every index.
+     *
+     * @param values The heap array; copied, not kept.
+     * @throws IllegalArgumentException if some value is out of heap order.
+     */
+    public void restore(int[] values) {
+        for (int i = 1; i < values.length; i++) {
+            int parent = (i - 1) / arity;
+            if (isMaxHeap ? values[i] > values[parent] : values[i] < values[parent]) {
+                throw new IllegalArgumentException("Value " + values[i] + " at index " + i + " is out of heap order");
+            }
+        }
+        clear();
+        heap = Arrays.copyOf(values, Math.max(values.length, INITIAL_CAPACITY));
+        size = values.length;
+        appended(0);
+        for (int i = 0; i < size; i++) {
+            fireInserted(i);
+        }
+    }
+
+    /**
+     * Called once values were stored at positions {@code from} to
+     * {@code size() - 1}, before any event about them is fired or they are
+     * sifted into place.
+     */
+    protected void appended(int from) {
+    }
+
+    /**
+     * Called once the element at position {@code index}, which is now
+     * {@code size()}, was taken out, before {@code removed} is fired for it
+     * or the element that took its place is sifted.
+     */
+    protected void dropped(int index) {
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > heap.length) {
+            heap = Arrays.copyOf(heap, Math.max(capacity, heap.length * 2));
+        }
+    }
+
+    /**
+     * @return The number of levels a heap of {@code n} elements spans.
+     */
+    private int depth(int n) {
+        int levels = 0;
+        for (long covered = 0, levelNodes = 1; covered < n; levelNodes *= arity) {
+            covered += levelNodes;
+            levels++;
+        }
+        return levels;
+    }
+
+    /**
+     * Removes the root by swapping it with the last element and sifting down.
+     *
+     * @return The removed root value.
+     * @throws NoSuchElementException if the heap is empty.
+     */
+    public int removeRoot() {
+        if (size == 0) {
+            throw new NoSuchElementException(getHeapType() + " is empty");
+        }
+        return removeAt(0);
+    }
+
+    /**
+     * Removes the element at any position in O(log n): the last element
+     * takes its place and is sifted up or down from there.
+     *
+     * @param index The array index.
+     * @return The removed value.
+     * @throws IndexOutOfBoundsException if the index is out of range.
+     */
+    public int removeAt(int index) {
+        int value = heap[checkIndex(index)];
+        int last = size - 1;
+        if (index != last) {
+            swap(index, last);
+        }
+        size--;
+        dropped(last);
+        fireRemoved(last);
+        if (index < size) {
+            resift(index);
+        }
+        return value;
+    }
+
+    /**
+     * Changes the value at a position and sifts it up or down to restore
+     * the heap property, in O(log n). Fires {@code updated} for the
+     * position before any swap.
+     *
+     * @param index The array index.
+     * @param value The new value.
+     * @throws IndexOutOfBoundsException if the index is out of range.
+     */
+    public void set(int index, int value) {
+        heap[checkIndex(index)] = value;
+        fireUpdated(index);
+        resift(index);
+    }
+
+    // Moves an element that may be out of order either way to where it belongs
+    private void resift(int index) {
+        if (index > 0 && outranks(index, (index - 1) / arity)) {
+            siftUp(index);
+        } else {
+            siftDown(index);
+        }
+    }
+
+    /**
+     * Returns the root without removing it.
+     *
+     * @return The root value.
+     * @throws NoSuchElementException if the heap is empty.
+     */
+    public int peekRoot() {
+        if (size == 0) {
+            throw new NoSuchElementException(getHeapType() + " is empty");
+        }
+        fireHighlighted(0, Highlight.FOUND);
+        return heap[0];
+    }
+
+    private void siftUp(int index) {
+        while (index > 0) {
+            int parentIndex = (index - 1) / arity;
+            if (!outranks(index, parentIndex)) {
+                return;
+            }
+            swap(index, parentIndex);
+            index = parentIndex;
+        }
+    }
+
+    private void siftDown(int index) {
+        while (index < size) {
+            int extremeIndex = findExtremeIndex(index);
+            if (extremeIndex == index) {
+                return;
+            }
+            swap(index, extremeIndex);
+            index = extremeIndex;
+        }
+    }
+
+    private int findExtremeIndex(int index) {
+        int extremeIndex = index;
+        long first = (long) arity * index + 1; // long: d*i overflows near Integer.MAX_VALUE
+        int end = (int) Math.min(first + arity, size);
+        for (int child = (int) Math.min(first, size); child < end; child++) {
+            if (outranks(child, extremeIndex)) {
+                extremeIndex = child;
+            }
+        }
+        return extremeIndex;
+    }
+
+    /**
+     * @return true if the element at {@code i} belongs above the one at {@code j}.
+     */
+    private boolean outranks(int i, int j) {
+        fireCompared(i, j);
+        return isMaxHeap ? heap[i] > heap[j] : heap[i] < heap[j];
+    }
+
+    /**
+     * Exchanges two elements and fires {@code swapped}. Every move the heap
+     * makes goes through here.
+     */
+    protected void swap(int i, int j) {
+        int temp = heap[i];
+        heap[i] = heap[j];
+        heap[j] = temp;
+        fireSwapped(i, j);
+    }
+
+    /**
+     * @param index The array index.
+     * @return The value stored at that index.
+     * @throws IndexOutOfBoundsException if the index is out of range.
+     */
+    public int get(int index) {
+        return heap[checkIndex(index)];
+    }
+
+    private int checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        return index;
+    }
+
+    public boolean isMaxHeap() {
+        return isMaxHeap;
+    }
+
+    /**
+     * @return The number of children per node.
+     */
+    public int getArity() {
+        return arity;
+    }
+
+    public String getHeapType() {
+        return isMaxHeap ? "Max Heap" : "Min Heap";
+    }
+
+    /**
+     * @return A copy of the keys in array order.
+     */
+    public int[] toArray() {
+        return Arrays.copyOf(heap, size);
+    }
+
+    public List<Integer> getHeapArray() {
+        List<Integer> copy = new ArrayList<>(size); // Return copy
+        for (int i = 0; i < size; i++) {
+            copy.add(heap[i]);
+        }
+        return copy;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public void clear() {
+        size = 0;
+        fireCleared();
+    }
+}
@@ -0,0 +1,14 @@
+package com.example.ds.core;
+
+/**
+ * Why an element is being pointed out to the viewer.
+ * Renderers map each kind to their own colour.
+ */
+public enum Highlight {
+    /** A freshly added element. */
+    INSERTED,
+    /** An element that is about to leave the structure. */
+    REMOVED,
+    /** The element answering a peek or search. */
+    FOUND
+}
@@ -0,0 +1,150 @@
+package com.example.ds.core;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * A {@link HeapModel} whose elements can also be reached through a stable
+ * handle, the way an indexed priority queue for Dijkstra's algorithm or a
+ * scheduler needs them. Every element gets a handle when it is added, and a
+ * handle-to-position table is updated on every swap, so an element's key can
+ * be changed, or the element removed, in O(log n) wherever it has moved.
+ * <p>
+ * Handles start from 0 after each clear. A removed element's handle is
+ * released before {@code removed} is fired and given to a later insert, so
+ * the tables never outgrow the largest the heap has been; a handle only
+ * names its element until that element is removed. Events still carry
+ * positions; {@link #handleAt(int)} translates them.
+ */
+public class IndexedHeapModel extends HeapModel {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private int[] handleAt = new int[INITIAL_CAPACITY]; // Position to handle
+    private int[] positionOf = new int[INITIAL_CAPACITY]; // Handle to position, -1 once removed
+    private int handles; // Handles given out since the last clear
+    private int[] freeHandles = new int[INITIAL_CAPACITY]; // Released handles, reused last in first out
+    private int freeCount;
+
+    /**
+     * @param isMaxHeap true for a max heap, false for a min heap.
+     * @param arity     Children per node, at least 2.
+     * @throws IllegalArgumentException if arity is less than 2.
+     */
+    public IndexedHeapModel(boolean isMaxHeap, int arity) {
+        super(isMaxHeap, arity);
+    }
+
+    /**
+     * Adds a value and sifts it up, like {@link #insert(int)}.
+     *
+     * @return The handle of the new element.
+     */
+    public int add(int value) {
+        int handle = freeCount > 0 ? freeHandles[freeCount - 1] : handles; // As appended() will pick
+        insert(value);
+        return handle;
+    }
+
+    /**
+     * @param handle A handle given out since the last clear.
+     * @return Whether an element with that handle is in the heap.
+     */
+    public boolean contains(int handle) {
+        return handle >= 0 && handle < handles && positionOf[handle] >= 0;
+    }
+
+    /**
+     * @return The current position of the element.
+     * @throws NoSuchElementException if it is no longer in the heap.
+     */
+    public int positionOf(int handle) {
+        if (!contains(handle)) {
+            throw new NoSuchElementException("No element with handle " + handle);
+        }
+        return positionOf[handle];
+    }
+
+    /**
+     * @param index The array index.
+     * @return The handle of the element now at that position.
+     * @throws IndexOutOfBoundsException if the index is out of range.
+     */
+    public int handleAt(int index) {
+        get(index); // Range check
+        return handleAt[index];
+    }
+
+    /**
+     * @return The value of the element.
+     * @throws NoSuchElementException if it is no longer in the heap.
+     */
+    public int keyOf(int handle) {
+        return get(positionOf(handle));
+    }
+
+    /**
+     * Changes an element's value and moves it up or down to match, in
+     * O(log n): a decrease-key or increase-key, whichever the new value is.
+     *
+     * @throws NoSuchElementException if it is no longer in the heap.
+     */
+    public void updateKey(int handle, int value) {
+        set(positionOf(handle), value);
+    }
+
+    /**
+     * Removes an element wherever it is, in O(log n).
+     *
+     * @return Its value.
+     * @throws NoSuchElementException if it is no longer in the heap.
+     */
+    public int remove(int handle) {
+        return removeAt(positionOf(handle));
+    }
+
+    @Override
+    protected void appended(int from) {
+        int size = size();
+        if (size > handleAt.length) {
+            handleAt = Arrays.copyOf(handleAt, Math.max(size, handleAt.length * 2));
+        }
+        int needed = handles + Math.max(0, size - from - freeCount);
+        if (needed > positionOf.length) {
+            positionOf = Arrays.copyOf(positionOf, Math.max(needed, positionOf.length * 2));
+        }
+        for (int i = from; i < size; i++) {
+            int handle = freeCount > 0 ? freeHandles[--freeCount] : handles++;
+            handleAt[i] = handle;
+            positionOf[handle] = i;
+        }
+    }
+
+    @Override
+    protected void dropped(int index) {
+        int handle = handleAt[index];
+        positionOf[handle] = -1;
+        if (freeCount == freeHandles.length) {
+            freeHandles = Arrays.copyOf(freeHandles, freeCount * 2);
+        }
+        freeHandles[freeCount++] = handle;
+    }
+
+    @Override
+    protected void swap(int i, int j) {
+        // Before the event, so listeners already see the new positions
+        int handle = handleAt[i];
+        handleAt[i] = handleAt[j];
+        handleAt[j] = handle;
+        positionOf[handleAt[i]] = i;
+        positionOf[handle] = j;
+        super.swap(i, j);
+    }
+
+    @Override
+    public void clear() {
+        handles = 0;
+        freeCount = 0;
+        super.clear();
+    }
+}
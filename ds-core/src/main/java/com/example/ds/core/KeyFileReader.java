@@ -0,0 +1,239 @@
+package com.example.ds.core;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Locale;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Streams the keys of a dataset file through memory-mapped views, a chunk at
+ * a time, so files of hundreds of megabytes load without copying them onto
+ * the Java heap or boxing a single key. Reads either raw 32-bit integers or
+ * text holding decimal integers separated by commas and/or whitespace.
+ * <p>
+ * A reader does no threading of its own: {@link #read} runs on the calling
+ * thread and hands every chunk straight to a sink, typically a model's bulk
+ * insert.
+ */
+public final class KeyFileReader {
+
+    /**
+     * How the keys are stored.
+     */
+    public enum Format {
+        /**
+         * Consecutive 4-byte two's-complement integers with no header.
+         */
+        INT32,
+        /**
+         * Decimal integers, optionally signed, separated by commas and/or
+         * whitespace, line breaks included.
+         */
+        TEXT;
+
+        /**
+         * Guesses the format from the file name: {@code .bin}, {@code .i32}
+         * and {@code .dat} files are binary, anything else is text.
+         */
+        public static Format of(Path file) {
+            String name = file.getFileName().toString().toLowerCase(Locale.ROOT);
+            if (name.endsWith(".bin") || name.endsWith(".i32") || name.endsWith(".dat")) {
+                return INT32;
+            }
+            return TEXT;
+        }
+    }
+
+    /**
+     * Receives the keys as they are read.
+     */
+    public interface KeySink {
+        /**
+         * @param keys  The chunk; only the first {@code count} entries are
+         *              keys, and the array is reused for the next chunk.
+         * @param count How many keys the chunk holds.
+         */
+        void accept(int[] keys, int count);
+    }
+
+    /**
+     * Told how far the read has got after every chunk.
+     */
+    public interface Progress {
+        void update(long bytesRead, long totalBytes);
+    }
+
+    /**
+     * Keys handed to the sink at a time unless {@link #setChunkSize} says otherwise.
+     */
+    public static final int DEFAULT_CHUNK_SIZE = 1 << 16;
+
+    // Largest region mapped at once; bigger files are walked window by window.
+    // A multiple of 4 so no binary key straddles two windows.
+    private static final long WINDOW = 1L << 28;
+
+    private final Path file;
+    private final Format format;
+    private ByteOrder byteOrder = ByteOrder.LITTLE_ENDIAN;
+    private int chunkSize = DEFAULT_CHUNK_SIZE;
+
+    /**
+     * @param file The dataset, in the format its name suggests.
+     */
+    public KeyFileReader(Path file) {
+        this(file, Format.of(file));
+    }
+
+    public KeyFileReader(Path file, Format format) {
+        this.file = file;
+        this.format = format;
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    public Format getFormat() {
+        return format;
+    }
+
+    /**
+     * @param byteOrder Byte order of binary keys; little-endian by default.
+     */
+    public void setByteOrder(ByteOrder byteOrder) {
+        this.byteOrder = byteOrder;
+    }
+
+    /**
+     * @param chunkSize Keys handed to the sink at a time.
+     */
+    public void setChunkSize(int chunkSize) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("Chunk size must be positive: " + chunkSize);
+        }
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Reads the file from the start, handing its keys to the sink in file
+     * order. Keys already delivered stay delivered if the read stops early.
+     *
+     * @param sink      Receives every chunk.
+     * @param progress  Told the position after every chunk; may be null.
+     * @param cancelled Polled between chunks; reading stops once it returns
+     *                  true. May be null.
+     * @return How many keys were delivered.
+     * @throws IOException if the file cannot be read or is malformed.
+     */
+    public long read(KeySink sink, Progress progress, BooleanSupplier cancelled) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (format == Format.INT32) {
+                if (size % Integer.BYTES != 0) {
+                    throw new IOException(file + " is " + size + " bytes, not a whole number of 32-bit keys");
+                }
+                return readBinary(channel, size, sink, progress, cancelled);
+            }
+            return readText(channel, size, sink, progress, cancelled);
+        }
+    }
+
+    private long readBinary(FileChannel channel, long size, KeySink sink, Progress progress,
+            BooleanSupplier cancelled) throws IOException {
+        int[] chunk = new int[chunkSize];
+        long delivered = 0;
+        for (long start = 0; start < size; start += WINDOW) {
+            long length = Math.min(WINDOW, size - start);
+            IntBuffer keys = channel.map(FileChannel.MapMode.READ_ONLY, start, length).order(byteOrder).asIntBuffer();
+            while (keys.hasRemaining()) {
+                int count = Math.min(chunkSize, keys.remaining());
+                keys.get(chunk, 0, count);
+                sink.accept(chunk, count);
+                delivered += count;
+                if (progress != null) {
+                    progress.update(start + (long) keys.position() * Integer.BYTES, size);
+                }
+                if (cancelled != null && cancelled.getAsBoolean()) {
+                    return delivered;
+                }
+            }
+        }
+        return delivered;
+    }
+
+    private long readText(FileChannel channel, long size, KeySink sink, Progress progress,
+            BooleanSupplier cancelled) throws IOException {
+        int[] chunk = new int[chunkSize];
+        int count = 0;
+        long delivered = 0;
+        // The number being read; it may continue into the next window
+        long magnitude = 0;
+        boolean negative = false, signed = false, inNumber = false;
+        for (long start = 0; start < size; start += WINDOW) {
+            long length = Math.min(WINDOW, size - start);
+            MappedByteBuffer bytes = channel.map(FileChannel.MapMode.READ_ONLY, start, length);
+            for (int i = 0; i < length; i++) {
+                byte b = bytes.get(i);
+                if (b >= '0' && b <= '9') {
+                    magnitude = magnitude * 10 + (b - '0');
+                    if (magnitude > (negative ? -(long) Integer.MIN_VALUE : Integer.MAX_VALUE)) {
+                        throw malformed("Number out of int range", start + i);
+                    }
+                    inNumber = true;
+                } else if (b == '-' || b == '+') {
+                    if (signed || inNumber) {
+                        throw malformed("Unexpected '" + (char) b + "'", start + i);
+                    }
+                    negative = b == '-';
+                    signed = true;
+                } else if (b == ',' || b == ' ' || b == '\n' || b == '\r' || b == '\t') {
+                    if (signed && !inNumber) {
+                        throw malformed("Sign without digits", start + i);
+                    }
+                    if (!inNumber) {
+                        continue;
+                    }
+                    chunk[count++] = (int) (negative ? -magnitude : magnitude);
+                    magnitude = 0;
+                    negative = signed = inNumber = false;
+                    if (count == chunk.length) {
+                        sink.accept(chunk, count);
+                        delivered += count;
+                        count = 0;
+                        if (progress != null) {
+                            progress.update(start + i + 1, size);
+                        }
+                        if (cancelled != null && cancelled.getAsBoolean()) {
+                            return delivered;
+                        }
+                    }
+                } else {
+                    throw malformed("Unexpected character '" + (char) (b & 0xff) + "'", start + i);
+                }
+            }
+        }
+        if (signed && !inNumber) {
+            throw malformed("Sign without digits", size);
+        }
+        if (inNumber) {
+            chunk[count++] = (int) (negative ? -magnitude : magnitude); // Last key, with no separator after it
+        }
+        if (count > 0) {
+            sink.accept(chunk, count);
+            delivered += count;
+        }
+        if (progress != null) {
+            progress.update(size, size);
+        }
+        return delivered;
+    }
+
+    private IOException malformed(String problem, long offset) {
+        return new IOException(problem + " at byte " + offset + " of " + file);
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.ds.core;
+
+/**
+ * Leftist heap: a binary tree in which every left child's null-path length
+ * (the distance to the nearest missing child) is at least its sibling's, so
+ * the right spine of n nodes is at most log2(n + 1) long. Two trees are
+ * linked by merging their right spines, which makes inserts, melds and
+ * removing the root O(log n) in the worst case.
+ */
+public class LeftistHeapModel extends MeldableHeapModel {
+
+    public LeftistHeapModel(boolean isMaxHeap) {
+        super(isMaxHeap);
+    }
+
+    @Override
+    public Kind getKind() {
+        return Kind.LEFTIST;
+    }
+
+    // Recursion only follows right spines, so it is at most 2 log2(n + 1) deep
+    @Override
+    protected Node link(Node a, Node b) {
+        if (a == null) {
+            return b;
+        }
+        if (b == null) {
+            return a;
+        }
+        if (outranks(b, a)) {
+            Node t = a;
+            a = b;
+            b = t;
+        }
+        Node right = a.right;
+        a.right = link(right, b);
+        if (a.right != right) { // Otherwise the old child took b in below it
+            if (right != null) {
+                fireUnlinked(a.id, right.id);
+            }
+            fireLinked(a.id, a.right.id);
+        }
+        // Swapping the children keeps both edges, so it is not reported
+        if (rank(a.left) < rank(a.right)) {
+            Node t = a.left;
+            a.left = a.right;
+            a.right = t;
+        }
+        a.rank = rank(a.right) + 1;
+        return a;
+    }
+
+    private static int rank(Node node) {
+        return node == null ? 0 : node.rank;
+    }
+
+    @Override
+    protected Node removeTop(Node root) {
+        if (root.left != null) {
+            fireUnlinked(root.id, root.left.id);
+        }
+        if (root.right != null) {
+            fireUnlinked(root.id, root.right.id);
+        }
+        return link(root.left, root.right);
+    }
+
+    @Override
+    public Node firstChild(Node node) {
+        return node.left != null ? node.left : node.right; // A lone child is always the left one
+    }
+
+    @Override
+    public Node nextSibling(Node parent, Node child) {
+        return child == parent.left ? parent.right : null;
+    }
+}
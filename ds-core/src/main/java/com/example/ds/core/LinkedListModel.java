@@ -0,0 +1,204 @@
+package com.example.ds.core;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Singly linked list addressed by position.
+ * <p>
+ * Searches scan the list unless it is {@link #setIndexed indexed}, in which
+ * case a hash index from value to positions answers them in O(1) expected
+ * time, at the cost of updating it on every change.
+ *
+ * @param <T> The element type.
+ */
+public class LinkedListModel<T> extends ObservableStructure {
+
+    private final List<T> nodes = new ArrayList<>();
+    private ValueIndex<T> valueIndex; // null unless indexed
+
+    /**
+     * Appends a value to the end of the list.
+     *
+     * @param value The value to append.
+     */
+    public void add(T value) {
+        insertAt(value, nodes.size());
+    }
+
+    /**
+     * Appends many values to the end of the list, in order.
+     *
+     * @param values The values to append.
+     */
+    public void addAll(Collection<? extends T> values) {
+        int oldSize = nodes.size();
+        nodes.addAll(values);
+        if (valueIndex != null) {
+            valueIndex.appended(nodes, oldSize);
+        }
+        for (int i = oldSize; i < nodes.size(); i++) {
+            fireInserted(i);
+            if (i > 0) {
+                fireLinked(i - 1, i);
+            }
+        }
+    }
+
+    /**
+     * Inserts a value at the given position.
+     *
+     * @param value The value to insert.
+     * @param index The position of the new node.
+     * @throws IndexOutOfBoundsException if the index is out of range (index < 0 ||
+     *                                   index > size()).
+     */
+    public void insertAt(T value, int index) {
+        if (index < 0 || index > nodes.size()) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + nodes.size());
+        }
+        nodes.add(index, value);
+        if (valueIndex != null) {
+            valueIndex.inserted(nodes, index);
+        }
+        fireInserted(index);
+        if (index > 0) {
+            fireLinked(index - 1, index);
+        }
+        if (index < nodes.size() - 1) {
+            fireLinked(index, index + 1);
+        }
+    }
+
+    /**
+     * Removes the node at the given position.
+     *
+     * @param index The position of the node to remove.
+     * @return The removed value.
+     * @throws IndexOutOfBoundsException if the index is out of range (index < 0 ||
+     *                                   index >= size()).
+     */
+    public T removeAt(int index) {
+        if (index < 0 || index >= nodes.size()) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + nodes.size());
+        }
+        T value = nodes.remove(index);
+        if (valueIndex != null) {
+            valueIndex.removed(nodes, value, index);
+        }
+        fireRemoved(index);
+        if (index > 0 && index < nodes.size()) {
+            fireLinked(index - 1, index);
+        }
+        return value;
+    }
+
+    /**
+     * Finds the first node holding the given value.
+     *
+     * @param value The value to look for.
+     * @return The position of the first match, or -1 if not found.
+     */
+    public int indexOf(T value) {
+        if (valueIndex != null) {
+            int first = valueIndex.first(value);
+            if (first >= 0) {
+                fireHighlighted(first, Highlight.FOUND);
+            }
+            return first;
+        }
+        for (int i = 0; i < nodes.size(); i++) {
+            if (nodes.get(i).equals(value)) {
+                fireHighlighted(i, Highlight.FOUND);
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Finds every node holding the given value and highlights each.
+     *
+     * @param value The value to look for.
+     * @return The positions of the matches, in ascending order.
+     */
+    public int[] indexesOf(T value) {
+        int[] found;
+        if (valueIndex != null) {
+            found = valueIndex.all(value);
+        } else {
+            found = new int[0];
+            int count = 0;
+            for (int i = 0; i < nodes.size(); i++) {
+                if (nodes.get(i).equals(value)) {
+                    if (count == found.length) {
+                        found = Arrays.copyOf(found, Math.max(4, count * 2));
+                    }
+                    found[count++] = i;
+                }
+            }
+            found = Arrays.copyOf(found, count);
+        }
+        for (int i : found) {
+            fireHighlighted(i, Highlight.FOUND);
+        }
+        return found;
+    }
+
+    /**
+     * @param value The value to look for.
+     * @return How many nodes hold it.
+     */
+    public int count(T value) {
+        if (valueIndex != null) {
+            return valueIndex.count(value);
+        }
+        int count = 0;
+        for (T node : nodes) {
+            if (node.equals(value)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Turns the value index on or off. Turning it on indexes the whole list
+     * once; from then on every change keeps it up to date.
+     */
+    public void setIndexed(boolean indexed) {
+        if (indexed && valueIndex == null) {
+            valueIndex = new ValueIndex<>(nodes);
+        } else if (!indexed) {
+            valueIndex = null;
+        }
+    }
+
+    public boolean isIndexed() {
+        return valueIndex != null;
+    }
+
+    /**
+     * @param index The node position.
+     * @return The value stored at that position.
+     */
+    public T get(int index) {
+        return nodes.get(index);
+    }
+
+    @Override
+    public int size() {
+        return nodes.size();
+    }
+
+    @Override
+    public void clear() {
+        nodes.clear();
+        if (valueIndex != null) {
+            valueIndex.clear();
+        }
+        fireCleared();
+    }
+}
@@ -0,0 +1,282 @@
+package com.example.ds.core;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pointer-based heap of ints, either max- or min-ordered, that can absorb a
+ * whole other heap by linking the two trees instead of re-inserting every
+ * element. Subclasses decide how two trees are linked and how the children
+ * of a removed root are put back together.
+ * <p>
+ * Keys may repeat, so events identify elements by their {@link Node#id()
+ * id}, as the pointer-based list does: {@code linked(parent, child)} and
+ * {@code unlinked(parent, child)} report each tree edge made and broken,
+ * and {@code compared} each key comparison. Ids are unique across all
+ * heaps, so melding two heaps never gives two nodes the same one.
+ */
+public abstract class MeldableHeapModel extends ObservableStructure {
+
+    /**
+     * The available implementations.
+     */
+    public enum Kind {
+        /** Melds in O(1); removing the root costs O(log n) amortized. */
+        PAIRING,
+        /** Melds and removes the root in O(log n) worst case. */
+        LEFTIST
+    }
+
+    /**
+     * One element. How {@link #left()} and {@link #right()} are used depends
+     * on the heap; {@link MeldableHeapModel#firstChild(Node)} and
+     * {@link MeldableHeapModel#nextSibling(Node, Node)} walk a node's
+     * children either way.
+     */
+    public static final class Node {
+        final int key;
+        final int id;
+        Node left, right;
+        int rank = 1; // Null-path length in a leftist heap
+
+        Node(int key) {
+            this.key = key;
+            this.id = NEXT_ID.getAndIncrement();
+        }
+
+        public int key() {
+            return key;
+        }
+
+        public int id() {
+            return id;
+        }
+
+        public Node left() {
+            return left;
+        }
+
+        public Node right() {
+            return right;
+        }
+    }
+
+    private static final AtomicInteger NEXT_ID = new AtomicInteger(); // Shared, so melded heaps keep distinct ids
+
+    private final boolean isMaxHeap;
+    private Node root;
+    private int size;
+
+    /**
+     * @param isMaxHeap true for a max heap, false for a min heap.
+     */
+    protected MeldableHeapModel(boolean isMaxHeap) {
+        this.isMaxHeap = isMaxHeap;
+    }
+
+    /**
+     * Creates an empty heap of the given kind.
+     */
+    public static MeldableHeapModel create(Kind kind, boolean isMaxHeap) {
+        return kind == Kind.PAIRING ? new PairingHeapModel(isMaxHeap) : new LeftistHeapModel(isMaxHeap);
+    }
+
+    /**
+     * @return Which implementation this is.
+     */
+    public abstract Kind getKind();
+
+    /**
+     * Links two trees into one.
+     *
+     * @param a The root of a tree, or null.
+     * @param b The root of another tree, or null.
+     * @return The root of the linked tree.
+     */
+    protected abstract Node link(Node a, Node b);
+
+    /**
+     * Puts the children of a removed root back together.
+     *
+     * @return The new root, or null if it had no children.
+     */
+    protected abstract Node removeTop(Node root);
+
+    /**
+     * @return The leftmost child of a node, or null if it has none.
+     */
+    public abstract Node firstChild(Node node);
+
+    /**
+     * @param parent The parent of {@code child}.
+     * @return The child after {@code child}, from left to right, or null if
+     *         it is the last.
+     */
+    public abstract Node nextSibling(Node parent, Node child);
+
+    /**
+     * @return The children of a node, from left to right, in a new list.
+     */
+    public final List<Node> children(Node node) {
+        List<Node> children = new ArrayList<>();
+        for (Node child = firstChild(node); child != null; child = nextSibling(node, child)) {
+            children.add(child);
+        }
+        return children;
+    }
+
+    /**
+     * @return true if {@code a} belongs above {@code b}.
+     */
+    protected final boolean outranks(Node a, Node b) {
+        fireCompared(a.id, b.id);
+        return isMaxHeap ? a.key > b.key : a.key < b.key;
+    }
+
+    /**
+     * Adds a value by linking it, as a one-node tree, with the root.
+     */
+    public void insert(int value) {
+        Node node = new Node(value);
+        size++;
+        fireInserted(node.id);
+        root = link(root, node);
+    }
+
+    /**
+     * Adds many values at once. They are linked in pairs, then pairs of
+     * pairs and so on, which builds a leftist heap in O(n) rather than
+     * O(n log n), before the result is melded with the root.
+     *
+     * @param values The values to add; the array is not kept.
+     */
+    public void insertAll(int[] values) {
+        if (values.length == 0) {
+            return;
+        }
+        Node[] trees = new Node[values.length];
+        for (int i = 0; i < values.length; i++) {
+            trees[i] = new Node(values[i]);
+            fireInserted(trees[i].id);
+        }
+        for (int count = trees.length; count > 1; count = (count + 1) / 2) {
+            for (int i = 0; i < count / 2; i++) {
+                trees[i] = link(trees[2 * i], trees[2 * i + 1]);
+            }
+            if (count % 2 == 1) {
+                trees[count / 2] = trees[count - 1];
+            }
+        }
+        size += values.length;
+        root = link(root, trees[0]);
+    }
+
+    /**
+     * Moves every element of another heap into this one without copying
+     * them. The other heap is left empty.
+     * <p>
+     * The other heap reports {@code cleared}; this one reports the absorbed
+     * nodes as {@code inserted}, and their edges as {@code linked}, before
+     * linking the two roots, so its listeners know every id it later
+     * reports. That walk is only made when someone is listening, so an
+     * unobserved meld keeps its O(1) or O(log n) cost.
+     *
+     * @param other A heap of the same kind and order.
+     * @throws IllegalArgumentException if it is this heap, or of another
+     *                                  kind or order.
+     */
+    public void meld(MeldableHeapModel other) {
+        if (other == this) {
+            throw new IllegalArgumentException("A heap cannot be melded with itself");
+        }
+        if (other.getKind() != getKind() || other.isMaxHeap != isMaxHeap) {
+            throw new IllegalArgumentException("Cannot meld a " + other.getHeapType() + " into a " + getHeapType());
+        }
+        Node absorbed = other.root;
+        size += other.size;
+        other.root = null;
+        other.size = 0;
+        other.fireCleared();
+        if (absorbed != null && hasListeners()) {
+            fireAbsorbed(absorbed);
+        }
+        root = link(root, absorbed);
+    }
+
+    // Top down, so both ends of an edge are reported before the edge itself
+    private void fireAbsorbed(Node root) {
+        Deque<Node> pending = new ArrayDeque<>();
+        fireInserted(root.id);
+        pending.push(root);
+        while (!pending.isEmpty()) {
+            Node node = pending.pop();
+            for (Node child = firstChild(node); child != null; child = nextSibling(node, child)) {
+                fireInserted(child.id);
+                fireLinked(node.id, child.id);
+                pending.push(child);
+            }
+        }
+    }
+
+    /**
+     * Returns the root without removing it.
+     *
+     * @throws NoSuchElementException if the heap is empty.
+     */
+    public int peekRoot() {
+        if (root == null) {
+            throw new NoSuchElementException(getHeapType() + " is empty");
+        }
+        fireHighlighted(root.id, Highlight.FOUND);
+        return root.key;
+    }
+
+    /**
+     * Removes the root and rebuilds a tree from its children.
+     *
+     * @return The removed root value.
+     * @throws NoSuchElementException if the heap is empty.
+     */
+    public int removeRoot() {
+        if (root == null) {
+            throw new NoSuchElementException(getHeapType() + " is empty");
+        }
+        Node removed = root;
+        size--;
+        fireRemoved(removed.id);
+        root = removeTop(removed);
+        return removed.key;
+    }
+
+    /**
+     * @return The root node, or null if the heap is empty.
+     */
+    public Node getRoot() {
+        return root;
+    }
+
+    public boolean isMaxHeap() {
+        return isMaxHeap;
+    }
+
+    public String getHeapType() {
+        String kind = getKind() == Kind.PAIRING ? "Pairing Heap" : "Leftist Heap";
+        return (isMaxHeap ? "Max " : "Min ") + kind;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public void clear() {
+        root = null;
+        size = 0;
+        fireCleared();
+    }
+}
@@ -0,0 +1,136 @@
+package com.example.ds.core;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Base class for structures that publish their operations to
+ * {@link StructureListener}s. Listeners are kept in a copy-on-write array so
+ * firing an event is a plain loop, and costs nothing when nobody subscribed.
+ */
+public abstract class ObservableStructure {
+
+    private static final StructureListener[] NONE = new StructureListener[0];
+
+    private StructureListener[] listeners = NONE;
+
+    /**
+     * Subscribes a listener to all future events.
+     *
+     * @param listener The listener to add.
+     */
+    public void addListener(StructureListener listener) {
+        Objects.requireNonNull(listener, "listener");
+        StructureListener[] copy = Arrays.copyOf(listeners, listeners.length + 1);
+        copy[listeners.length] = listener;
+        listeners = copy;
+    }
+
+    /**
+     * Unsubscribes a listener. Does nothing if it was not subscribed.
+     *
+     * @param listener The listener to remove.
+     */
+    public void removeListener(StructureListener listener) {
+        for (int i = 0; i < listeners.length; i++) {
+            if (listeners[i] == listener) {
+                StructureListener[] copy = new StructureListener[listeners.length - 1];
+                System.arraycopy(listeners, 0, copy, 0, i);
+                System.arraycopy(listeners, i + 1, copy, i, listeners.length - i - 1);
+                listeners = copy;
+                return;
+            }
+        }
+    }
+
+    /**
+     * @return The number of elements currently stored.
+     */
+    public abstract int size();
+
+    /**
+     * @return true if the structure holds no elements.
+     */
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * Removes every element.
+     */
+    public abstract void clear();
+
+    /**
+     * @return true if anyone is listening, so events that cost more than
+     *         the operation itself can be skipped when nobody is.
+     */
+    protected final boolean hasListeners() {
+        return listeners.length > 0;
+    }
+
+    protected final void fireInserted(int handle) {
+        for (StructureListener listener : listeners) {
+            listener.inserted(handle);
+        }
+    }
+
+    protected final void fireRemoved(int handle) {
+        for (StructureListener listener : listeners) {
+            listener.removed(handle);
+        }
+    }
+
+    protected final void fireCompared(int a, int b) {
+        for (StructureListener listener : listeners) {
+            listener.compared(a, b);
+        }
+    }
+
+    protected final void fireSwapped(int a, int b) {
+        for (StructureListener listener : listeners) {
+            listener.swapped(a, b);
+        }
+    }
+
+    protected final void fireLinked(int from, int to) {
+        for (StructureListener listener : listeners) {
+            listener.linked(from, to);
+        }
+    }
+
+    protected final void fireUnlinked(int from, int to) {
+        for (StructureListener listener : listeners) {
+            listener.unlinked(from, to);
+        }
+    }
+
+    protected final void fireRotated(int parent, int child) {
+        for (StructureListener listener : listeners) {
+            listener.rotated(parent, child);
+        }
+    }
+
+    protected final void fireUpdated(int handle) {
+        for (StructureListener listener : listeners) {
+            listener.updated(handle);
+        }
+    }
+
+    protected final void fireRecolored(int handle) {
+        for (StructureListener listener : listeners) {
+            listener.recolored(handle);
+        }
+    }
+
+    protected final void fireHighlighted(int handle, Highlight kind) {
+        for (StructureListener listener : listeners) {
+            listener.highlighted(handle, kind);
+        }
+    }
+
+    protected final void fireCleared() {
+        for (StructureListener listener : listeners) {
+            listener.cleared();
+        }
+    }
+}
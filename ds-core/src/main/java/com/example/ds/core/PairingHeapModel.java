@@ -0,0 +1,85 @@
+package com.example.ds.core;
+
+import java.util.Arrays;
+
+/**
+ * Pairing heap: a multiway tree stored as first child ({@link Node#left()})
+ * and next sibling ({@link Node#right()}). Two trees are linked in O(1) by
+ * making the lesser root the first child of the other, so inserts and melds
+ * are constant time. Removing the root pairs up its children left to right
+ * and then links the pairs right to left, which keeps it at O(log n)
+ * amortized.
+ */
+public class PairingHeapModel extends MeldableHeapModel {
+
+    private Node[] pairs = new Node[16]; // Reused by removeTop
+
+    public PairingHeapModel(boolean isMaxHeap) {
+        super(isMaxHeap);
+    }
+
+    @Override
+    public Kind getKind() {
+        return Kind.PAIRING;
+    }
+
+    @Override
+    protected Node link(Node a, Node b) {
+        if (a == null) {
+            return b;
+        }
+        if (b == null) {
+            return a;
+        }
+        if (outranks(b, a)) {
+            Node t = a;
+            a = b;
+            b = t;
+        }
+        b.right = a.left;
+        a.left = b;
+        fireLinked(a.id, b.id);
+        return a;
+    }
+
+    @Override
+    protected Node removeTop(Node root) {
+        Node child = root.left;
+        root.left = null;
+        int count = 0;
+        // First pass: link neighbours pairwise, left to right
+        while (child != null) {
+            Node a = child;
+            Node b = a.right;
+            child = b == null ? null : b.right;
+            a.right = null;
+            fireUnlinked(root.id, a.id);
+            if (b != null) {
+                b.right = null;
+                fireUnlinked(root.id, b.id);
+                a = link(a, b);
+            }
+            if (count == pairs.length) {
+                pairs = Arrays.copyOf(pairs, count * 2);
+            }
+            pairs[count++] = a;
+        }
+        // Second pass: fold the pairs into one tree, right to left
+        Node result = null;
+        for (int i = count - 1; i >= 0; i--) {
+            result = link(pairs[i], result);
+            pairs[i] = null; // Not kept alive by the scratch array
+        }
+        return result;
+    }
+
+    @Override
+    public Node firstChild(Node node) {
+        return node.left;
+    }
+
+    @Override
+    public Node nextSibling(Node parent, Node child) {
+        return child.right;
+    }
+}
@@ -0,0 +1,270 @@
+package com.example.ds.core;
+
+import java.util.NoSuchElementException;
+
+/**
+ * Linked list of nodes joined by references, walked with a cursor. Inserting
+ * after the cursor and removing the node under it relink only the
+ * neighbours, in O(1), where {@link LinkedListModel} shifts an array.
+ * <p>
+ * A singly linked list can only step forward; stepping back walks from the
+ * head. A doubly linked one also keeps a reference to each node's
+ * predecessor and steps back in O(1).
+ * <p>
+ * The cursor is on a node or, as after a clear, before the head. Events
+ * identify nodes by their {@link Node#id() id}, which does not change while
+ * the node is in the list.
+ *
+ * @param <T> The element type.
+ */
+public class PointerListModel<T> extends ObservableStructure {
+
+    /**
+     * One element and the references to its neighbours.
+     */
+    public static final class Node<T> {
+        final T value;
+        final int id;
+        Node<T> next;
+        Node<T> prev; // Only kept in a doubly linked list
+
+        Node(T value, int id) {
+            this.value = value;
+            this.id = id;
+        }
+
+        public T value() {
+            return value;
+        }
+
+        public int id() {
+            return id;
+        }
+
+        public Node<T> next() {
+            return next;
+        }
+
+        /**
+         * @return The predecessor in a doubly linked list; always null in a
+         *         singly linked one.
+         */
+        public Node<T> prev() {
+            return prev;
+        }
+    }
+
+    private final boolean doubly;
+    private Node<T> head, tail;
+    private Node<T> cursor; // null when before the head
+    private Node<T> before; // The node before the cursor, so a singly linked list can unlink it
+    private int size;
+    private int ids; // Ids handed out since the last clear
+
+    /**
+     * @param doubly true to also link every node to its predecessor.
+     */
+    public PointerListModel(boolean doubly) {
+        this.doubly = doubly;
+    }
+
+    public boolean isDoubly() {
+        return doubly;
+    }
+
+    /**
+     * Appends a value after the tail. The cursor does not move.
+     *
+     * @return The new node.
+     */
+    public Node<T> add(T value) {
+        Node<T> node = new Node<>(value, ids++);
+        size++;
+        fireInserted(node.id);
+        if (tail == null) {
+            head = node;
+        } else {
+            link(tail, node);
+        }
+        tail = node;
+        return node;
+    }
+
+    /**
+     * Inserts a value right after the cursor, or at the head if the cursor
+     * is before it, and moves the cursor onto the new node.
+     *
+     * @return The new node.
+     */
+    public Node<T> insertAfterCursor(T value) {
+        Node<T> node = new Node<>(value, ids++);
+        Node<T> after = cursor == null ? head : cursor.next;
+        size++;
+        fireInserted(node.id);
+        if (cursor == null) {
+            head = node;
+        } else {
+            if (after != null) {
+                fireUnlinked(cursor.id, after.id);
+            }
+            link(cursor, node);
+        }
+        if (after == null) {
+            node.next = null;
+            tail = node;
+        } else {
+            link(node, after);
+        }
+        before = cursor;
+        cursor = node;
+        fireHighlighted(node.id, Highlight.INSERTED);
+        return node;
+    }
+
+    /**
+     * Removes the node under the cursor. The cursor moves on to the next
+     * node or, if it removed the tail, back to the previous one, which like
+     * {@link #prev()} walks from the head in a singly linked list.
+     *
+     * @return The removed value.
+     * @throws NoSuchElementException if the cursor is before the head.
+     */
+    public T removeAtCursor() {
+        if (cursor == null) {
+            throw new NoSuchElementException("No node at the cursor");
+        }
+        Node<T> removed = cursor;
+        Node<T> after = removed.next;
+        fireHighlighted(removed.id, Highlight.REMOVED);
+        if (before != null) {
+            fireUnlinked(before.id, removed.id);
+        }
+        if (after != null) {
+            fireUnlinked(removed.id, after.id);
+        }
+        size--;
+        fireRemoved(removed.id);
+        if (before == null) {
+            head = after;
+            if (after != null) {
+                after.prev = null;
+            }
+        } else if (after == null) {
+            before.next = null;
+        } else {
+            link(before, after);
+        }
+        if (after == null) {
+            tail = before;
+            cursor = before;
+            before = before == null ? null : predecessor(before);
+        } else {
+            cursor = after;
+        }
+        removed.next = null;
+        removed.prev = null;
+        return removed.value;
+    }
+
+    /**
+     * Moves the cursor one node forward; from before the head, onto it.
+     *
+     * @return false if it was already on the tail, or the list is empty.
+     */
+    public boolean next() {
+        Node<T> target = cursor == null ? head : cursor.next;
+        if (target == null) {
+            return false;
+        }
+        before = cursor;
+        cursor = target;
+        return true;
+    }
+
+    /**
+     * Moves the cursor one node back; from the head, to before it. O(1) in a
+     * doubly linked list; a singly linked one walks from the head.
+     *
+     * @return false if it was already before the head.
+     */
+    public boolean prev() {
+        if (cursor == null) {
+            return false;
+        }
+        cursor = before;
+        before = cursor == null ? null : predecessor(cursor);
+        return true;
+    }
+
+    /**
+     * Moves the cursor to before the head.
+     */
+    public void resetCursor() {
+        cursor = null;
+        before = null;
+    }
+
+    private Node<T> predecessor(Node<T> node) {
+        if (doubly) {
+            return node.prev;
+        }
+        Node<T> walk = head;
+        if (walk == node) {
+            return null;
+        }
+        while (walk.next != node) {
+            walk = walk.next;
+        }
+        return walk;
+    }
+
+    private void link(Node<T> from, Node<T> to) {
+        from.next = to;
+        if (doubly) {
+            to.prev = from;
+        }
+        fireLinked(from.id, to.id);
+    }
+
+    /**
+     * @return The node under the cursor, or null if it is before the head.
+     */
+    public Node<T> cursor() {
+        return cursor;
+    }
+
+    /**
+     * @return The node before the cursor, or null if the cursor is on the
+     *         head or before it.
+     */
+    public Node<T> beforeCursor() {
+        return before;
+    }
+
+    /**
+     * @return The first node, or null if the list is empty.
+     */
+    public Node<T> head() {
+        return head;
+    }
+
+    /**
+     * @return The last node, or null if the list is empty.
+     */
+    public Node<T> tail() {
+        return tail;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public void clear() {
+        head = tail = cursor = before = null;
+        size = 0;
+        ids = 0;
+        fireCleared();
+    }
+}
@@ -0,0 +1,172 @@
+package com.example.ds.core;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.NoSuchElementException;
+
+/**
+ * First-in first-out queue on a growable circular array, with deque
+ * operations at both ends. Position 0 is the front.
+ * <p>
+ * Elements never shift: removing from either end only moves the head index
+ * or shrinks the size, so every operation is O(1) amortized.
+ *
+ * @param <T> The element type.
+ */
+public class QueueModel<T> extends ObservableStructure {
+
+    private static final int INITIAL_CAPACITY = 16; // Always a power of two
+
+    private Object[] elements = new Object[INITIAL_CAPACITY];
+    private int head;
+    private int size;
+
+    /**
+     * Adds a value at the back of the queue.
+     *
+     * @param value The value to add.
+     */
+    public void enqueue(T value) {
+        ensureCapacity(size + 1);
+        elements[slot(size)] = value;
+        size++;
+        fireInserted(size - 1);
+    }
+
+    /**
+     * Adds many values at the back, in order. The ring grows at most once.
+     *
+     * @param values The values to add, front first.
+     */
+    public void enqueueAll(Collection<? extends T> values) {
+        int oldSize = size;
+        ensureCapacity(size + values.size());
+        for (T value : values) {
+            elements[slot(size)] = value;
+            size++;
+        }
+        for (int i = oldSize; i < size; i++) {
+            fireInserted(i);
+        }
+    }
+
+    /**
+     * Adds a value at the front of the queue, ahead of everything else.
+     *
+     * @param value The value to add.
+     */
+    public void enqueueFront(T value) {
+        ensureCapacity(size + 1);
+        head = (head - 1) & (elements.length - 1);
+        elements[head] = value;
+        size++;
+        fireInserted(0);
+    }
+
+    /**
+     * Removes the front value.
+     *
+     * @return The removed value.
+     * @throws NoSuchElementException if the queue is empty.
+     */
+    public T dequeue() {
+        T value = element(0);
+        elements[head] = null;
+        head = (head + 1) & (elements.length - 1);
+        size--;
+        fireRemoved(0);
+        return value;
+    }
+
+    /**
+     * Removes the back value.
+     *
+     * @return The removed value.
+     * @throws NoSuchElementException if the queue is empty.
+     */
+    public T dequeueBack() {
+        T value = element(size - 1);
+        size--;
+        elements[slot(size)] = null;
+        fireRemoved(size);
+        return value;
+    }
+
+    /**
+     * Returns the front value without removing it.
+     *
+     * @return The front value.
+     * @throws NoSuchElementException if the queue is empty.
+     */
+    public T peek() {
+        T value = element(0);
+        fireHighlighted(0, Highlight.FOUND);
+        return value;
+    }
+
+    /**
+     * Returns the back value without removing it.
+     *
+     * @return The back value.
+     * @throws NoSuchElementException if the queue is empty.
+     */
+    public T peekBack() {
+        T value = element(size - 1);
+        fireHighlighted(size - 1, Highlight.FOUND);
+        return value;
+    }
+
+    /**
+     * @param index Position counted from the front.
+     * @return The value at that position.
+     * @throws IndexOutOfBoundsException if the index is out of range.
+     */
+    public T get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        return element(index);
+    }
+
+    @SuppressWarnings("unchecked")
+    private T element(int index) {
+        if (size == 0) {
+            throw new NoSuchElementException("Queue is empty");
+        }
+        return (T) elements[slot(index)];
+    }
+
+    private int slot(int index) {
+        return (head + index) & (elements.length - 1);
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity <= elements.length) {
+            return;
+        }
+        // Unroll the ring into the front of a larger array, still a power of two
+        int length = elements.length * 2;
+        while (length < capacity) {
+            length *= 2;
+        }
+        Object[] grown = new Object[length];
+        int firstPart = elements.length - head;
+        System.arraycopy(elements, head, grown, 0, firstPart);
+        System.arraycopy(elements, 0, grown, firstPart, head);
+        elements = grown;
+        head = 0;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public void clear() {
+        Arrays.fill(elements, null);
+        head = 0;
+        size = 0;
+        fireCleared();
+    }
+}
@@ -0,0 +1,367 @@
+package com.example.ds.core;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.function.IntFunction;
+
+/**
+ * The saved contents of one structure, written and read with bulk NIO so a
+ * structure of a million elements is restored in linear time instead of
+ * being rebuilt one insert at a time.
+ * <p>
+ * A snapshot file starts with {@link #MAGIC}, a version byte and the
+ * {@link TraceOp.Structure} ordinal, all little-endian:
+ * <ul>
+ * <li>heap: max-heap flag, arity, count, then the heap array as is;</li>
+ * <li>binary search tree: balance ordinal, count, the keys in pre-order,
+ * then in red-black mode one bit per key, in the same order, set for red
+ * nodes;</li>
+ * <li>linked list, stack and queue: count, then each value as a varint byte
+ * count and its UTF-8 bytes, first to last (bottom to top for the
+ * stack, front to back for the queue).</li>
+ * </ul>
+ */
+public final class Snapshot {
+
+    /**
+     * First bytes of every snapshot.
+     */
+    public static final byte[] MAGIC = { 'D', 'S', 'S', 'N' };
+
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = MAGIC.length + 2;
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final TraceOp.Structure structure;
+    private boolean maxHeap;
+    private int arity;
+    private BstModel.Balance balance;
+    private int[] keys; // Heap array, or tree keys in pre-order
+    private BitSet red;
+    private List<String> values;
+
+    private Snapshot(TraceOp.Structure structure) {
+        this.structure = structure;
+    }
+
+    public TraceOp.Structure getStructure() {
+        return structure;
+    }
+
+    /**
+     * @return Whether a saved heap was a max-heap.
+     */
+    public boolean isMaxHeap() {
+        return maxHeap;
+    }
+
+    /**
+     * @return The children per node of a saved heap.
+     */
+    public int getArity() {
+        return arity;
+    }
+
+    /**
+     * @return The balancing scheme of a saved tree.
+     */
+    public BstModel.Balance getBalance() {
+        return balance;
+    }
+
+    /**
+     * @return How many elements were saved.
+     */
+    public int size() {
+        return keys != null ? keys.length : values.size();
+    }
+
+    // --- Writing ---
+
+    public static void write(Path file, HeapModel heap) throws IOException {
+        int[] array = heap.toArray();
+        ByteBuffer out = map(file, HEADER_SIZE + 6L + (long) array.length * Integer.BYTES);
+        header(out, TraceOp.Structure.HEAP);
+        out.put((byte) (heap.isMaxHeap() ? 1 : 0)).put((byte) heap.getArity()).putInt(array.length);
+        out.asIntBuffer().put(array);
+    }
+
+    public static void write(Path file, BstModel tree) throws IOException {
+        int[] preorder = new int[tree.size()];
+        BitSet red = new BitSet();
+        int count = 0;
+        ArrayDeque<BstModel.Node> pending = new ArrayDeque<>();
+        if (tree.getRoot() != null) {
+            pending.push(tree.getRoot());
+        }
+        while (!pending.isEmpty()) {
+            BstModel.Node node = pending.pop();
+            red.set(count, node.isRed());
+            preorder[count++] = node.key();
+            if (node.right() != null) {
+                pending.push(node.right());
+            }
+            if (node.left() != null) {
+                pending.push(node.left()); // Popped first, so the left subtree is written first
+            }
+        }
+        boolean colored = tree.getBalance() == BstModel.Balance.RED_BLACK;
+        long colorBytes = colored ? (count + 7) / 8 : 0;
+        ByteBuffer out = map(file, HEADER_SIZE + 5L + (long) count * Integer.BYTES + colorBytes);
+        header(out, TraceOp.Structure.BST);
+        out.put((byte) tree.getBalance().ordinal()).putInt(count);
+        out.asIntBuffer().put(preorder);
+        if (colored) {
+            out.position(out.position() + count * Integer.BYTES);
+            out.put(Arrays.copyOf(red.toByteArray(), (int) colorBytes));
+        }
+    }
+
+    public static void write(Path file, StackModel<String> stack) throws IOException {
+        writeValues(file, TraceOp.Structure.STACK, stack.size(), stack::get);
+    }
+
+    public static void write(Path file, QueueModel<String> queue) throws IOException {
+        writeValues(file, TraceOp.Structure.QUEUE, queue.size(), queue::get);
+    }
+
+    public static void write(Path file, LinkedListModel<String> list) throws IOException {
+        writeValues(file, TraceOp.Structure.LINKED_LIST, list.size(), list::get);
+    }
+
+    // Maps a new file of exactly the given size for writing
+    private static ByteBuffer map(Path file, long size) throws IOException {
+        if (size > Integer.MAX_VALUE) {
+            throw new IOException("Snapshot of " + size + " bytes is too large");
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, size).order(ByteOrder.LITTLE_ENDIAN);
+        }
+    }
+
+    private static void header(ByteBuffer out, TraceOp.Structure structure) {
+        out.put(MAGIC).put((byte) VERSION).put((byte) structure.ordinal());
+    }
+
+    // Values are variable-length, so they stream through a buffer instead of a mapping
+    private static void writeValues(Path file, TraceOp.Structure structure, int count, IntFunction<String> get)
+            throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            header(buffer, structure);
+            buffer.putInt(count);
+            for (int i = 0; i < count; i++) {
+                byte[] bytes = get.apply(i).getBytes(StandardCharsets.UTF_8);
+                if (buffer.remaining() < 5) {
+                    drain(channel, buffer);
+                }
+                putVarint(buffer, bytes.length);
+                for (int offset = 0; offset < bytes.length;) {
+                    if (!buffer.hasRemaining()) {
+                        drain(channel, buffer);
+                    }
+                    int length = Math.min(buffer.remaining(), bytes.length - offset);
+                    buffer.put(bytes, offset, length);
+                    offset += length;
+                }
+            }
+            drain(channel, buffer);
+        }
+    }
+
+    private static void drain(FileChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    private static void putVarint(ByteBuffer buffer, int value) {
+        while ((value & ~0x7f) != 0) {
+            buffer.put((byte) (value & 0x7f | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+
+    // --- Reading ---
+
+    /**
+     * Reads a whole snapshot.
+     *
+     * @throws IOException if the file cannot be read or is not a snapshot.
+     */
+    public static Snapshot read(Path file) throws IOException {
+        MappedByteBuffer mapped;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException(file + " is too large for a snapshot");
+            }
+            mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        ByteBuffer in = mapped.order(ByteOrder.LITTLE_ENDIAN);
+        try {
+            byte[] magic = new byte[MAGIC.length];
+            in.get(magic);
+            if (!Arrays.equals(magic, MAGIC)) {
+                throw new IOException(file + " is not a snapshot");
+            }
+            int version = in.get();
+            if (version != VERSION) {
+                throw new IOException("Unsupported snapshot version " + version);
+            }
+            int ordinal = in.get();
+            TraceOp.Structure[] structures = TraceOp.Structure.values();
+            if (ordinal < 0 || ordinal >= structures.length) {
+                throw new IOException("Unknown structure " + ordinal + " in " + file);
+            }
+            Snapshot snapshot = new Snapshot(structures[ordinal]);
+            switch (snapshot.structure) {
+                case HEAP:
+                    snapshot.maxHeap = in.get() != 0;
+                    snapshot.arity = in.get();
+                    snapshot.keys = readInts(in);
+                    break;
+                case BST:
+                    int balance = in.get();
+                    if (balance < 0 || balance >= BstModel.Balance.values().length) {
+                        throw new IOException("Unknown balance " + balance + " in " + file);
+                    }
+                    snapshot.balance = BstModel.Balance.values()[balance];
+                    snapshot.keys = readInts(in);
+                    byte[] colors = new byte[snapshot.balance == BstModel.Balance.RED_BLACK
+                            ? (snapshot.keys.length + 7) / 8
+                            : 0];
+                    in.get(colors);
+                    snapshot.red = BitSet.valueOf(colors);
+                    break;
+                case MELDABLE_HEAP:
+                case POINTER_LIST:
+                    throw new IOException("Unsupported structure " + snapshot.structure + " in " + file);
+                default:
+                    int count = readCount(in);
+                    snapshot.values = new ArrayList<>(count);
+                    for (int i = 0; i < count; i++) {
+                        byte[] bytes = new byte[readLength(in)];
+                        in.get(bytes);
+                        snapshot.values.add(new String(bytes, StandardCharsets.UTF_8));
+                    }
+                    break;
+            }
+            if (in.hasRemaining()) {
+                throw new IOException(in.remaining() + " unexpected bytes at the end of " + file);
+            }
+            return snapshot;
+        } catch (BufferUnderflowException | NegativeArraySizeException e) {
+            throw new IOException(file + " is cut short or corrupt");
+        }
+    }
+
+    private static int[] readInts(ByteBuffer in) throws IOException {
+        int[] ints = new int[readCount(in)];
+        in.asIntBuffer().get(ints);
+        in.position(in.position() + ints.length * Integer.BYTES);
+        return ints;
+    }
+
+    private static int readCount(ByteBuffer in) throws IOException {
+        int count = in.getInt();
+        if (count < 0 || count > in.remaining()) {
+            throw new IOException("Corrupt element count " + count);
+        }
+        return count;
+    }
+
+    // Same bound for a string's byte count, which is a varint rather than a fixed int
+    private static int readLength(ByteBuffer in) throws IOException {
+        int length = readVarint(in);
+        if (length < 0 || length > in.remaining()) {
+            throw new IOException("Corrupt length " + length);
+        }
+        return length;
+    }
+
+    private static int readVarint(ByteBuffer in) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            byte b = in.get();
+            value |= (b & 0x7f) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new IOException("Corrupt length");
+    }
+
+    // --- Restoring ---
+
+    /**
+     * Replaces the heap's contents with the saved ones.
+     *
+     * @throws IllegalArgumentException if this is not a snapshot of a heap of
+     *                                  the same type and arity, or its array
+     *                                  is out of heap order.
+     */
+    public void restore(HeapModel heap) {
+        expect(TraceOp.Structure.HEAP);
+        if (heap.isMaxHeap() != maxHeap || heap.getArity() != arity) {
+            throw new IllegalArgumentException("Snapshot holds a " + arity + "-ary "
+                    + (maxHeap ? "max" : "min") + "-heap");
+        }
+        heap.restore(keys);
+    }
+
+    /**
+     * Replaces the tree's contents with the saved ones.
+     *
+     * @throws IllegalArgumentException if this is not a snapshot of a tree
+     *                                  with the same balancing scheme, or it
+     *                                  does not hold a valid such tree.
+     */
+    public void restore(BstModel tree) {
+        expect(TraceOp.Structure.BST);
+        if (tree.getBalance() != balance) {
+            throw new IllegalArgumentException("Snapshot holds a " + balance + " tree");
+        }
+        tree.restore(keys, red);
+    }
+
+    public void restore(StackModel<String> stack) {
+        expect(TraceOp.Structure.STACK);
+        stack.clear();
+        stack.pushAll(values);
+    }
+
+    public void restore(QueueModel<String> queue) {
+        expect(TraceOp.Structure.QUEUE);
+        queue.clear();
+        queue.enqueueAll(values);
+    }
+
+    public void restore(LinkedListModel<String> list) {
+        expect(TraceOp.Structure.LINKED_LIST);
+        list.clear();
+        list.addAll(values);
+    }
+
+    private void expect(TraceOp.Structure expected) {
+        if (structure != expected) {
+            throw new IllegalArgumentException("Snapshot holds a " + structure + ", not a " + expected);
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.ds.core;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Last-in first-out stack. Positions count from the bottom, so the top
+ * element is at {@code size() - 1}.
+ *
+ * @param <T> The element type.
+ */
+public class StackModel<T> extends ObservableStructure {
+
+    private final List<T> stack = new ArrayList<>();
+
+    /**
+     * Pushes a value on top of the stack.
+     *
+     * @param value The value to push.
+     */
+    public void push(T value) {
+        stack.add(value);
+        fireInserted(stack.size() - 1);
+    }
+
+    /**
+     * Pushes many values, the last one ending up on top.
+     *
+     * @param values The values to push, bottom first.
+     */
+    public void pushAll(Collection<? extends T> values) {
+        int oldSize = stack.size();
+        stack.addAll(values);
+        for (int i = oldSize; i < stack.size(); i++) {
+            fireInserted(i);
+        }
+    }
+
+    /**
+     * Removes the top value.
+     *
+     * @return The removed value.
+     * @throws NoSuchElementException if the stack is empty.
+     */
+    public T pop() {
+        if (stack.isEmpty()) {
+            throw new NoSuchElementException("Stack is empty");
+        }
+        int top = stack.size() - 1;
+        T value = stack.remove(top);
+        fireRemoved(top);
+        return value;
+    }
+
+    /**
+     * Returns the top value without removing it.
+     *
+     * @return The top value.
+     * @throws NoSuchElementException if the stack is empty.
+     */
+    public T peek() {
+        if (stack.isEmpty()) {
+            throw new NoSuchElementException("Stack is empty");
+        }
+        int top = stack.size() - 1;
+        fireHighlighted(top, Highlight.FOUND);
+        return stack.get(top);
+    }
+
+    /**
+     * @param index Position counted from the bottom.
+     * @return The value at that position.
+     */
+    public T get(int index) {
+        return stack.get(index);
+    }
+
+    @Override
+    public int size() {
+        return stack.size();
+    }
+
+    @Override
+    public void clear() {
+        stack.clear();
+        fireCleared();
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.ds.core;
+
+/**
+ * Receives the individual steps performed by a data structure operation.
+ * Every method defaults to a no-op so subscribers only override what they use.
+ * <p>
+ * Elements are identified by plain int handles so that emitting an event never
+ * allocates. Sequence structures (stack, queue, heap, linked list) use element
+ * positions; the binary search tree uses node keys, and meldable heaps and the
+ * pointer-based list node ids.
+ */
+public interface StructureListener {
+
+    /**
+     * An element was added.
+     *
+     * @param handle The position (or key) of the new element.
+     */
+    default void inserted(int handle) {
+    }
+
+    /**
+     * An element was taken out. Handles after it are already shifted.
+     *
+     * @param handle The position (or key) the element had before removal.
+     */
+    default void removed(int handle) {
+    }
+
+    /**
+     * An element's value changed in place; the new value is read from the
+     * model. Any moves it causes are reported afterwards.
+     *
+     * @param handle The position of the element.
+     */
+    default void updated(int handle) {
+    }
+
+    /**
+     * Two elements were compared.
+     * For the binary search tree {@code a} is the visited key and {@code b} the probe.
+     */
+    default void compared(int a, int b) {
+    }
+
+    /**
+     * Two elements exchanged positions.
+     */
+    default void swapped(int a, int b) {
+    }
+
+    /**
+     * A parent/child edge was created.
+     */
+    default void linked(int from, int to) {
+    }
+
+    /**
+     * A parent/child edge was removed.
+     */
+    default void unlinked(int from, int to) {
+    }
+
+    /**
+     * A tree rotation lifted {@code child} into the place of {@code parent},
+     * which became its child. The individual edge changes are reported
+     * through {@link #unlinked} and {@link #linked} as well.
+     */
+    default void rotated(int parent, int child) {
+    }
+
+    /**
+     * A red-black node changed colour; the new colour is read from the model.
+     *
+     * @param handle The key of the node.
+     */
+    default void recolored(int handle) {
+    }
+
+    /**
+     * An element should be pointed out.
+     *
+     * @param handle The position (or key) of the element.
+     * @param kind   Why it is highlighted.
+     */
+    default void highlighted(int handle, Highlight kind) {
+    }
+
+    /**
+     * All elements were dropped at once.
+     */
+    default void cleared() {
+    }
+}
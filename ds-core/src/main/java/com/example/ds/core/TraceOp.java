@@ -0,0 +1,162 @@
+package com.example.ds.core;
+
+/**
+ * The operations an operation trace can hold. Each belongs to one structure
+ * and takes a fixed kind of operand; its tag, written once per record, packs
+ * the structure into the high bits and the operation code into the low four.
+ */
+public enum TraceOp {
+    LIST_ADD(Structure.LINKED_LIST, 0, Operand.TEXT),
+    LIST_INSERT_AT(Structure.LINKED_LIST, 1, Operand.TEXT_AND_INT),
+    LIST_REMOVE_LAST(Structure.LINKED_LIST, 2, Operand.NONE),
+    LIST_REMOVE_AT(Structure.LINKED_LIST, 3, Operand.INT),
+    LIST_SEARCH(Structure.LINKED_LIST, 4, Operand.TEXT),
+    LIST_ADD_ALL(Structure.LINKED_LIST, 5, Operand.TEXTS),
+    /** Highlights every node holding the operand. */
+    LIST_SEARCH_ALL(Structure.LINKED_LIST, 6, Operand.TEXT),
+    /** Turns the value index off (0) or on (1). */
+    LIST_INDEXED(Structure.LINKED_LIST, 7, Operand.INT),
+    LIST_CLEAR(Structure.LINKED_LIST, 15, Operand.NONE),
+
+    STACK_PUSH(Structure.STACK, 0, Operand.TEXT),
+    STACK_POP(Structure.STACK, 1, Operand.NONE),
+    STACK_PEEK(Structure.STACK, 2, Operand.NONE),
+    STACK_PUSH_ALL(Structure.STACK, 3, Operand.TEXTS),
+    STACK_CLEAR(Structure.STACK, 15, Operand.NONE),
+
+    QUEUE_ENQUEUE(Structure.QUEUE, 0, Operand.TEXT),
+    QUEUE_DEQUEUE(Structure.QUEUE, 1, Operand.NONE),
+    QUEUE_ENQUEUE_FRONT(Structure.QUEUE, 2, Operand.TEXT),
+    QUEUE_DEQUEUE_BACK(Structure.QUEUE, 3, Operand.NONE),
+    QUEUE_PEEK(Structure.QUEUE, 4, Operand.NONE),
+    QUEUE_ENQUEUE_ALL(Structure.QUEUE, 5, Operand.TEXTS),
+    QUEUE_CLEAR(Structure.QUEUE, 15, Operand.NONE),
+
+    HEAP_INSERT(Structure.HEAP, 0, Operand.INT),
+    HEAP_REMOVE_ROOT(Structure.HEAP, 1, Operand.NONE),
+    HEAP_PEEK(Structure.HEAP, 2, Operand.NONE),
+    HEAP_INSERT_ALL(Structure.HEAP, 3, Operand.INTS),
+    /** Replaces the heap with an empty one with the operand's arity. */
+    HEAP_ARITY(Structure.HEAP, 4, Operand.INT),
+    /**
+     * Loads the key file the operand names, relative to the trace's directory
+     * unless absolute, up to the operand's number of keys: as many as the
+     * recorded load delivered.
+     */
+    HEAP_LOAD(Structure.HEAP, 5, Operand.TEXT_AND_INT),
+    /** Changes a key; the operands are the node's {@link IndexedHeapModel} handle and the new key. */
+    HEAP_UPDATE_KEY(Structure.HEAP, 6, Operand.INTS),
+    /** Removes the node with the operand as its {@link IndexedHeapModel} handle. */
+    HEAP_REMOVE(Structure.HEAP, 7, Operand.INT),
+    HEAP_CLEAR(Structure.HEAP, 15, Operand.NONE),
+
+    BST_INSERT(Structure.BST, 0, Operand.INT),
+    BST_DELETE(Structure.BST, 1, Operand.INT),
+    BST_SEARCH(Structure.BST, 2, Operand.INT),
+    BST_INSERT_ALL(Structure.BST, 3, Operand.INTS),
+    /** Replaces the tree with an empty one balanced by the {@link BstModel.Balance} of this ordinal. */
+    BST_BALANCE(Structure.BST, 4, Operand.INT),
+    /** Loads a key file, as {@link #HEAP_LOAD} does. */
+    BST_LOAD(Structure.BST, 5, Operand.TEXT_AND_INT),
+    BST_CLEAR(Structure.BST, 15, Operand.NONE),
+
+    MELDABLE_INSERT(Structure.MELDABLE_HEAP, 0, Operand.INT),
+    MELDABLE_REMOVE_ROOT(Structure.MELDABLE_HEAP, 1, Operand.NONE),
+    MELDABLE_PEEK(Structure.MELDABLE_HEAP, 2, Operand.NONE),
+    MELDABLE_INSERT_ALL(Structure.MELDABLE_HEAP, 3, Operand.INTS),
+    /** Replaces both heaps with empty ones of the {@link MeldableHeapModel.Kind} of this ordinal. */
+    MELDABLE_KIND(Structure.MELDABLE_HEAP, 4, Operand.INT),
+    /** Adds the operands to the second heap, the one a meld moves in. */
+    MELDABLE_STAGE(Structure.MELDABLE_HEAP, 5, Operand.INTS),
+    /** Melds the second heap into the first. */
+    MELDABLE_MELD(Structure.MELDABLE_HEAP, 6, Operand.NONE),
+    MELDABLE_CLEAR(Structure.MELDABLE_HEAP, 15, Operand.NONE),
+
+    POINTER_ADD(Structure.POINTER_LIST, 0, Operand.TEXT),
+    POINTER_INSERT_AFTER_CURSOR(Structure.POINTER_LIST, 1, Operand.TEXT),
+    POINTER_REMOVE_AT_CURSOR(Structure.POINTER_LIST, 2, Operand.NONE),
+    POINTER_NEXT(Structure.POINTER_LIST, 3, Operand.NONE),
+    POINTER_PREV(Structure.POINTER_LIST, 4, Operand.NONE),
+    /** Moves the cursor to before the head. */
+    POINTER_RESET_CURSOR(Structure.POINTER_LIST, 5, Operand.NONE),
+    POINTER_ADD_ALL(Structure.POINTER_LIST, 6, Operand.TEXTS),
+    /** Replaces the list with an empty singly (0) or doubly (1) linked one. */
+    POINTER_DOUBLY(Structure.POINTER_LIST, 7, Operand.INT),
+    /** Lays the whole list out in order again. */
+    POINTER_TIDY(Structure.POINTER_LIST, 8, Operand.NONE),
+    POINTER_CLEAR(Structure.POINTER_LIST, 15, Operand.NONE);
+
+    /**
+     * The structure an operation is issued against.
+     */
+    public enum Structure {
+        LINKED_LIST, STACK, QUEUE, HEAP, BST, MELDABLE_HEAP, POINTER_LIST
+    }
+
+    /**
+     * What follows the tag of a record.
+     */
+    public enum Operand {
+        NONE,
+        /** One integer. */
+        INT,
+        /** One string. */
+        TEXT,
+        /** A string, then an integer, e.g. a value and the index it goes to. */
+        TEXT_AND_INT,
+        /** A count, then that many integers. */
+        INTS,
+        /** A count, then that many strings. */
+        TEXTS
+    }
+
+    private static final TraceOp[] BY_TAG = new TraceOp[Structure.values().length << 4];
+
+    static {
+        for (TraceOp op : values()) {
+            if (BY_TAG[op.tag] != null) {
+                throw new ExceptionInInitializerError("Duplicate trace tag " + op.tag);
+            }
+            BY_TAG[op.tag] = op;
+        }
+    }
+
+    private final Structure structure;
+    private final Operand operand;
+    private final int tag;
+
+    TraceOp(Structure structure, int code, Operand operand) {
+        this.structure = structure;
+        this.operand = operand;
+        this.tag = structure.ordinal() << 4 | code;
+    }
+
+    public Structure structure() {
+        return structure;
+    }
+
+    public Operand operand() {
+        return operand;
+    }
+
+    /**
+     * @return The byte that starts a record of this operation.
+     */
+    public int tag() {
+        return tag;
+    }
+
+    /**
+     * @return The operation with the given tag, or null if there is none.
+     */
+    public static TraceOp ofTag(int tag) {
+        return tag >= 0 && tag < BY_TAG.length ? BY_TAG[tag] : null;
+    }
+
+    /**
+     * @return The operation that empties the given structure.
+     */
+    public static TraceOp clearOf(Structure structure) {
+        return BY_TAG[structure.ordinal() << 4 | 15];
+    }
+}
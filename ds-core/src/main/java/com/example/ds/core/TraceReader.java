@@ -0,0 +1,230 @@
+package com.example.ds.core;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Reads back a trace written by {@link TraceWriter}, one record at a time
+ * through a fixed buffer, so a trace of any length can be replayed without
+ * holding more than the current record.
+ */
+public final class TraceReader implements Closeable {
+
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final ReadableByteChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+    private boolean endOfInput;
+    private int previous; // Last integer read; the next one is stored relative to it
+    private long records;
+
+    // The current record
+    private TraceOp op;
+    private int intOperand;
+    private String textOperand;
+    private int[] intOperands;
+    private List<String> textOperands;
+
+    /**
+     * Opens the file and checks its header.
+     */
+    public TraceReader(Path file) throws IOException {
+        this(FileChannel.open(file, StandardOpenOption.READ));
+    }
+
+    /**
+     * @param channel Supplies the trace; closed with the reader.
+     * @throws IOException if the channel does not start with a trace header.
+     */
+    public TraceReader(ReadableByteChannel channel) throws IOException {
+        this.channel = channel;
+        buffer.flip();
+        byte[] magic = new byte[TraceWriter.MAGIC.length];
+        if (!fill(magic.length + 1)) {
+            throw new IOException("Not an operation trace: too short");
+        }
+        buffer.get(magic);
+        if (!Arrays.equals(magic, TraceWriter.MAGIC)) {
+            throw new IOException("Not an operation trace");
+        }
+        int version = buffer.get();
+        if (version != TraceWriter.VERSION) {
+            throw new IOException("Unsupported trace version " + version);
+        }
+    }
+
+    /**
+     * Moves to the next record.
+     *
+     * @return false at the end of the trace.
+     * @throws IOException if the trace is cut short or corrupt.
+     */
+    public boolean next() throws IOException {
+        if (!fill(1)) {
+            op = null;
+            return false;
+        }
+        int tag = buffer.get() & 0xff;
+        op = TraceOp.ofTag(tag);
+        if (op == null) {
+            throw new IOException("Unknown operation tag " + tag + " in record " + records);
+        }
+        switch (op.operand()) {
+            case INT:
+                intOperand = readInt();
+                break;
+            case TEXT:
+                textOperand = readText();
+                break;
+            case TEXT_AND_INT:
+                textOperand = readText();
+                intOperand = readInt();
+                break;
+            case INTS:
+                intOperands = new int[readCount(ValueParser.MAX_VALUES)];
+                for (int i = 0; i < intOperands.length; i++) {
+                    intOperands[i] = readInt();
+                }
+                break;
+            case TEXTS:
+                int count = readCount(ValueParser.MAX_VALUES);
+                textOperands = new ArrayList<>(count);
+                for (int i = 0; i < count; i++) {
+                    textOperands.add(readText());
+                }
+                break;
+            default:
+                break;
+        }
+        records++;
+        return true;
+    }
+
+    /**
+     * @return How many records have been read.
+     */
+    public long getRecordCount() {
+        return records;
+    }
+
+    /**
+     * @return The operation of the current record.
+     */
+    public TraceOp op() {
+        return op;
+    }
+
+    /**
+     * @return The integer operand, or the index of a {@link TraceOp.Operand#TEXT_AND_INT} record.
+     */
+    public int intOperand() {
+        return intOperand;
+    }
+
+    /**
+     * @return The string operand, or the text of a {@link TraceOp.Operand#TEXT_AND_INT} record.
+     */
+    public String textOperand() {
+        return textOperand;
+    }
+
+    public int[] intOperands() {
+        return intOperands;
+    }
+
+    public List<String> textOperands() {
+        return textOperands;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private int readInt() throws IOException {
+        int zigzag = readVarint();
+        previous += zigzag >>> 1 ^ -(zigzag & 1);
+        return previous;
+    }
+
+    /**
+     * Reads an element or byte count. Every element takes at least a byte,
+     * so a count beyond what is left of the input is corrupt; so is a batch
+     * larger than a recording could have parsed.
+     */
+    private int readCount(int max) throws IOException {
+        int count = readVarint();
+        if (count < 0 || count > max || count > remaining()) {
+            throw new IOException("Corrupt count " + count + " in record " + records);
+        }
+        return count;
+    }
+
+    // Bytes left to read, if the channel knows its size
+    private long remaining() throws IOException {
+        if (channel instanceof SeekableByteChannel) {
+            SeekableByteChannel file = (SeekableByteChannel) channel;
+            return file.size() - file.position() + buffer.remaining();
+        }
+        return Long.MAX_VALUE;
+    }
+
+    // Grows the text as its bytes arrive, so a corrupt length on a stream cannot allocate it all up front
+    private String readText() throws IOException {
+        int length = readCount(Integer.MAX_VALUE);
+        byte[] bytes = new byte[Math.min(length, BUFFER_SIZE)];
+        for (int offset = 0; offset < length;) {
+            require(1);
+            if (offset == bytes.length) {
+                bytes = Arrays.copyOf(bytes, (int) Math.min(length, 2L * bytes.length));
+            }
+            int chunk = Math.min(buffer.remaining(), bytes.length - offset);
+            buffer.get(bytes, offset, chunk);
+            offset += chunk;
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private int readVarint() throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            require(1);
+            byte b = buffer.get();
+            value |= (b & 0x7f) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new IOException("Corrupt varint in record " + records);
+    }
+
+    private void require(int bytes) throws IOException {
+        if (!fill(bytes)) {
+            throw new EOFException("Trace ends inside record " + records);
+        }
+    }
+
+    // Reads until at least the given number of bytes are buffered; false if the input ends first
+    private boolean fill(int bytes) throws IOException {
+        if (buffer.remaining() >= bytes) {
+            return true;
+        }
+        buffer.compact();
+        while (buffer.position() < bytes && !endOfInput) {
+            endOfInput = channel.read(buffer) < 0;
+        }
+        buffer.flip();
+        return buffer.remaining() >= bytes;
+    }
+}
@@ -0,0 +1,160 @@
+package com.example.ds.core;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Records operations to a compact binary trace, streamed through a fixed
+ * buffer so a recording of any length costs the same memory.
+ * <p>
+ * A trace starts with {@link #MAGIC} and a version byte. Each record is the
+ * operation's {@link TraceOp#tag() tag} byte followed by its operand:
+ * integers as zigzag varints of the difference from the previous integer in
+ * the trace, strings as a varint byte count and their UTF-8 bytes, and lists
+ * as a varint count followed by their elements. Runs of nearby keys thus
+ * take one or two bytes each.
+ */
+public final class TraceWriter implements Closeable {
+
+    /**
+     * First bytes of every trace.
+     */
+    public static final byte[] MAGIC = { 'D', 'S', 'T', 'R' };
+
+    static final int VERSION = 2; // 2: loads carry their key count
+
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final int MAX_VARINT_BYTES = 5;
+
+    private final WritableByteChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+    private int previous; // Last integer written; the next one is stored relative to it
+    private long records;
+
+    /**
+     * Creates or truncates the file and writes the header.
+     */
+    public TraceWriter(Path file) throws IOException {
+        this(FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.WRITE));
+    }
+
+    /**
+     * @param channel Receives the trace; closed with the writer.
+     */
+    public TraceWriter(WritableByteChannel channel) throws IOException {
+        this.channel = channel;
+        buffer.put(MAGIC).put((byte) VERSION);
+    }
+
+    /**
+     * @return How many records have been written.
+     */
+    public long getRecordCount() {
+        return records;
+    }
+
+    public void write(TraceOp op) throws IOException {
+        begin(op, TraceOp.Operand.NONE);
+    }
+
+    public void write(TraceOp op, int operand) throws IOException {
+        begin(op, TraceOp.Operand.INT);
+        writeInt(operand);
+    }
+
+    public void write(TraceOp op, String operand) throws IOException {
+        begin(op, TraceOp.Operand.TEXT);
+        writeText(operand);
+    }
+
+    public void write(TraceOp op, String text, int index) throws IOException {
+        begin(op, TraceOp.Operand.TEXT_AND_INT);
+        writeText(text);
+        writeInt(index);
+    }
+
+    public void write(TraceOp op, int[] operands) throws IOException {
+        begin(op, TraceOp.Operand.INTS);
+        writeVarint(operands.length);
+        for (int operand : operands) {
+            writeInt(operand);
+        }
+    }
+
+    public void write(TraceOp op, List<String> operands) throws IOException {
+        begin(op, TraceOp.Operand.TEXTS);
+        writeVarint(operands.size());
+        for (String operand : operands) {
+            writeText(operand);
+        }
+    }
+
+    /**
+     * Hands everything written so far to the channel.
+     */
+    public void flush() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            flush();
+        } finally {
+            channel.close();
+        }
+    }
+
+    private void begin(TraceOp op, TraceOp.Operand operand) throws IOException {
+        if (op.operand() != operand) {
+            throw new IllegalArgumentException(op + " takes " + op.operand() + ", not " + operand);
+        }
+        room(1);
+        buffer.put((byte) op.tag());
+        records++;
+    }
+
+    private void writeInt(int value) throws IOException {
+        int delta = value - previous; // Wraps on overflow, and unwraps the same way on reading
+        previous = value;
+        writeVarint(delta << 1 ^ delta >> 31);
+    }
+
+    private void writeText(String text) throws IOException {
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        writeVarint(bytes.length);
+        for (int offset = 0; offset < bytes.length;) {
+            room(1);
+            int length = Math.min(buffer.remaining(), bytes.length - offset);
+            buffer.put(bytes, offset, length);
+            offset += length;
+        }
+    }
+
+    private void writeVarint(int value) throws IOException {
+        room(MAX_VARINT_BYTES);
+        while ((value & ~0x7f) != 0) {
+            buffer.put((byte) (value & 0x7f | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+
+    private void room(int bytes) throws IOException {
+        if (buffer.remaining() < bytes) {
+            flush();
+        }
+    }
+}
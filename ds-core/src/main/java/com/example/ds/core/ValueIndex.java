@@ -0,0 +1,127 @@
+package com.example.ds.core;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Hash index from each value of a list to the positions holding it, kept
+ * up to date as the list changes. Looking up the first position, all of
+ * them or their count takes O(1) expected time.
+ * <p>
+ * Appending and removing at the end cost O(1). Inserting or removing in the
+ * middle moves every later position by one, so the index pays for each
+ * element after the change, just as the list does for shifting it.
+ *
+ * @param <T> The element type.
+ */
+final class ValueIndex<T> {
+
+    private final Map<T, Positions> positions = new HashMap<>();
+
+    /**
+     * Indexes every element of a list.
+     */
+    ValueIndex(List<T> values) {
+        appended(values, 0);
+    }
+
+    /**
+     * Indexes the elements from {@code from} on, just added at the end.
+     */
+    void appended(List<T> values, int from) {
+        for (int i = from; i < values.size(); i++) {
+            positions.computeIfAbsent(values.get(i), v -> new Positions()).add(i);
+        }
+    }
+
+    /**
+     * Indexes the element just inserted at {@code index}; those after it
+     * have moved up by one.
+     */
+    void inserted(List<T> values, int index) {
+        // From the end, so a value's positions stay sorted as each moves up
+        for (int i = values.size() - 1; i > index; i--) {
+            positions.get(values.get(i)).move(i - 1, i);
+        }
+        positions.computeIfAbsent(values.get(index), v -> new Positions()).add(index);
+    }
+
+    /**
+     * Drops a value that was at {@code index}; those after it have moved
+     * down by one.
+     */
+    void removed(List<T> values, T value, int index) {
+        Positions removed = positions.get(value);
+        removed.remove(index);
+        if (removed.size == 0) {
+            positions.remove(value);
+        }
+        for (int i = index; i < values.size(); i++) {
+            positions.get(values.get(i)).move(i + 1, i);
+        }
+    }
+
+    void clear() {
+        positions.clear();
+    }
+
+    /**
+     * @return The first position holding the value, or -1 if there is none.
+     */
+    int first(T value) {
+        Positions at = positions.get(value);
+        return at == null ? -1 : at.at[0];
+    }
+
+    /**
+     * @return Every position holding the value, in ascending order.
+     */
+    int[] all(T value) {
+        Positions at = positions.get(value);
+        return at == null ? new int[0] : Arrays.copyOf(at.at, at.size);
+    }
+
+    /**
+     * @return How many elements hold the value.
+     */
+    int count(T value) {
+        Positions at = positions.get(value);
+        return at == null ? 0 : at.size;
+    }
+
+    // The positions of one value, sorted; usually just one
+    private static final class Positions {
+        int[] at = new int[1];
+        int size;
+
+        void add(int position) {
+            if (size == at.length) {
+                at = Arrays.copyOf(at, size * 2);
+            }
+            int i = size > 0 && at[size - 1] > position ? find(position) : size; // Appends skip the search
+            if (i < 0) {
+                i = -i - 1;
+            }
+            System.arraycopy(at, i, at, i + 1, size - i);
+            at[i] = position;
+            size++;
+        }
+
+        void remove(int position) {
+            int i = find(position);
+            System.arraycopy(at, i + 1, at, i, size - i - 1);
+            size--;
+        }
+
+        // Moving by one never passes another position of the same value
+        void move(int from, int to) {
+            at[find(from)] = to;
+        }
+
+        private int find(int position) {
+            return Arrays.binarySearch(at, 0, size, position);
+        }
+    }
+}
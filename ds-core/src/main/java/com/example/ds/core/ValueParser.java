@@ -0,0 +1,110 @@
+package com.example.ds.core;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Reads a batch of values typed or pasted in one go. Values are separated by
+ * commas and/or any whitespace, line breaks included, and {@code from..to}
+ * stands for every integer in that inclusive range, counting down if
+ * {@code to} is smaller.
+ */
+public final class ValueParser {
+
+    /**
+     * Most values one batch may expand to, so a typo such as
+     * {@code 1..2000000000} fails at once instead of exhausting memory.
+     */
+    public static final int MAX_VALUES = 10_000_000;
+
+    private ValueParser() {
+    }
+
+    /**
+     * @param text The input, e.g. {@code "5, 3 9\n1..100"}.
+     * @return Every value, in input order.
+     * @throws NumberFormatException    if a value is not an integer.
+     * @throws IllegalArgumentException if the batch expands to more than
+     *                                  {@link #MAX_VALUES} values.
+     */
+    public static int[] parseInts(CharSequence text) {
+        int[] values = new int[16];
+        int count = 0;
+        for (String token : tokens(text)) {
+            int dots = token.indexOf("..");
+            if (dots < 0) {
+                values = grow(values, count + 1);
+                values[count++] = Integer.parseInt(token);
+                continue;
+            }
+            int from = Integer.parseInt(token, 0, dots, 10);
+            int to = Integer.parseInt(token, dots + 2, token.length(), 10);
+            values = grow(values, count + rangeLength(from, to));
+            int step = from <= to ? 1 : -1;
+            for (long v = from; v != (long) to + step; v += step) {
+                values[count++] = (int) v;
+            }
+        }
+        return Arrays.copyOf(values, count);
+    }
+
+    /**
+     * Like {@link #parseInts} for structures holding text: any token is a
+     * value, and only ranges between two integers are expanded.
+     *
+     * @param text The input, e.g. {@code "a b, c\n1..3"}.
+     * @return Every value, in input order.
+     * @throws IllegalArgumentException if the batch expands to more than
+     *                                  {@link #MAX_VALUES} values.
+     */
+    public static List<String> parseValues(CharSequence text) {
+        List<String> values = new ArrayList<>();
+        for (String token : tokens(text)) {
+            int dots = token.indexOf("..");
+            int from, to;
+            try {
+                if (dots <= 0) {
+                    throw new NumberFormatException();
+                }
+                from = Integer.parseInt(token, 0, dots, 10);
+                to = Integer.parseInt(token, dots + 2, token.length(), 10);
+            } catch (NumberFormatException e) {
+                checkSize(values.size() + 1L);
+                values.add(token); // Not a range; keep it as typed
+                continue;
+            }
+            checkSize(values.size() + (long) rangeLength(from, to));
+            int step = from <= to ? 1 : -1;
+            for (long v = from; v != (long) to + step; v += step) {
+                values.add(String.valueOf(v));
+            }
+        }
+        return values;
+    }
+
+    private static String[] tokens(CharSequence text) {
+        String trimmed = text.toString().strip();
+        return trimmed.isEmpty() ? new String[0] : trimmed.split("[,\\s]+");
+    }
+
+    private static int rangeLength(int from, int to) {
+        long length = Math.abs((long) to - from) + 1;
+        checkSize(length);
+        return (int) length;
+    }
+
+    private static int[] grow(int[] values, long needed) {
+        checkSize(needed);
+        if (needed <= values.length) {
+            return values;
+        }
+        return Arrays.copyOf(values, (int) Math.min(MAX_VALUES, Math.max(needed, 2L * values.length)));
+    }
+
+    private static void checkSize(long count) {
+        if (count > MAX_VALUES) {
+            throw new IllegalArgumentException("Too many values; at most " + MAX_VALUES + " per batch");
+        }
+    }
+}
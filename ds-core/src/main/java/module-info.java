@@ -0,0 +1,3 @@
+module com.example.ds.core {
+    exports com.example.ds.core;
+}
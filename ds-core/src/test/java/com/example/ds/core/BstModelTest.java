@@ -0,0 +1,302 @@
+package com.example.ds.core;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.junit.jupiter.api.Test;
+
+import com.example.ds.core.BstModel.Balance;
+import com.example.ds.core.BstModel.Node;
+
+class BstModelTest {
+
+    private static final int OPERATIONS = 4000;
+    private static final int KEY_RANGE = 500;
+
+    @Test
+    void randomInsertsAndDeletesKeepEveryInvariant() {
+        for (Balance balance : Balance.values()) {
+            Random random = new Random(balance.ordinal());
+            BstModel tree = new BstModel(balance);
+            EdgeTracker edges = new EdgeTracker();
+            tree.addListener(edges);
+            TreeSet<Integer> expected = new TreeSet<>();
+            for (int i = 0; i < OPERATIONS; i++) {
+                int key = random.nextInt(KEY_RANGE) - KEY_RANGE / 2;
+                if (random.nextInt(3) > 0) {
+                    assertEquals(expected.add(key), tree.insert(key), balance + " insert " + key);
+                } else {
+                    assertEquals(expected.remove(key), tree.delete(key), balance + " delete " + key);
+                }
+                check(tree, expected);
+                assertEquals(edgesOf(tree), edges.edges, balance + ": reported edges after step " + i);
+            }
+        }
+    }
+
+    @Test
+    void sortedInsertsStayLogarithmicWhenBalanced() {
+        int n = 1 << 12;
+        for (Balance balance : new Balance[] { Balance.AVL, Balance.RED_BLACK }) {
+            BstModel tree = new BstModel(balance);
+            for (int key = 0; key < n; key++) {
+                tree.insert(key);
+            }
+            TreeSet<Integer> expected = new TreeSet<>();
+            for (int key = 0; key < n; key++) {
+                expected.add(key);
+            }
+            check(tree, expected);
+            // 1.44 log2(n) for AVL, 2 log2(n) for red-black
+            assertTrue(tree.height() <= 2 * 12, balance + " height " + tree.height());
+        }
+        BstModel plain = new BstModel();
+        for (int key = 0; key < 100; key++) {
+            plain.insert(key);
+        }
+        assertEquals(100, plain.height());
+    }
+
+    @Test
+    void rotationsAreReported() {
+        BstModel tree = new BstModel(Balance.AVL);
+        List<int[]> rotations = new ArrayList<>();
+        tree.addListener(new StructureListener() {
+            @Override
+            public void rotated(int parent, int child) {
+                rotations.add(new int[] { parent, child });
+            }
+        });
+        tree.insert(1);
+        tree.insert(2);
+        tree.insert(3); // Right-right: 2 is lifted over 1
+        assertEquals(1, rotations.size());
+        assertEquals(1, rotations.get(0)[0]);
+        assertEquals(2, rotations.get(0)[1]);
+        assertEquals(2, tree.getRoot().key());
+    }
+
+    @Test
+    void restoreRebuildsTheSameTree() {
+        for (Balance balance : Balance.values()) {
+            Random random = new Random(10 + balance.ordinal());
+            BstModel tree = new BstModel(balance);
+            for (int i = 0; i < 1000; i++) {
+                tree.insert(random.nextInt(5000));
+            }
+            for (int i = 0; i < 300; i++) {
+                tree.delete(random.nextInt(5000));
+            }
+            List<Node> nodes = preorder(tree);
+            int[] keys = new int[nodes.size()];
+            BitSet red = new BitSet();
+            for (int i = 0; i < keys.length; i++) {
+                keys[i] = nodes.get(i).key();
+                red.set(i, nodes.get(i).isRed());
+            }
+
+            BstModel copy = new BstModel(balance);
+            copy.restore(keys, red);
+            List<Node> copied = preorder(copy);
+            assertEquals(nodes.size(), copied.size());
+            for (int i = 0; i < keys.length; i++) {
+                Node a = nodes.get(i), b = copied.get(i);
+                assertEquals(a.key(), b.key());
+                assertEquals(a.isRed(), b.isRed());
+                assertEquals(keyOf(a.left()), keyOf(b.left()));
+                assertEquals(keyOf(a.right()), keyOf(b.right()));
+            }
+            assertEquals(tree.height(), copy.height());
+
+            // Still a working tree of its kind afterwards
+            TreeSet<Integer> expected = new TreeSet<>();
+            for (int key : keys) {
+                expected.add(key);
+            }
+            for (int i = 0; i < 500; i++) {
+                int key = random.nextInt(5000);
+                if (random.nextBoolean()) {
+                    assertEquals(expected.add(key), copy.insert(key));
+                } else {
+                    assertEquals(expected.remove(key), copy.delete(key));
+                }
+                check(copy, expected);
+            }
+        }
+    }
+
+    @Test
+    void restoreOfNothingEmptiesTheTree() {
+        BstModel tree = new BstModel(Balance.RED_BLACK);
+        tree.insert(1);
+        tree.restore(new int[0], new BitSet());
+        assertNull(tree.getRoot());
+        assertEquals(0, tree.size());
+    }
+
+    @Test
+    void restoreRejectsMalformedInput() {
+        // Not a pre-order walk: 1 cannot follow 3 once 2 was placed to its right
+        assertThrows(IllegalArgumentException.class, () -> new BstModel().restore(new int[] { 2, 3, 1 }, new BitSet()));
+        assertThrows(IllegalArgumentException.class, () -> new BstModel().restore(new int[] { 2, 1, 2 }, new BitSet()));
+        // A path of three is not AVL-balanced
+        assertThrows(IllegalArgumentException.class,
+                () -> new BstModel(Balance.AVL).restore(new int[] { 1, 2, 3 }, new BitSet()));
+        BitSet rootRed = new BitSet();
+        rootRed.set(0);
+        assertThrows(IllegalArgumentException.class,
+                () -> new BstModel(Balance.RED_BLACK).restore(new int[] { 2, 1, 3 }, rootRed));
+        BitSet redChain = new BitSet();
+        redChain.set(1);
+        redChain.set(2);
+        assertThrows(IllegalArgumentException.class,
+                () -> new BstModel(Balance.RED_BLACK).restore(new int[] { 3, 2, 1, 4 }, redChain));
+        // One black child on the left, none on the right
+        assertThrows(IllegalArgumentException.class,
+                () -> new BstModel(Balance.RED_BLACK).restore(new int[] { 2, 1 }, new BitSet()));
+
+        BstModel tree = new BstModel(Balance.AVL);
+        tree.insert(7);
+        assertThrows(IllegalArgumentException.class, () -> tree.restore(new int[] { 1, 2, 3 }, new BitSet()));
+        assertEquals(1, tree.size(), "A rejected restore leaves the tree as it was");
+        assertEquals(7, tree.getRoot().key());
+    }
+
+    // --- Invariants ---
+
+    /**
+     * Checks search order, parent links and size against the expected keys,
+     * then the shape the tree's balancing scheme promises.
+     */
+    private static void check(BstModel tree, TreeSet<Integer> expected) {
+        List<Integer> inorder = new ArrayList<>();
+        Node root = tree.getRoot();
+        if (root != null) {
+            assertNull(root.parent(), "root has a parent");
+        }
+        walk(root, inorder);
+        assertEquals(new ArrayList<>(expected), inorder);
+        assertEquals(expected.size(), tree.size());
+        for (int key : expected) {
+            assertEquals(key, tree.getNode(key).key());
+        }
+        switch (tree.getBalance()) {
+            case AVL:
+                assertEquals(avlHeight(root), tree.height());
+                break;
+            case RED_BLACK:
+                assertFalse(root != null && root.isRed(), "red root");
+                blackHeight(root);
+                break;
+            default:
+                for (Node node : preorder(tree)) {
+                    assertFalse(node.isRed(), "red node outside red-black mode");
+                }
+                break;
+        }
+    }
+
+    // In-order walk that also checks every child points back at its parent
+    private static void walk(Node node, List<Integer> keys) {
+        if (node == null) {
+            return;
+        }
+        if (node.left() != null) {
+            assertSame(node, node.left().parent(), "parent of " + node.left().key());
+        }
+        if (node.right() != null) {
+            assertSame(node, node.right().parent(), "parent of " + node.right().key());
+        }
+        walk(node.left(), keys);
+        keys.add(node.key());
+        walk(node.right(), keys);
+    }
+
+    // Height of a subtree, failing if any node's subtrees differ by more than one level
+    private static int avlHeight(Node node) {
+        if (node == null) {
+            return 0;
+        }
+        int left = avlHeight(node.left()), right = avlHeight(node.right());
+        assertTrue(Math.abs(left - right) <= 1, "unbalanced at " + node.key());
+        return Math.max(left, right) + 1;
+    }
+
+    // Black nodes on every path down, failing on a red node with a red child or unequal paths
+    private static int blackHeight(Node node) {
+        if (node == null) {
+            return 0;
+        }
+        if (node.isRed()) {
+            assertFalse(node.left() != null && node.left().isRed(), "red-red at " + node.key());
+            assertFalse(node.right() != null && node.right().isRed(), "red-red at " + node.key());
+        }
+        int left = blackHeight(node.left()), right = blackHeight(node.right());
+        assertEquals(left, right, "black heights differ below " + node.key());
+        return left + (node.isRed() ? 0 : 1);
+    }
+
+    private static List<Node> preorder(BstModel tree) {
+        List<Node> nodes = new ArrayList<>();
+        preorder(tree.getRoot(), nodes);
+        return nodes;
+    }
+
+    private static void preorder(Node node, List<Node> nodes) {
+        if (node != null) {
+            nodes.add(node);
+            preorder(node.left(), nodes);
+            preorder(node.right(), nodes);
+        }
+    }
+
+    private static Integer keyOf(Node node) {
+        return node == null ? null : node.key();
+    }
+
+    private static Set<Long> edgesOf(BstModel tree) {
+        Set<Long> edges = new HashSet<>();
+        for (Node node : preorder(tree)) {
+            if (node.parent() != null) {
+                edges.add(edge(node.parent().key(), node.key()));
+            }
+        }
+        return edges;
+    }
+
+    private static long edge(int parent, int child) {
+        return (long) parent << 32 | (child & 0xffffffffL);
+    }
+
+    // Keeps the edge set the events describe
+    private static final class EdgeTracker implements StructureListener {
+        final Set<Long> edges = new HashSet<>();
+
+        @Override
+        public void linked(int from, int to) {
+            edges.add(edge(from, to));
+        }
+
+        @Override
+        public void unlinked(int from, int to) {
+            edges.remove(edge(from, to));
+        }
+
+        @Override
+        public void cleared() {
+            edges.clear();
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.example.ds.core;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.PriorityQueue;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+import com.example.ds.core.MeldableHeapModel.Kind;
+import com.example.ds.core.MeldableHeapModel.Node;
+
+class MeldableHeapModelTest {
+
+    @Test
+    void eventsDescribeBothHeapsThroughMelds() {
+        for (Kind kind : Kind.values()) {
+            Random random = new Random(kind.ordinal());
+            MeldableHeapModel heap = MeldableHeapModel.create(kind, true);
+            MeldableHeapModel second = MeldableHeapModel.create(kind, true);
+            Tracker heapEvents = new Tracker(), secondEvents = new Tracker();
+            heap.addListener(heapEvents);
+            second.addListener(secondEvents);
+            PriorityQueue<Integer> expected = new PriorityQueue<>((a, b) -> Integer.compare(b, a));
+            PriorityQueue<Integer> staged = new PriorityQueue<>((a, b) -> Integer.compare(b, a));
+            for (int step = 0; step < 3000; step++) {
+                int choice = random.nextInt(10);
+                if (choice < 4) {
+                    int value = random.nextInt(100);
+                    heap.insert(value);
+                    expected.add(value);
+                } else if (choice < 6) {
+                    int[] values = random.ints(random.nextInt(6), 0, 100).toArray();
+                    second.insertAll(values);
+                    for (int value : values) {
+                        staged.add(value);
+                    }
+                } else if (choice < 7) {
+                    heap.meld(second);
+                    expected.addAll(staged);
+                    staged.clear();
+                } else if (!expected.isEmpty()) {
+                    assertEquals(expected.poll(), heap.removeRoot(), kind + " step " + step);
+                }
+                assertEquals(expected.size(), heap.size());
+                assertEquals(staged.size(), second.size());
+                heapEvents.check(heap, kind + " heap after step " + step);
+                secondEvents.check(second, kind + " second heap after step " + step);
+            }
+        }
+    }
+
+    @Test
+    void meldingAnEmptyHeapChangesNothing() {
+        MeldableHeapModel heap = MeldableHeapModel.create(Kind.PAIRING, false);
+        heap.insertAll(new int[] { 3, 1, 2 });
+        heap.meld(MeldableHeapModel.create(Kind.PAIRING, false));
+        assertEquals(3, heap.size());
+        assertEquals(1, heap.removeRoot());
+        assertEquals(2, heap.removeRoot());
+        assertEquals(3, heap.removeRoot());
+    }
+
+    // Keeps the ids and edges the events describe
+    private static final class Tracker implements StructureListener {
+        final Set<Integer> ids = new HashSet<>();
+        final Set<Long> edges = new HashSet<>();
+
+        @Override
+        public void inserted(int handle) {
+            assertTrue(ids.add(handle), "inserted twice: " + handle);
+        }
+
+        @Override
+        public void removed(int handle) {
+            assertTrue(ids.remove(handle), "removed unknown " + handle);
+        }
+
+        @Override
+        public void linked(int from, int to) {
+            assertTrue(ids.contains(from) && ids.contains(to), "linked unknown " + from + " -> " + to);
+            edges.add(edge(from, to));
+        }
+
+        @Override
+        public void unlinked(int from, int to) {
+            edges.remove(edge(from, to));
+        }
+
+        @Override
+        public void cleared() {
+            ids.clear();
+            edges.clear();
+        }
+
+        void check(MeldableHeapModel model, String message) {
+            Set<Integer> actualIds = new HashSet<>();
+            Set<Long> actualEdges = new HashSet<>();
+            Deque<Node> pending = new ArrayDeque<>();
+            if (model.getRoot() != null) {
+                pending.push(model.getRoot());
+            }
+            while (!pending.isEmpty()) {
+                Node node = pending.pop();
+                actualIds.add(node.id());
+                for (Node child : model.children(node)) {
+                    actualEdges.add(edge(node.id(), child.id()));
+                    pending.push(child);
+                }
+            }
+            assertEquals(actualIds, ids, message + ": ids");
+            assertEquals(actualEdges, edges, message + ": edges");
+        }
+    }
+
+    private static long edge(int parent, int child) {
+        return (long) parent << 32 | (child & 0xffffffffL);
+    }
+}
@@ -0,0 +1,272 @@
+package com.example.ds.core;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.function.IntFunction;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.example.ds.core.BstModel.Balance;
+import com.example.ds.core.BstModel.Node;
+
+class SnapshotTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void heapRoundTrip() throws IOException {
+        Random random = new Random(1);
+        for (int arity : new int[] { 2, 3, 4 }) {
+            for (boolean max : new boolean[] { false, true }) {
+                HeapModel heap = new HeapModel(max, arity);
+                for (int i = 0; i < 5000; i++) {
+                    heap.insert(random.nextInt());
+                }
+                heap.insert(Integer.MIN_VALUE);
+                heap.insert(Integer.MAX_VALUE);
+                Path file = dir.resolve("heap-" + arity + max);
+                Snapshot.write(file, heap);
+
+                Snapshot snapshot = Snapshot.read(file);
+                assertEquals(TraceOp.Structure.HEAP, snapshot.getStructure());
+                assertEquals(max, snapshot.isMaxHeap());
+                assertEquals(arity, snapshot.getArity());
+                assertEquals(heap.size(), snapshot.size());
+                HeapModel copy = new HeapModel(max, arity);
+                snapshot.restore(copy);
+                assertArrayEquals(heap.toArray(), copy.toArray());
+            }
+        }
+    }
+
+    @Test
+    void heapOfAnotherKindIsRefused() throws IOException {
+        HeapModel heap = new HeapModel(true, 3);
+        heap.insert(1);
+        Path file = dir.resolve("heap");
+        Snapshot.write(file, heap);
+        Snapshot snapshot = Snapshot.read(file);
+        assertThrows(IllegalArgumentException.class, () -> snapshot.restore(new HeapModel(false, 3)));
+        assertThrows(IllegalArgumentException.class, () -> snapshot.restore(new HeapModel(true, 2)));
+        assertThrows(IllegalArgumentException.class, () -> snapshot.restore(new BstModel()));
+        assertThrows(IllegalArgumentException.class, () -> snapshot.restore(new StackModel<String>()));
+    }
+
+    @Test
+    void treeRoundTrip() throws IOException {
+        Random random = new Random(2);
+        for (Balance balance : Balance.values()) {
+            // Sizes around a byte boundary of the colour bits, too
+            for (int size : new int[] { 1, 7, 8, 9, 3000 }) {
+                BstModel tree = new BstModel(balance);
+                while (tree.size() < size) {
+                    tree.insert(random.nextInt(100_000) - 50_000);
+                }
+                Path file = dir.resolve("tree-" + balance + size);
+                Snapshot.write(file, tree);
+
+                Snapshot snapshot = Snapshot.read(file);
+                assertEquals(TraceOp.Structure.BST, snapshot.getStructure());
+                assertEquals(balance, snapshot.getBalance());
+                assertEquals(size, snapshot.size());
+                BstModel copy = new BstModel(balance);
+                snapshot.restore(copy);
+                assertEquals(shape(tree.getRoot()), shape(copy.getRoot()), balance + " of " + size);
+            }
+        }
+    }
+
+    @Test
+    void redBlackColoursSurvive() throws IOException {
+        BstModel tree = new BstModel(Balance.RED_BLACK);
+        for (int key = 0; key < 100; key++) {
+            tree.insert(key);
+        }
+        Path file = dir.resolve("tree");
+        Snapshot.write(file, tree);
+        BstModel copy = new BstModel(Balance.RED_BLACK);
+        Snapshot.read(file).restore(copy);
+        String shape = shape(copy.getRoot());
+        assertTrue(shape.contains("r"), "sorted inserts leave red nodes: " + shape);
+        assertEquals(shape(tree.getRoot()), shape);
+        assertThrows(IllegalArgumentException.class, () -> Snapshot.read(file).restore(new BstModel(Balance.AVL)));
+    }
+
+    @Test
+    void valuesRoundTrip() throws IOException {
+        List<String> values = new ArrayList<>(Arrays.asList("", "a", "été", "😀", "x".repeat(127),
+                "y".repeat(128), "z".repeat(100_000)));
+        Random random = new Random(3);
+        for (int i = 0; i < 20_000; i++) {
+            values.add(Integer.toString(random.nextInt()));
+        }
+
+        StackModel<String> stack = new StackModel<>();
+        stack.pushAll(values);
+        Path file = dir.resolve("stack");
+        Snapshot.write(file, stack);
+        StackModel<String> stackCopy = new StackModel<>();
+        Snapshot.read(file).restore(stackCopy);
+        assertEquals(values, contents(stackCopy.size(), stackCopy::get));
+
+        QueueModel<String> queue = new QueueModel<>();
+        for (int i = 0; i < 50; i++) {
+            queue.enqueue("gone");
+        }
+        queue.enqueueAll(values);
+        for (int i = 0; i < 50; i++) {
+            queue.dequeue(); // Leave the front part-way into the buffer
+        }
+        file = dir.resolve("queue");
+        Snapshot.write(file, queue);
+        QueueModel<String> queueCopy = new QueueModel<>();
+        Snapshot.read(file).restore(queueCopy);
+        assertEquals(values, contents(queueCopy.size(), queueCopy::get));
+
+        LinkedListModel<String> list = new LinkedListModel<>();
+        list.addAll(values);
+        file = dir.resolve("list");
+        Snapshot.write(file, list);
+        LinkedListModel<String> listCopy = new LinkedListModel<>();
+        listCopy.add("replaced");
+        Snapshot.read(file).restore(listCopy);
+        assertEquals(values, contents(listCopy.size(), listCopy::get));
+    }
+
+    @Test
+    void emptyStructuresRoundTrip() throws IOException {
+        Path file = dir.resolve("empty");
+
+        Snapshot.write(file, new HeapModel(false));
+        HeapModel heap = new HeapModel(false);
+        heap.insert(5);
+        Snapshot.read(file).restore(heap);
+        assertEquals(0, heap.size());
+
+        for (Balance balance : Balance.values()) {
+            Snapshot.write(file, new BstModel(balance));
+            BstModel tree = new BstModel(balance);
+            tree.insert(5);
+            Snapshot.read(file).restore(tree);
+            assertEquals(0, tree.size());
+        }
+
+        Snapshot.write(file, new StackModel<String>());
+        StackModel<String> stack = new StackModel<>();
+        stack.push("5");
+        Snapshot.read(file).restore(stack);
+        assertEquals(0, stack.size());
+
+        Snapshot.write(file, new QueueModel<String>());
+        assertEquals(0, Snapshot.read(file).size());
+
+        Snapshot.write(file, new LinkedListModel<String>());
+        assertEquals(0, Snapshot.read(file).size());
+    }
+
+    @Test
+    void truncatedFilesAreRejected() throws IOException {
+        HeapModel heap = new HeapModel(false);
+        BstModel tree = new BstModel(Balance.RED_BLACK);
+        LinkedListModel<String> list = new LinkedListModel<>();
+        for (int i = 0; i < 20; i++) {
+            heap.insert(i);
+            tree.insert(i);
+            list.add("value " + i);
+        }
+        Path file = dir.resolve("whole");
+        Snapshot.write(file, heap);
+        assertEveryPrefixRejected(Files.readAllBytes(file));
+        Snapshot.write(file, tree);
+        assertEveryPrefixRejected(Files.readAllBytes(file));
+        Snapshot.write(file, list);
+        assertEveryPrefixRejected(Files.readAllBytes(file));
+    }
+
+    @Test
+    void corruptFilesAreRejected() throws IOException {
+        HeapModel heap = new HeapModel(false);
+        heap.insert(1);
+        Path file = dir.resolve("heap");
+        Snapshot.write(file, heap);
+        byte[] good = Files.readAllBytes(file);
+
+        assertRejected(patch(good, 0, 'X')); // Magic
+        assertRejected(patch(good, 4, 99)); // Version
+        assertRejected(patch(good, 5, 99)); // Structure
+        assertRejected(patch(good, 5, TraceOp.Structure.MELDABLE_HEAP.ordinal()));
+        assertRejected(Arrays.copyOf(good, good.length + 1)); // Trailing byte
+        ByteBuffer count = ByteBuffer.wrap(good.clone()).order(ByteOrder.LITTLE_ENDIAN);
+        count.putInt(8, -1);
+        assertRejected(count.array());
+        count.putInt(8, Integer.MAX_VALUE);
+        assertRejected(count.array());
+
+        BstModel tree = new BstModel();
+        tree.insert(1);
+        Snapshot.write(file, tree);
+        assertRejected(patch(Files.readAllBytes(file), 6, 99)); // Balance
+
+        LinkedListModel<String> list = new LinkedListModel<>();
+        list.add("a");
+        Snapshot.write(file, list);
+        byte[] values = Files.readAllBytes(file);
+        // A varint length that never ends
+        byte[] endless = Arrays.copyOf(values, values.length + 4);
+        Arrays.fill(endless, 10, endless.length, (byte) 0xff);
+        assertRejected(endless);
+        // A string length far beyond the file
+        ByteBuffer length = ByteBuffer.wrap(Arrays.copyOf(values, values.length + 4)).order(ByteOrder.LITTLE_ENDIAN);
+        length.position(10);
+        length.put(new byte[] { (byte) 0xfe, (byte) 0xff, (byte) 0xff, (byte) 0xff, 0x07 });
+        assertRejected(length.array());
+    }
+
+    private void assertEveryPrefixRejected(byte[] whole) throws IOException {
+        for (int length = 0; length < whole.length; length++) {
+            assertRejected(Arrays.copyOf(whole, length));
+        }
+    }
+
+    private void assertRejected(byte[] bytes) throws IOException {
+        Path file = dir.resolve("bad");
+        Files.write(file, bytes);
+        assertThrows(IOException.class, () -> Snapshot.read(file), () -> bytes.length + " bytes accepted");
+    }
+
+    private static byte[] patch(byte[] bytes, int index, int value) {
+        byte[] copy = bytes.clone();
+        copy[index] = (byte) value;
+        return copy;
+    }
+
+    private static List<String> contents(int size, IntFunction<String> get) {
+        List<String> values = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            values.add(get.apply(i));
+        }
+        return values;
+    }
+
+    // Parenthesised pre-order with colours, so equal strings mean equal trees
+    private static String shape(Node node) {
+        if (node == null) {
+            return "-";
+        }
+        return "(" + node.key() + (node.isRed() ? "r " : " ") + shape(node.left()) + " " + shape(node.right()) + ")";
+    }
+}
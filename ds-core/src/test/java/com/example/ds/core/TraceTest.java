@@ -0,0 +1,299 @@
+package com.example.ds.core;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class TraceTest {
+
+    private static final int[] EXTREMES = { 0, Integer.MIN_VALUE, Integer.MAX_VALUE, Integer.MIN_VALUE, -1,
+            Integer.MAX_VALUE, 1, Integer.MIN_VALUE + 1, Integer.MAX_VALUE - 1, 0 };
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void extremeDeltasRoundTrip() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (TraceWriter writer = new TraceWriter(Channels.newChannel(out))) {
+            for (int value : EXTREMES) {
+                writer.write(TraceOp.HEAP_INSERT, value);
+            }
+            writer.write(TraceOp.BST_INSERT_ALL, EXTREMES);
+            writer.write(TraceOp.LIST_INSERT_AT, "at", Integer.MIN_VALUE);
+            writer.write(TraceOp.HEAP_LOAD, "keys.txt", Integer.MAX_VALUE);
+            assertEquals(EXTREMES.length + 3, writer.getRecordCount());
+        }
+
+        try (TraceReader reader = reader(out.toByteArray())) {
+            for (int value : EXTREMES) {
+                assertTrue(reader.next());
+                assertEquals(TraceOp.HEAP_INSERT, reader.op());
+                assertEquals(value, reader.intOperand());
+            }
+            assertTrue(reader.next());
+            assertArrayEquals(EXTREMES, reader.intOperands());
+            assertTrue(reader.next());
+            assertEquals("at", reader.textOperand());
+            assertEquals(Integer.MIN_VALUE, reader.intOperand());
+            assertTrue(reader.next());
+            assertEquals("keys.txt", reader.textOperand());
+            assertEquals(Integer.MAX_VALUE, reader.intOperand());
+            assertFalse(reader.next());
+            assertEquals(EXTREMES.length + 3, reader.getRecordCount());
+        }
+    }
+
+    @Test
+    void randomRecordsRoundTripThroughAFile() throws IOException {
+        Random random = new Random(4);
+        List<Object[]> written = new ArrayList<>();
+        Path file = dir.resolve("trace");
+        try (TraceWriter writer = new TraceWriter(file)) {
+            for (int i = 0; i < 20_000; i++) {
+                Object[] record = randomRecord(random);
+                write(writer, record);
+                written.add(record);
+            }
+        }
+        try (TraceReader reader = new TraceReader(file)) {
+            for (Object[] record : written) {
+                assertTrue(reader.next());
+                assertRecord(record, reader);
+            }
+            assertFalse(reader.next());
+        }
+    }
+
+    @Test
+    void stringsLongerThanTheBufferRoundTrip() throws IOException {
+        String ascii = "a".repeat((1 << 16) + 1);
+        String wide = "é😀".repeat(50_000); // Multi-byte characters straddle buffer refills
+        List<String> list = Arrays.asList("x", ascii, "", wide);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (TraceWriter writer = new TraceWriter(Channels.newChannel(out))) {
+            writer.write(TraceOp.LIST_ADD, ascii);
+            writer.write(TraceOp.HEAP_INSERT, 7);
+            writer.write(TraceOp.STACK_PUSH, wide);
+            writer.write(TraceOp.QUEUE_ENQUEUE_ALL, list);
+            writer.write(TraceOp.BST_LOAD, wide, 3);
+        }
+        try (TraceReader reader = reader(out.toByteArray())) {
+            assertTrue(reader.next());
+            assertEquals(ascii, reader.textOperand());
+            assertTrue(reader.next());
+            assertEquals(7, reader.intOperand());
+            assertTrue(reader.next());
+            assertEquals(wide, reader.textOperand());
+            assertTrue(reader.next());
+            assertEquals(list, reader.textOperands());
+            assertTrue(reader.next());
+            assertEquals(wide, reader.textOperand());
+            assertEquals(3, reader.intOperand());
+            assertFalse(reader.next());
+        }
+    }
+
+    @Test
+    void truncatedFinalRecordIsAnError() throws IOException {
+        Random random = new Random(5);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        List<Object[]> written = new ArrayList<>();
+        List<Integer> ends = new ArrayList<>(); // Byte offset just past each record
+        try (TraceWriter writer = new TraceWriter(Channels.newChannel(out))) {
+            writer.flush();
+            ends.add(out.size());
+            for (int i = 0; i < 60; i++) {
+                Object[] record = randomRecord(random);
+                write(writer, record);
+                writer.flush();
+                written.add(record);
+                ends.add(out.size());
+            }
+        }
+        byte[] whole = out.toByteArray();
+        for (int record = 0; record < written.size(); record++) {
+            for (int length = ends.get(record); length < ends.get(record + 1); length++) {
+                try (TraceReader reader = reader(Arrays.copyOf(whole, length))) {
+                    for (int i = 0; i < record; i++) {
+                        assertTrue(reader.next());
+                        assertRecord(written.get(i), reader);
+                    }
+                    if (length == ends.get(record)) {
+                        assertFalse(reader.next(), "Cut on a record boundary is a clean end");
+                    } else {
+                        assertThrows(IOException.class, reader::next, "Cut " + length + " bytes in");
+                    }
+                }
+            }
+        }
+
+        // A long string cut off mid-way, across several buffer refills
+        out.reset();
+        try (TraceWriter writer = new TraceWriter(Channels.newChannel(out))) {
+            writer.write(TraceOp.LIST_ADD, "b".repeat(200_000));
+        }
+        byte[] cut = Arrays.copyOf(out.toByteArray(), 150_000);
+        try (TraceReader reader = reader(cut)) {
+            assertThrows(IOException.class, reader::next);
+        }
+    }
+
+    @Test
+    void badHeadersAndTagsAreRejected() throws IOException {
+        assertThrows(IOException.class, () -> reader(new byte[0]));
+        assertThrows(IOException.class, () -> reader(Arrays.copyOf(TraceWriter.MAGIC, 3)));
+        assertThrows(IOException.class, () -> reader(new byte[] { 'D', 'S', 'S', 'N', TraceWriter.VERSION }));
+        assertThrows(IOException.class, () -> reader(new byte[] { 'D', 'S', 'T', 'R', TraceWriter.VERSION - 1 }));
+
+        byte[] header = { 'D', 'S', 'T', 'R', TraceWriter.VERSION };
+        try (TraceReader reader = reader(header)) {
+            assertFalse(reader.next(), "A header alone is an empty trace");
+        }
+        byte[] unknownTag = Arrays.copyOf(header, header.length + 1);
+        unknownTag[header.length] = (byte) 0xff;
+        try (TraceReader reader = reader(unknownTag)) {
+            assertThrows(IOException.class, reader::next);
+        }
+    }
+
+    @Test
+    void hugeCountsAreRejectedWithoutAllocating() throws IOException {
+        byte[] nearMax = { (byte) 0xfe, (byte) 0xff, (byte) 0xff, (byte) 0xff, 0x07 }; // 2^31 - 2 as a varint
+        for (TraceOp op : new TraceOp[] { TraceOp.HEAP_INSERT_ALL, TraceOp.LIST_ADD_ALL, TraceOp.LIST_ADD,
+                TraceOp.BST_LOAD }) {
+            byte[] trace = { 'D', 'S', 'T', 'R', TraceWriter.VERSION, (byte) op.tag(), 0, 0, 0, 0, 0, 'x' };
+            System.arraycopy(nearMax, 0, trace, 6, nearMax.length);
+            try (TraceReader reader = reader(trace)) {
+                assertThrows(IOException.class, reader::next, op.toString());
+            }
+            Path file = dir.resolve("huge");
+            Files.write(file, trace);
+            try (TraceReader reader = new TraceReader(file)) {
+                assertThrows(IOException.class, reader::next, op + " from a file");
+            }
+        }
+    }
+
+    @Test
+    void operandMustMatchTheOperation() throws IOException {
+        try (TraceWriter writer = new TraceWriter(Channels.newChannel(new ByteArrayOutputStream()))) {
+            assertThrows(IllegalArgumentException.class, () -> writer.write(TraceOp.HEAP_INSERT, "1"));
+            assertThrows(IllegalArgumentException.class, () -> writer.write(TraceOp.HEAP_LOAD, "keys.txt"));
+            assertThrows(IllegalArgumentException.class, () -> writer.write(TraceOp.LIST_ADD));
+            assertEquals(0, writer.getRecordCount());
+        }
+    }
+
+    private static TraceReader reader(byte[] bytes) throws IOException {
+        return new TraceReader(Channels.newChannel(new ByteArrayInputStream(bytes)));
+    }
+
+    // --- Random records: the operation followed by its operand(s) ---
+
+    private static Object[] randomRecord(Random random) {
+        TraceOp[] ops = TraceOp.values();
+        TraceOp op = ops[random.nextInt(ops.length)];
+        switch (op.operand()) {
+            case INT:
+                return new Object[] { op, randomInt(random) };
+            case TEXT:
+                return new Object[] { op, randomText(random) };
+            case TEXT_AND_INT:
+                return new Object[] { op, randomText(random), randomInt(random) };
+            case INTS:
+                int[] ints = new int[random.nextInt(20)];
+                for (int i = 0; i < ints.length; i++) {
+                    ints[i] = randomInt(random);
+                }
+                return new Object[] { op, ints };
+            case TEXTS:
+                List<String> texts = new ArrayList<>();
+                for (int i = random.nextInt(5); i > 0; i--) {
+                    texts.add(randomText(random));
+                }
+                return new Object[] { op, texts };
+            default:
+                return new Object[] { op };
+        }
+    }
+
+    // Mostly nearby values, as in real traces, with the odd far jump
+    private static int randomInt(Random random) {
+        return random.nextInt(10) == 0 ? random.nextInt() : random.nextInt(200) - 100;
+    }
+
+    private static String randomText(Random random) {
+        StringBuilder text = new StringBuilder();
+        for (int i = random.nextInt(12); i > 0; i--) {
+            text.appendCodePoint(random.nextInt(4) == 0 ? 0x3b1 + random.nextInt(20) : 'a' + random.nextInt(26));
+        }
+        return text.toString();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void write(TraceWriter writer, Object[] record) throws IOException {
+        TraceOp op = (TraceOp) record[0];
+        switch (op.operand()) {
+            case INT:
+                writer.write(op, (int) record[1]);
+                break;
+            case TEXT:
+                writer.write(op, (String) record[1]);
+                break;
+            case TEXT_AND_INT:
+                writer.write(op, (String) record[1], (int) record[2]);
+                break;
+            case INTS:
+                writer.write(op, (int[]) record[1]);
+                break;
+            case TEXTS:
+                writer.write(op, (List<String>) record[1]);
+                break;
+            default:
+                writer.write(op);
+                break;
+        }
+    }
+
+    private static void assertRecord(Object[] record, TraceReader reader) {
+        TraceOp op = (TraceOp) record[0];
+        assertEquals(op, reader.op());
+        switch (op.operand()) {
+            case INT:
+                assertEquals(record[1], reader.intOperand());
+                break;
+            case TEXT:
+                assertEquals(record[1], reader.textOperand());
+                break;
+            case TEXT_AND_INT:
+                assertEquals(record[1], reader.textOperand());
+                assertEquals(record[2], reader.intOperand());
+                break;
+            case INTS:
+                assertArrayEquals((int[]) record[1], reader.intOperands());
+                break;
+            case TEXTS:
+                assertEquals(record[1], reader.textOperands());
+                break;
+            default:
+                break;
+        }
+    }
+}
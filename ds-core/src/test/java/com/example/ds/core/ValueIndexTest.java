@@ -0,0 +1,95 @@
+package com.example.ds.core;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class ValueIndexTest {
+
+    private static final int VALUES = 12; // Few distinct values, so most have several positions
+
+    @Test
+    void indexedSearchesMatchScans() {
+        for (long seed = 0; seed < 5; seed++) {
+            Random random = new Random(seed);
+            LinkedListModel<String> indexed = new LinkedListModel<>();
+            LinkedListModel<String> scanned = new LinkedListModel<>();
+            indexed.setIndexed(true);
+            assertTrue(indexed.isIndexed());
+            assertFalse(scanned.isIndexed());
+            for (int step = 0; step < 5000; step++) {
+                int choice = random.nextInt(20);
+                if (choice < 6) {
+                    String value = value(random);
+                    indexed.add(value);
+                    scanned.add(value);
+                } else if (choice < 11) {
+                    String value = value(random);
+                    int index = random.nextInt(scanned.size() + 1);
+                    indexed.insertAt(value, index);
+                    scanned.insertAt(value, index);
+                } else if (choice < 16 && scanned.size() > 0) {
+                    int index = random.nextInt(scanned.size());
+                    assertEquals(scanned.removeAt(index), indexed.removeAt(index));
+                } else if (choice < 18) {
+                    List<String> values = new ArrayList<>();
+                    for (int i = random.nextInt(6); i > 0; i--) {
+                        values.add(value(random));
+                    }
+                    indexed.addAll(values);
+                    scanned.addAll(values);
+                } else if (choice == 18 && random.nextInt(10) == 0) {
+                    indexed.clear();
+                    scanned.clear();
+                } else if (choice == 19) {
+                    // Rebuild from scratch: off, then on again over the current contents
+                    indexed.setIndexed(false);
+                    check(indexed, scanned);
+                    indexed.setIndexed(true);
+                }
+                check(indexed, scanned);
+            }
+        }
+    }
+
+    @Test
+    void turningTheIndexOnAfterwardsIndexesEverything() {
+        LinkedListModel<String> list = new LinkedListModel<>();
+        for (int i = 0; i < 100; i++) {
+            list.add(Integer.toString(i % 7));
+        }
+        int[] scanned = list.indexesOf("3");
+        list.setIndexed(true);
+        assertArrayEquals(scanned, list.indexesOf("3"));
+        assertEquals(14, list.count("3"));
+        assertEquals(3, list.indexOf("3"));
+        assertEquals(-1, list.indexOf("7"));
+        assertEquals(0, list.indexesOf("7").length);
+        assertEquals(0, list.count("7"));
+    }
+
+    private static void check(LinkedListModel<String> indexed, LinkedListModel<String> scanned) {
+        assertEquals(scanned.size(), indexed.size());
+        for (int i = 0; i < scanned.size(); i++) {
+            assertEquals(scanned.get(i), indexed.get(i));
+        }
+        // One value past the alphabet, which is never present
+        for (int v = 0; v <= VALUES; v++) {
+            String value = "v" + v;
+            assertEquals(scanned.indexOf(value), indexed.indexOf(value), value);
+            assertArrayEquals(scanned.indexesOf(value), indexed.indexesOf(value), value);
+            assertEquals(scanned.count(value), indexed.count(value), value);
+        }
+    }
+
+    private static String value(Random random) {
+        return "v" + random.nextInt(VALUES);
+    }
+}